@@ -0,0 +1,118 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BSON;
+import org.springframework.data.mongodb.core.query.AdaptiveBatchSize;
+import org.springframework.util.Assert;
+
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+
+/**
+ * {@link Iterator} over a {@link DBCursor} that adapts the cursor's batch size while iterating. The first document of
+ * every batch is sampled to maintain an average document size and the time spent in a call triggering a getMore is
+ * recorded. Both values are handed to the {@link AdaptiveBatchSize} to calculate the size of the next batch.
+ */
+class AdaptiveBatchSizingIterator implements Iterator<DBObject> {
+
+	private final DBCursor cursor;
+	private final AdaptiveBatchSize batchSize;
+
+	private int getMores = 0;
+	private long lastGetMoreMillis = 0;
+	private boolean sampleNext = true;
+	private long sampledBytes = 0;
+	private int samples = 0;
+
+	/**
+	 * Creates a new {@link AdaptiveBatchSizingIterator} for the given {@link DBCursor} and {@link AdaptiveBatchSize}.
+	 *
+	 * @param cursor must not be {@literal null}.
+	 * @param batchSize must not be {@literal null}.
+	 */
+	public AdaptiveBatchSizingIterator(DBCursor cursor, AdaptiveBatchSize batchSize) {
+
+		Assert.notNull(cursor);
+		Assert.notNull(batchSize);
+
+		this.cursor = cursor;
+		this.batchSize = batchSize;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.util.Iterator#hasNext()
+	 */
+	public boolean hasNext() {
+
+		long start = System.nanoTime();
+		boolean hasNext = cursor.hasNext();
+		recordGetMore(start);
+
+		return hasNext;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.util.Iterator#next()
+	 */
+	public DBObject next() {
+
+		long start = System.nanoTime();
+		DBObject object = cursor.next();
+		recordGetMore(start);
+
+		if (sampleNext && object != null) {
+
+			sampleNext = false;
+			sampledBytes += BSON.encode(object).length;
+			samples++;
+
+			cursor.batchSize(batchSize.adapt((int) (sampledBytes / samples), lastGetMoreMillis));
+		}
+
+		return object;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.util.Iterator#remove()
+	 */
+	public void remove() {
+		cursor.remove();
+	}
+
+	/**
+	 * Records the time elapsed since the given start if the cursor has issued a getMore in the meantime. Marks the next
+	 * document to be sampled in that case.
+	 *
+	 * @param start
+	 */
+	private void recordGetMore(long start) {
+
+		int currentGetMores = cursor.numGetMores();
+
+		if (currentGetMores > getMores) {
+			getMores = currentGetMores;
+			lastGetMoreMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			sampleNext = true;
+		}
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.WriteResult;
+
+/**
+ * Interface that specifies a basic set of MongoDB operations executed asynchronously. Every method returns immediately
+ * with a {@link Future} for the result of the corresponding {@link MongoOperations} method. If the operation fails the
+ * {@link java.util.concurrent.ExecutionException} thrown by {@link Future#get()} carries the same
+ * {@link org.springframework.dao.DataAccessException} the synchronous operation would have thrown.
+ * 
+ * @see MongoOperations
+ * @see AsyncMongoTemplate
+ */
+public interface AsyncMongoOperations {
+
+	/**
+	 * Returns the {@link MongoOperations} the operations are delegated to.
+	 * 
+	 * @return
+	 */
+	MongoOperations getMongoOperations();
+
+	/**
+	 * @see MongoOperations#find(Query, Class)
+	 */
+	<T> Future<List<T>> find(Query query, Class<T> entityClass);
+
+	/**
+	 * @see MongoOperations#find(Query, Class, String)
+	 */
+	<T> Future<List<T>> find(Query query, Class<T> entityClass, String collectionName);
+
+	/**
+	 * @see MongoOperations#findOne(Query, Class)
+	 */
+	<T> Future<T> findOne(Query query, Class<T> entityClass);
+
+	/**
+	 * @see MongoOperations#findOne(Query, Class, String)
+	 */
+	<T> Future<T> findOne(Query query, Class<T> entityClass, String collectionName);
+
+	/**
+	 * @see MongoOperations#findById(Object, Class)
+	 */
+	<T> Future<T> findById(Object id, Class<T> entityClass);
+
+	/**
+	 * @see MongoOperations#count(Query, Class)
+	 */
+	Future<Long> count(Query query, Class<?> entityClass);
+
+	/**
+	 * @see MongoOperations#count(Query, String)
+	 */
+	Future<Long> count(Query query, String collectionName);
+
+	/**
+	 * Inserts the given object. The {@link Future} returns the object with its id populated.
+	 * 
+	 * @see MongoOperations#insert(Object)
+	 */
+	<T> Future<T> insert(T objectToSave);
+
+	/**
+	 * Inserts the given object into the given collection. The {@link Future} returns the object with its id populated.
+	 * 
+	 * @see MongoOperations#insert(Object, String)
+	 */
+	<T> Future<T> insert(T objectToSave, String collectionName);
+
+	/**
+	 * Saves the given object. The {@link Future} returns the object with its id populated.
+	 * 
+	 * @see MongoOperations#save(Object)
+	 */
+	<T> Future<T> save(T objectToSave);
+
+	/**
+	 * Saves the given object into the given collection. The {@link Future} returns the object with its id populated.
+	 * 
+	 * @see MongoOperations#save(Object, String)
+	 */
+	<T> Future<T> save(T objectToSave, String collectionName);
+
+	/**
+	 * @see MongoOperations#upsert(Query, Update, Class)
+	 */
+	Future<WriteResult> upsert(Query query, Update update, Class<?> entityClass);
+
+	/**
+	 * @see MongoOperations#upsert(Query, Update, String)
+	 */
+	Future<WriteResult> upsert(Query query, Update update, String collectionName);
+
+	/**
+	 * @see MongoOperations#updateFirst(Query, Update, Class)
+	 */
+	Future<WriteResult> updateFirst(Query query, Update update, Class<?> entityClass);
+
+	/**
+	 * @see MongoOperations#updateFirst(Query, Update, String)
+	 */
+	Future<WriteResult> updateFirst(Query query, Update update, String collectionName);
+
+	/**
+	 * @see MongoOperations#updateMulti(Query, Update, Class)
+	 */
+	Future<WriteResult> updateMulti(Query query, Update update, Class<?> entityClass);
+
+	/**
+	 * @see MongoOperations#updateMulti(Query, Update, String)
+	 */
+	Future<WriteResult> updateMulti(Query query, Update update, String collectionName);
+
+	/**
+	 * @see MongoOperations#remove(Object)
+	 */
+	Future<Void> remove(Object object);
+
+	/**
+	 * @see MongoOperations#remove(Query, Class)
+	 */
+	Future<Void> remove(Query query, Class<?> entityClass);
+
+	/**
+	 * @see MongoOperations#remove(Query, String)
+	 */
+	Future<Void> remove(Query query, String collectionName);
+}
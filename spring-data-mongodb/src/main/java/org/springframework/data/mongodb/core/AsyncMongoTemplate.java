@@ -0,0 +1,405 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.util.Assert;
+
+import com.mongodb.WriteResult;
+
+/**
+ * {@link AsyncMongoOperations} implementation executing the operations of a {@link MongoOperations} instance on an
+ * {@link ExecutorService}. By default a fixed size thread pool with a bounded work queue is used. Once the queue is
+ * full, submitting further operations blocks the calling thread until a slot becomes available, so callers cannot
+ * pile up an unbounded backlog. Exceptions not already translated by the {@link MongoOperations} are translated
+ * through a {@link MongoExceptionTranslator}.
+ */
+public class AsyncMongoTemplate implements AsyncMongoOperations, DisposableBean {
+
+	public static final int DEFAULT_POOL_SIZE = 10;
+	public static final int DEFAULT_QUEUE_CAPACITY = 100;
+
+	private final MongoOperations operations;
+	private final ExecutorService executor;
+	private final boolean ownsExecutor;
+	private final PersistenceExceptionTranslator exceptionTranslator = new MongoExceptionTranslator();
+
+	/**
+	 * Creates a new {@link AsyncMongoTemplate} using a thread pool of {@value #DEFAULT_POOL_SIZE} threads and a queue of
+	 * {@value #DEFAULT_QUEUE_CAPACITY} operations.
+	 * 
+	 * @param operations must not be {@literal null}.
+	 */
+	public AsyncMongoTemplate(MongoOperations operations) {
+		this(operations, DEFAULT_POOL_SIZE, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * Creates a new {@link AsyncMongoTemplate} using a thread pool of the given size and a queue of the given capacity.
+	 * Submitting operations blocks while the queue is full.
+	 * 
+	 * @param operations must not be {@literal null}.
+	 * @param poolSize the number of threads executing operations, must be positive.
+	 * @param queueCapacity the number of operations waiting for execution, must be positive.
+	 */
+	public AsyncMongoTemplate(MongoOperations operations, int poolSize, int queueCapacity) {
+		this(operations, new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(queueCapacity), new BlockingSubmissionPolicy()), true);
+	}
+
+	/**
+	 * Creates a new {@link AsyncMongoTemplate} using the given {@link ExecutorService}. The {@link ExecutorService} is
+	 * not shut down on {@link #destroy()}.
+	 * 
+	 * @param operations must not be {@literal null}.
+	 * @param executor must not be {@literal null}.
+	 */
+	public AsyncMongoTemplate(MongoOperations operations, ExecutorService executor) {
+		this(operations, executor, false);
+	}
+
+	private AsyncMongoTemplate(MongoOperations operations, ExecutorService executor, boolean ownsExecutor) {
+
+		Assert.notNull(operations);
+		Assert.notNull(executor);
+
+		this.operations = operations;
+		this.executor = executor;
+		this.ownsExecutor = ownsExecutor;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#getMongoOperations()
+	 */
+	public MongoOperations getMongoOperations() {
+		return operations;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#find(org.springframework.data.mongodb.core.query.Query, java.lang.Class)
+	 */
+	public <T> Future<List<T>> find(final Query query, final Class<T> entityClass) {
+		return submit(new Operation<List<T>>() {
+			List<T> doInOperations() {
+				return operations.find(query, entityClass);
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#find(org.springframework.data.mongodb.core.query.Query, java.lang.Class, java.lang.String)
+	 */
+	public <T> Future<List<T>> find(final Query query, final Class<T> entityClass, final String collectionName) {
+		return submit(new Operation<List<T>>() {
+			List<T> doInOperations() {
+				return operations.find(query, entityClass, collectionName);
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#findOne(org.springframework.data.mongodb.core.query.Query, java.lang.Class)
+	 */
+	public <T> Future<T> findOne(final Query query, final Class<T> entityClass) {
+		return submit(new Operation<T>() {
+			T doInOperations() {
+				return operations.findOne(query, entityClass);
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#findOne(org.springframework.data.mongodb.core.query.Query, java.lang.Class, java.lang.String)
+	 */
+	public <T> Future<T> findOne(final Query query, final Class<T> entityClass, final String collectionName) {
+		return submit(new Operation<T>() {
+			T doInOperations() {
+				return operations.findOne(query, entityClass, collectionName);
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#findById(java.lang.Object, java.lang.Class)
+	 */
+	public <T> Future<T> findById(final Object id, final Class<T> entityClass) {
+		return submit(new Operation<T>() {
+			T doInOperations() {
+				return operations.findById(id, entityClass);
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#count(org.springframework.data.mongodb.core.query.Query, java.lang.Class)
+	 */
+	public Future<Long> count(final Query query, final Class<?> entityClass) {
+		return submit(new Operation<Long>() {
+			Long doInOperations() {
+				return operations.count(query, entityClass);
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#count(org.springframework.data.mongodb.core.query.Query, java.lang.String)
+	 */
+	public Future<Long> count(final Query query, final String collectionName) {
+		return submit(new Operation<Long>() {
+			Long doInOperations() {
+				return operations.count(query, collectionName);
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#insert(java.lang.Object)
+	 */
+	public <T> Future<T> insert(final T objectToSave) {
+		return submit(new Operation<T>() {
+			T doInOperations() {
+				operations.insert(objectToSave);
+				return objectToSave;
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#insert(java.lang.Object, java.lang.String)
+	 */
+	public <T> Future<T> insert(final T objectToSave, final String collectionName) {
+		return submit(new Operation<T>() {
+			T doInOperations() {
+				operations.insert(objectToSave, collectionName);
+				return objectToSave;
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#save(java.lang.Object)
+	 */
+	public <T> Future<T> save(final T objectToSave) {
+		return submit(new Operation<T>() {
+			T doInOperations() {
+				operations.save(objectToSave);
+				return objectToSave;
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#save(java.lang.Object, java.lang.String)
+	 */
+	public <T> Future<T> save(final T objectToSave, final String collectionName) {
+		return submit(new Operation<T>() {
+			T doInOperations() {
+				operations.save(objectToSave, collectionName);
+				return objectToSave;
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#upsert(org.springframework.data.mongodb.core.query.Query, org.springframework.data.mongodb.core.query.Update, java.lang.Class)
+	 */
+	public Future<WriteResult> upsert(final Query query, final Update update, final Class<?> entityClass) {
+		return submit(new Operation<WriteResult>() {
+			WriteResult doInOperations() {
+				return operations.upsert(query, update, entityClass);
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#upsert(org.springframework.data.mongodb.core.query.Query, org.springframework.data.mongodb.core.query.Update, java.lang.String)
+	 */
+	public Future<WriteResult> upsert(final Query query, final Update update, final String collectionName) {
+		return submit(new Operation<WriteResult>() {
+			WriteResult doInOperations() {
+				return operations.upsert(query, update, collectionName);
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#updateFirst(org.springframework.data.mongodb.core.query.Query, org.springframework.data.mongodb.core.query.Update, java.lang.Class)
+	 */
+	public Future<WriteResult> updateFirst(final Query query, final Update update, final Class<?> entityClass) {
+		return submit(new Operation<WriteResult>() {
+			WriteResult doInOperations() {
+				return operations.updateFirst(query, update, entityClass);
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#updateFirst(org.springframework.data.mongodb.core.query.Query, org.springframework.data.mongodb.core.query.Update, java.lang.String)
+	 */
+	public Future<WriteResult> updateFirst(final Query query, final Update update, final String collectionName) {
+		return submit(new Operation<WriteResult>() {
+			WriteResult doInOperations() {
+				return operations.updateFirst(query, update, collectionName);
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#updateMulti(org.springframework.data.mongodb.core.query.Query, org.springframework.data.mongodb.core.query.Update, java.lang.Class)
+	 */
+	public Future<WriteResult> updateMulti(final Query query, final Update update, final Class<?> entityClass) {
+		return submit(new Operation<WriteResult>() {
+			WriteResult doInOperations() {
+				return operations.updateMulti(query, update, entityClass);
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#updateMulti(org.springframework.data.mongodb.core.query.Query, org.springframework.data.mongodb.core.query.Update, java.lang.String)
+	 */
+	public Future<WriteResult> updateMulti(final Query query, final Update update, final String collectionName) {
+		return submit(new Operation<WriteResult>() {
+			WriteResult doInOperations() {
+				return operations.updateMulti(query, update, collectionName);
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#remove(java.lang.Object)
+	 */
+	public Future<Void> remove(final Object object) {
+		return submit(new Operation<Void>() {
+			Void doInOperations() {
+				operations.remove(object);
+				return null;
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#remove(org.springframework.data.mongodb.core.query.Query, java.lang.Class)
+	 */
+	public Future<Void> remove(final Query query, final Class<?> entityClass) {
+		return submit(new Operation<Void>() {
+			Void doInOperations() {
+				operations.remove(query, entityClass);
+				return null;
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.AsyncMongoOperations#remove(org.springframework.data.mongodb.core.query.Query, java.lang.String)
+	 */
+	public Future<Void> remove(final Query query, final String collectionName) {
+		return submit(new Operation<Void>() {
+			Void doInOperations() {
+				operations.remove(query, collectionName);
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Shuts down the thread pool if it was created by the template, letting already submitted operations complete.
+	 * 
+	 * @see org.springframework.beans.factory.DisposableBean#destroy()
+	 */
+	public void destroy() throws Exception {
+		if (ownsExecutor) {
+			executor.shutdown();
+		}
+	}
+
+	private <T> Future<T> submit(Operation<T> operation) {
+		return executor.submit(operation);
+	}
+
+	/**
+	 * {@link Callable} translating {@link RuntimeException}s not already translated by the {@link MongoOperations}.
+	 */
+	private abstract class Operation<T> implements Callable<T> {
+
+		abstract T doInOperations();
+
+		public T call() throws Exception {
+
+			try {
+				return doInOperations();
+			} catch (RuntimeException e) {
+				DataAccessException translated = exceptionTranslator.translateExceptionIfPossible(e);
+				throw translated == null ? e : translated;
+			}
+		}
+	}
+
+	/**
+	 * {@link RejectedExecutionHandler} blocking the submitting thread until the work queue has room for the operation.
+	 */
+	private static class BlockingSubmissionPolicy implements RejectedExecutionHandler {
+
+		public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+
+			if (executor.isShutdown()) {
+				throw new RejectedExecutionException("Executor has been shut down!");
+			}
+
+			try {
+				executor.getQueue().put(runnable);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RejectedExecutionException(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import java.lang.reflect.Array;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.bson.BSONObject;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+
+/**
+ * Estimates the size of the BSON representation of a document without encoding it. Sizes are exact for the types the
+ * {@link org.springframework.data.mongodb.core.convert.MongoConverter} writes and a rough guess for any other type.
+ */
+abstract class BsonSizeEstimator {
+
+	private static final int UNKNOWN_VALUE_SIZE = 16;
+
+	private BsonSizeEstimator() {
+	}
+
+	/**
+	 * Returns the estimated number of bytes of the BSON representation of the given document.
+	 *
+	 * @param document must not be {@literal null}.
+	 * @return
+	 */
+	public static long estimate(BSONObject document) {
+
+		long size = 5;
+
+		for (String key : document.keySet()) {
+			size += 2 + utf8Length(key) + estimateValue(document.get(key));
+		}
+
+		return size;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static long estimateValue(Object value) {
+
+		if (value == null || value instanceof Boolean) {
+			return value == null ? 0 : 1;
+		}
+
+		if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			return 4;
+		}
+
+		if (value instanceof Number || value instanceof Date) {
+			return 8;
+		}
+
+		if (value instanceof String || value instanceof Character) {
+			return 5 + utf8Length(value.toString());
+		}
+
+		if (value instanceof ObjectId) {
+			return 12;
+		}
+
+		if (value instanceof BSONObject) {
+			return estimate((BSONObject) value);
+		}
+
+		if (value instanceof Map) {
+			return estimateMap((Map<Object, Object>) value);
+		}
+
+		if (value instanceof Iterable) {
+			long size = 5;
+			int index = 0;
+			for (Object element : (Iterable<Object>) value) {
+				size += 2 + Integer.toString(index++).length() + estimateValue(element);
+			}
+			return size;
+		}
+
+		if (value instanceof byte[]) {
+			return 5 + ((byte[]) value).length;
+		}
+
+		if (value instanceof Binary) {
+			return 5 + ((Binary) value).length();
+		}
+
+		if (value.getClass().isArray()) {
+			long size = 5;
+			int length = Array.getLength(value);
+			for (int i = 0; i < length; i++) {
+				size += 2 + Integer.toString(i).length() + estimateValue(Array.get(value, i));
+			}
+			return size;
+		}
+
+		if (value instanceof Pattern) {
+			return 2 + utf8Length(((Pattern) value).pattern()) + 4;
+		}
+
+		if (value instanceof UUID) {
+			return 21;
+		}
+
+		return UNKNOWN_VALUE_SIZE;
+	}
+
+	private static long estimateMap(Map<Object, Object> map) {
+
+		long size = 5;
+
+		for (Map.Entry<Object, Object> entry : map.entrySet()) {
+			size += 2 + utf8Length(String.valueOf(entry.getKey())) + estimateValue(entry.getValue());
+		}
+
+		return size;
+	}
+
+	private static int utf8Length(String string) {
+
+		int length = 0;
+
+		for (int i = 0; i < string.length(); i++) {
+
+			char c = string.charAt(i);
+
+			if (c < 0x80) {
+				length++;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(c)) {
+				length += 4;
+				i++;
+			} else {
+				length += 3;
+			}
+		}
+
+		return length;
+	}
+}
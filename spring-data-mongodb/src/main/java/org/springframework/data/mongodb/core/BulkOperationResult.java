@@ -0,0 +1,102 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import org.springframework.data.mongodb.core.BulkOperations.OperationType;
+
+/**
+ * The outcome of a single operation executed through {@link BulkOperations}. The operations of a batch are
+ * acknowledged together once the batch has been sent, unless neither the {@link com.mongodb.WriteConcern} nor the
+ * {@link WriteResultChecking} call for acknowledgement. As the server only reports the most recent error of a batch,
+ * the operations sent before a failing one aren't acknowledged. The number of documents affected by an operation isn't
+ * reported.
+ */
+public class BulkOperationResult {
+
+	private final OperationType type;
+	private final int index;
+	private final int batch;
+	private final Object id;
+	private final boolean acknowledged;
+	private final String error;
+
+	BulkOperationResult(OperationType type, int index, int batch, Object id, boolean acknowledged, String error) {
+
+		this.type = type;
+		this.index = index;
+		this.batch = batch;
+		this.id = id;
+		this.acknowledged = acknowledged;
+		this.error = error;
+	}
+
+	/**
+	 * @return the type of the operation.
+	 */
+	public OperationType getType() {
+		return type;
+	}
+
+	/**
+	 * @return the zero-based position the operation was queued at.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return the zero-based number of the batch the operation was sent with.
+	 */
+	public int getBatch() {
+		return batch;
+	}
+
+	/**
+	 * @return the id of the saved or inserted document or {@literal null} if the operation is neither a save nor an
+	 *         insert or failed.
+	 */
+	public Object getId() {
+		return id;
+	}
+
+	/**
+	 * @return whether the server acknowledged the operation.
+	 */
+	public boolean isAcknowledged() {
+		return acknowledged;
+	}
+
+	/**
+	 * Returns the error reported by the server for this operation. Only operations executed with
+	 * {@link WriteResultChecking#LOG} and an unacknowledged {@link com.mongodb.WriteConcern} can fail without the
+	 * execution being aborted by an exception.
+	 * 
+	 * @return the error message or {@literal null} if the operation succeeded or wasn't acknowledged.
+	 */
+	public String getError() {
+		return error;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "BulkOperationResult [type=" + type + ", index=" + index + ", batch=" + batch + ", error=" + error
+				+ "]";
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Queues mixed inserts, updates, upserts and removes against a single collection and sends them to the database in
+ * batches. Queries and updates are mapped once when being queued and each batch is sent on a single connection without
+ * waiting for the server in between. A batch is then acknowledged by a single round trip, plus one awaiting the
+ * {@link com.mongodb.WriteConcern} resolved for {@link MongoActionOperation#BULK} if it asks for replication or fsync.
+ * A failing operation is identified without re-sending any write, see {@link BulkOperationResult}. Only if neither the
+ * {@link com.mongodb.WriteConcern} nor the {@link WriteResultChecking} call for acknowledgement, nothing is awaited.
+ * <p/>
+ * Instances are obtained from {@link MongoOperations#bulkOps(Class)} and friends and are not thread-safe.
+ *
+ * @see MongoOperations#bulkOps(Class)
+ */
+public interface BulkOperations {
+
+	/**
+	 * The kinds of operations that can be queued.
+	 */
+	enum OperationType {
+		INSERT, SAVE, UPDATE_ONE, UPDATE_MULTI, UPSERT, REMOVE
+	}
+
+	/**
+	 * Queues the insert of the given object.
+	 *
+	 * @param object must not be {@literal null}.
+	 * @return the current {@link BulkOperations}.
+	 */
+	BulkOperations insert(Object object);
+
+	/**
+	 * Queues the insert of all of the given objects.
+	 *
+	 * @param objects must not be {@literal null}.
+	 * @return the current {@link BulkOperations}.
+	 */
+	BulkOperations insert(List<? extends Object> objects);
+
+	/**
+	 * Queues the save of the given object, i.e. an upsert replacing the document with the object's id. Objects without
+	 * an id are queued as inserts.
+	 *
+	 * @param object must not be {@literal null}.
+	 * @return the current {@link BulkOperations}.
+	 */
+	BulkOperations save(Object object);
+
+	/**
+	 * Queues an update of the first document matching the given {@link Query}.
+	 *
+	 * @param query must not be {@literal null}.
+	 * @param update must not be {@literal null}.
+	 * @return the current {@link BulkOperations}.
+	 */
+	BulkOperations updateOne(Query query, Update update);
+
+	/**
+	 * Queues an update of all documents matching the given {@link Query}.
+	 *
+	 * @param query must not be {@literal null}.
+	 * @param update must not be {@literal null}.
+	 * @return the current {@link BulkOperations}.
+	 */
+	BulkOperations updateMulti(Query query, Update update);
+
+	/**
+	 * Queues an update of the first document matching the given {@link Query} which creates the document if none
+	 * matches.
+	 *
+	 * @param query must not be {@literal null}.
+	 * @param update must not be {@literal null}.
+	 * @return the current {@link BulkOperations}.
+	 */
+	BulkOperations upsert(Query query, Update update);
+
+	/**
+	 * Queues the removal of all documents matching the given {@link Query}.
+	 *
+	 * @param query must not be {@literal null}.
+	 * @return the current {@link BulkOperations}.
+	 */
+	BulkOperations remove(Query query);
+
+	/**
+	 * Configures the maximum number of operations sent on a single connection.
+	 *
+	 * @param batchSize must be greater than zero.
+	 * @return the current {@link BulkOperations}.
+	 */
+	BulkOperations batchSize(int batchSize);
+
+	/**
+	 * Sends all queued operations to the database and clears the queue. An operation failing with an acknowledging
+	 * {@link com.mongodb.WriteConcern} stops the execution with the same {@link org.springframework.dao.DataAccessException}
+	 * the corresponding single write would raise, e.g. a {@link org.springframework.dao.DuplicateKeyException}, as does
+	 * any error if {@link WriteResultChecking#EXCEPTION} is configured. The batches following the one containing the
+	 * failing operation are not sent, while the other operations of that batch have already been sent.
+	 *
+	 * @return a {@link BulkOperationResult} for every operation queued, in the order they were queued.
+	 */
+	List<BulkOperationResult> execute();
+}
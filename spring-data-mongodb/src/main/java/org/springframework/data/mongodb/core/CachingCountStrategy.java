@@ -0,0 +1,123 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.util.Assert;
+
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+
+/**
+ * {@link CountStrategy} caching the counts determined by a delegate for a configurable time. Counts are cached per
+ * collection and query, i.e. the same predicate with different values results in different entries. Use this for
+ * totals that are displayed to users but do not need to be exact, like the number of pages of a result.
+ */
+public class CachingCountStrategy implements CountStrategy {
+
+	public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+	private final CountStrategy delegate;
+	private final long timeToLiveMillis;
+	private final int maxEntries;
+	private final Map<String, CachedCount> cache = new ConcurrentHashMap<String, CachedCount>();
+
+	/**
+	 * Creates a new {@link CachingCountStrategy} caching exact counts for the given time.
+	 *
+	 * @param timeToLiveMillis the time in milliseconds a count is cached, must be positive.
+	 */
+	public CachingCountStrategy(long timeToLiveMillis) {
+		this(new ExactCountStrategy(), timeToLiveMillis, DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * Creates a new {@link CachingCountStrategy}.
+	 *
+	 * @param delegate the {@link CountStrategy} to determine the counts to be cached, must not be {@literal null}.
+	 * @param timeToLiveMillis the time in milliseconds a count is cached, must be positive.
+	 * @param maxEntries the maximum number of counts cached, must be positive.
+	 */
+	public CachingCountStrategy(CountStrategy delegate, long timeToLiveMillis, int maxEntries) {
+
+		Assert.notNull(delegate);
+		Assert.isTrue(timeToLiveMillis > 0, "Time to live must be positive!");
+		Assert.isTrue(maxEntries > 0, "Maximum number of entries must be positive!");
+
+		this.delegate = delegate;
+		this.timeToLiveMillis = timeToLiveMillis;
+		this.maxEntries = maxEntries;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.CountStrategy#count(com.mongodb.DBCollection, com.mongodb.DBObject)
+	 */
+	public long count(DBCollection collection, DBObject query) {
+
+		String key = collection.getFullName() + ":" + query;
+		long now = System.currentTimeMillis();
+		CachedCount cached = cache.get(key);
+
+		if (cached != null && cached.expires > now) {
+			return cached.count;
+		}
+
+		long count = delegate.count(collection, query);
+
+		if (cache.size() >= maxEntries) {
+			evictExpired(now);
+		}
+
+		if (cache.size() < maxEntries) {
+			cache.put(key, new CachedCount(count, now + timeToLiveMillis));
+		}
+
+		return count;
+	}
+
+	/**
+	 * Removes all cached counts.
+	 */
+	public void clear() {
+		cache.clear();
+	}
+
+	private void evictExpired(long now) {
+
+		Iterator<CachedCount> iterator = cache.values().iterator();
+
+		while (iterator.hasNext()) {
+			if (iterator.next().expires <= now) {
+				iterator.remove();
+			}
+		}
+	}
+
+	private static class CachedCount {
+
+		private final long count;
+		private final long expires;
+
+		public CachedCount(long count, long expires) {
+			this.count = count;
+			this.expires = expires;
+		}
+	}
+}
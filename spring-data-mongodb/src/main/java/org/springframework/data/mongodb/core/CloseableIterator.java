@@ -0,0 +1,34 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import java.util.Iterator;
+
+/**
+ * An {@link Iterator} that is backed by a server side resource (usually a {@link com.mongodb.DBCursor}) and thus has to
+ * be closed once the client is done with it. Implementations release the resource automatically once the last element
+ * was consumed or an error occurred but clients iterating only parts of the result have to call {@link #close()}
+ * explicitly.
+ *
+ * @param <T> the type of the elements returned
+ */
+public interface CloseableIterator<T> extends Iterator<T> {
+
+	/**
+	 * Closes the underlying resource. Calling this method multiple times is a no-op.
+	 */
+	void close();
+}
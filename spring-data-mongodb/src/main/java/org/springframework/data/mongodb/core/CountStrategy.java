@@ -0,0 +1,40 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+
+/**
+ * Strategy interface to determine the number of documents matching a query. Used by {@link MongoTemplate} for all
+ * count operations and thus for the totals of repository {@link org.springframework.data.domain.Page}s.
+ *
+ * @see ExactCountStrategy
+ * @see CachingCountStrategy
+ * @see EstimatedCountStrategy
+ */
+public interface CountStrategy {
+
+	/**
+	 * Returns the number of documents in the given collection matching the given query.
+	 *
+	 * @param collection the {@link DBCollection} to count the documents of, will never be {@literal null}.
+	 * @param query the already mapped query, will never be {@literal null} but might be empty.
+	 * @return
+	 */
+	long count(DBCollection collection, DBObject query) throws MongoException;
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.data.mongodb.core.reactive.Publisher;
+import org.springframework.data.mongodb.core.reactive.Subscriber;
+import org.springframework.data.mongodb.core.reactive.Subscription;
+import org.springframework.util.Assert;
+
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+
+/**
+ * {@link Publisher} reading the documents of a {@link DBCursor} according to subscriber demand. Every subscription
+ * opens its own cursor on the first request. Documents are read on the I/O {@link Executor} only while there is
+ * outstanding demand, and the cursor's batch size is set to that demand, so getMore requests are issued no earlier and
+ * are no larger than needed. The documents read are converted and handed to the {@link Subscriber} on the conversion
+ * {@link Executor}. Cancelling closes the cursor, which kills it on the server.
+ */
+class CursorPublisher<T> implements Publisher<T> {
+
+	private final CursorSource source;
+	private final MongoTemplate.DbObjectCallback<T> callback;
+	private final Executor ioExecutor;
+	private final Executor conversionExecutor;
+	private final PersistenceExceptionTranslator exceptionTranslator;
+	private final int maxBatchSize;
+
+	/**
+	 * Creates a new {@link CursorPublisher}.
+	 * 
+	 * @param source opens the cursor to read documents from, must not be {@literal null}.
+	 * @param callback converts documents into the elements published, must not be {@literal null}.
+	 * @param ioExecutor the {@link Executor} to read documents on, must not be {@literal null}.
+	 * @param conversionExecutor the {@link Executor} to convert and publish documents on, must not be {@literal null}.
+	 * @param exceptionTranslator must not be {@literal null}.
+	 * @param maxBatchSize the maximum number of documents fetched with a single request, 0 for no limit.
+	 */
+	public CursorPublisher(CursorSource source, MongoTemplate.DbObjectCallback<T> callback, Executor ioExecutor,
+			Executor conversionExecutor, PersistenceExceptionTranslator exceptionTranslator, int maxBatchSize) {
+
+		Assert.notNull(source);
+		Assert.notNull(callback);
+		Assert.notNull(ioExecutor);
+		Assert.notNull(conversionExecutor);
+		Assert.notNull(exceptionTranslator);
+
+		this.source = source;
+		this.callback = callback;
+		this.ioExecutor = ioExecutor;
+		this.conversionExecutor = conversionExecutor;
+		this.exceptionTranslator = exceptionTranslator;
+		this.maxBatchSize = maxBatchSize > 0 ? maxBatchSize : Integer.MAX_VALUE;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.reactive.Publisher#subscribe(org.springframework.data.mongodb.core.reactive.Subscriber)
+	 */
+	public void subscribe(Subscriber<? super T> subscriber) {
+
+		Assert.notNull(subscriber);
+		subscriber.onSubscribe(new CursorSubscription(subscriber));
+	}
+
+	/**
+	 * Callback to open the {@link DBCursor} for a subscription.
+	 */
+	interface CursorSource {
+
+		DBCursor open();
+	}
+
+	/**
+	 * A single subscription. Reading is serialized on the I/O {@link Executor}, converting and signalling on the
+	 * conversion {@link Executor}, each by a work-in-progress counter.
+	 */
+	private class CursorSubscription implements Subscription {
+
+		private final Subscriber<? super T> subscriber;
+
+		private final AtomicLong toFetch = new AtomicLong();
+		private final AtomicLong toEmit = new AtomicLong();
+		private final Queue<DBObject> buffer = new ConcurrentLinkedQueue<DBObject>();
+
+		private final AtomicInteger fetchWip = new AtomicInteger();
+		private final AtomicInteger emitWip = new AtomicInteger();
+
+		private volatile boolean cancelled = false;
+		private volatile boolean exhausted = false;
+		private volatile RuntimeException error;
+		private volatile boolean terminated = false;
+
+		private DBCursor cursor;
+		private boolean cursorClosed = false;
+
+		public CursorSubscription(Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.data.mongodb.core.reactive.Subscription#request(long)
+		 */
+		public void request(long n) {
+
+			if (cancelled || terminated) {
+				return;
+			}
+
+			if (n <= 0) {
+				error = new IllegalArgumentException("Requested number of elements must be positive but was " + n + "!");
+				exhausted = true;
+				scheduleFetch();
+				scheduleEmit();
+				return;
+			}
+
+			add(toFetch, n);
+			add(toEmit, n);
+
+			scheduleFetch();
+			scheduleEmit();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.data.mongodb.core.reactive.Subscription#cancel()
+		 */
+		public void cancel() {
+
+			cancelled = true;
+			terminated = true;
+			buffer.clear();
+			scheduleFetch();
+		}
+
+		private void scheduleFetch() {
+
+			if (fetchWip.getAndIncrement() != 0) {
+				return;
+			}
+
+			ioExecutor.execute(new Runnable() {
+				public void run() {
+
+					int missed = 1;
+
+					do {
+						fetch();
+						missed = fetchWip.addAndGet(-missed);
+					} while (missed != 0);
+				}
+			});
+		}
+
+		private void scheduleEmit() {
+
+			if (emitWip.getAndIncrement() != 0) {
+				return;
+			}
+
+			conversionExecutor.execute(new Runnable() {
+				public void run() {
+
+					int missed = 1;
+
+					do {
+						emit();
+						missed = emitWip.addAndGet(-missed);
+					} while (missed != 0);
+				}
+			});
+		}
+
+		/**
+		 * Reads documents as long as there's demand not yet fetched. Only ever invoked by a single thread at a time.
+		 */
+		private void fetch() {
+
+			try {
+
+				if (cursor == null && !cancelled && !exhausted) {
+					cursor = source.open();
+				}
+
+				while (!cancelled && !exhausted && toFetch.get() > 0) {
+
+					cursor.batchSize((int) Math.min(toFetch.get(), maxBatchSize));
+
+					if (!cursor.hasNext()) {
+						exhausted = true;
+						break;
+					}
+
+					buffer.offer(cursor.next());
+					toFetch.decrementAndGet();
+					scheduleEmit();
+				}
+
+			} catch (RuntimeException e) {
+				error = potentiallyConvertRuntimeException(e);
+				exhausted = true;
+			}
+
+			if (cancelled || exhausted) {
+				closeCursor();
+				scheduleEmit();
+			}
+		}
+
+		/**
+		 * Converts and publishes buffered documents as long as there's demand and signals termination. Only ever invoked
+		 * by a single thread at a time.
+		 */
+		private void emit() {
+
+			while (!cancelled && !terminated && error == null && toEmit.get() > 0) {
+
+				DBObject document = buffer.poll();
+
+				if (document == null) {
+					break;
+				}
+
+				T element;
+
+				try {
+					element = callback.doWith(document);
+				} catch (RuntimeException e) {
+					error = potentiallyConvertRuntimeException(e);
+					cancelled = true;
+					scheduleFetch();
+					break;
+				}
+
+				toEmit.decrementAndGet();
+				subscriber.onNext(element);
+			}
+
+			if (terminated) {
+				return;
+			}
+
+			if (error != null) {
+				terminated = true;
+				buffer.clear();
+				subscriber.onError(error);
+			} else if (!cancelled && exhausted && buffer.isEmpty()) {
+				terminated = true;
+				subscriber.onComplete();
+			}
+		}
+
+		private void closeCursor() {
+
+			if (cursor != null && !cursorClosed) {
+				cursorClosed = true;
+				try {
+					cursor.close();
+				} catch (RuntimeException e) {
+					// Nothing to signal to a subscriber gone or done already
+				}
+			}
+		}
+
+		private RuntimeException potentiallyConvertRuntimeException(RuntimeException e) {
+			DataAccessException translated = exceptionTranslator.translateExceptionIfPossible(e);
+			return translated == null ? e : translated;
+		}
+	}
+
+	/**
+	 * Adds the given number to the given counter, capping at {@link Long#MAX_VALUE}.
+	 */
+	private static void add(AtomicLong counter, long n) {
+
+		while (true) {
+
+			long current = counter.get();
+			long next = current + n < 0 ? Long.MAX_VALUE : current + n;
+
+			if (counter.compareAndSet(current, next)) {
+				return;
+			}
+		}
+	}
+}
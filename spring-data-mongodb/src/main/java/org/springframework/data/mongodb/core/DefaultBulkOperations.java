@@ -0,0 +1,522 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.util.Assert;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.CommandResult;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+import com.mongodb.WriteConcern;
+
+/**
+ * Default {@link BulkOperations} implementation created by {@link MongoTemplate}. Objects to insert are converted and
+ * queries and updates are mapped when being queued so that executing a batch only involves sending the prepared
+ * documents. The writes of a batch are sent on a single connection without waiting for the server and the batch is
+ * acknowledged as a whole afterwards, unless neither the {@link WriteConcern} nor the {@link WriteResultChecking} call
+ * for acknowledgement, in which case consecutive inserts are combined into a single message and nothing is awaited.
+ */
+class DefaultBulkOperations implements BulkOperations {
+
+	static final int DEFAULT_BATCH_SIZE = 1000;
+
+	private static final String ID = "_id";
+
+	private static final Log LOGGER = LogFactory.getLog(DefaultBulkOperations.class);
+
+	private final MongoTemplate template;
+	private final String collectionName;
+	private final Class<?> entityClass;
+	private final MongoPersistentEntity<?> entity;
+	private final QueryMapper mapper;
+	private final WriteConcern defaultWriteConcern;
+	private final WriteResultChecking writeResultChecking;
+
+	private final List<QueuedOperation> operations = new ArrayList<QueuedOperation>();
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	/**
+	 * Creates a new {@link DefaultBulkOperations}.
+	 *
+	 * @param template must not be {@literal null}.
+	 * @param collectionName must not be {@literal null} or empty.
+	 * @param entityClass can be {@literal null}.
+	 * @param entity the {@link MongoPersistentEntity} for the given entity class, can be {@literal null}.
+	 * @param mapper must not be {@literal null}.
+	 * @param defaultWriteConcern the {@link WriteConcern} configured on the template, can be {@literal null}.
+	 * @param writeResultChecking must not be {@literal null}.
+	 */
+	DefaultBulkOperations(MongoTemplate template, String collectionName, Class<?> entityClass,
+			MongoPersistentEntity<?> entity, QueryMapper mapper, WriteConcern defaultWriteConcern,
+			WriteResultChecking writeResultChecking) {
+
+		Assert.notNull(template);
+		Assert.hasText(collectionName);
+		Assert.notNull(mapper);
+		Assert.notNull(writeResultChecking);
+
+		this.template = template;
+		this.collectionName = collectionName;
+		this.entityClass = entityClass;
+		this.entity = entity;
+		this.mapper = mapper;
+		this.defaultWriteConcern = defaultWriteConcern;
+		this.writeResultChecking = writeResultChecking;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.BulkOperations#insert(java.lang.Object)
+	 */
+	public BulkOperations insert(Object object) {
+
+		Assert.notNull(object, "Object to insert must not be null!");
+
+		operations.add(new QueuedOperation(OperationType.INSERT, object, convert(object), null));
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.BulkOperations#insert(java.util.List)
+	 */
+	public BulkOperations insert(List<? extends Object> objects) {
+
+		Assert.notNull(objects, "Objects to insert must not be null!");
+
+		for (Object object : objects) {
+			insert(object);
+		}
+
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.BulkOperations#save(java.lang.Object)
+	 */
+	public BulkOperations save(Object object) {
+
+		Assert.notNull(object, "Object to save must not be null!");
+
+		DBObject dbDoc = convert(object);
+		OperationType type = dbDoc.get(ID) == null ? OperationType.INSERT : OperationType.SAVE;
+
+		operations.add(new QueuedOperation(type, object, dbDoc, null));
+		return this;
+	}
+
+	/**
+	 * Queues the save of an already converted document. No events are emitted for the document.
+	 *
+	 * @param document must not be {@literal null} and must carry an id.
+	 * @return the current {@link DefaultBulkOperations}.
+	 */
+	DefaultBulkOperations saveDocument(DBObject document) {
+
+		Assert.notNull(document);
+		Assert.notNull(document.get(ID), "Document to save must have an id!");
+
+		operations.add(new QueuedOperation(OperationType.SAVE, null, document, null));
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.BulkOperations#updateOne(org.springframework.data.mongodb.core.query.Query, org.springframework.data.mongodb.core.query.Update)
+	 */
+	public BulkOperations updateOne(Query query, Update update) {
+		return update(OperationType.UPDATE_ONE, query, update);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.BulkOperations#updateMulti(org.springframework.data.mongodb.core.query.Query, org.springframework.data.mongodb.core.query.Update)
+	 */
+	public BulkOperations updateMulti(Query query, Update update) {
+		return update(OperationType.UPDATE_MULTI, query, update);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.BulkOperations#upsert(org.springframework.data.mongodb.core.query.Query, org.springframework.data.mongodb.core.query.Update)
+	 */
+	public BulkOperations upsert(Query query, Update update) {
+		return update(OperationType.UPSERT, query, update);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.BulkOperations#remove(org.springframework.data.mongodb.core.query.Query)
+	 */
+	public BulkOperations remove(Query query) {
+
+		Assert.notNull(query, "Query must not be null!");
+
+		DBObject queryObject = mapper.getMappedObject(query.getQueryObject(), entity);
+		operations.add(new QueuedOperation(OperationType.REMOVE, null, queryObject, null));
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.BulkOperations#batchSize(int)
+	 */
+	public BulkOperations batchSize(int batchSize) {
+
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than zero!");
+
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.BulkOperations#execute()
+	 */
+	public List<BulkOperationResult> execute() {
+
+		template.flushWriteBehindBuffer(collectionName);
+		return executeBuffered();
+	}
+
+	/**
+	 * Executes the queued operations without writing the saves buffered by the {@link WriteBehindBuffer} for the
+	 * collection first. Used by the buffer's flusher.
+	 * 
+	 * @return a {@link BulkOperationResult} for every operation queued.
+	 */
+	List<BulkOperationResult> executeBuffered() {
+
+		List<QueuedOperation> queued = new ArrayList<QueuedOperation>(operations);
+		operations.clear();
+
+		List<BulkOperationResult> results = new ArrayList<BulkOperationResult>(queued.size());
+
+		if (queued.isEmpty()) {
+			return results;
+		}
+
+		WriteConcern writeConcern = prepareWriteConcern();
+
+		try {
+			for (int start = 0, batch = 0; start < queued.size(); start += batchSize, batch++) {
+				List<QueuedOperation> operationsInBatch = queued.subList(start, Math.min(start + batchSize, queued.size()));
+				flush(operationsInBatch, start, batch, writeConcern, results);
+			}
+		} finally {
+			template.getEntityCache().evict(collectionName);
+		}
+
+		return results;
+	}
+
+	/**
+	 * Sends the given operations on a single connection without waiting for the server in between. If the
+	 * {@link WriteConcern} calls for acknowledgement or write results are checked, the batch is acknowledged as a whole
+	 * afterwards, see {@link #acknowledge(DB, List, int, int, WriteConcern, List)}. Otherwise consecutive inserts are
+	 * combined into a single message and nothing is awaited.
+	 * 
+	 * @param batch the operations to send.
+	 * @param offset the index of the first operation of the batch.
+	 * @param batchNumber
+	 * @param writeConcernToUse the {@link WriteConcern} prepared for the operations, {@literal null} to use the one of
+	 *          the collection.
+	 * @param results the {@link List} to add the results of the operations to.
+	 */
+	private void flush(final List<QueuedOperation> batch, final int offset, final int batchNumber,
+			final WriteConcern writeConcernToUse, final List<BulkOperationResult> results) {
+
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug("executing bulk batch of " + batch.size() + " operations in collection: " + collectionName);
+		}
+
+		template.execute(collectionName, new CollectionCallback<Object>() {
+			public Object doInCollection(DBCollection collection) throws MongoException, DataAccessException {
+
+				WriteConcern writeConcern = writeConcernToUse == null ? collection.getWriteConcern() : writeConcernToUse;
+				DB db = collection.getDB();
+				db.requestStart();
+
+				try {
+					if (writeConcern.callGetLastError() || WriteResultChecking.NONE != writeResultChecking) {
+
+						for (QueuedOperation operation : batch) {
+							send(collection, operation);
+						}
+
+						acknowledge(db, batch, offset, batchNumber, writeConcern, results);
+					} else {
+						sendUnacknowledged(collection, batch, offset, batchNumber, results);
+					}
+				} finally {
+					db.requestDone();
+				}
+
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Acknowledges the operations of a batch sent one message per operation with a single {@code getPrevError} call,
+	 * which reports the most recent error on the connection along with the number of operations sent since. Thus a
+	 * failing operation is identified without re-sending any write. Only if no operation failed and the
+	 * {@link WriteConcern} asks for more than acknowledgement, e.g. replication or fsync, a {@code getLastError} call
+	 * waits for it to be satisfied.
+	 * <p/>
+	 * An error is raised as {@link MongoException} to be translated by the template if the {@link WriteConcern} calls
+	 * for acknowledgement, as the driver does for single writes, and handled as configured by
+	 * {@link WriteResultChecking} otherwise. As the server only keeps the most recent error, the operations sent before a
+	 * failing one are reported as not acknowledged. The ones sent after it are acknowledged to have succeeded.
+	 */
+	private void acknowledge(DB db, List<QueuedOperation> batch, int offset, int batchNumber, WriteConcern writeConcern,
+			List<BulkOperationResult> results) {
+
+		CommandResult previousError = db.getPreviousError();
+		Object error = previousError == null ? null : previousError.get("err");
+		int failed = -1;
+
+		if (error != null) {
+			Object operationsSince = previousError.get("nPrev");
+			failed = batch.size() - (operationsSince instanceof Number ? ((Number) operationsSince).intValue() : 1);
+		}
+
+		// no error or one older than the batch
+		if (failed < 0) {
+
+			if (writeConcern.callGetLastError() && writeConcern.getCommand().keySet().size() > 1) {
+				CommandResult lastError = db.getLastError(writeConcern);
+				checkError(lastError == null ? null : lastError.get("err"), lastError, offset + batch.size() - 1,
+						writeConcern);
+			}
+
+			for (int i = 0; i < batch.size(); i++) {
+				results.add(complete(batch.get(i), offset + i, batchNumber, true));
+			}
+
+			return;
+		}
+
+		for (int i = 0; i < batch.size(); i++) {
+
+			QueuedOperation operation = batch.get(i);
+
+			if (i == failed) {
+				results.add(new BulkOperationResult(operation.type, offset + i, batchNumber, null, true, error.toString()));
+			} else {
+				results.add(complete(operation, offset + i, batchNumber, i > failed));
+			}
+		}
+
+		checkError(error, previousError, offset + failed, writeConcern);
+	}
+
+	/**
+	 * Raises the given error if the {@link WriteConcern} calls for acknowledgement and hands it to
+	 * {@link #handleError(Object, int)} otherwise.
+	 */
+	private void checkError(Object error, CommandResult result, int index, WriteConcern writeConcern) {
+
+		if (error == null) {
+			return;
+		}
+
+		if (writeConcern.callGetLastError()) {
+			Object code = result.get("code");
+			throw new MongoException(code instanceof Number ? ((Number) code).intValue() : -1, error.toString());
+		}
+
+		handleError(error, index);
+	}
+
+	/**
+	 * Sends the given operations without awaiting acknowledgement, combining consecutive inserts into a single message.
+	 */
+	private void sendUnacknowledged(DBCollection collection, List<QueuedOperation> batch, int offset, int batchNumber,
+			List<BulkOperationResult> results) {
+
+		List<DBObject> inserts = new ArrayList<DBObject>();
+
+		for (QueuedOperation operation : batch) {
+
+			if (operation.type == OperationType.INSERT) {
+				inserts.add(operation.document);
+				continue;
+			}
+
+			sendInserts(collection, inserts);
+			send(collection, operation);
+		}
+
+		sendInserts(collection, inserts);
+
+		for (int i = 0; i < batch.size(); i++) {
+			results.add(complete(batch.get(i), offset + i, batchNumber, false));
+		}
+	}
+
+	private static void send(DBCollection collection, QueuedOperation operation) {
+
+		switch (operation.type) {
+		case INSERT:
+			collection.insert(new DBObject[] { operation.document }, WriteConcern.NORMAL);
+			break;
+		case SAVE:
+			DBObject idQuery = new BasicDBObject(ID, operation.document.get(ID));
+			collection.update(idQuery, operation.document, true, false, WriteConcern.NORMAL);
+			break;
+		case UPDATE_ONE:
+			collection.update(operation.document, operation.update, false, false, WriteConcern.NORMAL);
+			break;
+		case UPDATE_MULTI:
+			collection.update(operation.document, operation.update, false, true, WriteConcern.NORMAL);
+			break;
+		case UPSERT:
+			collection.update(operation.document, operation.update, true, false, WriteConcern.NORMAL);
+			break;
+		case REMOVE:
+			collection.remove(operation.document, WriteConcern.NORMAL);
+			break;
+		default:
+			throw new IllegalStateException("Unexpected operation type " + operation.type);
+		}
+	}
+
+	private static void sendInserts(DBCollection collection, List<DBObject> inserts) {
+
+		if (inserts.isEmpty()) {
+			return;
+		}
+
+		collection.insert(inserts.toArray(new DBObject[inserts.size()]), WriteConcern.NORMAL);
+		inserts.clear();
+	}
+
+	/**
+	 * Populates the id of the source object of the given operation, registers its document as snapshot for dirty
+	 * tracking and emits an {@link AfterSaveEvent} for it.
+	 */
+	private BulkOperationResult complete(QueuedOperation operation, int index, int batchNumber, boolean acknowledged) {
+
+		Object id = null;
+
+		if (operation.source != null) {
+			id = operation.document.get(ID);
+			template.populateIdIfNecessary(operation.source, id);
+			template.registerSnapshot(operation.source, collectionName, operation.document);
+			if (template.hasEventListeners(AfterSaveEvent.class, operation.source.getClass())) {
+				template.maybeEmitEvent(new AfterSaveEvent<Object>(operation.source, operation.document));
+			}
+		}
+
+		return new BulkOperationResult(operation.type, index, batchNumber, id, acknowledged, null);
+	}
+
+	private DBObject convert(Object object) {
+
+		BasicDBObject dbDoc = new BasicDBObject();
+
+		if (template.hasEventListeners(BeforeConvertEvent.class, object.getClass())) {
+			template.maybeEmitEvent(new BeforeConvertEvent<Object>(object));
+		}
+
+		template.getConverter().write(object, dbDoc);
+
+		if (template.hasEventListeners(BeforeSaveEvent.class, object.getClass())) {
+			template.maybeEmitEvent(new BeforeSaveEvent<Object>(object, dbDoc));
+		}
+
+		return dbDoc;
+	}
+
+	private BulkOperations update(OperationType type, Query query, Update update) {
+
+		Assert.notNull(query, "Query must not be null!");
+		Assert.notNull(update, "Update must not be null!");
+
+		MongoConverter converter = template.getConverter();
+		DBObject queryObject = mapper.getMappedObject(query.getQueryObject(), entity);
+		DBObject source = update.getUpdateObject();
+		DBObject updateObject = new BasicDBObject();
+
+		for (String key : source.keySet()) {
+			updateObject.put(key, converter.convertToMongoType(source.get(key)));
+		}
+
+		operations.add(new QueuedOperation(type, null, queryObject, updateObject));
+		return this;
+	}
+
+	/**
+	 * Prepares the {@link WriteConcern} for the operations the way {@link MongoTemplate} does for single writes.
+	 * 
+	 * @return the {@link WriteConcern} or {@literal null} to use the one of the collection.
+	 */
+	private WriteConcern prepareWriteConcern() {
+
+		MongoAction action = new MongoAction(defaultWriteConcern, MongoActionOperation.BULK, collectionName, entityClass,
+				null, null);
+		return template.prepareWriteConcern(action);
+	}
+
+	private void handleError(Object error, int index) {
+
+		String message = "Execution of bulk operation " + index + " in collection '" + collectionName + "' failed: "
+				+ error;
+
+		if (WriteResultChecking.EXCEPTION == writeResultChecking) {
+			throw new DataIntegrityViolationException(message);
+		} else {
+			LOGGER.error(message);
+		}
+	}
+
+	/**
+	 * A queued operation. The document is the converted object for inserts and saves and the mapped query otherwise.
+	 */
+	private static class QueuedOperation {
+
+		private final OperationType type;
+		private final Object source;
+		private final DBObject document;
+		private final DBObject update;
+
+		public QueuedOperation(OperationType type, Object source, DBObject document, DBObject update) {
+			this.type = type;
+			this.source = source;
+			this.document = document;
+			this.update = update;
+		}
+	}
+}
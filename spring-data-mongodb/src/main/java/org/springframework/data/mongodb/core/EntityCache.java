@@ -0,0 +1,297 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.mongodb.core.mapping.Cached;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.util.Assert;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Second level cache for single documents read by {@link MongoTemplate}. Documents are cached per collection for
+ * entities annotated with {@link Cached}, keyed by the mapped query and fields specification. The raw documents are
+ * cached rather than the converted entities, so every lookup returns a new entity instance. Documents are copied when
+ * put into and when taken from the cache, so that modifications of a document handed out don't affect other readers.
+ * Any write to a collection issued through the template evicts all documents cached for it.
+ */
+public class EntityCache {
+
+	private final ConcurrentMap<Class<?>, Boolean> cachedTypes = new ConcurrentHashMap<Class<?>, Boolean>();
+	private final ConcurrentMap<String, CacheRegion> regions = new ConcurrentHashMap<String, CacheRegion>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Returns the {@link CacheRegion} for the given collection if the given entity is to be cached.
+	 * 
+	 * @param collectionName must not be {@literal null}.
+	 * @param entity can be {@literal null}.
+	 * @return the {@link CacheRegion} or {@literal null} if the entity is not to be cached.
+	 */
+	CacheRegion getRegion(String collectionName, MongoPersistentEntity<?> entity) {
+
+		if (entity == null || !isCached(entity.getType())) {
+			return null;
+		}
+
+		CacheRegion region = regions.get(collectionName);
+
+		if (region == null) {
+			Cached cached = AnnotationUtils.findAnnotation(entity.getType(), Cached.class);
+			regions.putIfAbsent(collectionName, new CacheRegion(cached.maxEntries(), cached.timeToLive()));
+			region = regions.get(collectionName);
+		}
+
+		return region;
+	}
+
+	/**
+	 * Evicts all documents cached for the given collection.
+	 * 
+	 * @param collectionName
+	 */
+	public void evict(String collectionName) {
+
+		CacheRegion region = regions.get(collectionName);
+
+		if (region != null) {
+			region.clear();
+		}
+	}
+
+	/**
+	 * Evicts all cached documents.
+	 */
+	public void clear() {
+
+		for (CacheRegion region : regions.values()) {
+			region.clear();
+		}
+	}
+
+	/**
+	 * Returns the number of lookups answered from the cache.
+	 * 
+	 * @return
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * Returns the number of lookups that had to query the database.
+	 * 
+	 * @return
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * Returns the number of lookups for the given collection answered from the cache.
+	 * 
+	 * @param collectionName
+	 * @return
+	 */
+	public long getHitCount(String collectionName) {
+		CacheRegion region = regions.get(collectionName);
+		return region == null ? 0 : region.hits.get();
+	}
+
+	/**
+	 * Returns the number of lookups for the given collection that had to query the database.
+	 * 
+	 * @param collectionName
+	 * @return
+	 */
+	public long getMissCount(String collectionName) {
+		CacheRegion region = regions.get(collectionName);
+		return region == null ? 0 : region.misses.get();
+	}
+
+	private boolean isCached(Class<?> type) {
+
+		Boolean cached = cachedTypes.get(type);
+
+		if (cached == null) {
+			cached = AnnotationUtils.findAnnotation(type, Cached.class) != null;
+			cachedTypes.put(type, cached);
+		}
+
+		return cached;
+	}
+
+	/**
+	 * The cached documents of a single collection. Bounded by size, evicting the least recently used document, and by
+	 * time. Every eviction starts a new generation, documents read in a previous generation are not cached to prevent a
+	 * lookup racing with a write from caching a stale document.
+	 */
+	class CacheRegion {
+
+		private final Map<String, CacheEntry> entries;
+		private final long timeToLive;
+		private final AtomicLong hits = new AtomicLong();
+		private final AtomicLong misses = new AtomicLong();
+		private long generation = 0;
+
+		@SuppressWarnings("serial")
+		public CacheRegion(final int maxEntries, long timeToLive) {
+
+			Assert.isTrue(maxEntries > 0, "Maximum number of entries must be positive!");
+			Assert.isTrue(timeToLive > 0, "Time to live must be positive!");
+
+			this.timeToLive = timeToLive;
+			this.entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+					return size() > maxEntries;
+				}
+			};
+		}
+
+		/**
+		 * Returns a copy of the cached document for the given key or {@literal null} if none cached or expired.
+		 * 
+		 * @param key
+		 * @return
+		 */
+		public DBObject get(String key) {
+			DBObject document = lookup(key);
+			return document == null ? null : copy(document);
+		}
+
+		private synchronized DBObject lookup(String key) {
+
+			CacheEntry entry = entries.get(key);
+
+			if (entry != null && entry.expires > System.currentTimeMillis()) {
+				hits.incrementAndGet();
+				EntityCache.this.hits.incrementAndGet();
+				return entry.document;
+			}
+
+			if (entry != null) {
+				entries.remove(key);
+			}
+
+			misses.incrementAndGet();
+			EntityCache.this.misses.incrementAndGet();
+			return null;
+		}
+
+		/**
+		 * Returns the current generation to be handed to {@link #put(String, DBObject, long)} for documents read now.
+		 * 
+		 * @return
+		 */
+		public synchronized long getGeneration() {
+			return generation;
+		}
+
+		/**
+		 * Caches a copy of the given document unless the region has been cleared since the given generation.
+		 * 
+		 * @param key
+		 * @param document
+		 * @param generation
+		 */
+		public void put(String key, DBObject document, long generation) {
+
+			if (document != null) {
+				store(key, copy(document), generation);
+			}
+		}
+
+		private synchronized void store(String key, DBObject document, long generation) {
+
+			if (this.generation == generation) {
+				entries.put(key, new CacheEntry(document, System.currentTimeMillis() + timeToLive));
+			}
+		}
+
+		public synchronized void clear() {
+			entries.clear();
+			generation++;
+		}
+	}
+
+	/**
+	 * Creates a deep copy of the given value. Copies nested documents, arrays, {@link Date}s and binary data, other
+	 * values are immutable and thus shared.
+	 * 
+	 * @param value
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> T copy(T value) {
+
+		if (value instanceof BasicDBList) {
+
+			BasicDBList copy = new BasicDBList();
+
+			for (Object element : (BasicDBList) value) {
+				copy.add(copy(element));
+			}
+
+			return (T) copy;
+		}
+
+		if (value instanceof DBObject) {
+
+			DBObject source = (DBObject) value;
+			DBObject copy = new BasicDBObject();
+
+			for (String key : source.keySet()) {
+				copy.put(key, copy(source.get(key)));
+			}
+
+			return (T) copy;
+		}
+
+		if (value instanceof Date) {
+			return (T) new Date(((Date) value).getTime());
+		}
+
+		if (value instanceof byte[]) {
+			return (T) ((byte[]) value).clone();
+		}
+
+		return value;
+	}
+
+	private static class CacheEntry {
+
+		private final DBObject document;
+		private final long expires;
+
+		public CacheEntry(DBObject document, long expires) {
+			this.document = document;
+			this.expires = expires;
+		}
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+import com.mongodb.DBObject;
+
+/**
+ * Keeps the documents entities were read from or last written as, to compute minimal updates when the entities are
+ * saved again. Entities are tracked by identity and only weakly referenced, so that tracking doesn't keep them from
+ * being garbage collected.
+ */
+class EntitySnapshots {
+
+	private static final String ID = "_id";
+
+	private final Map<IdentityReference, Snapshot> snapshots = new HashMap<IdentityReference, Snapshot>();
+	private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+
+	/**
+	 * Registers the given document as the current state of the given entity in the given collection.
+	 *
+	 * @param entity must not be {@literal null}.
+	 * @param collectionName must not be {@literal null}.
+	 * @param document must not be {@literal null}.
+	 */
+	public synchronized void put(Object entity, String collectionName, DBObject document) {
+
+		Assert.notNull(entity);
+		Assert.notNull(collectionName);
+		Assert.notNull(document);
+
+		expungeStaleEntries();
+		snapshots.put(new IdentityReference(entity, queue), new Snapshot(collectionName, document));
+	}
+
+	/**
+	 * Returns the document registered for the given entity in the given collection.
+	 *
+	 * @param entity must not be {@literal null}.
+	 * @param collectionName must not be {@literal null}.
+	 * @return the document or {@literal null} if the entity is not tracked or was read from another collection.
+	 */
+	public synchronized DBObject get(Object entity, String collectionName) {
+
+		expungeStaleEntries();
+		Snapshot snapshot = snapshots.get(new IdentityReference(entity, null));
+
+		return snapshot == null || !snapshot.collectionName.equals(collectionName) ? null : snapshot.document;
+	}
+
+	/**
+	 * Stops tracking the given entity.
+	 *
+	 * @param entity
+	 */
+	public synchronized void remove(Object entity) {
+
+		expungeStaleEntries();
+
+		if (entity != null) {
+			snapshots.remove(new IdentityReference(entity, null));
+		}
+	}
+
+	/**
+	 * Stops tracking all entities.
+	 */
+	public synchronized void clear() {
+		snapshots.clear();
+		expungeStaleEntries();
+	}
+
+	/**
+	 * @return the number of tracked entities.
+	 */
+	public synchronized int size() {
+		expungeStaleEntries();
+		return snapshots.size();
+	}
+
+	/**
+	 * Computes the {@link Update} turning the given snapshot into the given document. Top level fields that differ are
+	 * {@code $set}, fields no longer present are {@code $unset}.
+	 *
+	 * @param snapshot must not be {@literal null}.
+	 * @param document must not be {@literal null}.
+	 * @return the {@link Update} or {@literal null} if the documents don't differ.
+	 */
+	public static Update getUpdate(DBObject snapshot, DBObject document) {
+
+		Update update = new Update();
+		boolean changed = false;
+
+		for (String key : document.keySet()) {
+
+			if (ID.equals(key)) {
+				continue;
+			}
+
+			Object value = document.get(key);
+
+			if (!snapshot.containsField(key) || !ObjectUtils.nullSafeEquals(snapshot.get(key), value)) {
+				update.set(key, value);
+				changed = true;
+			}
+		}
+
+		for (String key : snapshot.keySet()) {
+			if (!document.containsField(key)) {
+				update.unset(key);
+				changed = true;
+			}
+		}
+
+		return changed ? update : null;
+	}
+
+	private void expungeStaleEntries() {
+
+		Object reference;
+
+		while ((reference = queue.poll()) != null) {
+			snapshots.remove(reference);
+		}
+	}
+
+	private static class Snapshot {
+
+		private final String collectionName;
+		private final DBObject document;
+
+		public Snapshot(String collectionName, DBObject document) {
+			this.collectionName = collectionName;
+			this.document = document;
+		}
+	}
+
+	/**
+	 * {@link WeakReference} comparing the referents by identity.
+	 */
+	private static class IdentityReference extends WeakReference<Object> {
+
+		private final int hashCode;
+
+		public IdentityReference(Object referent, ReferenceQueue<Object> queue) {
+			super(referent, queue);
+			this.hashCode = System.identityHashCode(referent);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+
+			if (this == obj) {
+				return true;
+			}
+
+			if (!(obj instanceof IdentityReference)) {
+				return false;
+			}
+
+			Object referent = get();
+			return referent != null && referent == ((IdentityReference) obj).get();
+		}
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import org.springframework.util.Assert;
+
+import com.mongodb.CommandResult;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+
+/**
+ * {@link CountStrategy} that reads the number of documents from the collection statistics if the query does not
+ * contain any predicate. As the statistics are maintained by the server this avoids scanning the collection but might
+ * be slightly off, e.g. on sharded collections with migrations in progress. Queries with predicates are handed to a
+ * delegate {@link CountStrategy}.
+ */
+public class EstimatedCountStrategy implements CountStrategy {
+
+	private final CountStrategy delegate;
+
+	/**
+	 * Creates a new {@link EstimatedCountStrategy} counting queries with predicates exactly.
+	 */
+	public EstimatedCountStrategy() {
+		this(new ExactCountStrategy());
+	}
+
+	/**
+	 * Creates a new {@link EstimatedCountStrategy} using the given delegate for queries with predicates.
+	 *
+	 * @param delegate must not be {@literal null}.
+	 */
+	public EstimatedCountStrategy(CountStrategy delegate) {
+		Assert.notNull(delegate);
+		this.delegate = delegate;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.CountStrategy#count(com.mongodb.DBCollection, com.mongodb.DBObject)
+	 */
+	public long count(DBCollection collection, DBObject query) {
+
+		if (query != null && !query.keySet().isEmpty()) {
+			return delegate.count(collection, query);
+		}
+
+		CommandResult stats = collection.getStats();
+		Object count = stats.get("count");
+
+		return count instanceof Number ? ((Number) count).longValue() : delegate.count(collection, query);
+	}
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+
+/**
+ * {@link CountStrategy} issuing a count command for every invocation. This is the default used by
+ * {@link MongoTemplate}.
+ */
+public class ExactCountStrategy implements CountStrategy {
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.CountStrategy#count(com.mongodb.DBCollection, com.mongodb.DBObject)
+	 */
+	public long count(DBCollection collection, DBObject query) {
+		return collection.count(query);
+	}
+}
@@ -29,5 +29,6 @@ public enum MongoActionOperation {
 		UPDATE,
 		INSERT,
 		INSERT_LIST,
-		SAVE
+		SAVE,
+		BULK
 }
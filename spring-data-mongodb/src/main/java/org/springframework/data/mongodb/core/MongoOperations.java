@@ -36,6 +36,7 @@ import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.NearQuery;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.reactive.Publisher;
 
 /**
  * Interface that specifies a basic set of MongoDB operations. Implemented by {@link MongoTemplate}. Not often used but
@@ -406,6 +407,20 @@ public interface MongoOperations {
 	 */
 	<T> T findOne(Query query, Class<T> entityClass, String collectionName);
 
+	/**
+	 * Map the results of an ad-hoc query on the specified collection to a single instance of the given result type,
+	 * which might be a projection of the entity class.
+	 * 
+	 * @param query the query class that specifies the criteria used to find a record and also an optional fields
+	 *          specification, must not be {@literal null}.
+	 * @param entityClass the type of the documents stored in the collection, must not be {@literal null}.
+	 * @param resultClass the type to read the document into, must not be {@literal null}.
+	 * @param collectionName name of the collection to retrieve the objects from
+	 * @return the converted object
+	 * @see #find(Query, Class, Class, String)
+	 */
+	<T> T findOne(Query query, Class<?> entityClass, Class<T> resultClass, String collectionName);
+
 	/**
 	 * Map the results of an ad-hoc query on the collection for the entity class to a List of the specified type.
 	 * <p/>
@@ -440,6 +455,93 @@ public interface MongoOperations {
 	 */
 	<T> List<T> find(Query query, Class<T> entityClass, String collectionName);
 
+	/**
+	 * Returns a {@link Publisher} for the results of an ad-hoc query on the collection for the entity class. Documents
+	 * are only fetched from the database as the subscriber signals demand, and they are converted off the thread reading
+	 * them. Cancelling the subscription kills the underlying cursor.
+	 * 
+	 * @param query the query class that specifies the criteria used to find a record and also an optional fields
+	 *          specification, must not be {@literal null}.
+	 * @param entityClass the parameterized type of the published objects.
+	 * @return
+	 */
+	<T> Publisher<T> publish(Query query, Class<T> entityClass);
+
+	/**
+	 * Returns a {@link Publisher} for the results of an ad-hoc query on the specified collection.
+	 * 
+	 * @param query the query class that specifies the criteria used to find a record and also an optional fields
+	 *          specification, must not be {@literal null}.
+	 * @param entityClass the parameterized type of the published objects.
+	 * @param collectionName name of the collection to retrieve the objects from
+	 * @return
+	 * @see #publish(Query, Class)
+	 */
+	<T> Publisher<T> publish(Query query, Class<T> entityClass, String collectionName);
+
+	/**
+	 * Map the results of an ad-hoc query on the specified collection to a List of the given result type, which might be
+	 * a projection of the entity class, i.e. a DTO class or an interface exposing a subset of the entity's properties. In
+	 * that case only the fields backing the properties of the result type are returned by the server unless the
+	 * {@link Query} defines a field specification itself. The query is mapped against the entity class. Interface
+	 * results are backed by instances of the entity class.
+	 * 
+	 * @param query the query class that specifies the criteria used to find a record and also an optional fields
+	 *          specification, must not be {@literal null}.
+	 * @param entityClass the type of the documents stored in the collection, must not be {@literal null}.
+	 * @param resultClass the type to read the documents into, must not be {@literal null}.
+	 * @param collectionName name of the collection to retrieve the objects from
+	 * @return the List of converted objects
+	 */
+	<T> List<T> find(Query query, Class<?> entityClass, Class<T> resultClass, String collectionName);
+
+	/**
+	 * Executes the given {@link Query} on the collection for the entity class and returns a {@link CloseableIterator}
+	 * over the results. In contrast to {@link #find(Query, Class)} the documents are only read from the cursor and
+	 * converted into the given type once they are requested, so that arbitrarily large results can be processed with
+	 * constant memory consumption. The underlying cursor is closed once the iterator is exhausted or an error occurs.
+	 * Clients that stop iterating early have to call {@link CloseableIterator#close()} themselves.
+	 *
+	 * @param query the query class that specifies the criteria used to find a record and also an optional fields
+	 *          specification, must not be {@literal null}.
+	 * @param entityClass the parameterized type of the returned iterator.
+	 * @return a {@link CloseableIterator} over the converted objects.
+	 */
+	<T> CloseableIterator<T> stream(Query query, Class<T> entityClass);
+
+	/**
+	 * Executes the given {@link Query} on the given collection and returns a {@link CloseableIterator} over the results.
+	 *
+	 * @see #stream(Query, Class)
+	 * @param query the query class that specifies the criteria used to find a record and also an optional fields
+	 *          specification, must not be {@literal null}.
+	 * @param entityClass the parameterized type of the returned iterator.
+	 * @param collectionName name of the collection to retrieve the objects from
+	 * @return a {@link CloseableIterator} over the converted objects.
+	 */
+	<T> CloseableIterator<T> stream(Query query, Class<T> entityClass, String collectionName);
+
+	/**
+	 * Returns a {@link CloseableIterator} over all objects of type T in the collection used by the entity class. This is
+	 * the streaming equivalent of {@link #findAll(Class)}.
+	 *
+	 * @see #stream(Query, Class)
+	 * @param entityClass the parameterized type of the returned iterator.
+	 * @return a {@link CloseableIterator} over the converted objects.
+	 */
+	<T> CloseableIterator<T> streamAll(Class<T> entityClass);
+
+	/**
+	 * Returns a {@link CloseableIterator} over all objects of type T in the given collection. This is the streaming
+	 * equivalent of {@link #findAll(Class, String)}.
+	 *
+	 * @see #stream(Query, Class)
+	 * @param entityClass the parameterized type of the returned iterator.
+	 * @param collectionName name of the collection to retrieve the objects from
+	 * @return a {@link CloseableIterator} over the converted objects.
+	 */
+	<T> CloseableIterator<T> streamAll(Class<T> entityClass, String collectionName);
+
 	/**
 	 * Returns a document with the given id mapped onto the given class. The collection the query is ran against will be
 	 * derived from the given target class as well.
@@ -523,6 +625,17 @@ public interface MongoOperations {
 	 * @return
 	 */
 	long count(Query query, String collectionName);
+
+	/**
+	 * Returns the number of documents for the given {@link Query} querying the given collection. The query is mapped
+	 * against the given entity class and the counting is delegated to the configured {@link CountStrategy}.
+	 * 
+	 * @param query can be {@literal null} to count all documents of the collection.
+	 * @param entityClass the entity class to map the query against, can be {@literal null}.
+	 * @param collectionName must not be {@literal null} or empty.
+	 * @return
+	 */
+	long count(Query query, Class<?> entityClass, String collectionName);
 	
 	/**
 	 * Insert the object into the collection for the entity type of the object to save.
@@ -686,6 +799,35 @@ public interface MongoOperations {
 	 */
 	WriteResult updateMulti(Query query, Update update, String collectionName);
 
+	/**
+	 * Returns a new {@link BulkOperations} to queue mixed inserts, updates, upserts and removes for the collection of the
+	 * given entity class and send them to the database in batches, each on a single connection.
+	 * 
+	 * @param entityClass class that determines the collection to use and the mapping of the queries, must not be
+	 *          {@literal null}.
+	 * @return
+	 */
+	BulkOperations bulkOps(Class<?> entityClass);
+
+	/**
+	 * Returns a new {@link BulkOperations} for the specified collection. Queries will not be mapped against any entity.
+	 * 
+	 * @param collectionName name of the collection to write to, must not be {@literal null} or empty.
+	 * @return
+	 * @see #bulkOps(Class)
+	 */
+	BulkOperations bulkOps(String collectionName);
+
+	/**
+	 * Returns a new {@link BulkOperations} for the specified collection mapping queries against the given entity class.
+	 * 
+	 * @param entityClass class used to map the queries, can be {@literal null}.
+	 * @param collectionName name of the collection to write to, must not be {@literal null} or empty.
+	 * @return
+	 * @see #bulkOps(Class)
+	 */
+	BulkOperations bulkOps(Class<?> entityClass, String collectionName);
+
 	/**
 	 * Remove the given object from the collection by id.
 	 * 
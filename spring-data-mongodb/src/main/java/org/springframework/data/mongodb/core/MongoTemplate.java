@@ -30,6 +30,12 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.Scanner;
 import java.util.Set;
 
@@ -37,6 +43,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.bson.types.ObjectId;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.ApplicationEventPublisher;
@@ -54,9 +61,11 @@ import org.springframework.data.mapping.context.MappingContext;
 import org.springframework.data.mapping.model.BeanWrapper;
 import org.springframework.data.mapping.model.MappingException;
 import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.convert.EntityDocumentEncoder;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
 import org.springframework.data.mongodb.core.convert.MongoConverter;
 import org.springframework.data.mongodb.core.convert.MongoWriter;
+import org.springframework.data.mongodb.core.convert.ReadScope;
 import org.springframework.data.mongodb.core.geo.Distance;
 import org.springframework.data.mongodb.core.geo.GeoResult;
 import org.springframework.data.mongodb.core.geo.GeoResults;
@@ -70,8 +79,10 @@ import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
 import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
 import org.springframework.data.mongodb.core.mapping.event.AfterLoadEvent;
 import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.AsyncMappingEventDispatcher;
 import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
 import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.MappingEventInterestRegistry;
 import org.springframework.data.mongodb.core.mapping.event.MongoMappingEvent;
 import org.springframework.data.mongodb.core.mapreduce.GroupBy;
 import org.springframework.data.mongodb.core.mapreduce.GroupByResults;
@@ -81,17 +92,21 @@ import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.NearQuery;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.reactive.Publisher;
 import org.springframework.jca.cci.core.ConnectionCallback;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.ResourceUtils;
 import org.springframework.util.StringUtils;
 
 import com.mongodb.BasicDBList;
 import com.mongodb.BasicDBObject;
+import com.mongodb.Bytes;
 import com.mongodb.CommandResult;
 import com.mongodb.DB;
 import com.mongodb.DBCollection;
 import com.mongodb.DBCursor;
+import com.mongodb.DBDecoderFactory;
 import com.mongodb.DBObject;
 import com.mongodb.MapReduceCommand;
 import com.mongodb.MapReduceOutput;
@@ -110,11 +125,14 @@ import com.mongodb.util.JSON;
  * @author Mark Pollack
  * @author Oliver Gierke
  */
-public class MongoTemplate implements MongoOperations, ApplicationContextAware {
+public class MongoTemplate implements MongoOperations, ApplicationContextAware, DisposableBean {
 
 	private static final Log LOGGER = LogFactory.getLog(MongoTemplate.class);
 	private static final String ID = "_id";
 	private static final WriteResultChecking DEFAULT_WRITE_RESULT_CHECKING = WriteResultChecking.NONE;
+	private static final int DEFAULT_INSERT_BATCH_DOCUMENTS = 1000;
+	private static final long DEFAULT_INSERT_BATCH_BYTES = 8 * 1024 * 1024;
+	private static final int DBREF_PREFETCH_DOCUMENTS = 100;
 	@SuppressWarnings("serial")
 	private static final List<String> ITERABLE_CLASSES = new ArrayList<String>() {
 		{
@@ -133,6 +151,25 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 
 	private WriteConcernResolver writeConcernResolver = new DefaultWriteConcernResolver();
 
+	private CountStrategy countStrategy = new ExactCountStrategy();
+
+	private final EntityCache entityCache = new EntityCache();
+
+	private WriteBehindBuffer writeBehindBuffer;
+	private AsyncMappingEventDispatcher asyncEventDispatcher;
+
+	private final EntitySnapshots snapshots = new EntitySnapshots();
+	private volatile boolean dirtyTracking = false;
+	private boolean entityDocumentInserts = false;
+	private boolean entityDocumentReads = false;
+
+	private int insertBatchDocuments = DEFAULT_INSERT_BATCH_DOCUMENTS;
+	private long insertBatchBytes = DEFAULT_INSERT_BATCH_BYTES;
+
+	private Executor publisherIoExecutor = createPublisherExecutor("mongo-publisher-io-");
+	private Executor publisherConversionExecutor = createPublisherExecutor("mongo-publisher-conversion-");
+	private boolean ownsPublisherExecutors = true;
+
 	/*
 	 * WriteResultChecking to be used for write operations if it has been
 	 * specified. Otherwise we should not do any checking.
@@ -151,6 +188,7 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 	private final QueryMapper mapper;
 
 	private ApplicationEventPublisher eventPublisher;
+	private MappingEventInterestRegistry eventInterest = new MappingEventInterestRegistry();
 	private ResourceLoader resourceLoader;
 	private MongoPersistentEntityIndexCreator indexCreator;
 
@@ -240,6 +278,177 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		this.writeConcernResolver = writeConcernResolver;
 	}
 
+	/**
+	 * Configures the {@link CountStrategy} to be used to count documents. Defaults to {@link ExactCountStrategy}.
+	 * 
+	 * @param countStrategy must not be {@literal null}.
+	 */
+	public void setCountStrategy(CountStrategy countStrategy) {
+		Assert.notNull(countStrategy);
+		this.countStrategy = countStrategy;
+	}
+
+	/**
+	 * Enables dirty tracking for entities read through the template. The documents entities are read from are kept
+	 * alongside the entities, so that saving such an entity again only sends a {@code $set} of the changed and an
+	 * {@code $unset} of the removed top level fields instead of replacing the whole document. Saving an unchanged
+	 * entity doesn't hit the database at all. New entities, entities not read through the template and entities read
+	 * with a fields restriction are saved in full, as are all entities if a {@link WriteBehindBuffer} is configured.
+	 * Updates of tracked entities await their result to save the entity in full if its document was removed in the
+	 * meantime. An unchanged entity whose document was removed is not recreated though.
+	 * 
+	 * @param dirtyTracking
+	 */
+	public void setDirtyTracking(boolean dirtyTracking) {
+		this.dirtyTracking = dirtyTracking;
+		if (!dirtyTracking) {
+			snapshots.clear();
+		}
+	}
+
+	/**
+	 * Enables encoding inserted entities straight from their properties into BSON instead of converting them into a
+	 * {@link BasicDBObject} first. Only applies if the template uses a {@link MappingMongoConverter} and nobody listens to
+	 * {@link BeforeSaveEvent}s for the inserted type, as listeners could modify the document. The documents handed to
+	 * {@link AfterSaveEvent}s read the entity's properties when they are accessed.
+	 * 
+	 * @param entityDocumentInserts
+	 * @see MappingMongoConverter#createEntityDocument(Object)
+	 * @see EntityDocumentEncoder
+	 */
+	public void setEntityDocumentInserts(boolean entityDocumentInserts) {
+		this.entityDocumentInserts = entityDocumentInserts;
+	}
+
+	/**
+	 * Enables decoding only the fields of queried documents the requested type maps. Only applies to queries returning
+	 * a {@link List} or a {@link CloseableIterator} of entities, if the template uses a {@link MappingMongoConverter},
+	 * dirty tracking is disabled and nobody listens to {@link AfterLoadEvent}s or {@link AfterConvertEvent}s for the
+	 * requested type, as those expose the documents read.
+	 * 
+	 * @param entityDocumentReads
+	 * @see MappingMongoConverter#getDecoderFactory(Class)
+	 */
+	public void setEntityDocumentReads(boolean entityDocumentReads) {
+		this.entityDocumentReads = entityDocumentReads;
+	}
+
+	/**
+	 * Configures the limits of the chunks batch inserts are split into. A chunk is sent once it holds the given number of
+	 * documents or adding the next document would exceed the given estimated BSON size. Defaults to
+	 * {@value #DEFAULT_INSERT_BATCH_DOCUMENTS} documents and 8 MB.
+	 * 
+	 * @param maxDocuments must be greater than zero.
+	 * @param maxBytes must be greater than zero.
+	 */
+	public void setInsertBatchLimits(int maxDocuments, long maxBytes) {
+
+		Assert.isTrue(maxDocuments > 0, "Maximum number of documents must be greater than zero!");
+		Assert.isTrue(maxBytes > 0, "Maximum number of bytes must be greater than zero!");
+
+		this.insertBatchDocuments = maxDocuments;
+		this.insertBatchBytes = maxBytes;
+	}
+
+	/**
+	 * Configures the {@link Executor}s used by the {@link Publisher}s returned from {@link #publish(Query, Class)}.
+	 * Documents are read from the database on the I/O {@link Executor} and converted and handed to subscribers on the
+	 * conversion {@link Executor}. Both default to pools of daemon threads sized by the number of available processors
+	 * which are shut down on {@link #destroy()}. The given {@link Executor}s are not shut down by the template.
+	 * 
+	 * @param ioExecutor must not be {@literal null}.
+	 * @param conversionExecutor must not be {@literal null}.
+	 */
+	public void setPublisherExecutors(Executor ioExecutor, Executor conversionExecutor) {
+
+		Assert.notNull(ioExecutor);
+		Assert.notNull(conversionExecutor);
+
+		shutdownPublisherExecutors();
+
+		this.publisherIoExecutor = ioExecutor;
+		this.publisherConversionExecutor = conversionExecutor;
+		this.ownsPublisherExecutors = false;
+	}
+
+	/**
+	 * Creates a bounded pool for the {@link Publisher}s returned from {@link #publish(Query, Class)}. Subscriptions only
+	 * ever have a single read and a single conversion task queued which don't block waiting for demand, so a fixed
+	 * number of threads serves any number of subscriptions.
+	 * 
+	 * @param threadNamePrefix
+	 * @return
+	 */
+	private static ExecutorService createPublisherExecutor(String threadNamePrefix) {
+
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+		threadFactory.setDaemon(true);
+
+		int threads = Runtime.getRuntime().availableProcessors();
+		return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+				threadFactory);
+	}
+
+	private void shutdownPublisherExecutors() {
+
+		if (ownsPublisherExecutors) {
+			((ExecutorService) publisherIoExecutor).shutdown();
+			((ExecutorService) publisherConversionExecutor).shutdown();
+		}
+	}
+
+	/**
+	 * Enables write-behind for {@link #save(Object)}: converted documents are handed to the given
+	 * {@link WriteBehindBuffer} and written by its background flusher instead of synchronously. Ids are assigned on
+	 * save and save events are emitted right away. Saves issued after the buffer has been destroyed are written
+	 * directly again.
+	 * 
+	 * @param writeBehindBuffer must not be {@literal null}.
+	 */
+	public void setWriteBehindBuffer(WriteBehindBuffer writeBehindBuffer) {
+
+		Assert.notNull(writeBehindBuffer);
+
+		writeBehindBuffer.start(new WriteBehindBuffer.Writer() {
+			public void write(String collectionName, List<DBObject> documents) {
+
+				DefaultBulkOperations operations = createBulkOperations(null, collectionName);
+
+				for (DBObject document : documents) {
+					operations.saveDocument(document);
+				}
+
+				operations.executeBuffered();
+			}
+		});
+
+		this.writeBehindBuffer = writeBehindBuffer;
+	}
+
+	/**
+	 * Publishes {@link AfterSaveEvent}s, {@link AfterLoadEvent}s and {@link AfterConvertEvent}s through the given
+	 * {@link AsyncMappingEventDispatcher} instead of on the calling thread. Before events are still published
+	 * synchronously.
+	 * 
+	 * @param asyncEventDispatcher must not be {@literal null}.
+	 */
+	public void setAsyncEventDispatcher(AsyncMappingEventDispatcher asyncEventDispatcher) {
+
+		Assert.notNull(asyncEventDispatcher);
+		this.asyncEventDispatcher = asyncEventDispatcher;
+	}
+
+	/**
+	 * Returns the {@link EntityCache} holding the documents of entities annotated with
+	 * {@link org.springframework.data.mongodb.core.mapping.Cached}. Exposes hit and miss counts and allows evicting
+	 * documents written by other means than the template.
+	 * 
+	 * @return
+	 */
+	public EntityCache getEntityCache() {
+		return entityCache;
+	}
+
 	/**
 	 * Used by @{link {@link #prepareCollection(DBCollection)} to set the {@link ReadPreference} before any operations are
 	 * performed.
@@ -256,12 +465,32 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 			((ConfigurableApplicationContext) applicationContext).addApplicationListener(indexCreator);
 		}
 		eventPublisher = applicationContext;
+		eventInterest = new MappingEventInterestRegistry(applicationContext);
+		if (applicationContext instanceof ConfigurableApplicationContext) {
+			((ConfigurableApplicationContext) applicationContext).addApplicationListener(eventInterest);
+		}
 		if (mappingContext instanceof ApplicationEventPublisherAware) {
 			((ApplicationEventPublisherAware) mappingContext).setApplicationEventPublisher(eventPublisher);
 		}
 		resourceLoader = applicationContext;
 	}
 
+	/**
+	 * Flushes the {@link WriteBehindBuffer} and publishes the pending events of the {@link AsyncMappingEventDispatcher} if
+	 * configured. Shuts down the default {@link Executor}s of {@link #publish(Query, Class)}.
+	 * 
+	 * @see org.springframework.beans.factory.DisposableBean#destroy()
+	 */
+	public void destroy() {
+		if (writeBehindBuffer != null) {
+			writeBehindBuffer.destroy();
+		}
+		if (asyncEventDispatcher != null) {
+			asyncEventDispatcher.destroy();
+		}
+		shutdownPublisherExecutors();
+	}
+
 	/**
 	 * Returns the default {@link org.springframework.data.mongodb.core.core.convert.MongoConverter}.
 	 * 
@@ -425,10 +654,11 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		dropCollection(determineCollectionName(entityClass));
 	}
 
-	public void dropCollection(String collectionName) {
+	public void dropCollection(final String collectionName) {
 		execute(collectionName, new CollectionCallback<Void>() {
 			public Void doInCollection(DBCollection collection) throws MongoException, DataAccessException {
 				collection.drop();
+				entityCache.evict(collectionName);
 				if (LOGGER.isDebugEnabled()) {
 					LOGGER.debug("Dropped collection [" + collection.getFullName() + "]");
 				}
@@ -473,6 +703,17 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		}
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#findOne(org.springframework.data.mongodb.core.query.Query, java.lang.Class, java.lang.Class, java.lang.String)
+	 */
+	public <T> T findOne(Query query, Class<?> entityClass, Class<T> resultClass, String collectionName) {
+
+		query.limit(1);
+		List<T> results = find(query, entityClass, resultClass, collectionName);
+		return (results.isEmpty() ? null : results.get(0));
+	}
+
 	// Find methods that take a Query to express the query and that return a List of objects.
 
 	public <T> List<T> find(Query query, Class<T> entityClass) {
@@ -484,6 +725,93 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		return doFind(collectionName, query.getQueryObject(), query.getFieldsObject(), entityClass, cursorPreparer);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#find(org.springframework.data.mongodb.core.query.Query, java.lang.Class, java.lang.Class, java.lang.String)
+	 */
+	public <T> List<T> find(Query query, Class<?> entityClass, Class<T> resultClass, String collectionName) {
+
+		Assert.notNull(query);
+		Assert.notNull(entityClass);
+		Assert.notNull(resultClass);
+
+		ProjectionInformation projection = new ProjectionInformation(resultClass,
+				mappingContext.getPersistentEntity(entityClass), mappingContext);
+
+		DBObject fields = query.getFieldsObject() == null ? projection.getFieldsObject() : query.getFieldsObject();
+
+		return doFind(collectionName, query.getQueryObject(), fields, entityClass, new QueryCursorPreparer(query),
+				new ProjectingDbObjectCallback<T>(projection, resultClass));
+	}
+
+	public <T> CloseableIterator<T> stream(Query query, Class<T> entityClass) {
+		return stream(query, entityClass, determineCollectionName(entityClass));
+	}
+
+	public <T> CloseableIterator<T> stream(Query query, Class<T> entityClass, String collectionName) {
+
+		Assert.notNull(query);
+
+		MongoPersistentEntity<?> entity = mappingContext.getPersistentEntity(entityClass);
+		DBObject mappedQuery = mapper.getMappedObject(query.getQueryObject(), entity);
+
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug("stream using query: " + mappedQuery + " fields: " + query.getFieldsObject() + " for class: "
+					+ entityClass + " in collection: " + collectionName);
+		}
+
+		return executeStreamInternal(new FindCallback(mappedQuery, query.getFieldsObject()), new QueryCursorPreparer(
+				query), new ReadDbObjectCallback<T>(mongoConverter, entityClass, getTrackingCollection(collectionName,
+				query.getFieldsObject())), collectionName);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#publish(org.springframework.data.mongodb.core.query.Query, java.lang.Class)
+	 */
+	public <T> Publisher<T> publish(Query query, Class<T> entityClass) {
+		return publish(query, entityClass, determineCollectionName(entityClass));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#publish(org.springframework.data.mongodb.core.query.Query, java.lang.Class, java.lang.String)
+	 */
+	public <T> Publisher<T> publish(Query query, Class<T> entityClass, final String collectionName) {
+
+		Assert.notNull(query);
+
+		MongoPersistentEntity<?> entity = mappingContext.getPersistentEntity(entityClass);
+		DBObject mappedQuery = mapper.getMappedObject(query.getQueryObject(), entity);
+
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug("publish using query: " + mappedQuery + " fields: " + query.getFieldsObject() + " for class: "
+					+ entityClass + " in collection: " + collectionName);
+		}
+
+		final FindCallback findCallback = new FindCallback(mappedQuery, query.getFieldsObject());
+		final CursorPreparer preparer = new QueryCursorPreparer(query);
+
+		CursorPublisher.CursorSource source = new CursorPublisher.CursorSource() {
+			public DBCursor open() {
+				return preparer.prepare(findCallback.doInCollection(getAndPrepareCollection(getDb(), collectionName)));
+			}
+		};
+
+		return new CursorPublisher<T>(source, new ReadDbObjectCallback<T>(mongoConverter, entityClass,
+				getTrackingCollection(collectionName, query.getFieldsObject())),
+				publisherIoExecutor, publisherConversionExecutor, exceptionTranslator, query.getBatchSize());
+	}
+
+	public <T> CloseableIterator<T> streamAll(Class<T> entityClass) {
+		return streamAll(entityClass, determineCollectionName(entityClass));
+	}
+
+	public <T> CloseableIterator<T> streamAll(Class<T> entityClass, String collectionName) {
+		return executeStreamInternal(new FindCallback(null), null, new ReadDbObjectCallback<T>(mongoConverter,
+				entityClass, getTrackingCollection(collectionName, null)), collectionName);
+	}
+
 	public <T> T findById(Object id, Class<T> entityClass) {
 		MongoPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entityClass);
 		return findById(id, entityClass, persistentEntity.getCollection());
@@ -562,15 +890,19 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		return count(query, null, collectionName);
 	}
 
-	private long count(Query query, Class<?> entityClass, String collectionName) {
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#count(org.springframework.data.mongodb.core.query.Query, java.lang.Class, java.lang.String)
+	 */
+	public long count(Query query, Class<?> entityClass, String collectionName) {
 
 		Assert.hasText(collectionName);
-		final DBObject dbObject = query == null ? null : mapper.getMappedObject(query.getQueryObject(),
+		final DBObject dbObject = query == null ? new BasicDBObject() : mapper.getMappedObject(query.getQueryObject(),
 				entityClass == null ? null : mappingContext.getPersistentEntity(entityClass));
 
 		return execute(collectionName, new CollectionCallback<Long>() {
 			public Long doInCollection(DBCollection collection) throws MongoException, DataAccessException {
-				return collection.count(dbObject);
+				return countStrategy.count(collection, dbObject);
 			}
 		});
 	}
@@ -625,16 +957,21 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 	}
 
 	protected <T> void doInsert(String collectionName, T objectToSave, MongoWriter<T> writer) {
-		BasicDBObject dbDoc = new BasicDBObject();
 
-		maybeEmitEvent(new BeforeConvertEvent<T>(objectToSave));
-		writer.write(objectToSave, dbDoc);
+		if (hasEventListeners(BeforeConvertEvent.class, objectToSave.getClass())) {
+			maybeEmitEvent(new BeforeConvertEvent<T>(objectToSave));
+		}
+		DBObject dbDoc = toInsertDocument(objectToSave, writer);
 
-		maybeEmitEvent(new BeforeSaveEvent<T>(objectToSave, dbDoc));
+		if (hasEventListeners(BeforeSaveEvent.class, objectToSave.getClass())) {
+			maybeEmitEvent(new BeforeSaveEvent<T>(objectToSave, dbDoc));
+		}
 		Object id = insertDBObject(collectionName, dbDoc, objectToSave.getClass());
 
 		populateIdIfNecessary(objectToSave, id);
-		maybeEmitEvent(new AfterSaveEvent<T>(objectToSave, dbDoc));
+		if (hasEventListeners(AfterSaveEvent.class, objectToSave.getClass())) {
+			maybeEmitEvent(new AfterSaveEvent<T>(objectToSave, dbDoc));
+		}
 	}
 
 	public void insert(Collection<? extends Object> batchToSave, Class<?> entityClass) {
@@ -675,28 +1012,86 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		}
 	}
 
+	/**
+	 * Converts and inserts the given objects in chunks bounded by the configured maximum number of documents and
+	 * estimated BSON size, so that only a single chunk of converted documents is held in memory at a time. Ids are
+	 * populated and {@link AfterSaveEvent}s emitted after each chunk was written.
+	 * 
+	 * @param collectionName
+	 * @param batchToSave
+	 * @param writer
+	 * @see #setInsertBatchLimits(int, long)
+	 */
 	protected <T> void doInsertBatch(String collectionName, Collection<? extends T> batchToSave, MongoWriter<T> writer) {
 
 		Assert.notNull(writer);
 
+		List<T> chunk = new ArrayList<T>();
 		List<DBObject> dbObjectList = new ArrayList<DBObject>();
+		long chunkBytes = 0;
+
 		for (T o : batchToSave) {
-			BasicDBObject dbDoc = new BasicDBObject();
 
-			maybeEmitEvent(new BeforeConvertEvent<T>(o));
-			writer.write(o, dbDoc);
+			if (hasEventListeners(BeforeConvertEvent.class, o.getClass())) {
+				maybeEmitEvent(new BeforeConvertEvent<T>(o));
+			}
+			DBObject dbDoc = toInsertDocument(o, writer);
+
+			if (hasEventListeners(BeforeSaveEvent.class, o.getClass())) {
+				maybeEmitEvent(new BeforeSaveEvent<T>(o, dbDoc));
+			}
 
-			maybeEmitEvent(new BeforeSaveEvent<T>(o, dbDoc));
+			// Estimating an EntityDocument converts its properties once, the encoder writes the retained values
+			long bytes = BsonSizeEstimator.estimate(dbDoc);
+
+			if (!chunk.isEmpty() && (chunk.size() >= insertBatchDocuments || chunkBytes + bytes > insertBatchBytes)) {
+				doInsertChunk(collectionName, chunk, dbObjectList);
+				chunk = new ArrayList<T>();
+				dbObjectList = new ArrayList<DBObject>();
+				chunkBytes = 0;
+			}
+
+			chunk.add(o);
 			dbObjectList.add(dbDoc);
+			chunkBytes += bytes;
+		}
+
+		if (!chunk.isEmpty()) {
+			doInsertChunk(collectionName, chunk, dbObjectList);
+		}
+	}
+
+	/**
+	 * Converts the given object into the document to be inserted. Returns an entity document to be encoded by an
+	 * {@link EntityDocumentEncoder} if enabled and applicable.
+	 * 
+	 * @param objectToSave
+	 * @param writer
+	 * @return
+	 * @see #setEntityDocumentInserts(boolean)
+	 */
+	private <T> DBObject toInsertDocument(T objectToSave, MongoWriter<T> writer) {
+
+		if (entityDocumentInserts && writer == mongoConverter && mongoConverter instanceof MappingMongoConverter
+				&& !hasEventListeners(BeforeSaveEvent.class, objectToSave.getClass())) {
+			return ((MappingMongoConverter) mongoConverter).createEntityDocument(objectToSave);
 		}
+
+		BasicDBObject dbDoc = new BasicDBObject();
+		writer.write(objectToSave, dbDoc);
+		return dbDoc;
+	}
+
+	private <T> void doInsertChunk(String collectionName, List<T> chunk, List<DBObject> dbObjectList) {
+
 		List<ObjectId> ids = insertDBObjectList(collectionName, dbObjectList);
-		int i = 0;
-		for (T obj : batchToSave) {
-			if (i < ids.size()) {
-				populateIdIfNecessary(obj, ids.get(i));
+
+		for (int i = 0; i < chunk.size() && i < ids.size(); i++) {
+			T obj = chunk.get(i);
+			populateIdIfNecessary(obj, ids.get(i));
+			if (hasEventListeners(AfterSaveEvent.class, obj.getClass())) {
 				maybeEmitEvent(new AfterSaveEvent<T>(obj, dbObjectList.get(i)));
 			}
-			i++;
 		}
 	}
 
@@ -711,14 +1106,114 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 	protected <T> void doSave(String collectionName, T objectToSave, MongoWriter<T> writer) {
 		BasicDBObject dbDoc = new BasicDBObject();
 
-		maybeEmitEvent(new BeforeConvertEvent<T>(objectToSave));
+		if (hasEventListeners(BeforeConvertEvent.class, objectToSave.getClass())) {
+			maybeEmitEvent(new BeforeConvertEvent<T>(objectToSave));
+		}
 		writer.write(objectToSave, dbDoc);
 
-		maybeEmitEvent(new BeforeSaveEvent<T>(objectToSave, dbDoc));
+		if (hasEventListeners(BeforeSaveEvent.class, objectToSave.getClass())) {
+			maybeEmitEvent(new BeforeSaveEvent<T>(objectToSave, dbDoc));
+		}
+
+		if (dirtyTracking && writeBehindBuffer == null && doSaveChanges(collectionName, objectToSave, dbDoc)) {
+			if (hasEventListeners(AfterSaveEvent.class, objectToSave.getClass())) {
+				maybeEmitEvent(new AfterSaveEvent<T>(objectToSave, dbDoc));
+			}
+			return;
+		}
+
 		Object id = saveDBObject(collectionName, dbDoc, objectToSave.getClass());
+		entityCache.evict(collectionName);
 
 		populateIdIfNecessary(objectToSave, id);
-		maybeEmitEvent(new AfterSaveEvent<T>(objectToSave, dbDoc));
+
+		if (dirtyTracking) {
+			snapshots.put(objectToSave, collectionName, dbDoc);
+		}
+
+		if (hasEventListeners(AfterSaveEvent.class, objectToSave.getClass())) {
+			maybeEmitEvent(new AfterSaveEvent<T>(objectToSave, dbDoc));
+		}
+	}
+
+	/**
+	 * Updates the document of the given tracked entity with the fields that changed since it was read or last saved.
+	 * 
+	 * @param collectionName
+	 * @param objectToSave
+	 * @param dbDoc the converted entity.
+	 * @return whether the entity was tracked and thus saved, {@literal false} if it has to be saved in full, e.g. as its
+	 *         document was removed in the meantime.
+	 */
+	private boolean doSaveChanges(String collectionName, Object objectToSave, DBObject dbDoc) {
+
+		DBObject snapshot = snapshots.get(objectToSave, collectionName);
+		Object id = dbDoc.get(ID);
+
+		if (snapshot == null || id == null || !id.equals(snapshot.get(ID))) {
+			return false;
+		}
+
+		Update update = EntitySnapshots.getUpdate(snapshot, dbDoc);
+
+		if (update != null && !doUpdateTracked(collectionName, id, update, objectToSave.getClass())) {
+			return false;
+		}
+
+		snapshots.put(objectToSave, collectionName, dbDoc);
+		return true;
+	}
+
+	/**
+	 * Updates the document with the given id and awaits the result on the same connection, even if the
+	 * {@link WriteConcern} doesn't call for it, to find out whether the document still exists.
+	 * 
+	 * @param collectionName
+	 * @param id the id of the document.
+	 * @param update
+	 * @param entityClass
+	 * @return whether a document was updated.
+	 */
+	private boolean doUpdateTracked(final String collectionName, final Object id, final Update update,
+			final Class<?> entityClass) {
+
+		return execute(collectionName, new CollectionCallback<Boolean>() {
+			public Boolean doInCollection(DBCollection collection) throws MongoException, DataAccessException {
+
+				DBObject queryObj = new BasicDBObject(ID, id);
+				DBObject updateObj = update.getUpdateObject();
+
+				for (String key : updateObj.keySet()) {
+					updateObj.put(key, mongoConverter.convertToMongoType(updateObj.get(key)));
+				}
+
+				if (LOGGER.isDebugEnabled()) {
+					LOGGER.debug("calling update of tracked entity using query: " + queryObj + " and update: " + updateObj
+							+ " in collection: " + collectionName);
+				}
+
+				MongoAction mongoAction = new MongoAction(writeConcern, MongoActionOperation.UPDATE, collectionName,
+						entityClass, updateObj, queryObj);
+				WriteConcern writeConcernToUse = prepareWriteConcern(mongoAction);
+				DB db = collection.getDB();
+				db.requestStart();
+
+				try {
+					WriteResult wr = writeConcernToUse == null ? collection.update(queryObj, updateObj, false, false)
+							: collection.update(queryObj, updateObj, false, false, writeConcernToUse);
+					entityCache.evict(collectionName);
+
+					if (wr.getN() == 0) {
+						return false;
+					}
+
+					handleAnyWriteResultErrors(wr, queryObj, "update with '" + updateObj + "'");
+					return true;
+				} finally {
+					db.requestDone();
+				}
+			}
+		});
 	}
 
 	protected Object insertDBObject(final String collectionName, final DBObject dbDoc, final Class<?> entityClass) {
@@ -730,7 +1225,10 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 				MongoAction mongoAction = new MongoAction(writeConcern, MongoActionOperation.INSERT, collectionName,
 						entityClass, dbDoc, null);
 				WriteConcern writeConcernToUse = prepareWriteConcern(mongoAction);
-				if (writeConcernToUse == null) {
+				if (entityDocumentInserts) {
+					collection.insert(new DBObject[] { dbDoc }, writeConcernToUse == null ? collection.getWriteConcern()
+							: writeConcernToUse, EntityDocumentEncoder.FACTORY.create());
+				} else if (writeConcernToUse == null) {
 					collection.insert(dbDoc);
 				} else {
 					collection.insert(dbDoc, writeConcernToUse);
@@ -753,7 +1251,11 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 				MongoAction mongoAction = new MongoAction(writeConcern, MongoActionOperation.INSERT_LIST, collectionName, null,
 						null, null);
 				WriteConcern writeConcernToUse = prepareWriteConcern(mongoAction);
-				if (writeConcernToUse == null) {
+				if (entityDocumentInserts) {
+					collection.insert(dbDocList.toArray(new DBObject[dbDocList.size()]),
+							writeConcernToUse == null ? collection.getWriteConcern() : writeConcernToUse,
+							EntityDocumentEncoder.FACTORY.create());
+				} else if (writeConcernToUse == null) {
 					collection.insert(dbDocList);
 				} else {
 					collection.insert(dbDocList.toArray((DBObject[]) new BasicDBObject[dbDocList.size()]), writeConcernToUse);
@@ -776,6 +1278,14 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 	}
 
 	protected Object saveDBObject(final String collectionName, final DBObject dbDoc, final Class<?> entityClass) {
+		if (writeBehindBuffer != null) {
+			if (dbDoc.get(ID) == null) {
+				dbDoc.put(ID, new ObjectId());
+			}
+			if (writeBehindBuffer.add(collectionName, dbDoc)) {
+				return dbDoc.get(ID);
+			}
+		}
 		if (LOGGER.isDebugEnabled()) {
 			LOGGER.debug("save DBObject containing fields: " + dbDoc.keySet());
 		}
@@ -818,9 +1328,53 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		return doUpdate(collectionName, query, update, null, false, true);
 	}
 
+	public BulkOperations bulkOps(Class<?> entityClass) {
+		return bulkOps(entityClass, determineCollectionName(entityClass));
+	}
+
+	public BulkOperations bulkOps(String collectionName) {
+		return bulkOps(null, collectionName);
+	}
+
+	public BulkOperations bulkOps(Class<?> entityClass, String collectionName) {
+		return createBulkOperations(entityClass, collectionName);
+	}
+
+	private DefaultBulkOperations createBulkOperations(Class<?> entityClass, String collectionName) {
+		return new DefaultBulkOperations(this, collectionName, entityClass, getPersistentEntity(entityClass), mapper,
+				writeConcern, writeResultChecking);
+	}
+
+	/**
+	 * Writes the saves buffered for the given collection by the {@link WriteBehindBuffer}, if configured, before a
+	 * remove or update. Otherwise a later flush would upsert the buffered documents over the result of the write.
+	 * 
+	 * @param collectionName
+	 */
+	void flushWriteBehindBuffer(String collectionName) {
+		if (writeBehindBuffer != null) {
+			writeBehindBuffer.flush(collectionName);
+		}
+	}
+
+	/**
+	 * Registers the given document as the last written state of the given entity if dirty tracking is enabled.
+	 * 
+	 * @param object
+	 * @param collectionName
+	 * @param dbDoc
+	 */
+	void registerSnapshot(Object object, String collectionName, DBObject dbDoc) {
+		if (dirtyTracking) {
+			snapshots.put(object, collectionName, dbDoc);
+		}
+	}
+
 	protected WriteResult doUpdate(final String collectionName, final Query query, final Update update,
 			final Class<?> entityClass, final boolean upsert, final boolean multi) {
 
+		flushWriteBehindBuffer(collectionName);
+
 		return execute(collectionName, new CollectionCallback<WriteResult>() {
 			public WriteResult doInCollection(DBCollection collection) throws MongoException, DataAccessException {
 
@@ -848,6 +1402,7 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 				} else {
 					wr = collection.update(queryObj, updateObj, upsert, multi, writeConcernToUse);
 				}
+				entityCache.evict(collectionName);
 				handleAnyWriteResultErrors(wr, queryObj, "update with '" + updateObj + "'");
 				return wr;
 			}
@@ -860,6 +1415,7 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 			return;
 		}
 
+		snapshots.remove(object);
 		remove(getIdQueryFor(object), object.getClass());
 	}
 
@@ -871,6 +1427,7 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 			return;
 		}
 
+		snapshots.remove(object);
 		remove(getIdQueryFor(object), collection);
 	}
 
@@ -915,6 +1472,7 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		if (query == null) {
 			throw new InvalidDataAccessApiUsageException("Query passed in to remove can't be null");
 		}
+		flushWriteBehindBuffer(collectionName);
 		final DBObject queryObject = query.getQueryObject();
 		final MongoPersistentEntity<?> entity = getPersistentEntity(entityClass);
 		execute(collectionName, new CollectionCallback<Void>() {
@@ -932,6 +1490,7 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 				} else {
 					wr = collection.remove(dboq, writeConcernToUse);
 				}
+				entityCache.evict(collectionName);
 				handleAnyWriteResultErrors(wr, dboq, "remove");
 				return null;
 			}
@@ -943,13 +1502,12 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 	}
 
 	public <T> List<T> findAll(Class<T> entityClass) {
-		return executeFindMultiInternal(new FindCallback(null), null, new ReadDbObjectCallback<T>(mongoConverter,
-				entityClass), determineCollectionName(entityClass));
+		return findAll(entityClass, determineCollectionName(entityClass));
 	}
 
 	public <T> List<T> findAll(Class<T> entityClass, String collectionName) {
 		return executeFindMultiInternal(new FindCallback(null), null, new ReadDbObjectCallback<T>(mongoConverter,
-				entityClass), collectionName);
+				entityClass, getTrackingCollection(collectionName, null)), collectionName);
 	}
 
 	public <T> MapReduceResults<T> mapReduce(String inputCollectionName, String mapFunction, String reduceFunction,
@@ -1167,11 +1725,30 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 	}
 
 	protected <T> void maybeEmitEvent(MongoMappingEvent<T> event) {
-		if (null != eventPublisher) {
+		Class<?> domainType = event instanceof AfterLoadEvent ? ((AfterLoadEvent<?>) event).getType() : event.getSource()
+				.getClass();
+		if (!hasEventListeners(event.getClass(), domainType)) {
+			return;
+		}
+		if (asyncEventDispatcher != null) {
+			asyncEventDispatcher.dispatch(event, eventPublisher);
+		} else {
 			eventPublisher.publishEvent(event);
 		}
 	}
 
+	/**
+	 * Returns whether any listener is interested in mapping events of the given type for the given domain type. Used to
+	 * skip creating events nobody listens to.
+	 * 
+	 * @param eventType must not be {@literal null}.
+	 * @param domainType must not be {@literal null}.
+	 * @return
+	 */
+	protected boolean hasEventListeners(Class<?> eventType, Class<?> domainType) {
+		return null != eventPublisher && eventInterest.hasInterest(eventType, domainType);
+	}
+
 	/**
 	 * Create the specified collection using the provided options
 	 * 
@@ -1208,8 +1785,15 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		MongoPersistentEntity<?> entity = mappingContext.getPersistentEntity(entityClass);
 		DBObject mappedQuery = mapper.getMappedObject(query, entity);
 
-		return executeFindOneInternal(new FindOneCallback(mappedQuery, fields), new ReadDbObjectCallback<T>(readerToUse,
-				entityClass), collectionName);
+		CollectionCallback<DBObject> callback = new FindOneCallback(mappedQuery, fields);
+		EntityCache.CacheRegion region = entityCache.getRegion(collectionName, entity);
+
+		if (region != null) {
+			callback = new CachingFindOneCallback(callback, region, mappedQuery + ":" + fields);
+		}
+
+		return executeFindOneInternal(callback, new ReadDbObjectCallback<T>(readerToUse, entityClass,
+				getTrackingCollection(collectionName, fields)), collectionName);
 	}
 
 	/**
@@ -1233,7 +1817,7 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 	protected <T> List<T> doFind(String collectionName, DBObject query, DBObject fields, Class<T> entityClass,
 			CursorPreparer preparer) {
 		return doFind(collectionName, query, fields, entityClass, preparer, new ReadDbObjectCallback<T>(mongoConverter,
-				entityClass));
+				entityClass, getTrackingCollection(collectionName, fields)));
 	}
 
 	protected <S, T> List<T> doFind(String collectionName, DBObject query, DBObject fields, Class<S> entityClass,
@@ -1266,7 +1850,8 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		EntityReader<? super T, DBObject> readerToUse = this.mongoConverter;
 		MongoPersistentEntity<?> entity = mappingContext.getPersistentEntity(entityClass);
 		return executeFindMultiInternal(new FindCallback(mapper.getMappedObject(query, entity), fields), null,
-				new ReadDbObjectCallback<T>(readerToUse, entityClass), collectionName);
+				new ReadDbObjectCallback<T>(readerToUse, entityClass, getTrackingCollection(collectionName, fields)),
+				collectionName);
 	}
 
 	protected DBObject convertToDbObject(CollectionOptions collectionOptions) {
@@ -1304,8 +1889,14 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 					+ entityClass + " in collection: " + collectionName);
 		}
 		MongoPersistentEntity<?> entity = mappingContext.getPersistentEntity(entityClass);
-		return executeFindOneInternal(new FindAndRemoveCallback(mapper.getMappedObject(query, entity), fields, sort),
-				new ReadDbObjectCallback<T>(readerToUse, entityClass), collectionName);
+		flushWriteBehindBuffer(collectionName);
+
+		try {
+			return executeFindOneInternal(new FindAndRemoveCallback(mapper.getMappedObject(query, entity), fields, sort),
+					new ReadDbObjectCallback<T>(readerToUse, entityClass), collectionName);
+		} finally {
+			entityCache.evict(collectionName);
+		}
 	}
 
 	protected <T> T doFindAndModify(String collectionName, DBObject query, DBObject fields, DBObject sort,
@@ -1325,8 +1916,14 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 					+ entityClass + " and update: " + updateObj + " in collection: " + collectionName);
 		}
 
-		return executeFindOneInternal(new FindAndModifyCallback(mapper.getMappedObject(query, entity), fields, sort,
-				updateObj, options), new ReadDbObjectCallback<T>(readerToUse, entityClass), collectionName);
+		flushWriteBehindBuffer(collectionName);
+
+		try {
+			return executeFindOneInternal(new FindAndModifyCallback(mapper.getMappedObject(query, entity), fields, sort,
+					updateObj, options), new ReadDbObjectCallback<T>(readerToUse, entityClass), collectionName);
+		} finally {
+			entityCache.evict(collectionName);
+		}
 	}
 
 	/**
@@ -1401,7 +1998,10 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 	 * <li>Prepare that {@link DBCursor} with the given {@link CursorPreparer} (will be skipped if {@link CursorPreparer}
 	 * is {@literal null}</li>
 	 * <li>Iterate over the {@link DBCursor} and applies the given {@link DbObjectCallback} to each of the
-	 * {@link DBObject}s collecting the actual result {@link List}.</li>
+	 * {@link DBObject}s collecting the actual result {@link List}. Entities read by the {@link MappingMongoConverter} are
+	 * read in pages of {@value #DBREF_PREFETCH_DOCUMENTS} documents sharing a {@link ReadScope}, so that the
+	 * {@link com.mongodb.DBRef}s of a page are resolved in batches. The scope only keeps the raw documents of the
+	 * current page besides the referenced ones.</li>
 	 * <ol>
 	 * 
 	 * @param <T>
@@ -1421,10 +2021,43 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 				cursor = preparer.prepare(cursor);
 			}
 
+			prepareDecoder(cursor, objectCallback);
+
 			List<T> result = new ArrayList<T>();
+			Iterator<DBObject> iterator = iteratorFor(cursor, preparer);
+
+			if (!(objectCallback instanceof ReadDbObjectCallback)
+					|| !((ReadDbObjectCallback<T>) objectCallback).readsThroughMappingConverter()) {
+
+				while (iterator.hasNext()) {
+					result.add(objectCallback.doWith(iterator.next()));
+				}
+
+				return result;
+			}
+
+			Class<T> type = ((ReadDbObjectCallback<T>) objectCallback).getType();
+			ReadScope scope = ((MappingMongoConverter) mongoConverter).openReadScope();
+			List<DBObject> page = new ArrayList<DBObject>();
+
+			try {
+				while (iterator.hasNext()) {
 
-			for (DBObject object : cursor) {
-				result.add(objectCallback.doWith(object));
+					page.add(iterator.next());
+
+					if (page.size() == DBREF_PREFETCH_DOCUMENTS || !iterator.hasNext()) {
+
+						scope.prefetch(type, page);
+
+						for (DBObject document : page) {
+							result.add(objectCallback.doWith(document));
+						}
+
+						page.clear();
+					}
+				}
+			} finally {
+				scope.close();
 			}
 
 			return result;
@@ -1433,6 +2066,41 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		}
 	}
 
+	/**
+	 * Internal method using callback to do queries against the datastore that returns a lazily converting
+	 * {@link CloseableIterator} over the resulting {@link DBCursor} instead of collecting all results in a {@link List}.
+	 * The {@link DbObjectCallback} is only applied to a {@link DBObject} once the client requests the next element.
+	 * 
+	 * @param <T>
+	 * @param collectionCallback the callback to retrieve the {@link DBCursor} with
+	 * @param preparer the {@link CursorPreparer} to potentially modify the {@link DBCursor} before iterating over it
+	 * @param objectCallback the {@link DbObjectCallback} to transform {@link DBObject}s into the actual domain type
+	 * @param collectionName the collection to be queried
+	 * @return
+	 */
+	private <T> CloseableIterator<T> executeStreamInternal(CollectionCallback<DBCursor> collectionCallback,
+			CursorPreparer preparer, DbObjectCallback<T> objectCallback, String collectionName) {
+
+		DBCursor cursor = null;
+
+		try {
+			cursor = collectionCallback.doInCollection(getAndPrepareCollection(getDb(), collectionName));
+
+			if (preparer != null) {
+				cursor = preparer.prepare(cursor);
+			}
+
+			prepareDecoder(cursor, objectCallback);
+
+			return new CursorBackedIterator<T>(cursor, iteratorFor(cursor, preparer), objectCallback);
+		} catch (RuntimeException e) {
+			if (cursor != null) {
+				cursor.close();
+			}
+			throw potentiallyConvertRuntimeException(e);
+		}
+	}
+
 	private void executeQueryInternal(CollectionCallback<DBCursor> collectionCallback, CursorPreparer preparer,
 			DocumentCallbackHandler callbackHandler, String collectionName) {
 
@@ -1443,14 +2111,61 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 				cursor = preparer.prepare(cursor);
 			}
 
-			for (DBObject dbobject : cursor) {
-				callbackHandler.processDocument(dbobject);
+			Iterator<DBObject> iterator = iteratorFor(cursor, preparer);
+
+			while (iterator.hasNext()) {
+				callbackHandler.processDocument(iterator.next());
 			}
 		} catch (RuntimeException e) {
 			throw potentiallyConvertRuntimeException(e);
 		}
 	}
 
+	/**
+	 * Configures the given {@link DBCursor} to only decode the fields the entities read by the given
+	 * {@link DbObjectCallback} map if possible.
+	 * 
+	 * @param cursor
+	 * @param objectCallback
+	 * @see #setEntityDocumentReads(boolean)
+	 */
+	private void prepareDecoder(DBCursor cursor, DbObjectCallback<?> objectCallback) {
+
+		if (!entityDocumentReads || !(objectCallback instanceof ReadDbObjectCallback)) {
+			return;
+		}
+
+		DBDecoderFactory decoderFactory = ((ReadDbObjectCallback<?>) objectCallback).getDecoderFactory();
+
+		if (decoderFactory != null) {
+			cursor.setDecoderFactory(decoderFactory);
+		}
+	}
+
+	/**
+	 * Returns the {@link Iterator} to read the documents of the given {@link DBCursor} with. Lets a
+	 * {@link QueryCursorPreparer} take part in the iteration to adapt the cursor's batch size if necessary.
+	 * 
+	 * @param cursor the already prepared {@link DBCursor}
+	 * @param preparer the {@link CursorPreparer} used to prepare the cursor, can be {@literal null}.
+	 * @return
+	 */
+	private Iterator<DBObject> iteratorFor(DBCursor cursor, CursorPreparer preparer) {
+		return preparer instanceof QueryCursorPreparer ? ((QueryCursorPreparer) preparer).iterator(cursor) : cursor;
+	}
+
+	/**
+	 * Returns the collection to track entities read from the given collection with the given fields for, i.e.
+	 * {@literal null} if dirty tracking is disabled or the documents are only read partially.
+	 * 
+	 * @param collectionName
+	 * @param fields
+	 * @return
+	 */
+	private String getTrackingCollection(String collectionName, DBObject fields) {
+		return dirtyTracking && (fields == null || fields.keySet().isEmpty()) ? collectionName : null;
+	}
+
 	private MongoPersistentEntity<?> getPersistentEntity(Class<?> type) {
 		return type == null ? null : mappingContext.getPersistentEntity(type);
 	}
@@ -1533,6 +2248,38 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 
 	// Callback implementations
 
+	/**
+	 * {@link CollectionCallback} answering lookups from a {@link EntityCache.CacheRegion} and caching the documents
+	 * found by the given delegate otherwise.
+	 */
+	private static class CachingFindOneCallback implements CollectionCallback<DBObject> {
+
+		private final CollectionCallback<DBObject> delegate;
+		private final EntityCache.CacheRegion region;
+		private final String key;
+
+		public CachingFindOneCallback(CollectionCallback<DBObject> delegate, EntityCache.CacheRegion region, String key) {
+			this.delegate = delegate;
+			this.region = region;
+			this.key = key;
+		}
+
+		public DBObject doInCollection(DBCollection collection) throws MongoException, DataAccessException {
+
+			DBObject cached = region.get(key);
+
+			if (cached != null) {
+				return cached;
+			}
+
+			long generation = region.getGeneration();
+			DBObject result = delegate.doInCollection(collection);
+			region.put(key, result, generation);
+
+			return result;
+		}
+	}
+
 	/**
 	 * Simple {@link CollectionCallback} that takes a query {@link DBObject} plus an optional fields specification
 	 * {@link DBObject} and executes that against the {@link DBCollection}.
@@ -1649,7 +2396,7 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 	 * @author Oliver Gierke
 	 */
 
-	private interface DbObjectCallback<T> {
+	interface DbObjectCallback<T> {
 
 		T doWith(DBObject object);
 	}
@@ -1664,26 +2411,194 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 
 		private final EntityReader<? super T, DBObject> reader;
 		private final Class<T> type;
+		private final String trackingCollection;
 
 		public ReadDbObjectCallback(EntityReader<? super T, DBObject> reader, Class<T> type) {
+			this(reader, type, null);
+		}
+
+		/**
+		 * @param reader must not be {@literal null}.
+		 * @param type must not be {@literal null}.
+		 * @param trackingCollection the collection to register snapshots of the documents read for, {@literal null} to not
+		 *          track the entities read.
+		 */
+		public ReadDbObjectCallback(EntityReader<? super T, DBObject> reader, Class<T> type, String trackingCollection) {
 			Assert.notNull(reader);
 			Assert.notNull(type);
 			this.reader = reader;
 			this.type = type;
+			this.trackingCollection = trackingCollection;
+		}
+
+		/**
+		 * Returns the {@link DBDecoderFactory} to decode the documents to be read with or {@literal null} if they have to
+		 * be decoded in full.
+		 * 
+		 * @return
+		 */
+		public DBDecoderFactory getDecoderFactory() {
+
+			if (!readsThroughMappingConverter() || trackingCollection != null
+					|| hasEventListeners(AfterLoadEvent.class, type) || hasEventListeners(AfterConvertEvent.class, type)) {
+				return null;
+			}
+
+			return ((MappingMongoConverter) mongoConverter).getDecoderFactory(type);
+		}
+
+		/**
+		 * @return whether the documents are read by the template's {@link MappingMongoConverter}.
+		 */
+		public boolean readsThroughMappingConverter() {
+			return reader == mongoConverter && mongoConverter instanceof MappingMongoConverter;
+		}
+
+		public Class<T> getType() {
+			return type;
 		}
 
 		public T doWith(DBObject object) {
 			if (null != object) {
-				maybeEmitEvent(new AfterLoadEvent<T>(object, type));
+				if (hasEventListeners(AfterLoadEvent.class, type)) {
+					maybeEmitEvent(new AfterLoadEvent<T>(object, type));
+				}
 			}
 			T source = reader.read(type, object);
 			if (null != source) {
-				maybeEmitEvent(new AfterConvertEvent<T>(object, source));
+				if (hasEventListeners(AfterConvertEvent.class, source.getClass())) {
+					maybeEmitEvent(new AfterConvertEvent<T>(object, source));
+				}
+				if (trackingCollection != null && object.get(ID) != null) {
+					snapshots.put(source, trackingCollection, object);
+				}
 			}
 			return source;
 		}
 	}
 
+	/**
+	 * {@link DbObjectCallback} reading {@link DBObject}s into a projection type. DTO classes are read directly, interfaces
+	 * are backed by an instance of the source entity read from the narrowed document.
+	 */
+	private class ProjectingDbObjectCallback<T> implements DbObjectCallback<T> {
+
+		private final ProjectionInformation projection;
+		private final Class<T> type;
+		private final DbObjectCallback<?> delegate;
+
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		public ProjectingDbObjectCallback(ProjectionInformation projection, Class<T> type) {
+
+			this.projection = projection;
+			this.type = type;
+			this.delegate = projection.isInterfaceProjection() ? new ReadDbObjectCallback(mongoConverter, projection
+					.getSourceEntity().getType()) : new ReadDbObjectCallback<T>(mongoConverter, type);
+		}
+
+		@SuppressWarnings("unchecked")
+		public T doWith(DBObject object) {
+
+			Object result = delegate.doWith(object);
+
+			if (!projection.isInterfaceProjection()) {
+				return (T) result;
+			}
+
+			return ProjectingInvocationHandler.createProxy(type, result, mappingContext,
+					mongoConverter.getConversionService());
+		}
+	}
+
+	/**
+	 * {@link CloseableIterator} that reads {@link DBObject}s from a {@link DBCursor} on demand and converts them using the
+	 * given {@link DbObjectCallback}. The cursor is closed as soon as it is exhausted or an exception occurs. Exceptions
+	 * are translated the same way as for all other template operations.
+	 */
+	private class CursorBackedIterator<T> implements CloseableIterator<T> {
+
+		private final DBCursor cursor;
+		private final Iterator<DBObject> source;
+		private final DbObjectCallback<T> objectCallback;
+		private boolean closed = false;
+
+		public CursorBackedIterator(DBCursor cursor, Iterator<DBObject> source, DbObjectCallback<T> objectCallback) {
+			Assert.notNull(cursor);
+			Assert.notNull(source);
+			Assert.notNull(objectCallback);
+			this.cursor = cursor;
+			this.source = source;
+			this.objectCallback = objectCallback;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.Iterator#hasNext()
+		 */
+		public boolean hasNext() {
+
+			if (closed) {
+				return false;
+			}
+
+			try {
+				boolean hasNext = source.hasNext();
+				if (!hasNext) {
+					close();
+				}
+				return hasNext;
+			} catch (RuntimeException e) {
+				close();
+				throw potentiallyConvertRuntimeException(e);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.Iterator#next()
+		 */
+		public T next() {
+
+			if (closed) {
+				throw new NoSuchElementException("Cursor has already been closed!");
+			}
+
+			try {
+				return objectCallback.doWith(source.next());
+			} catch (RuntimeException e) {
+				close();
+				throw potentiallyConvertRuntimeException(e);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.Iterator#remove()
+		 */
+		public void remove() {
+			throw new UnsupportedOperationException("Removing elements is not supported by a cursor!");
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.data.mongodb.core.CloseableIterator#close()
+		 */
+		public void close() {
+
+			if (closed) {
+				return;
+			}
+
+			closed = true;
+
+			try {
+				cursor.close();
+			} catch (RuntimeException e) {
+				throw potentiallyConvertRuntimeException(e);
+			}
+		}
+	}
+
 	private class DefaultWriteConcernResolver implements WriteConcernResolver {
 
 		public WriteConcern resolve(MongoAction action) {
@@ -1711,7 +2626,8 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 			}
 
 			if (query.getSkip() <= 0 && query.getLimit() <= 0 && query.getSortObject() == null
-					&& !StringUtils.hasText(query.getHint())) {
+					&& !StringUtils.hasText(query.getHint()) && query.getBatchSize() == 0
+					&& query.getAdaptiveBatchSize() == null && !query.isNoCursorTimeout() && !query.isSlaveOk()) {
 				return cursor;
 			}
 
@@ -1730,12 +2646,40 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 				if (StringUtils.hasText(query.getHint())) {
 					cursorToUse = cursorToUse.hint(query.getHint());
 				}
+				if (query.getAdaptiveBatchSize() != null) {
+					cursorToUse = cursorToUse.batchSize(query.getAdaptiveBatchSize().getCurrentBatchSize());
+				} else if (query.getBatchSize() != 0) {
+					cursorToUse = cursorToUse.batchSize(query.getBatchSize());
+				}
+				if (query.isNoCursorTimeout()) {
+					cursorToUse = cursorToUse.addOption(Bytes.QUERYOPTION_NOTIMEOUT);
+				}
+				if (query.isSlaveOk()) {
+					cursorToUse = cursorToUse.addOption(Bytes.QUERYOPTION_SLAVEOK);
+				}
 			} catch (RuntimeException e) {
 				throw potentiallyConvertRuntimeException(e);
 			}
 
 			return cursorToUse;
 		}
+
+		/**
+		 * Returns the {@link Iterator} to be used to read the documents from the given, already prepared {@link DBCursor}.
+		 * Adapts the batch size of the cursor while iterating if the {@link Query} is configured to use an
+		 * {@link org.springframework.data.mongodb.core.query.AdaptiveBatchSize}.
+		 * 
+		 * @param cursor
+		 * @return
+		 */
+		public Iterator<DBObject> iterator(DBCursor cursor) {
+
+			if (query == null || query.getAdaptiveBatchSize() == null) {
+				return cursor;
+			}
+
+			return new AdaptiveBatchSizingIterator(cursor, query.getAdaptiveBatchSize());
+		}
 	}
 
 	/**
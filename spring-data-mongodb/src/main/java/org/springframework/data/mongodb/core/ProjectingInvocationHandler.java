@@ -0,0 +1,142 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mapping.model.BeanWrapper;
+import org.springframework.data.mapping.model.MappingException;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link InvocationHandler} backing a projection interface by an instance of the source entity. Accessor methods of
+ * the interface are answered with the value of the entity property of the same name. Values of properties declared as
+ * interface not implemented by the actual value are projected recursively.
+ */
+class ProjectingInvocationHandler implements InvocationHandler {
+
+	private final Object target;
+	private final MongoPersistentEntity<?> entity;
+	private final MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext;
+	private final ConversionService conversionService;
+
+	/**
+	 * Creates a new {@link ProjectingInvocationHandler} for the given target.
+	 *
+	 * @param target must not be {@literal null}.
+	 * @param mappingContext must not be {@literal null}.
+	 * @param conversionService must not be {@literal null}.
+	 */
+	public ProjectingInvocationHandler(Object target,
+			MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext,
+			ConversionService conversionService) {
+
+		Assert.notNull(target);
+		Assert.notNull(mappingContext);
+		Assert.notNull(conversionService);
+
+		this.target = target;
+		this.entity = mappingContext.getPersistentEntity(target.getClass());
+		this.mappingContext = mappingContext;
+		this.conversionService = conversionService;
+	}
+
+	/**
+	 * Creates a proxy implementing the given projection interface backed by the given target.
+	 *
+	 * @param projectionType must be an interface.
+	 * @param target can be {@literal null}.
+	 * @param mappingContext must not be {@literal null}.
+	 * @param conversionService must not be {@literal null}.
+	 * @return the proxy or {@literal null} if the given target is {@literal null}.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T createProxy(Class<T> projectionType, Object target,
+			MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext,
+			ConversionService conversionService) {
+
+		Assert.isTrue(projectionType.isInterface(), "Projection type must be an interface!");
+
+		if (target == null) {
+			return null;
+		}
+
+		return (T) Proxy.newProxyInstance(projectionType.getClassLoader(), new Class<?>[] { projectionType },
+				new ProjectingInvocationHandler(target, mappingContext, conversionService));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.reflect.InvocationHandler#invoke(java.lang.Object, java.lang.reflect.Method, java.lang.Object[])
+	 */
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+		if (method.getDeclaringClass().equals(Object.class)) {
+
+			if ("equals".equals(method.getName())) {
+				return args[0] != null && Proxy.isProxyClass(args[0].getClass())
+						&& target.equals(getTarget(Proxy.getInvocationHandler(args[0])));
+			}
+
+			return method.invoke(target, args);
+		}
+
+		PropertyDescriptor descriptor = BeanUtils.findPropertyForMethod(method);
+		MongoPersistentProperty property = descriptor == null || entity == null ? null : entity
+				.getPersistentProperty(descriptor.getName());
+
+		if (property == null) {
+			throw new MappingException(String.format("Projection method %s does not map to a property of %s!", method,
+					target.getClass().getName()));
+		}
+
+		Object value;
+
+		try {
+			value = BeanWrapper.create(target, conversionService).getProperty(property, Object.class, true);
+		} catch (IllegalAccessException e) {
+			throw new MappingException(e.getMessage(), e);
+		} catch (InvocationTargetException e) {
+			throw new MappingException(e.getMessage(), e);
+		}
+
+		Class<?> returnType = method.getReturnType();
+
+		if (value == null || ClassUtils.isAssignableValue(returnType, value)) {
+			return value;
+		}
+
+		if (returnType.isInterface()) {
+			return createProxy(returnType, value, mappingContext, conversionService);
+		}
+
+		return conversionService.convert(value, returnType);
+	}
+
+	private static Object getTarget(InvocationHandler handler) {
+		return handler instanceof ProjectingInvocationHandler ? ((ProjectingInvocationHandler) handler).target : null;
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.util.Assert;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Information about reading documents of a source entity into a projection type, i.e. a DTO class or an interface
+ * exposing a subset of the entity's properties. The fields to be returned by the server are derived from the
+ * properties the projection type and the source entity have in common. Properties of the projection type unknown to the
+ * source entity are ignored.
+ */
+class ProjectionInformation {
+
+	private final Class<?> projectionType;
+	private final MongoPersistentEntity<?> sourceEntity;
+	private final DBObject fieldsObject;
+
+	/**
+	 * Creates a new {@link ProjectionInformation} for the given projection type and source entity.
+	 *
+	 * @param projectionType must not be {@literal null}.
+	 * @param sourceEntity must not be {@literal null}.
+	 * @param mappingContext must not be {@literal null}.
+	 */
+	public ProjectionInformation(Class<?> projectionType, MongoPersistentEntity<?> sourceEntity,
+			MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext) {
+
+		Assert.notNull(projectionType);
+		Assert.notNull(sourceEntity);
+		Assert.notNull(mappingContext);
+
+		this.projectionType = projectionType;
+		this.sourceEntity = sourceEntity;
+		this.fieldsObject = isProjecting() ? createFieldsObject(mappingContext) : null;
+	}
+
+	/**
+	 * Returns whether the projection type actually differs from the source entity, i.e. the documents have to be
+	 * narrowed.
+	 *
+	 * @return
+	 */
+	public boolean isProjecting() {
+		return !projectionType.isAssignableFrom(sourceEntity.getType());
+	}
+
+	/**
+	 * Returns whether the projection type is an interface to be backed by an instance of the source entity.
+	 *
+	 * @return
+	 */
+	public boolean isInterfaceProjection() {
+		return isProjecting() && projectionType.isInterface();
+	}
+
+	/**
+	 * Returns the fields specification selecting the properties of the projection or {@literal null} if the documents
+	 * are not to be narrowed as the projection type is not a real projection or doesn't share any property with the
+	 * source entity.
+	 *
+	 * @return
+	 */
+	public DBObject getFieldsObject() {
+		return fieldsObject;
+	}
+
+	public Class<?> getProjectionType() {
+		return projectionType;
+	}
+
+	public MongoPersistentEntity<?> getSourceEntity() {
+		return sourceEntity;
+	}
+
+	private DBObject createFieldsObject(
+			MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext) {
+
+		DBObject fields = new BasicDBObject();
+
+		for (String propertyName : getProjectionPropertyNames(mappingContext)) {
+
+			MongoPersistentProperty property = sourceEntity.getPersistentProperty(propertyName);
+
+			if (property != null) {
+				fields.put(property.getFieldName(), 1);
+			}
+		}
+
+		return fields.keySet().isEmpty() ? null : fields;
+	}
+
+	private List<String> getProjectionPropertyNames(
+			MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext) {
+
+		final List<String> names = new ArrayList<String>();
+
+		if (projectionType.isInterface()) {
+
+			for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(projectionType)) {
+				if (descriptor.getReadMethod() != null) {
+					names.add(descriptor.getName());
+				}
+			}
+
+			return names;
+		}
+
+		MongoPersistentEntity<?> projectionEntity = mappingContext.getPersistentEntity(projectionType);
+
+		if (projectionEntity == null) {
+			return Collections.emptyList();
+		}
+
+		projectionEntity.doWithProperties(new PropertyHandler<MongoPersistentProperty>() {
+			public void doWithPersistentProperty(MongoPersistentProperty property) {
+				names.add(property.getName());
+			}
+		});
+
+		return names;
+	}
+}
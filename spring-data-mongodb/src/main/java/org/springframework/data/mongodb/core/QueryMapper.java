@@ -16,6 +16,7 @@
 package org.springframework.data.mongodb.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
@@ -39,6 +40,8 @@ import com.mongodb.DBObject;
  */
 public class QueryMapper {
 
+	private static final String[] ID_RANGE_OPERATORS = new String[] { "$gt", "$gte", "$lt", "$lte" };
+
 	private final ConversionService conversionService;
 	private final MongoConverter converter;
 
@@ -77,25 +80,34 @@ public class QueryMapper {
 		for (String key : query.keySet()) {
 			String newKey = key;
 			Object value = query.get(key);
-			if (key.equals(idKey)) {
+			if (key.equals(idKey) || key.equals("_id")) {
 				if (value instanceof DBObject) {
 					DBObject valueDbo = (DBObject) value;
 					if (valueDbo.containsField("$in") || valueDbo.containsField("$nin")) {
 						String inKey = valueDbo.containsField("$in") ? "$in" : "$nin";
 						List<Object> ids = new ArrayList<Object>();
-						for (Object id : (Object[]) valueDbo.get(inKey)) {
+						Object inValue = valueDbo.get(inKey);
+						Iterable<?> rawIds = inValue instanceof Object[] ? Arrays.asList((Object[]) inValue)
+								: (Iterable<?>) inValue;
+						for (Object id : rawIds) {
 							ids.add(convertId(id));
 						}
 						valueDbo.put(inKey, ids.toArray(new Object[ids.size()]));
 					} else {
-						value = getMappedObject((DBObject) value, entity);
+						DBObject mappedValue = getMappedObject(valueDbo, entity);
+						for (String operator : ID_RANGE_OPERATORS) {
+							if (mappedValue.containsField(operator)) {
+								mappedValue.put(operator, convertId(mappedValue.get(operator)));
+							}
+						}
+						value = mappedValue;
 					}
 				} else {
 					value = convertId(value);
 				}
 				newKey = "_id";
-			} else if (key.startsWith("$") && key.endsWith("or")) {
-				// $or/$nor
+			} else if ((key.startsWith("$") && key.endsWith("or")) || key.equals("$and")) {
+				// $or/$nor/$and
 				BasicBSONList conditions = (BasicBSONList) value;
 				BasicBSONList newConditions = new BasicBSONList();
 				Iterator<Object> iter = conditions.iterator();
@@ -0,0 +1,725 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import com.mongodb.DBObject;
+
+/**
+ * Buffer deferring the writes of {@link MongoTemplate#save(Object)} to a background flusher. Documents are queued in
+ * striped per-collection queues keyed by their {@code _id}, so that repeated saves of the same document before a flush
+ * collapse into a single write of the latest version. The buffer is flushed every flush interval and whenever a stripe
+ * reaches the batch size, writing the documents of a collection in pipelined batches.
+ * <p/>
+ * The number of buffered documents is bounded by the capacity. Once it's reached, saves of documents not already
+ * buffered either block until a flush made room or are rejected with a {@link TransientDataAccessResourceException},
+ * depending on the configured {@link OverflowPolicy}. Blocked saves are written directly if the buffer is destroyed in
+ * the meantime. Buffered documents are not visible to queries until flushed. Removes and updates issued through the
+ * template write the documents buffered for their collection first, so that a later flush doesn't overwrite them.
+ * <p/>
+ * Documents of a failed flush stay buffered and keep occupying capacity. The collection is retried with an exponential
+ * backoff starting at the flush interval and capped at the maximum retry interval, unless a newer version of a document
+ * has been buffered in the meantime. {@link #destroy()} flushes all remaining documents and hands the ones it fails to
+ * write to the configured {@link FailureHandler}.
+ *
+ * @see MongoTemplate#setWriteBehindBuffer(WriteBehindBuffer)
+ */
+public class WriteBehindBuffer implements DisposableBean {
+
+	public static final int DEFAULT_CAPACITY = 10000;
+	public static final int DEFAULT_BATCH_SIZE = 500;
+	public static final long DEFAULT_FLUSH_INTERVAL = 1000;
+	public static final int DEFAULT_STRIPES = 16;
+	public static final long DEFAULT_MAX_RETRY_INTERVAL = 60 * 1000;
+
+	private static final Log LOGGER = LogFactory.getLog(WriteBehindBuffer.class);
+	private static final String ID = "_id";
+
+	/**
+	 * What to do with a document to be buffered if the buffer is full.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Block the saving thread until a flush made room for the document.
+		 */
+		BLOCK,
+
+		/**
+		 * Reject the document by throwing a {@link TransientDataAccessResourceException}.
+		 */
+		REJECT
+	}
+
+	/**
+	 * Callback for documents that could not be written before the buffer was destroyed.
+	 */
+	public interface FailureHandler {
+
+		/**
+		 * Handles the given documents the final flush failed to write.
+		 * 
+		 * @param collectionName the collection the documents were to be written to.
+		 * @param documents the documents not written.
+		 * @param cause the exception the write failed with.
+		 */
+		void handle(String collectionName, List<DBObject> documents, RuntimeException cause);
+	}
+
+	private final int batchSize;
+	private final long flushInterval;
+	private final int stripes;
+	private final OverflowPolicy overflowPolicy;
+
+	private final Semaphore permits;
+	private final ConcurrentMap<String, Stripe[]> queues = new ConcurrentHashMap<String, Stripe[]>();
+	private final ReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
+	private final Object flushMonitor = new Object();
+	private final AtomicBoolean flushRequested = new AtomicBoolean();
+	private final Map<String, Retry> retries = new HashMap<String, Retry>();
+
+	private final AtomicInteger queueDepth = new AtomicInteger();
+	private final AtomicLong coalescedCount = new AtomicLong();
+	private final AtomicLong rejectedCount = new AtomicLong();
+	private final AtomicLong flushCount = new AtomicLong();
+	private final AtomicLong flushedDocumentCount = new AtomicLong();
+	private final AtomicLong failedFlushCount = new AtomicLong();
+	private final AtomicLong lastFlushLatency = new AtomicLong();
+	private final AtomicLong maxFlushLatency = new AtomicLong();
+	private final AtomicLong totalFlushLatency = new AtomicLong();
+
+	private volatile long maxRetryInterval = DEFAULT_MAX_RETRY_INTERVAL;
+	private volatile FailureHandler failureHandler = new LoggingFailureHandler();
+	private volatile Writer writer;
+	private volatile ScheduledExecutorService scheduler;
+	private volatile boolean destroyed;
+
+	/**
+	 * Creates a new {@link WriteBehindBuffer} buffering up to {@value #DEFAULT_CAPACITY} documents, flushing every
+	 * {@value #DEFAULT_FLUSH_INTERVAL} milliseconds or {@value #DEFAULT_BATCH_SIZE} documents and blocking saves if full.
+	 */
+	public WriteBehindBuffer() {
+		this(DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL, OverflowPolicy.BLOCK);
+	}
+
+	/**
+	 * Creates a new {@link WriteBehindBuffer}.
+	 *
+	 * @param capacity the maximum number of buffered documents, must be positive.
+	 * @param batchSize the number of documents per collection stripe triggering a flush, must be positive.
+	 * @param flushInterval the interval in milliseconds to flush the buffer in, must be positive.
+	 * @param overflowPolicy must not be {@literal null}.
+	 */
+	public WriteBehindBuffer(int capacity, int batchSize, long flushInterval, OverflowPolicy overflowPolicy) {
+		this(capacity, batchSize, flushInterval, overflowPolicy, DEFAULT_STRIPES);
+	}
+
+	/**
+	 * Creates a new {@link WriteBehindBuffer}.
+	 *
+	 * @param capacity the maximum number of buffered documents, must be positive.
+	 * @param batchSize the number of documents per collection stripe triggering a flush, must be positive.
+	 * @param flushInterval the interval in milliseconds to flush the buffer in, must be positive.
+	 * @param overflowPolicy must not be {@literal null}.
+	 * @param stripes the number of independently locked queues per collection, must be positive.
+	 */
+	public WriteBehindBuffer(int capacity, int batchSize, long flushInterval, OverflowPolicy overflowPolicy, int stripes) {
+
+		Assert.isTrue(capacity > 0, "Capacity must be greater than zero!");
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than zero!");
+		Assert.isTrue(flushInterval > 0, "Flush interval must be greater than zero!");
+		Assert.notNull(overflowPolicy);
+		Assert.isTrue(stripes > 0, "Number of stripes must be greater than zero!");
+
+		this.permits = new Semaphore(capacity);
+		this.batchSize = batchSize;
+		this.flushInterval = flushInterval;
+		this.overflowPolicy = overflowPolicy;
+		this.stripes = stripes;
+	}
+
+	/**
+	 * Configures the maximum interval in milliseconds to retry a collection whose flush failed in. Defaults to
+	 * {@value #DEFAULT_MAX_RETRY_INTERVAL}.
+	 * 
+	 * @param maxRetryInterval must be positive.
+	 */
+	public void setMaxRetryInterval(long maxRetryInterval) {
+
+		Assert.isTrue(maxRetryInterval > 0, "Maximum retry interval must be greater than zero!");
+		this.maxRetryInterval = maxRetryInterval;
+	}
+
+	/**
+	 * Configures the {@link FailureHandler} to hand the documents to that could not be written by the final flush of
+	 * {@link #destroy()}. Defaults to logging them at error level.
+	 * 
+	 * @param failureHandler must not be {@literal null}.
+	 */
+	public void setFailureHandler(FailureHandler failureHandler) {
+
+		Assert.notNull(failureHandler);
+		this.failureHandler = failureHandler;
+	}
+
+	/**
+	 * Binds the buffer to the given {@link Writer} and starts the background flusher.
+	 *
+	 * @param writer must not be {@literal null}.
+	 */
+	synchronized void start(Writer writer) {
+
+		Assert.notNull(writer);
+		Assert.state(this.writer == null, "WriteBehindBuffer is already in use by another MongoTemplate!");
+
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("mongo-write-behind-");
+		threadFactory.setDaemon(true);
+
+		this.writer = writer;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+		this.scheduler.scheduleWithFixedDelay(new Runnable() {
+			public void run() {
+				flush(false);
+			}
+		}, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Buffers the given document replacing an already buffered document with the same id.
+	 *
+	 * @param collectionName must not be {@literal null}.
+	 * @param document must not be {@literal null} and must carry an id.
+	 * @return whether the document was buffered, {@literal false} if the buffer has been destroyed and the document has
+	 *         to be written directly.
+	 */
+	boolean add(String collectionName, DBObject document) {
+
+		Object id = document.get(ID);
+		Assert.notNull(id, "Buffered documents must have an id!");
+		Assert.state(writer != null, "WriteBehindBuffer has not been started!");
+
+		lifecycleLock.readLock().lock();
+
+		try {
+
+			if (destroyed) {
+				return false;
+			}
+
+			if (getStripe(collectionName, id).replace(id, document)) {
+				coalescedCount.incrementAndGet();
+				return true;
+			}
+
+		} finally {
+			lifecycleLock.readLock().unlock();
+		}
+
+		// wait for capacity without blocking destroy()
+		if (!acquirePermit()) {
+			return false;
+		}
+
+		lifecycleLock.readLock().lock();
+
+		try {
+
+			if (destroyed) {
+				permits.release();
+				return false;
+			}
+
+			Stripe stripe = getStripe(collectionName, id);
+
+			if (stripe.put(id, document)) {
+				permits.release();
+				coalescedCount.incrementAndGet();
+			} else {
+				queueDepth.incrementAndGet();
+			}
+
+			if (stripe.size() >= batchSize) {
+				requestFlush();
+			}
+
+			return true;
+
+		} finally {
+			lifecycleLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Writes all buffered documents on the calling thread, including the ones of collections waiting for a retry.
+	 */
+	public void flush() {
+		flush(true);
+	}
+
+	/**
+	 * Writes the buffered documents of the given collection on the calling thread after waiting for a flush of the
+	 * collection in progress, so that writes issued afterwards are applied after the buffered ones. Used before removes
+	 * and updates, which would otherwise be overwritten by the upserts of a later flush.
+	 * 
+	 * @param collectionName must not be {@literal null}.
+	 * @throws RuntimeException the exception writing the documents failed with, the documents stay buffered then.
+	 */
+	void flush(String collectionName) {
+
+		synchronized (flushMonitor) {
+
+			Stripe[] collectionStripes = queues.get(collectionName);
+
+			if (collectionStripes != null) {
+				flush(collectionName, collectionStripes, true);
+			}
+		}
+	}
+
+	private void flush(boolean includeRetries) {
+
+		synchronized (flushMonitor) {
+
+			flushRequested.set(false);
+			long now = System.currentTimeMillis();
+
+			for (Map.Entry<String, Stripe[]> entry : queues.entrySet()) {
+
+				Retry retry = retries.get(entry.getKey());
+
+				if (!includeRetries && retry != null && now < retry.due) {
+					continue;
+				}
+
+				flush(entry.getKey(), entry.getValue(), false);
+			}
+		}
+	}
+
+	private void flush(String collectionName, Stripe[] collectionStripes, boolean propagateFailure) {
+
+		List<DBObject> documents = new ArrayList<DBObject>();
+
+		for (Stripe stripe : collectionStripes) {
+			documents.addAll(stripe.drain());
+		}
+
+		if (!documents.isEmpty()) {
+			queueDepth.addAndGet(-documents.size());
+			write(collectionName, documents, propagateFailure);
+		}
+	}
+
+	/**
+	 * Stops the background flusher and flushes all remaining documents. Documents saved afterwards are written directly.
+	 *
+	 * @see org.springframework.beans.factory.DisposableBean#destroy()
+	 */
+	public void destroy() {
+
+		lifecycleLock.writeLock().lock();
+
+		try {
+			if (destroyed) {
+				return;
+			}
+			destroyed = true;
+		} finally {
+			lifecycleLock.writeLock().unlock();
+		}
+
+		if (scheduler != null) {
+
+			scheduler.shutdown();
+
+			try {
+				scheduler.awaitTermination(flushInterval, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		flush();
+	}
+
+	/**
+	 * @return the number of documents currently buffered.
+	 */
+	public int getQueueDepth() {
+		return queueDepth.get();
+	}
+
+	/**
+	 * @param collectionName must not be {@literal null}.
+	 * @return the number of documents currently buffered for the given collection.
+	 */
+	public int getQueueDepth(String collectionName) {
+
+		Stripe[] collectionStripes = queues.get(collectionName);
+		int depth = 0;
+
+		if (collectionStripes != null) {
+			for (Stripe stripe : collectionStripes) {
+				depth += stripe.size();
+			}
+		}
+
+		return depth;
+	}
+
+	/**
+	 * @return the number of saves that replaced an already buffered version of the document.
+	 */
+	public long getCoalescedCount() {
+		return coalescedCount.get();
+	}
+
+	/**
+	 * @return the number of saves rejected because the buffer was full.
+	 */
+	public long getRejectedCount() {
+		return rejectedCount.get();
+	}
+
+	/**
+	 * @return the number of collection flushes executed.
+	 */
+	public long getFlushCount() {
+		return flushCount.get();
+	}
+
+	/**
+	 * @return the number of documents written by flushes.
+	 */
+	public long getFlushedDocumentCount() {
+		return flushedDocumentCount.get();
+	}
+
+	/**
+	 * @return the number of collection flushes that failed.
+	 */
+	public long getFailedFlushCount() {
+		return failedFlushCount.get();
+	}
+
+	/**
+	 * @return the time in milliseconds the last collection flush took.
+	 */
+	public long getLastFlushLatency() {
+		return lastFlushLatency.get();
+	}
+
+	/**
+	 * @return the maximum time in milliseconds a collection flush took.
+	 */
+	public long getMaxFlushLatency() {
+		return maxFlushLatency.get();
+	}
+
+	/**
+	 * @return the average time in milliseconds a collection flush took.
+	 */
+	public long getAverageFlushLatency() {
+		long flushes = flushCount.get();
+		return flushes == 0 ? 0 : totalFlushLatency.get() / flushes;
+	}
+
+	private void write(String collectionName, List<DBObject> documents, boolean propagateFailure) {
+
+		long start = System.nanoTime();
+		int written = 0;
+		int restored = 0;
+
+		try {
+
+			while (written < documents.size()) {
+				int end = Math.min(written + batchSize, documents.size());
+				writer.write(collectionName, documents.subList(written, end));
+				written = end;
+			}
+
+			retries.remove(collectionName);
+
+		} catch (RuntimeException e) {
+
+			failedFlushCount.incrementAndGet();
+			List<DBObject> failed = documents.subList(written, documents.size());
+
+			if (destroyed) {
+				failureHandler.handle(collectionName, new ArrayList<DBObject>(failed), e);
+			} else {
+				long delay = scheduleRetry(collectionName);
+				restored = restore(collectionName, failed);
+				LOGGER.error("Failed to flush " + failed.size() + " buffered documents to collection " + collectionName
+						+ ", retrying in " + delay + "ms", e);
+			}
+
+			if (propagateFailure) {
+				throw e;
+			}
+
+		} finally {
+
+			flushedDocumentCount.addAndGet(written);
+			queueDepth.addAndGet(restored);
+			permits.release(documents.size() - restored);
+
+			long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			flushCount.incrementAndGet();
+			lastFlushLatency.set(latency);
+			totalFlushLatency.addAndGet(latency);
+
+			long max = maxFlushLatency.get();
+			while (latency > max && !maxFlushLatency.compareAndSet(max, latency)) {
+				max = maxFlushLatency.get();
+			}
+		}
+	}
+
+	/**
+	 * Schedules the next flush attempt for the given collection doubling the delay of the previous one.
+	 * 
+	 * @return the delay in milliseconds.
+	 */
+	private long scheduleRetry(String collectionName) {
+
+		Retry retry = retries.get(collectionName);
+
+		if (retry == null) {
+			retry = new Retry();
+			retries.put(collectionName, retry);
+		}
+
+		long delay = Math.min(flushInterval << Math.min(retry.failures, 30), maxRetryInterval);
+		delay = delay <= 0 ? maxRetryInterval : delay;
+
+		retry.failures++;
+		retry.due = System.currentTimeMillis() + delay;
+
+		return delay;
+	}
+
+	/**
+	 * Puts the given documents of a failed flush back into the buffer unless newer versions have been buffered since.
+	 * 
+	 * @return the number of documents buffered again.
+	 */
+	private int restore(String collectionName, List<DBObject> documents) {
+
+		int restored = 0;
+
+		for (DBObject document : documents) {
+			Object id = document.get(ID);
+			if (getStripe(collectionName, id).restore(id, document)) {
+				restored++;
+			}
+		}
+
+		return restored;
+	}
+
+	/**
+	 * Acquires a permit for a document to be buffered, blocking until one is available if configured. Blocked callers
+	 * give up once the buffer has been destroyed.
+	 * 
+	 * @return whether a permit was acquired, {@literal false} if the buffer has been destroyed in the meantime.
+	 */
+	private boolean acquirePermit() {
+
+		if (permits.tryAcquire()) {
+			return true;
+		}
+
+		requestFlush();
+
+		if (overflowPolicy == OverflowPolicy.REJECT) {
+			rejectedCount.incrementAndGet();
+			throw new TransientDataAccessResourceException("Write-behind buffer is full!");
+		}
+
+		try {
+			while (!permits.tryAcquire(flushInterval, TimeUnit.MILLISECONDS)) {
+				if (destroyed) {
+					return false;
+				}
+				requestFlush();
+			}
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TransientDataAccessResourceException("Interrupted while waiting for write-behind buffer capacity!", e);
+		}
+	}
+
+	private void requestFlush() {
+
+		if (!flushRequested.compareAndSet(false, true)) {
+			return;
+		}
+
+		try {
+			scheduler.execute(new Runnable() {
+				public void run() {
+					flush(false);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			flushRequested.set(false);
+		}
+	}
+
+	private Stripe getStripe(String collectionName, Object id) {
+
+		Stripe[] collectionStripes = queues.get(collectionName);
+
+		if (collectionStripes == null) {
+
+			collectionStripes = new Stripe[stripes];
+			for (int i = 0; i < stripes; i++) {
+				collectionStripes[i] = new Stripe();
+			}
+
+			Stripe[] existing = queues.putIfAbsent(collectionName, collectionStripes);
+			collectionStripes = existing == null ? collectionStripes : existing;
+		}
+
+		return collectionStripes[(id.hashCode() & Integer.MAX_VALUE) % stripes];
+	}
+
+	/**
+	 * Writes flushed documents to the database.
+	 */
+	interface Writer {
+
+		/**
+		 * Writes the given documents, replacing the documents with the same ids.
+		 *
+		 * @param collectionName
+		 * @param documents
+		 */
+		void write(String collectionName, List<DBObject> documents);
+	}
+
+	/**
+	 * Retry state of a collection whose flush failed. Guarded by the flush monitor.
+	 */
+	private static class Retry {
+
+		private int failures;
+		private long due;
+	}
+
+	/**
+	 * {@link FailureHandler} logging the documents not written.
+	 */
+	private static class LoggingFailureHandler implements FailureHandler {
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.data.mongodb.core.WriteBehindBuffer.FailureHandler#handle(java.lang.String, java.util.List, java.lang.RuntimeException)
+		 */
+		public void handle(String collectionName, List<DBObject> documents, RuntimeException cause) {
+			LOGGER.error("Failed to flush " + documents.size() + " buffered documents to collection " + collectionName
+					+ " on shutdown: " + documents, cause);
+		}
+	}
+
+	/**
+	 * Queue of buffered documents keyed by their id.
+	 */
+	private static class Stripe {
+
+		private Map<Object, DBObject> pending = new LinkedHashMap<Object, DBObject>();
+
+		/**
+		 * Replaces the buffered document with the given id.
+		 *
+		 * @return whether a document with the given id was buffered.
+		 */
+		public synchronized boolean replace(Object id, DBObject document) {
+
+			if (!pending.containsKey(id)) {
+				return false;
+			}
+
+			pending.put(id, document);
+			return true;
+		}
+
+		/**
+		 * Buffers the given document.
+		 *
+		 * @return whether a document with the given id was already buffered.
+		 */
+		public synchronized boolean put(Object id, DBObject document) {
+			return pending.put(id, document) != null;
+		}
+
+		/**
+		 * Buffers the given document of a failed flush unless a document with the same id has been buffered since.
+		 * 
+		 * @return whether the document was buffered.
+		 */
+		public synchronized boolean restore(Object id, DBObject document) {
+
+			if (pending.containsKey(id)) {
+				return false;
+			}
+
+			pending.put(id, document);
+			return true;
+		}
+
+		public synchronized int size() {
+			return pending.size();
+		}
+
+		public synchronized List<DBObject> drain() {
+
+			if (pending.isEmpty()) {
+				return new ArrayList<DBObject>();
+			}
+
+			List<DBObject> documents = new ArrayList<DBObject>(pending.values());
+			pending = new LinkedHashMap<Object, DBObject>();
+			return documents;
+		}
+	}
+}
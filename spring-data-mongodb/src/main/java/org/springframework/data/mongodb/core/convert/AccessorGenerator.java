@@ -0,0 +1,346 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+
+/**
+ * Generates classes reading and writing properties and invoking constructors of entities with plain bytecode
+ * instructions instead of reflection. Generated classes are defined in a dedicated {@link ClassLoader} per entity and
+ * can thus only access public members of public types. The factory methods return {@literal null} for members that
+ * cannot be accessed that way, e.g. private fields, so that callers fall back to reflection.
+ * <p/>
+ * Uses the ASM repackaged in {@code spring-asm}, so callers have to make sure it's present before using this class.
+ *
+ * @see EntityAccessor
+ */
+class AccessorGenerator implements Opcodes {
+
+	private static final AtomicInteger COUNTER = new AtomicInteger();
+	private static final String NAME_PREFIX = AccessorGenerator.class.getName() + "$$Generated$$";
+	private static final String OBJECT = Type.getInternalName(Object.class);
+
+	private final GeneratingClassLoader classLoader;
+
+	/**
+	 * Creates a new {@link AccessorGenerator} for the given type.
+	 *
+	 * @param type must not be {@literal null}.
+	 */
+	public AccessorGenerator(Class<?> type) {
+		this.classLoader = new GeneratingClassLoader(type.getClassLoader());
+	}
+
+	/**
+	 * Reads a property of an entity.
+	 */
+	public interface Getter {
+
+		Object get(Object bean);
+	}
+
+	/**
+	 * Writes a property of an entity.
+	 */
+	public interface Setter {
+
+		void set(Object bean, Object value);
+	}
+
+	/**
+	 * Creates instances of an entity.
+	 */
+	public interface Instantiator {
+
+		Object newInstance(Object[] arguments);
+	}
+
+	/**
+	 * Generates a {@link Getter} reading the given field or invoking the given getter.
+	 *
+	 * @param member a {@link Field} or a no-argument {@link Method}, must not be {@literal null}.
+	 * @return the {@link Getter} or {@literal null} if the member cannot be accessed by generated code.
+	 */
+	public Getter generateGetter(Member member) {
+
+		Class<?> type = member instanceof Field ? ((Field) member).getType() : ((Method) member).getReturnType();
+
+		if (!isAccessible(member) || !isPublic(type)) {
+			return null;
+		}
+
+		String owner = Type.getInternalName(member.getDeclaringClass());
+		ClassWriter writer = begin(Getter.class);
+
+		MethodVisitor visitor = writer.visitMethod(ACC_PUBLIC, "get", "(Ljava/lang/Object;)Ljava/lang/Object;", null,
+				null);
+		visitor.visitCode();
+		visitor.visitVarInsn(ALOAD, 1);
+		visitor.visitTypeInsn(CHECKCAST, owner);
+
+		if (member instanceof Field) {
+			visitor.visitFieldInsn(GETFIELD, owner, member.getName(), Type.getDescriptor(type));
+		} else {
+			visitor.visitMethodInsn(INVOKEVIRTUAL, owner, member.getName(), Type.getMethodDescriptor((Method) member));
+		}
+
+		box(visitor, type);
+		visitor.visitInsn(ARETURN);
+		visitor.visitMaxs(0, 0);
+		visitor.visitEnd();
+
+		return (Getter) instantiate(writer);
+	}
+
+	/**
+	 * Generates a {@link Setter} writing the given field or invoking the given setter. Values handed to the
+	 * {@link Setter} have to be of the field or parameter type and must not be {@literal null} for primitive ones.
+	 *
+	 * @param member a non-final {@link Field} or a single-argument {@link Method}, must not be {@literal null}.
+	 * @return the {@link Setter} or {@literal null} if the member cannot be accessed by generated code.
+	 */
+	public Setter generateSetter(Member member) {
+
+		boolean field = member instanceof Field;
+		Class<?> type = field ? ((Field) member).getType() : ((Method) member).getParameterTypes()[0];
+
+		if (!isAccessible(member) || !isPublic(type) || (field && Modifier.isFinal(member.getModifiers()))) {
+			return null;
+		}
+
+		String owner = Type.getInternalName(member.getDeclaringClass());
+		ClassWriter writer = begin(Setter.class);
+
+		MethodVisitor visitor = writer.visitMethod(ACC_PUBLIC, "set", "(Ljava/lang/Object;Ljava/lang/Object;)V", null,
+				null);
+		visitor.visitCode();
+		visitor.visitVarInsn(ALOAD, 1);
+		visitor.visitTypeInsn(CHECKCAST, owner);
+		visitor.visitVarInsn(ALOAD, 2);
+		unbox(visitor, type);
+
+		if (field) {
+			visitor.visitFieldInsn(PUTFIELD, owner, member.getName(), Type.getDescriptor(type));
+		} else {
+			Method method = (Method) member;
+			visitor.visitMethodInsn(INVOKEVIRTUAL, owner, method.getName(), Type.getMethodDescriptor(method));
+			pop(visitor, method.getReturnType());
+		}
+
+		visitor.visitInsn(RETURN);
+		visitor.visitMaxs(0, 0);
+		visitor.visitEnd();
+
+		return (Setter) instantiate(writer);
+	}
+
+	/**
+	 * Generates an {@link Instantiator} invoking the given constructor with the given arguments. Arguments have to be
+	 * of the parameter types and must not be {@literal null} for primitive ones.
+	 *
+	 * @param constructor must not be {@literal null}.
+	 * @return the {@link Instantiator} or {@literal null} if the constructor cannot be invoked by generated code.
+	 */
+	public Instantiator generateInstantiator(Constructor<?> constructor) {
+
+		Class<?> type = constructor.getDeclaringClass();
+
+		if (!isAccessible(constructor) || Modifier.isAbstract(type.getModifiers())) {
+			return null;
+		}
+
+		Class<?>[] parameterTypes = constructor.getParameterTypes();
+		StringBuilder descriptor = new StringBuilder("(");
+
+		for (Class<?> parameterType : parameterTypes) {
+			if (!isPublic(parameterType)) {
+				return null;
+			}
+			descriptor.append(Type.getDescriptor(parameterType));
+		}
+
+		String owner = Type.getInternalName(type);
+		ClassWriter writer = begin(Instantiator.class);
+
+		MethodVisitor visitor = writer.visitMethod(ACC_PUBLIC, "newInstance", "([Ljava/lang/Object;)Ljava/lang/Object;",
+				null, null);
+		visitor.visitCode();
+		visitor.visitTypeInsn(NEW, owner);
+		visitor.visitInsn(DUP);
+
+		for (int i = 0; i < parameterTypes.length; i++) {
+			visitor.visitVarInsn(ALOAD, 1);
+			visitor.visitLdcInsn(i);
+			visitor.visitInsn(AALOAD);
+			unbox(visitor, parameterTypes[i]);
+		}
+
+		visitor.visitMethodInsn(INVOKESPECIAL, owner, "<init>", descriptor.append(")V").toString());
+		visitor.visitInsn(ARETURN);
+		visitor.visitMaxs(0, 0);
+		visitor.visitEnd();
+
+		return (Instantiator) instantiate(writer);
+	}
+
+	/**
+	 * Starts a public final class implementing the given interface with a public no-argument constructor.
+	 */
+	private static ClassWriter begin(Class<?> interfaceType) {
+
+		String name = (NAME_PREFIX + COUNTER.incrementAndGet()).replace('.', '/');
+
+		ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		writer.visit(V1_5, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, name, null, OBJECT, new String[] { Type
+				.getInternalName(interfaceType) });
+
+		MethodVisitor visitor = writer.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+		visitor.visitCode();
+		visitor.visitVarInsn(ALOAD, 0);
+		visitor.visitMethodInsn(INVOKESPECIAL, OBJECT, "<init>", "()V");
+		visitor.visitInsn(RETURN);
+		visitor.visitMaxs(0, 0);
+		visitor.visitEnd();
+
+		return writer;
+	}
+
+	private Object instantiate(ClassWriter writer) {
+
+		writer.visitEnd();
+		byte[] bytes = writer.toByteArray();
+
+		try {
+			return classLoader.define(bytes).newInstance();
+		} catch (InstantiationException e) {
+			throw new IllegalStateException(e);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Boxes the primitive value of the given type on top of the stack.
+	 */
+	private static void box(MethodVisitor visitor, Class<?> type) {
+
+		if (!type.isPrimitive()) {
+			return;
+		}
+
+		Class<?> wrapper = getWrapper(type);
+		visitor.visitMethodInsn(INVOKESTATIC, Type.getInternalName(wrapper), "valueOf", "(" + Type.getDescriptor(type)
+				+ ")" + Type.getDescriptor(wrapper));
+	}
+
+	/**
+	 * Casts the object on top of the stack to the given type, unboxing it if the type is primitive.
+	 */
+	private static void unbox(MethodVisitor visitor, Class<?> type) {
+
+		if (!type.isPrimitive()) {
+			visitor.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+			return;
+		}
+
+		String wrapper = Type.getInternalName(getWrapper(type));
+		visitor.visitTypeInsn(CHECKCAST, wrapper);
+		visitor.visitMethodInsn(INVOKEVIRTUAL, wrapper, type.getName() + "Value", "()" + Type.getDescriptor(type));
+	}
+
+	/**
+	 * Discards a value of the given type returned by a method.
+	 */
+	private static void pop(MethodVisitor visitor, Class<?> type) {
+
+		if (type == void.class) {
+			return;
+		}
+
+		visitor.visitInsn(type == long.class || type == double.class ? POP2 : POP);
+	}
+
+	private static Class<?> getWrapper(Class<?> type) {
+
+		if (type == boolean.class) {
+			return Boolean.class;
+		} else if (type == byte.class) {
+			return Byte.class;
+		} else if (type == char.class) {
+			return Character.class;
+		} else if (type == short.class) {
+			return Short.class;
+		} else if (type == int.class) {
+			return Integer.class;
+		} else if (type == long.class) {
+			return Long.class;
+		} else if (type == float.class) {
+			return Float.class;
+		} else {
+			return Double.class;
+		}
+	}
+
+	/**
+	 * Returns whether the given non-static member and its declaring type are public.
+	 */
+	private static boolean isAccessible(Member member) {
+		return Modifier.isPublic(member.getModifiers()) && !Modifier.isStatic(member.getModifiers())
+				&& isPublic(member.getDeclaringClass());
+	}
+
+	/**
+	 * Returns whether generated code can refer to the given type.
+	 */
+	private static boolean isPublic(Class<?> type) {
+
+		while (type.isArray()) {
+			type = type.getComponentType();
+		}
+
+		return type.isPrimitive() || Modifier.isPublic(type.getModifiers());
+	}
+
+	/**
+	 * {@link ClassLoader} defining generated classes. Resolves the entity types through the entity's {@link ClassLoader}
+	 * and falls back to the one of this class for the interfaces implemented by the generated classes.
+	 */
+	private static class GeneratingClassLoader extends ClassLoader {
+
+		public GeneratingClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		public Class<?> define(byte[] bytes) {
+			return defineClass(null, bytes, 0, bytes.length);
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			return AccessorGenerator.class.getClassLoader().loadClass(name);
+		}
+	}
+}
@@ -21,6 +21,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.core.GenericTypeResolver;
 import org.springframework.core.convert.TypeDescriptor;
@@ -55,6 +57,9 @@ public class CustomConversions {
 
 	private final List<Object> converters;
 
+	private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, CacheValue>> customReadTargetTypes;
+	private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, CacheValue>> customWriteTargetTypes;
+
 	/**
 	 * Creates an empty {@link CustomConversions} object.
 	 */
@@ -74,6 +79,8 @@ public class CustomConversions {
 		this.readingPairs = new HashSet<ConvertiblePair>();
 		this.writingPairs = new HashSet<ConvertiblePair>();
 		this.customSimpleTypes = new HashSet<Class<?>>();
+		this.customReadTargetTypes = new ConcurrentHashMap<Class<?>, ConcurrentMap<Class<?>, CacheValue>>();
+		this.customWriteTargetTypes = new ConcurrentHashMap<Class<?>, ConcurrentMap<Class<?>, CacheValue>>();
 
 		this.converters = new ArrayList<Object>();
 		this.converters.add(CustomToStringConverter.INSTANCE);
@@ -204,7 +211,7 @@ public class CustomConversions {
 	 */
 	public Class<?> getCustomWriteTarget(Class<?> source, Class<?> expectedTargetType) {
 		Assert.notNull(source);
-		return getCustomTarget(source, expectedTargetType, writingPairs);
+		return getCustomTarget(source, expectedTargetType, writingPairs, customWriteTargetTypes);
 	}
 
 	/**
@@ -240,23 +247,56 @@ public class CustomConversions {
 	public boolean hasCustomReadTarget(Class<?> source, Class<?> expectedTargetType) {
 		Assert.notNull(source);
 		Assert.notNull(expectedTargetType);
-		return getCustomTarget(source, expectedTargetType, readingPairs) != null;
+		return getCustomTarget(source, expectedTargetType, readingPairs, customReadTargetTypes) != null;
 	}
 
 	/**
-	 * Inspects the given {@link ConvertiblePair} for ones that have a source compatible type as source. Additionally
-	 * checks assignabilty of the target type if one is given.
+	 * Returns the target type for the given source and expected target type from the given cache, inspecting the given
+	 * {@link ConvertiblePair}s on the first lookup of the type combination. Lookups not resulting in a target type are
+	 * cached as well.
 	 * 
 	 * @param source must not be {@literal null}
 	 * @param expectedTargetType
 	 * @param pairs must not be {@literal null}
+	 * @param cache must not be {@literal null}
 	 * @return
 	 */
-	private static Class<?> getCustomTarget(Class<?> source, Class<?> expectedTargetType, Iterable<ConvertiblePair> pairs) {
+	private static Class<?> getCustomTarget(Class<?> source, Class<?> expectedTargetType,
+			Iterable<ConvertiblePair> pairs, ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, CacheValue>> cache) {
 
 		Assert.notNull(source);
 		Assert.notNull(pairs);
 
+		ConcurrentMap<Class<?>, CacheValue> targets = cache.get(source);
+
+		if (targets == null) {
+			targets = new ConcurrentHashMap<Class<?>, CacheValue>();
+			ConcurrentMap<Class<?>, CacheValue> existing = cache.putIfAbsent(source, targets);
+			targets = existing == null ? targets : existing;
+		}
+
+		Class<?> key = expectedTargetType == null ? CacheValue.class : expectedTargetType;
+		CacheValue value = targets.get(key);
+
+		if (value == null) {
+			value = CacheValue.of(getCustomTarget(source, expectedTargetType, pairs));
+			targets.put(key, value);
+		}
+
+		return value.getType();
+	}
+
+	/**
+	 * Inspects the given {@link ConvertiblePair} for ones that have a source compatible type as source. Additionally
+	 * checks assignabilty of the target type if one is given.
+	 * 
+	 * @param source must not be {@literal null}
+	 * @param expectedTargetType
+	 * @param pairs must not be {@literal null}
+	 * @return
+	 */
+	private static Class<?> getCustomTarget(Class<?> source, Class<?> expectedTargetType, Iterable<ConvertiblePair> pairs) {
+
 		for (ConvertiblePair typePair : pairs) {
 			if (typePair.getSourceType().isAssignableFrom(source)) {
 				Class<?> targetType = typePair.getTargetType();
@@ -279,6 +319,28 @@ public class CustomConversions {
 		return MongoSimpleTypes.HOLDER.isSimpleType(type);
 	}
 
+	/**
+	 * Cache entry for the result of a target type lookup, allowing to cache lookups without result.
+	 */
+	private static class CacheValue {
+
+		private static final CacheValue ABSENT = new CacheValue(null);
+
+		private final Class<?> type;
+
+		private CacheValue(Class<?> type) {
+			this.type = type;
+		}
+
+		public static CacheValue of(Class<?> type) {
+			return type == null ? ABSENT : new CacheValue(type);
+		}
+
+		public Class<?> getType() {
+			return type;
+		}
+	}
+
 	private enum CustomToStringConverter implements GenericConverter {
 		INSTANCE;
 
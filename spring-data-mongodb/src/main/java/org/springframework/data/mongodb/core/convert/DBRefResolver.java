@@ -0,0 +1,322 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.DBRef;
+
+/**
+ * Resolves {@link DBRef}s for the duration of a read operation. Fetches the documents of multiple references with a
+ * single {@code $in} query per collection and keeps all documents fetched, so that every referenced document is only
+ * fetched once. Also serves as identity map for the objects read from referenced documents, so that multiple
+ * references to the same document resolve to the same instance. Documents can be fetched with a projection. Those
+ * are kept apart from the complete documents, and so are the objects read from them. Not thread-safe.
+ * 
+ * @see MappingMongoConverter#openReadScope()
+ */
+class DBRefResolver {
+
+	private static final String ID_KEY = "_id";
+
+	private final Map<Key, DBObject> documents = new HashMap<Key, DBObject>();
+	private final Map<Key, Map<Class<?>, Object>> instances = new HashMap<Key, Map<Class<?>, Object>>();
+	private final Map<DBObject, Boolean> scanned = new IdentityHashMap<DBObject, Boolean>();
+	private final Map<DBObject, Boolean> page = new IdentityHashMap<DBObject, Boolean>();
+
+	private int queries;
+
+	/**
+	 * Registers the given fetched document as scanned for references. Fetched documents are kept for the lifetime of
+	 * the resolver anyway, so registering them doesn't retain any additional documents.
+	 * 
+	 * @param document must not be {@literal null}.
+	 * @return {@literal false} if the document had been registered before.
+	 */
+	public boolean markScanned(DBObject document) {
+		return scanned.put(document, Boolean.TRUE) == null;
+	}
+
+	/**
+	 * Registers the given top-level documents as the page of documents currently scanned for references, replacing the
+	 * documents registered before. Thus reading a document of the current page doesn't scan it again, while the
+	 * documents of previous pages are not retained.
+	 * 
+	 * @param documents must not be {@literal null}.
+	 * @return {@literal false} if all given documents belong to the current page already and don't need to be scanned.
+	 */
+	public boolean startPage(Iterable<? extends DBObject> documents) {
+
+		boolean known = true;
+
+		for (DBObject document : documents) {
+			if (document != null && !page.containsKey(document)) {
+				known = false;
+				break;
+			}
+		}
+
+		if (known) {
+			return false;
+		}
+
+		page.clear();
+
+		for (DBObject document : documents) {
+			if (document != null) {
+				page.put(document, Boolean.TRUE);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Fetches the documents of all given references that haven't been fetched yet with one query per collection and
+	 * projection.
+	 * 
+	 * @param references must not be {@literal null}.
+	 * @param fields the projections to fetch the documents of the references at the same index with, {@literal null}
+	 *          elements fetch the complete documents. Must not be {@literal null} and have the size of the references.
+	 * @return the documents fetched by this invocation in the order of the given references, {@literal null} for
+	 *         references resolved before or pointing to a missing document.
+	 */
+	public List<DBObject> fetch(List<DBRef> references, List<DBObject> fields) {
+
+		Assert.notNull(references);
+		Assert.isTrue(fields != null && fields.size() == references.size(), "Fields must be given for every reference!");
+
+		Map<Key, List<DBRef>> byCollection = new LinkedHashMap<Key, List<DBRef>>();
+		Map<Key, DBRef> pending = new HashMap<Key, DBRef>();
+
+		for (int i = 0; i < references.size(); i++) {
+
+			DBRef reference = references.get(i);
+			Key key = new Key(reference, fields.get(i));
+
+			if (isKnown(key) || pending.containsKey(key)) {
+				continue;
+			}
+
+			pending.put(key, reference);
+			Key collection = new Key(key.database, key.collection, null, key.fields);
+			List<DBRef> group = byCollection.get(collection);
+
+			if (group == null) {
+				group = new ArrayList<DBRef>();
+				byCollection.put(collection, group);
+			}
+
+			group.add(reference);
+		}
+
+		Map<Key, DBObject> fetched = new HashMap<Key, DBObject>();
+
+		for (Entry<Key, List<DBRef>> group : byCollection.entrySet()) {
+
+			DBObject projection = group.getKey().fields;
+			DBRef first = group.getValue().get(0);
+			List<Object> ids = new ArrayList<Object>(group.getValue().size());
+
+			for (DBRef reference : group.getValue()) {
+				ids.add(reference.getId());
+			}
+
+			DBObject query = new BasicDBObject(ID_KEY, new BasicDBObject("$in", ids));
+			DBCollection collection = first.getDB().getCollection(first.getRef());
+			DBCursor cursor = projection == null ? collection.find(query) : collection.find(query, projection);
+			queries++;
+
+			try {
+				while (cursor.hasNext()) {
+					DBObject document = cursor.next();
+					Key key = new Key(first.getDB().getName(), first.getRef(), document.get(ID_KEY), projection);
+					fetched.put(key, document);
+				}
+			} finally {
+				cursor.close();
+			}
+		}
+
+		for (Key key : pending.keySet()) {
+			documents.put(key, fetched.get(key));
+		}
+
+		List<DBObject> result = new ArrayList<DBObject>(references.size());
+		Map<Key, Boolean> returned = new HashMap<Key, Boolean>();
+
+		for (int i = 0; i < references.size(); i++) {
+			Key key = new Key(references.get(i), fields.get(i));
+			result.add(returned.put(key, Boolean.TRUE) == null ? fetched.get(key) : null);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the document the given reference points to, fetching it if it hasn't been fetched before. Returns the
+	 * complete document if it has been fetched before, even if a projection is given.
+	 * 
+	 * @param reference must not be {@literal null}.
+	 * @param fields the projection to fetch the document with, {@literal null} to fetch the complete document.
+	 * @return
+	 */
+	public DBObject getDocument(DBRef reference, DBObject fields) {
+
+		Key key = new Key(reference, fields);
+		DBObject complete = fields == null ? null : documents.get(key.withoutFields());
+
+		if (complete != null) {
+			return complete;
+		}
+
+		if (documents.containsKey(key)) {
+			return documents.get(key);
+		}
+
+		DBObject document = fields == null ? reference.fetch() : reference.getDB().getCollection(reference.getRef())
+				.findOne(new BasicDBObject(ID_KEY, reference.getId()), fields);
+		documents.put(key, document);
+		queries++;
+
+		return document;
+	}
+
+	/**
+	 * Returns the object of the given type read from the document the given reference points to.
+	 * 
+	 * @param reference must not be {@literal null}.
+	 * @param fields the projection the document was fetched with, can be {@literal null}.
+	 * @param type must not be {@literal null}.
+	 * @return the object or {@literal null} if no object of the given type has been read for the reference yet.
+	 */
+	public Object getInstance(DBRef reference, DBObject fields, Class<?> type) {
+		Map<Class<?>, Object> byType = instances.get(new Key(reference, fields));
+		return byType == null ? null : byType.get(type);
+	}
+
+	/**
+	 * Registers the object of the given type read from the document the given reference points to.
+	 * 
+	 * @param reference must not be {@literal null}.
+	 * @param fields the projection the document was fetched with, can be {@literal null}.
+	 * @param type must not be {@literal null}.
+	 * @param instance
+	 */
+	public void putInstance(DBRef reference, DBObject fields, Class<?> type, Object instance) {
+
+		Key key = new Key(reference, fields);
+		Map<Class<?>, Object> byType = instances.get(key);
+
+		if (byType == null) {
+			byType = new HashMap<Class<?>, Object>();
+			instances.put(key, byType);
+		}
+
+		byType.put(type, instance);
+	}
+
+	/**
+	 * Returns whether the document for the given key has been fetched before, either with the same projection or
+	 * completely.
+	 */
+	private boolean isKnown(Key key) {
+		return documents.containsKey(key) || key.fields != null && documents.get(key.withoutFields()) != null;
+	}
+
+	/**
+	 * @return the number of queries issued to resolve references.
+	 */
+	public int getQueryCount() {
+		return queries;
+	}
+
+	/**
+	 * Identifies a referenced document by database, collection, id and the projection it's fetched with.
+	 */
+	private static class Key {
+
+		private final String database;
+		private final String collection;
+		private final Object id;
+		private final DBObject fields;
+
+		public Key(DBRef reference, DBObject fields) {
+			this(reference.getDB() == null ? null : reference.getDB().getName(), reference.getRef(), reference.getId(),
+					fields);
+		}
+
+		public Key(String database, String collection, Object id, DBObject fields) {
+			this.database = database;
+			this.collection = collection;
+			this.id = id;
+			this.fields = fields;
+		}
+
+		public Key withoutFields() {
+			return fields == null ? this : new Key(database, collection, id, null);
+		}
+
+		/* 
+		 * (non-Javadoc)
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj) {
+
+			if (this == obj) {
+				return true;
+			}
+
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+
+			Key that = (Key) obj;
+			return ObjectUtils.nullSafeEquals(database, that.database)
+					&& ObjectUtils.nullSafeEquals(collection, that.collection) && ObjectUtils.nullSafeEquals(id, that.id)
+					&& ObjectUtils.nullSafeEquals(fields, that.fields);
+		}
+
+		/* 
+		 * (non-Javadoc)
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+
+			int result = 17;
+			result = 31 * result + ObjectUtils.nullSafeHashCode(database);
+			result = 31 * result + ObjectUtils.nullSafeHashCode(collection);
+			result = 31 * result + ObjectUtils.nullSafeHashCode(id);
+			result = 31 * result + ObjectUtils.nullSafeHashCode(fields);
+			return result;
+		}
+	}
+}
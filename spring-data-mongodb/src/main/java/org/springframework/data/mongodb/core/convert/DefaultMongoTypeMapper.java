@@ -56,8 +56,17 @@ public class DefaultMongoTypeMapper extends DefaultTypeMapper<DBObject> implemen
 		this.typeKey = typeKey;
 	}
 	
+	/**
+	 * Creates a new {@link DefaultMongoTypeMapper} writing the aliases defined by
+	 * {@link org.springframework.data.mongodb.core.mapping.TypeAlias} for the types annotated with it and the fully
+	 * qualified class name for all others.
+	 * 
+	 * @param typeKey
+	 * @param mappingContext
+	 */
 	public DefaultMongoTypeMapper(String typeKey, MappingContext<? extends PersistentEntity<?,?>, ?> mappingContext) {
-		super(new DBObjectTypeAliasAccessor(typeKey), mappingContext, Arrays.asList(SimpleTypeInformationMapper.INSTANCE));
+		super(new DBObjectTypeAliasAccessor(typeKey), mappingContext, Arrays.<TypeInformationMapper> asList(
+				new TypeAliasTypeInformationMapper(mappingContext), SimpleTypeInformationMapper.INSTANCE));
 		this.typeKey = typeKey;
 	}
 	
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.mapping.Association;
+import org.springframework.data.mapping.AssociationHandler;
+import org.springframework.data.mapping.PreferredConstructor;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mapping.model.MappingException;
+import org.springframework.data.mapping.model.ParameterValueProvider;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Creates instances of a {@link MongoPersistentEntity} and gets and sets their persistent properties and associations
+ * through {@link Field}s, {@link Method}s and a {@link Constructor} resolved once per entity. Replaces creating a
+ * {@link org.springframework.data.mapping.model.BeanWrapper} for every object read or written.
+ * <p/>
+ * If {@code spring-asm} is present, public constructors, fields, getters and setters of public types are invoked
+ * through classes generated by {@link AccessorGenerator}. All other members, e.g. private fields, are made accessible
+ * and invoked through reflection, as are all members if generating the classes fails.
+ *
+ * @see MappingMongoConverter
+ */
+class EntityAccessor {
+
+	private static final Log LOGGER = LogFactory.getLog(EntityAccessor.class);
+	private static final boolean ASM_PRESENT = ClassUtils.isPresent("org.springframework.asm.ClassWriter",
+			EntityAccessor.class.getClassLoader());
+
+	private final Class<?> type;
+	private final Constructor<?> constructor;
+	private final AccessorGenerator.Instantiator instantiator;
+	private final boolean[] primitiveParameters;
+	private final List<PreferredConstructor.Parameter<?>> parameters;
+	private final Map<String, PropertyAccessor> properties;
+
+	/**
+	 * Creates a new {@link EntityAccessor} for the given {@link MongoPersistentEntity}.
+	 *
+	 * @param entity must not be {@literal null}.
+	 */
+	public EntityAccessor(MongoPersistentEntity<?> entity) {
+
+		this.type = entity.getType();
+		this.parameters = new ArrayList<PreferredConstructor.Parameter<?>>();
+
+		final AccessorGenerator generator = createGenerator(type);
+		PreferredConstructor<?> preferredConstructor = entity.getPreferredConstructor();
+
+		if (preferredConstructor == null) {
+			this.constructor = null;
+			this.instantiator = null;
+			this.primitiveParameters = new boolean[0];
+		} else {
+			this.constructor = preferredConstructor.getConstructor();
+			ReflectionUtils.makeAccessible(constructor);
+			for (PreferredConstructor.Parameter<?> parameter : preferredConstructor.getParameters()) {
+				parameters.add(parameter);
+			}
+			this.instantiator = generateInstantiator(generator, constructor);
+			this.primitiveParameters = new boolean[parameters.size()];
+			Class<?>[] parameterTypes = constructor.getParameterTypes();
+			for (int i = 0; i < primitiveParameters.length && i < parameterTypes.length; i++) {
+				primitiveParameters[i] = parameterTypes[i].isPrimitive();
+			}
+		}
+
+		final Map<String, PropertyAccessor> properties = new HashMap<String, PropertyAccessor>();
+
+		entity.doWithProperties(new PropertyHandler<MongoPersistentProperty>() {
+			public void doWithPersistentProperty(MongoPersistentProperty property) {
+				properties.put(property.getName(), new PropertyAccessor(property, generator));
+			}
+		});
+
+		entity.doWithAssociations(new AssociationHandler<MongoPersistentProperty>() {
+			public void doWithAssociation(Association<MongoPersistentProperty> association) {
+				MongoPersistentProperty property = association.getInverse();
+				properties.put(property.getName(), new PropertyAccessor(property, generator));
+			}
+		});
+
+		this.properties = properties;
+	}
+
+	/**
+	 * Returns whether instances are created through a constructor taking arguments.
+	 *
+	 * @return
+	 */
+	public boolean hasConstructorParameters() {
+		return !parameters.isEmpty();
+	}
+
+	/**
+	 * Creates a new instance of the entity, obtaining the constructor arguments from the given
+	 * {@link ParameterValueProvider}.
+	 *
+	 * @param provider can be {@literal null} if {@link #hasConstructorParameters()} returns {@literal false}.
+	 * @return
+	 */
+	public Object newInstance(ParameterValueProvider provider) {
+
+		if (constructor == null) {
+			return BeanUtils.instantiateClass(type);
+		}
+
+		Object[] arguments = new Object[parameters.size()];
+		boolean generated = instantiator != null;
+
+		for (int i = 0; i < arguments.length; i++) {
+			arguments[i] = provider.getParameterValue(parameters.get(i));
+			generated &= arguments[i] != null || !primitiveParameters[i];
+		}
+
+		try {
+			return generated ? instantiator.newInstance(arguments) : constructor.newInstance(arguments);
+		} catch (InvocationTargetException e) {
+			throw new MappingException("Could not instantiate " + type.getName() + "!", e.getTargetException());
+		} catch (Exception e) {
+			throw new MappingException("Could not instantiate " + type.getName() + "!", e);
+		}
+	}
+
+	/**
+	 * Returns the value of the given property of the given bean.
+	 *
+	 * @param bean must not be {@literal null}.
+	 * @param property must not be {@literal null}.
+	 * @param fieldAccessOnly whether to read the field even if there's a getter.
+	 * @return
+	 */
+	public Object getProperty(Object bean, MongoPersistentProperty property, boolean fieldAccessOnly) {
+		return getAccessor(property).get(bean, fieldAccessOnly);
+	}
+
+	/**
+	 * Sets the given property of the given bean to the given value, converting it to the property type if necessary.
+	 *
+	 * @param bean must not be {@literal null}.
+	 * @param property must not be {@literal null}.
+	 * @param value can be {@literal null}.
+	 * @param fieldAccessOnly whether to write the field even if there's a setter.
+	 * @param conversionService must not be {@literal null}.
+	 */
+	public void setProperty(Object bean, MongoPersistentProperty property, Object value, boolean fieldAccessOnly,
+			ConversionService conversionService) {
+		getAccessor(property).set(bean, value, fieldAccessOnly, conversionService);
+	}
+
+	private PropertyAccessor getAccessor(MongoPersistentProperty property) {
+
+		PropertyAccessor accessor = properties.get(property.getName());
+		return accessor == null ? new PropertyAccessor(property, null) : accessor;
+	}
+
+	/**
+	 * Returns the {@link AccessorGenerator} for the given type or {@literal null} if classes can't be generated.
+	 */
+	private static AccessorGenerator createGenerator(Class<?> type) {
+		return ASM_PRESENT ? new AccessorGenerator(type) : null;
+	}
+
+	private static AccessorGenerator.Instantiator generateInstantiator(final AccessorGenerator generator,
+			final Constructor<?> constructor) {
+
+		if (generator == null) {
+			return null;
+		}
+
+		return generate(new GeneratorCallback<AccessorGenerator.Instantiator>() {
+			public AccessorGenerator.Instantiator generate() {
+				return generator.generateInstantiator(constructor);
+			}
+		}, constructor);
+	}
+
+	/**
+	 * Generates accessor classes through the given callback, falling back to reflection if generating them fails.
+	 */
+	private static <T> T generate(GeneratorCallback<T> callback, Member member) {
+
+		try {
+			return callback.generate();
+		} catch (RuntimeException e) {
+			LOGGER.debug("Falling back to reflection for " + member + "!", e);
+		} catch (LinkageError e) {
+			LOGGER.debug("Falling back to reflection for " + member + "!", e);
+		}
+
+		return null;
+	}
+
+	private interface GeneratorCallback<T> {
+
+		T generate();
+	}
+
+	/**
+	 * Accessor for a single property.
+	 */
+	private static class PropertyAccessor {
+
+		private final Field field;
+		private final Method getter;
+		private final Method setter;
+		private final Class<?> setterType;
+
+		private final AccessorGenerator.Getter fieldGetter;
+		private final AccessorGenerator.Getter methodGetter;
+		private final AccessorGenerator.Setter fieldSetter;
+		private final AccessorGenerator.Setter methodSetter;
+
+		public PropertyAccessor(MongoPersistentProperty property, AccessorGenerator generator) {
+
+			PropertyDescriptor descriptor = property.getPropertyDescriptor();
+
+			this.field = property.getField();
+			this.getter = descriptor == null ? null : descriptor.getReadMethod();
+			this.setter = descriptor == null ? null : descriptor.getWriteMethod();
+			this.setterType = setter == null ? null : setter.getParameterTypes()[0];
+
+			this.fieldGetter = generateGetter(generator, field);
+			this.methodGetter = generateGetter(generator, getter);
+			this.fieldSetter = generateSetter(generator, field);
+			this.methodSetter = generateSetter(generator, setter);
+
+			ReflectionUtils.makeAccessible(field);
+
+			if (getter != null) {
+				ReflectionUtils.makeAccessible(getter);
+			}
+
+			if (setter != null) {
+				ReflectionUtils.makeAccessible(setter);
+			}
+		}
+
+		public Object get(Object bean, boolean fieldAccessOnly) {
+
+			boolean useField = fieldAccessOnly || getter == null;
+			AccessorGenerator.Getter generated = useField ? fieldGetter : methodGetter;
+
+			try {
+				if (generated != null) {
+					return generated.get(bean);
+				}
+				return useField ? field.get(bean) : getter.invoke(bean);
+			} catch (InvocationTargetException e) {
+				throw new MappingException(e.getTargetException().getMessage(), e.getTargetException());
+			} catch (MappingException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new MappingException(e.getMessage(), e);
+			}
+		}
+
+		public void set(Object bean, Object value, boolean fieldAccessOnly, ConversionService conversionService) {
+
+			boolean useField = fieldAccessOnly || setter == null;
+			Class<?> targetType = useField ? field.getType() : setterType;
+			Object converted = getPotentiallyConvertedValue(value, targetType, conversionService);
+			AccessorGenerator.Setter generated = converted == null && targetType.isPrimitive() ? null
+					: useField ? fieldSetter : methodSetter;
+
+			try {
+
+				if (generated != null) {
+					generated.set(bean, converted);
+				} else if (useField) {
+					field.set(bean, converted);
+				} else {
+					setter.invoke(bean, converted);
+				}
+
+			} catch (InvocationTargetException e) {
+				throw new MappingException(e.getTargetException().getMessage(), e.getTargetException());
+			} catch (MappingException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new MappingException(e.getMessage(), e);
+			}
+		}
+
+		private static AccessorGenerator.Getter generateGetter(final AccessorGenerator generator, final Member member) {
+
+			if (generator == null || member == null) {
+				return null;
+			}
+
+			return generate(new GeneratorCallback<AccessorGenerator.Getter>() {
+				public AccessorGenerator.Getter generate() {
+					return generator.generateGetter(member);
+				}
+			}, member);
+		}
+
+		private static AccessorGenerator.Setter generateSetter(final AccessorGenerator generator, final Member member) {
+
+			if (generator == null || member == null) {
+				return null;
+			}
+
+			return generate(new GeneratorCallback<AccessorGenerator.Setter>() {
+				public AccessorGenerator.Setter generate() {
+					return generator.generateSetter(member);
+				}
+			}, member);
+		}
+
+		private static Object getPotentiallyConvertedValue(Object value, Class<?> type, ConversionService conversionService) {
+			return value == null || ClassUtils.isAssignableValue(type, value) ? value : conversionService.convert(value, type);
+		}
+	}
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.BSONObject;
+import org.springframework.data.mongodb.core.convert.EntityPlan.PropertyPlan;
+
+import com.mongodb.DBObject;
+import com.mongodb.util.JSON;
+
+/**
+ * {@link DBObject} backed by an entity instead of a map of values. The type key and the {@code _id} are held as header
+ * fields, all other fields are read from the entity and converted by the {@link MappingMongoConverter} when they are
+ * accessed. Fields put into the document are added to the header and take precedence over the entity's properties.
+ * {@link EntityDocumentEncoder} writes the document in a single pass over the entity's properties.
+ * <p/>
+ * Inspecting the document through {@link #get(String)}, {@link #containsField(String)}, {@link #keySet()} or
+ * {@link #toMap()}, e.g. to estimate its size before inserting it, converts all properties once and retains the
+ * converted values, which the encoder then writes instead of converting the properties again. Changes to the entity
+ * made afterwards are thus not reflected by the document.
+ * 
+ * @see MappingMongoConverter#createEntityDocument(Object)
+ */
+class EntityDocument implements DBObject {
+
+	private final MappingMongoConverter converter;
+	private final Object source;
+	private final EntityPlan plan;
+	private final DBObject header;
+
+	private Map<String, Object> values;
+
+	/**
+	 * Creates a new {@link EntityDocument} for the given entity.
+	 * 
+	 * @param converter must not be {@literal null}.
+	 * @param source must not be {@literal null}.
+	 * @param plan must not be {@literal null}.
+	 * @param header must not be {@literal null}.
+	 */
+	public EntityDocument(MappingMongoConverter converter, Object source, EntityPlan plan, DBObject header) {
+
+		this.converter = converter;
+		this.source = source;
+		this.plan = plan;
+		this.header = header;
+	}
+
+	/**
+	 * Hands all fields of the document to the given {@link FieldCallback} in the order they are stored, skipping
+	 * properties without a value. Every property is read and converted exactly once, unless the document has been
+	 * inspected before and the converted values are retained already.
+	 * 
+	 * @param callback must not be {@literal null}.
+	 */
+	public void doWithFields(FieldCallback callback) {
+
+		for (String key : header.keySet()) {
+			callback.doWithField(key, header.get(key));
+		}
+
+		if (values != null) {
+			for (Map.Entry<String, Object> entry : values.entrySet()) {
+				if (!header.containsField(entry.getKey())) {
+					callback.doWithField(entry.getKey(), entry.getValue());
+				}
+			}
+			return;
+		}
+
+		for (PropertyPlan property : plan.getProperties()) {
+
+			if (property.isId() || header.containsField(property.getFieldName())) {
+				continue;
+			}
+
+			Object value = converter.getPropertyValue(source, plan, property);
+
+			if (value != null) {
+				callback.doWithField(property.getFieldName(), converter.getWriteValue(value, property));
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.bson.BSONObject#get(java.lang.String)
+	 */
+	public Object get(String key) {
+
+		return header.containsField(key) ? header.get(key) : getValues().get(key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.bson.BSONObject#containsField(java.lang.String)
+	 */
+	public boolean containsField(String key) {
+
+		return header.containsField(key) || getValues().containsKey(key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.bson.BSONObject#containsKey(java.lang.String)
+	 */
+	@Deprecated
+	public boolean containsKey(String key) {
+		return containsField(key);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.bson.BSONObject#keySet()
+	 */
+	public Set<String> keySet() {
+
+		Set<String> keys = new LinkedHashSet<String>(header.keySet());
+		keys.addAll(getValues().keySet());
+
+		return keys;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.bson.BSONObject#put(java.lang.String, java.lang.Object)
+	 */
+	public Object put(String key, Object v) {
+		return header.put(key, v);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.bson.BSONObject#putAll(org.bson.BSONObject)
+	 */
+	public void putAll(BSONObject o) {
+		for (String key : o.keySet()) {
+			put(key, o.get(key));
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.bson.BSONObject#putAll(java.util.Map)
+	 */
+	@SuppressWarnings("rawtypes")
+	public void putAll(Map m) {
+		for (Object key : m.keySet()) {
+			put(key.toString(), m.get(key));
+		}
+	}
+
+	/**
+	 * Removes the given header field. Properties of the entity cannot be removed.
+	 * 
+	 * @see org.bson.BSONObject#removeField(java.lang.String)
+	 * @throws UnsupportedOperationException if the given key refers to a property of the entity.
+	 */
+	public Object removeField(String key) {
+
+		if (header.containsField(key)) {
+			return header.removeField(key);
+		}
+
+		if (getProperty(key) != null) {
+			throw new UnsupportedOperationException("Cannot remove property " + key + " of an entity document!");
+		}
+
+		return null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.bson.BSONObject#toMap()
+	 */
+	@SuppressWarnings("rawtypes")
+	public Map toMap() {
+
+		final Map<String, Object> map = new LinkedHashMap<String, Object>();
+
+		doWithFields(new FieldCallback() {
+			public void doWithField(String key, Object value) {
+				map.put(key, value);
+			}
+		});
+
+		return map;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.mongodb.DBObject#markAsPartialObject()
+	 */
+	public void markAsPartialObject() {
+		throw new UnsupportedOperationException("An entity document always contains all fields of the entity!");
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.mongodb.DBObject#isPartialObject()
+	 */
+	public boolean isPartialObject() {
+		return false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return JSON.serialize(this);
+	}
+
+	/**
+	 * Returns the converted values of all properties with a value keyed by their field names, converting them on first
+	 * access.
+	 * 
+	 * @return
+	 */
+	private Map<String, Object> getValues() {
+
+		if (values != null) {
+			return values;
+		}
+
+		Map<String, Object> values = new LinkedHashMap<String, Object>();
+
+		for (PropertyPlan property : plan.getProperties()) {
+
+			if (property.isId()) {
+				continue;
+			}
+
+			Object value = converter.getPropertyValue(source, plan, property);
+
+			if (value != null) {
+				values.put(property.getFieldName(), converter.getWriteValue(value, property));
+			}
+		}
+
+		this.values = values;
+		return values;
+	}
+
+	private PropertyPlan getProperty(String key) {
+		PropertyPlan property = plan.getProperty(key);
+		return property == null || property.isId() ? null : property;
+	}
+
+	/**
+	 * Callback to be invoked for each field of an {@link EntityDocument}.
+	 */
+	interface FieldCallback {
+
+		void doWithField(String key, Object value);
+	}
+}
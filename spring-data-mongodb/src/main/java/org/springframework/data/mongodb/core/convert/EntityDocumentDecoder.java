@@ -0,0 +1,339 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.Set;
+
+import org.springframework.util.Assert;
+
+import com.mongodb.DBCollection;
+import com.mongodb.DBDecoder;
+import com.mongodb.DBDecoderFactory;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBDecoder;
+
+/**
+ * {@link DBDecoder} only decoding the top level fields of a document an entity maps. The BSON of all other fields is
+ * skipped without creating any objects for it before the remaining document is handed to the driver's decoding.
+ * Documents carrying a type hint different from the one the entity type is written with are decoded in full, as they
+ * might be read into a subtype mapping additional fields.
+ * 
+ * @see MappingMongoConverter#getDecoderFactory(Class)
+ */
+public class EntityDocumentDecoder extends DefaultDBDecoder {
+
+	private static final String UTF_8 = "UTF-8";
+
+	private final byte[][] fieldNames;
+	private final byte[] typeKey;
+	private final byte[] typeAlias;
+
+	/**
+	 * Creates a new {@link EntityDocumentDecoder} retaining the given fields.
+	 * 
+	 * @param fieldNames must not be {@literal null}.
+	 * @param typeKey the key type hints are stored under, {@literal null} if no type hints are written.
+	 * @param typeAlias the type hint the entity is written with, must not be {@literal null} if a type key is given.
+	 */
+	EntityDocumentDecoder(Set<String> fieldNames, String typeKey, String typeAlias) {
+
+		Assert.notNull(fieldNames);
+		Assert.isTrue(typeKey == null || typeAlias != null, "Type alias must not be null if a type key is given!");
+
+		this.fieldNames = new byte[fieldNames.size()][];
+
+		int i = 0;
+		for (String fieldName : fieldNames) {
+			this.fieldNames[i++] = toBytes(fieldName);
+		}
+
+		this.typeKey = typeKey == null ? null : toBytes(typeKey);
+		this.typeAlias = typeAlias == null ? null : toBytes(typeAlias);
+	}
+
+	private EntityDocumentDecoder(EntityDocumentDecoder template) {
+
+		this.fieldNames = template.fieldNames;
+		this.typeKey = template.typeKey;
+		this.typeAlias = template.typeAlias;
+	}
+
+	/**
+	 * Creates a {@link DBDecoderFactory} for {@link EntityDocumentDecoder}s retaining the given fields.
+	 * 
+	 * @param fieldNames must not be {@literal null}.
+	 * @param typeKey the key type hints are stored under, {@literal null} if no type hints are written.
+	 * @param typeAlias the type hint the entity is written with, must not be {@literal null} if a type key is given.
+	 * @return
+	 */
+	static DBDecoderFactory factory(Set<String> fieldNames, String typeKey, String typeAlias) {
+
+		final EntityDocumentDecoder template = new EntityDocumentDecoder(fieldNames, typeKey, typeAlias);
+
+		return new DBDecoderFactory() {
+			public DBDecoder create() {
+				return new EntityDocumentDecoder(template);
+			}
+		};
+	}
+
+	/* 
+	 * (non-Javadoc)
+	 * @see com.mongodb.DefaultDBDecoder#decode(byte[], com.mongodb.DBCollection)
+	 */
+	@Override
+	public DBObject decode(byte[] b, DBCollection collection) {
+		return super.decode(trim(b), collection);
+	}
+
+	/* 
+	 * (non-Javadoc)
+	 * @see com.mongodb.DefaultDBDecoder#decode(java.io.InputStream, com.mongodb.DBCollection)
+	 */
+	@Override
+	public DBObject decode(InputStream in, DBCollection collection) throws IOException {
+
+		byte[] sizeBytes = new byte[4];
+		readFully(in, sizeBytes, 0, 4);
+
+		byte[] document = new byte[readInt(sizeBytes, 0)];
+		System.arraycopy(sizeBytes, 0, document, 0, 4);
+		readFully(in, document, 4, document.length - 4);
+
+		return decode(document, collection);
+	}
+
+	/**
+	 * Returns the given BSON document with all fields removed that are not retained. Returns the document as is if it
+	 * carries a foreign type hint, contains values of an unknown type or all of its fields are retained. Otherwise the
+	 * retained runs of fields are recorded while scanning the document and copied into an array of the trimmed size
+	 * once.
+	 * 
+	 * @param document
+	 * @return
+	 */
+	byte[] trim(byte[] document) {
+
+		int size = readInt(document, 0);
+		int trimmedSize = 5;
+		int index = 4;
+
+		int[] runs = null;
+		int runCount = 0;
+		int runStart = index;
+
+		while (index < size - 1) {
+
+			int start = index;
+			byte type = document[index++];
+			int nameStart = index;
+
+			while (document[index] != 0) {
+				index++;
+			}
+
+			int nameEnd = index++;
+			int end = skipValue(document, type, index);
+
+			if (end < 0) {
+				return document;
+			}
+
+			if (typeKey != null && equals(document, nameStart, nameEnd, typeKey)
+					&& !isTypeAlias(document, type, index, end)) {
+				return document;
+			}
+
+			if (isRetained(document, nameStart, nameEnd)) {
+
+				trimmedSize += end - start;
+				runStart = runStart < 0 ? start : runStart;
+
+			} else {
+
+				if (runs == null) {
+					runs = new int[8];
+				}
+
+				if (runStart >= 0 && runStart < start) {
+					runs = addRun(runs, runCount++, runStart, start);
+				}
+
+				runStart = -1;
+			}
+
+			index = end;
+		}
+
+		if (runs == null) {
+			return document;
+		}
+
+		if (runStart >= 0 && runStart < index) {
+			runs = addRun(runs, runCount++, runStart, index);
+		}
+
+		byte[] trimmed = new byte[trimmedSize];
+		int position = 4;
+
+		for (int i = 0; i < runCount; i++) {
+			int length = runs[i * 2 + 1] - runs[i * 2];
+			System.arraycopy(document, runs[i * 2], trimmed, position, length);
+			position += length;
+		}
+
+		writeInt(trimmed, 0, trimmedSize);
+
+		return trimmed;
+	}
+
+	/**
+	 * Records the run of retained fields between the given indexes, growing the given array if necessary.
+	 */
+	private static int[] addRun(int[] runs, int run, int start, int end) {
+
+		if (runs.length < (run + 1) * 2) {
+			int[] grown = new int[runs.length * 2];
+			System.arraycopy(runs, 0, grown, 0, runs.length);
+			runs = grown;
+		}
+
+		runs[run * 2] = start;
+		runs[run * 2 + 1] = end;
+
+		return runs;
+	}
+
+	private boolean isRetained(byte[] document, int nameStart, int nameEnd) {
+
+		for (byte[] fieldName : fieldNames) {
+			if (equals(document, nameStart, nameEnd, fieldName)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns whether the string value at the given position is the type alias of the entity.
+	 */
+	private boolean isTypeAlias(byte[] document, byte type, int index, int end) {
+		return type == 2 && equals(document, index + 4, end - 1, typeAlias);
+	}
+
+	/**
+	 * Returns the index of the first byte following the value of the given BSON type starting at the given index or -1
+	 * if the type is unknown.
+	 */
+	private static int skipValue(byte[] document, byte type, int index) {
+
+		switch (type) {
+			case 6: // undefined
+			case 10: // null
+			case -1: // min key
+			case 127: // max key
+				return index;
+			case 8: // boolean
+				return index + 1;
+			case 16: // int32
+				return index + 4;
+			case 1: // double
+			case 9: // date
+			case 17: // timestamp
+			case 18: // int64
+				return index + 8;
+			case 7: // object id
+				return index + 12;
+			case 2: // string
+			case 13: // code
+			case 14: // symbol
+				return index + 4 + readInt(document, index);
+			case 3: // document
+			case 4: // array
+			case 15: // code with scope
+				return index + readInt(document, index);
+			case 5: // binary
+				return index + 5 + readInt(document, index);
+			case 12: // db pointer
+				return index + 4 + readInt(document, index) + 12;
+			case 11: // regular expression
+				for (int i = 0; i < 2; i++) {
+					while (document[index] != 0) {
+						index++;
+					}
+					index++;
+				}
+				return index;
+			default:
+				return -1;
+		}
+	}
+
+	private static boolean equals(byte[] document, int start, int end, byte[] value) {
+
+		if (end - start != value.length) {
+			return false;
+		}
+
+		for (int i = 0; i < value.length; i++) {
+			if (document[start + i] != value[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static int readInt(byte[] bytes, int index) {
+		return (bytes[index] & 0xff) | (bytes[index + 1] & 0xff) << 8 | (bytes[index + 2] & 0xff) << 16
+				| (bytes[index + 3] & 0xff) << 24;
+	}
+
+	private static void writeInt(byte[] bytes, int index, int value) {
+		bytes[index] = (byte) value;
+		bytes[index + 1] = (byte) (value >> 8);
+		bytes[index + 2] = (byte) (value >> 16);
+		bytes[index + 3] = (byte) (value >> 24);
+	}
+
+	private static void readFully(InputStream in, byte[] buffer, int offset, int length) throws IOException {
+
+		while (length > 0) {
+
+			int read = in.read(buffer, offset, length);
+
+			if (read < 0) {
+				throw new EOFException("Unexpected end of BSON document!");
+			}
+
+			offset += read;
+			length -= read;
+		}
+	}
+
+	private static byte[] toBytes(String value) {
+		try {
+			return value.getBytes(UTF_8);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
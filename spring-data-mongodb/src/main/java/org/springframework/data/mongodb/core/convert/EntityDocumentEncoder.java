@@ -0,0 +1,107 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+import org.bson.BSON;
+import org.bson.BSONObject;
+import org.bson.io.OutputBuffer;
+import org.springframework.data.mongodb.core.convert.EntityDocument.FieldCallback;
+
+import com.mongodb.DBEncoder;
+import com.mongodb.DBEncoderFactory;
+import com.mongodb.DefaultDBEncoder;
+
+/**
+ * {@link DBEncoder} writing documents created by {@link MappingMongoConverter#createEntityDocument(Object)} straight
+ * from the entities' properties into the output buffer, nested entities included. All other documents are encoded like
+ * the driver's {@link DefaultDBEncoder} does. Instances are not thread-safe, use {@link #FACTORY} to obtain a new one
+ * per operation.
+ */
+public class EntityDocumentEncoder extends DefaultDBEncoder {
+
+	public static final DBEncoderFactory FACTORY = new DBEncoderFactory() {
+		public DBEncoder create() {
+			return new EntityDocumentEncoder();
+		}
+	};
+
+	private static final String ID = "_id";
+
+	/* 
+	 * (non-Javadoc)
+	 * @see com.mongodb.DefaultDBEncoder#writeObject(org.bson.io.OutputBuffer, org.bson.BSONObject)
+	 */
+	@Override
+	public int writeObject(OutputBuffer buf, BSONObject o) {
+
+		if (!(o instanceof EntityDocument)) {
+			return super.writeObject(buf, o);
+		}
+
+		set(buf);
+
+		try {
+			return putEntityDocument(null, (EntityDocument) o);
+		} finally {
+			done();
+		}
+	}
+
+	/**
+	 * Writes the given {@link EntityDocument} as embedded document with the given name or as top level document if the
+	 * name is {@literal null}. Top level documents get their {@code _id} written first.
+	 * 
+	 * @param name
+	 * @param document must not be {@literal null}.
+	 * @return the number of bytes written.
+	 */
+	private int putEntityDocument(String name, EntityDocument document) {
+
+		final int start = _buf.getPosition();
+		final boolean topLevel = name == null;
+
+		if (!topLevel) {
+			_put(BSON.OBJECT, name);
+		}
+
+		final int sizePos = _buf.getPosition();
+		_buf.writeInt(0);
+
+		if (topLevel && document.containsField(ID)) {
+			_putObjectField(ID, document.get(ID));
+		}
+
+		document.doWithFields(new FieldCallback() {
+			public void doWithField(String key, Object value) {
+
+				if (topLevel && ID.equals(key)) {
+					return;
+				}
+
+				if (value instanceof EntityDocument) {
+					putEntityDocument(key, (EntityDocument) value);
+				} else {
+					_putObjectField(key, value);
+				}
+			}
+		});
+
+		_buf.write(BSON.EOO);
+		_buf.writeInt(sizePos, _buf.getPosition() - sizePos);
+
+		return _buf.getPosition() - start;
+	}
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.mapping.Association;
+import org.springframework.data.mapping.AssociationHandler;
+import org.springframework.data.mapping.PreferredConstructor;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mapping.model.MappingException;
+import org.springframework.data.mongodb.core.mapping.LazyLoad;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Immutable description of how to read and write a {@link MongoPersistentEntity}, built once per entity so that
+ * {@link MappingMongoConverter} doesn't have to inspect the entity's metadata for every object it converts. Lists the
+ * persistent properties in the order they are read and written, followed by the associations, and records per property
+ * whether it is the id, whether it's populated through the preferred constructor and whether its values can be written
+ * as simple values without inspecting them. SpEL expressions of properties and constructor parameters are parsed once.
+ *
+ * @see MappingMongoConverter
+ */
+class EntityPlan {
+
+	private final EntityAccessor accessor;
+	private final PropertyPlan idProperty;
+	private final List<PropertyPlan> properties;
+	private final Map<String, PropertyPlan> propertiesByFieldName;
+	private final Map<String, Expression> parameterExpressions;
+	private final boolean usesExpressions;
+
+	private volatile Boolean referencesReachable;
+
+	/**
+	 * Creates a new {@link EntityPlan} for the given {@link MongoPersistentEntity}.
+	 *
+	 * @param entity must not be {@literal null}.
+	 * @param conversions must not be {@literal null}.
+	 * @param parser must not be {@literal null}.
+	 */
+	public EntityPlan(MongoPersistentEntity<?> entity, final CustomConversions conversions,
+			final SpelExpressionParser parser) {
+
+		this.accessor = new EntityAccessor(entity);
+		this.parameterExpressions = getParameterExpressions(entity, parser);
+
+		final Set<String> constructorProperties = getConstructorProperties(entity);
+		final MongoPersistentProperty id = entity.getIdProperty();
+		final List<PropertyPlan> properties = new ArrayList<PropertyPlan>();
+
+		entity.doWithProperties(new PropertyHandler<MongoPersistentProperty>() {
+			public void doWithPersistentProperty(MongoPersistentProperty property) {
+				properties.add(new PropertyPlan(property, property.equals(id), false, constructorProperties
+						.contains(property.getName()), conversions, parser));
+			}
+		});
+
+		entity.doWithAssociations(new AssociationHandler<MongoPersistentProperty>() {
+			public void doWithAssociation(Association<MongoPersistentProperty> association) {
+				properties.add(new PropertyPlan(association.getInverse(), false, true, false, conversions, parser));
+			}
+		});
+
+		PropertyPlan idProperty = null;
+		boolean usesExpressions = !parameterExpressions.isEmpty();
+		Map<String, PropertyPlan> propertiesByFieldName = new HashMap<String, PropertyPlan>();
+
+		for (PropertyPlan property : properties) {
+			if (property.isId()) {
+				idProperty = property;
+			}
+			usesExpressions |= property.getExpression() != null;
+			propertiesByFieldName.put(property.getFieldName(), property);
+		}
+
+		this.idProperty = idProperty;
+		this.usesExpressions = usesExpressions;
+		this.properties = Collections.unmodifiableList(properties);
+		this.propertiesByFieldName = propertiesByFieldName;
+	}
+
+	/**
+	 * @return the {@link EntityAccessor} to create instances and access properties with.
+	 */
+	public EntityAccessor getAccessor() {
+		return accessor;
+	}
+
+	/**
+	 * @return the plan of the id property or {@literal null} if the entity doesn't have one.
+	 */
+	public PropertyPlan getIdProperty() {
+		return idProperty;
+	}
+
+	/**
+	 * @return the plans of all properties including the id property followed by the associations.
+	 */
+	public List<PropertyPlan> getProperties() {
+		return properties;
+	}
+
+	/**
+	 * Returns the plan of the property stored under the given field name.
+	 *
+	 * @param fieldName
+	 * @return the {@link PropertyPlan} or {@literal null} if no property is mapped to the given field name.
+	 */
+	public PropertyPlan getProperty(String fieldName) {
+		return propertiesByFieldName.get(fieldName);
+	}
+
+	/**
+	 * Returns whether any property or constructor parameter is bound to a SpEL expression, i.e. whether reading the
+	 * entity requires an evaluation context.
+	 *
+	 * @return
+	 */
+	public boolean usesExpressions() {
+		return usesExpressions;
+	}
+
+	/**
+	 * Returns the parsed SpEL expression of the constructor parameter with the given key.
+	 *
+	 * @param key the expression string of the parameter's {@link org.springframework.beans.factory.annotation.Value}
+	 *          annotation.
+	 * @return the {@link Expression} or {@literal null} if no parameter is bound to the given expression.
+	 */
+	public Expression getParameterExpression(String key) {
+		return parameterExpressions.get(key);
+	}
+
+	/**
+	 * Returns whether documents of the entity can contain {@link com.mongodb.DBRef}s to be fetched when reading it, as
+	 * determined by {@link MappingMongoConverter} on first use.
+	 *
+	 * @return the determined value or {@literal null} if it hasn't been determined yet.
+	 */
+	Boolean getReferencesReachable() {
+		return referencesReachable;
+	}
+
+	void setReferencesReachable(boolean referencesReachable) {
+		this.referencesReachable = referencesReachable;
+	}
+
+	private static Map<String, Expression> getParameterExpressions(MongoPersistentEntity<?> entity,
+			SpelExpressionParser parser) {
+
+		Map<String, Expression> expressions = new HashMap<String, Expression>();
+		PreferredConstructor<?> constructor = entity.getPreferredConstructor();
+
+		if (constructor == null) {
+			return expressions;
+		}
+
+		for (PreferredConstructor.Parameter<?> parameter : constructor.getParameters()) {
+			if (parameter.getKey() != null) {
+				expressions.put(parameter.getKey(), parser.parseExpression(parameter.getKey()));
+			}
+		}
+
+		return expressions;
+	}
+
+	/**
+	 * Returns the names of the properties populated through the preferred constructor. Parameters bound to a SpEL
+	 * expression don't populate the property of the same name.
+	 */
+	private static Set<String> getConstructorProperties(MongoPersistentEntity<?> entity) {
+
+		Set<String> names = new HashSet<String>();
+		PreferredConstructor<?> constructor = entity.getPreferredConstructor();
+
+		if (constructor == null) {
+			return names;
+		}
+
+		for (PreferredConstructor.Parameter<?> parameter : constructor.getParameters()) {
+			if (parameter.getKey() == null) {
+				names.add(parameter.getName());
+			}
+		}
+
+		return names;
+	}
+
+	/**
+	 * Read and write information for a single property.
+	 */
+	static class PropertyPlan {
+
+		private final MongoPersistentProperty property;
+		private final String fieldName;
+		private final Expression expression;
+		private final boolean id;
+		private final boolean association;
+		private final boolean constructorArgument;
+		private final boolean simple;
+		private final boolean lazy;
+		private final Class<?> customWriteTarget;
+
+		PropertyPlan(MongoPersistentProperty property, boolean id, boolean association, boolean constructorArgument,
+				CustomConversions conversions, SpelExpressionParser parser) {
+
+			Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(property.getType());
+
+			this.property = property;
+			this.fieldName = property.getFieldName();
+			this.expression = property.getSpelExpression() == null ? null : parser.parseExpression(property
+					.getSpelExpression());
+			this.id = id;
+			this.association = association;
+			this.constructorArgument = constructorArgument;
+			this.simple = !association && Modifier.isFinal(type.getModifiers()) && conversions.isSimpleType(type);
+			this.customWriteTarget = simple ? conversions.getCustomWriteTarget(type, null) : null;
+			this.lazy = property.getField() != null
+					&& (association ? property.isDbReference() && property.getDBRef().lazy() : property.getField()
+							.isAnnotationPresent(LazyLoad.class));
+
+			if (lazy) {
+				assertCanBeLazy(type);
+			}
+		}
+
+		/**
+		 * Rejects a property marked to be loaded lazily that cannot get a proxy assigned.
+		 *
+		 * @throws MappingException if the property is not declared as interface, populated through the constructor or
+		 *           bound to a SpEL expression.
+		 */
+		private void assertCanBeLazy(Class<?> type) {
+
+			String reason = null;
+
+			if (!type.isInterface()) {
+				reason = "its type " + type.getName() + " is not an interface, declare it as an interface implemented by "
+						+ type.getSimpleName() + " instead";
+			} else if (constructorArgument) {
+				reason = "it is populated through the constructor";
+			} else if (expression != null) {
+				reason = "it is bound to a SpEL expression";
+			}
+
+			if (reason != null) {
+				java.lang.reflect.Field field = property.getField();
+				throw new MappingException("Property " + field.getName() + " of " + field.getDeclaringClass().getName()
+						+ " cannot be loaded lazily as " + reason + "!");
+			}
+		}
+
+		public MongoPersistentProperty getProperty() {
+			return property;
+		}
+
+		public String getFieldName() {
+			return fieldName;
+		}
+
+		/**
+		 * @return the parsed SpEL expression to read the property value with or {@literal null} if the property is read
+		 *         from the document directly.
+		 */
+		public Expression getExpression() {
+			return expression;
+		}
+
+		public boolean isId() {
+			return id;
+		}
+
+		public boolean isAssociation() {
+			return association;
+		}
+
+		/**
+		 * @return whether the property is populated through the preferred constructor and thus mustn't be set afterwards.
+		 */
+		public boolean isConstructorArgument() {
+			return constructorArgument;
+		}
+
+		/**
+		 * Returns whether all values of the property are simple types as the declared type is a final simple type. Values
+		 * of other properties have to be inspected to decide how to write them.
+		 *
+		 * @return
+		 */
+		public boolean isSimple() {
+			return simple;
+		}
+
+		/**
+		 * @return whether values of the property are to be converted, or in case of a lazy reference fetched, on first
+		 *         access.
+		 * @see LazyLoad
+		 * @see org.springframework.data.mongodb.core.mapping.DBRef#lazy()
+		 */
+		public boolean isLazy() {
+			return lazy;
+		}
+
+		/**
+		 * @return the type to convert values of a simple property into before writing them, {@literal null} if they're
+		 *         written as is.
+		 */
+		public Class<?> getCustomWriteTarget() {
+			return customWriteTarget;
+		}
+	}
+}
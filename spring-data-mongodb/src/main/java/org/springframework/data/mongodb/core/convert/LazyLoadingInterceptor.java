@@ -0,0 +1,145 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link InvocationHandler} backing a {@link LazyLoadingProxy}. Resolves the proxied value on the first method
+ * invocation and delegates all invocations to it. The value is resolved exactly once, even if the proxy is used by
+ * multiple threads concurrently, and the {@link ValueResolver} is released afterwards.
+ */
+class LazyLoadingInterceptor implements InvocationHandler {
+
+	private ValueResolver resolver;
+	private Object target;
+	private volatile boolean resolved;
+
+	/**
+	 * Creates a new {@link LazyLoadingInterceptor} using the given {@link ValueResolver}.
+	 * 
+	 * @param resolver must not be {@literal null}.
+	 */
+	public LazyLoadingInterceptor(ValueResolver resolver) {
+
+		Assert.notNull(resolver);
+		this.resolver = resolver;
+	}
+
+	/**
+	 * Creates a proxy of the given interface type resolving its target with the given {@link ValueResolver}.
+	 * 
+	 * @param type must be an interface.
+	 * @param resolver must not be {@literal null}.
+	 * @return
+	 */
+	public static Object createProxy(Class<?> type, ValueResolver resolver) {
+
+		Assert.isTrue(type.isInterface(), "Only interfaces can be proxied!");
+
+		ClassLoader classLoader = type.getClassLoader() == null ? LazyLoadingProxy.class.getClassLoader() : type
+				.getClassLoader();
+
+		return Proxy.newProxyInstance(classLoader, new Class<?>[] { type, LazyLoadingProxy.class },
+				new LazyLoadingInterceptor(resolver));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.reflect.InvocationHandler#invoke(java.lang.Object, java.lang.reflect.Method, java.lang.Object[])
+	 */
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+		if (method.getDeclaringClass().equals(LazyLoadingProxy.class)) {
+			return "isResolved".equals(method.getName()) ? resolved : getTarget();
+		}
+
+		Object target = getTarget();
+
+		if (target == null) {
+			if ("equals".equals(method.getName()) && method.getParameterTypes().length == 1) {
+				return proxy == args[0];
+			}
+			if ("hashCode".equals(method.getName()) && method.getParameterTypes().length == 0) {
+				return System.identityHashCode(proxy);
+			}
+			if ("toString".equals(method.getName()) && method.getParameterTypes().length == 0) {
+				return "null";
+			}
+			throw new NullPointerException("Lazily loaded value resolved to null!");
+		}
+
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+	/**
+	 * Returns the raw value the given proxy converts on first access, as long as that hasn't happened yet.
+	 * 
+	 * @param proxy must not be {@literal null}.
+	 * @return the raw value or {@literal null} if the proxy has been resolved already or isn't backed by a
+	 *         {@link LazyLoadingInterceptor}.
+	 */
+	static Object getUnresolvedSource(Object proxy) {
+
+		if (!Proxy.isProxyClass(proxy.getClass())) {
+			return null;
+		}
+
+		InvocationHandler handler = Proxy.getInvocationHandler(proxy);
+		return handler instanceof LazyLoadingInterceptor ? ((LazyLoadingInterceptor) handler).getUnresolvedSource() : null;
+	}
+
+	private synchronized Object getUnresolvedSource() {
+		return resolved ? null : resolver.getSource();
+	}
+
+	private Object getTarget() {
+
+		if (!resolved) {
+			synchronized (this) {
+				if (!resolved) {
+					target = resolver.resolve();
+					resolver = null;
+					resolved = true;
+				}
+			}
+		}
+
+		return target;
+	}
+
+	/**
+	 * Callback to resolve the value of a {@link LazyLoadingProxy}.
+	 */
+	interface ValueResolver {
+
+		Object resolve();
+
+		/**
+		 * @return the raw value to be resolved.
+		 */
+		Object getSource();
+	}
+}
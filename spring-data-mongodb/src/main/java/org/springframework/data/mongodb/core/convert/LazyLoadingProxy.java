@@ -0,0 +1,38 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+/**
+ * Interface implemented by the proxies {@link MappingMongoConverter} assigns to lazily converted properties.
+ * 
+ * @see org.springframework.data.mongodb.core.mapping.LazyLoad
+ */
+public interface LazyLoadingProxy {
+
+	/**
+	 * Returns whether the proxied value has been converted already.
+	 * 
+	 * @return
+	 */
+	boolean isResolved();
+
+	/**
+	 * Returns the proxied value, converting it if that hasn't happened yet.
+	 * 
+	 * @return
+	 */
+	Object getTarget();
+}
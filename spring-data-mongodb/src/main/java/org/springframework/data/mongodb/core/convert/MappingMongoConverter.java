@@ -16,14 +16,18 @@
 package org.springframework.data.mongodb.core.convert;
 
 import java.lang.reflect.Array;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -35,17 +39,14 @@ import org.springframework.core.CollectionFactory;
 import org.springframework.core.convert.ConversionException;
 import org.springframework.core.convert.support.ConversionServiceFactory;
 import org.springframework.data.convert.TypeMapper;
-import org.springframework.data.mapping.Association;
-import org.springframework.data.mapping.AssociationHandler;
 import org.springframework.data.mapping.PreferredConstructor;
-import org.springframework.data.mapping.PropertyHandler;
 import org.springframework.data.mapping.context.MappingContext;
-import org.springframework.data.mapping.model.BeanWrapper;
 import org.springframework.data.mapping.model.MappingException;
 import org.springframework.data.mapping.model.ParameterValueProvider;
-import org.springframework.data.mapping.model.SpELAwareParameterValueProvider;
 import org.springframework.data.mongodb.MongoDbFactory;
 import org.springframework.data.mongodb.core.QueryMapper;
+import org.springframework.data.mongodb.core.convert.EntityPlan.PropertyPlan;
+import org.springframework.data.mongodb.core.convert.LazyLoadingInterceptor.ValueResolver;
 import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
 import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
 import org.springframework.data.util.ClassTypeInformation;
@@ -60,8 +61,10 @@ import org.springframework.util.StringUtils;
 import com.mongodb.BasicDBList;
 import com.mongodb.BasicDBObject;
 import com.mongodb.DB;
+import com.mongodb.DBDecoderFactory;
 import com.mongodb.DBObject;
 import com.mongodb.DBRef;
+import com.mongodb.DefaultDBDecoder;
 
 /**
  * {@link MongoConverter} that uses a {@link MappingContext} to do sophisticated mapping of domain objects to
@@ -88,6 +91,11 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 	protected boolean useFieldAccessOnly = true;
 	protected MongoTypeMapper typeMapper;
 
+	private final ConcurrentMap<MongoPersistentEntity<?>, EntityPlan> plans = new ConcurrentHashMap<MongoPersistentEntity<?>, EntityPlan>();
+	private final ConcurrentMap<Class<?>, DBDecoderFactory> decoderFactories = new ConcurrentHashMap<Class<?>, DBDecoderFactory>();
+	private final ConcurrentMap<MongoPersistentProperty, DBObject> referenceFields = new ConcurrentHashMap<MongoPersistentProperty, DBObject>();
+	private final ThreadLocal<DBRefResolver> resolvers = new ThreadLocal<DBRefResolver>();
+
 	/**
 	 * Creates a new {@link MappingMongoConverter} given the new {@link MongoDbFactory} and {@link MappingContext}.
 	 * 
@@ -120,6 +128,8 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 	public void setTypeMapper(MongoTypeMapper typeMapper) {
 		this.typeMapper = typeMapper == null ? new DefaultMongoTypeMapper(DefaultMongoTypeMapper.DEFAULT_TYPE_KEY,
 				mappingContext) : typeMapper;
+		this.decoderFactories.clear();
+		this.referenceFields.clear();
 	}
 
 	/*
@@ -141,6 +151,17 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 		this.useFieldAccessOnly = useFieldAccessOnly;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.convert.AbstractMongoConverter#setCustomConversions(org.springframework.data.mongodb.core.convert.CustomConversions)
+	 */
+	@Override
+	public void setCustomConversions(CustomConversions conversions) {
+		super.setCustomConversions(conversions);
+		this.plans.clear();
+		this.decoderFactories.clear();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.springframework.context.ApplicationContextAware#setApplicationContext(org.springframework.context.ApplicationContext)
@@ -154,7 +175,39 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 	 * @see org.springframework.data.mongodb.core.core.MongoReader#read(java.lang.Class, com.mongodb.DBObject)
 	 */
 	public <S extends Object> S read(Class<S> clazz, final DBObject dbo) {
-		return read(ClassTypeInformation.from(clazz), dbo);
+
+		ReadScope scope = openReadScope();
+
+		try {
+			if (dbo != null) {
+				scope.prefetch(clazz, Collections.singleton(dbo));
+			}
+			return read(ClassTypeInformation.from(clazz), dbo);
+		} finally {
+			scope.close();
+		}
+	}
+
+	/**
+	 * Opens a {@link ReadScope} for the current thread. {@link DBRef}s contained in documents read until the scope is
+	 * closed are fetched in batches and resolve to the same instance if they point to the same document. Reading a
+	 * single document opens a scope for that document implicitly. If a scope is already open for the current thread, the
+	 * returned one shares its state and leaves it open when being closed.
+	 * 
+	 * @return
+	 */
+	public ReadScope openReadScope() {
+
+		DBRefResolver resolver = resolvers.get();
+
+		if (resolver != null) {
+			return new DBRefReadScope(resolver, false);
+		}
+
+		resolver = new DBRefResolver();
+		resolvers.set(resolver);
+
+		return new DBRefReadScope(resolver, true);
 	}
 
 	@SuppressWarnings("unchecked")
@@ -193,29 +246,103 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 		return read(persistentEntity, dbo);
 	}
 
+	@SuppressWarnings("unchecked")
 	private <S extends Object> S read(final MongoPersistentEntity<S> entity, final DBObject dbo) {
 
-		final StandardEvaluationContext spelCtx = new StandardEvaluationContext();
-		if (null != applicationContext) {
-			spelCtx.setBeanResolver(new BeanFactoryResolver(applicationContext));
-		}
-		if (!(dbo instanceof BasicDBList)) {
-			String[] keySet = dbo.keySet().toArray(new String[dbo.keySet().size()]);
-			for (String key : keySet) {
-				spelCtx.setVariable(key, dbo.get(key));
+		EntityPlan plan = getEntityPlan(entity);
+		EntityAccessor accessor = plan.getAccessor();
+		StandardEvaluationContext spelCtx = plan.usesExpressions() ? new DocumentEvaluationContext(dbo,
+				applicationContext) : null;
+
+		S bean = (S) accessor.newInstance(accessor.hasConstructorParameters() ? getParameterValueProvider(entity, plan,
+				dbo, spelCtx) : null);
+
+		for (PropertyPlan property : plan.getProperties()) {
+
+			MongoPersistentProperty prop = property.getProperty();
+
+			// Associations are always set, properties only if not already set in the constructor
+			if (property.isAssociation()) {
+				Object obj = property.isLazy() ? getLazyValueInternal(property, dbo) : getValueInternal(prop, dbo, spelCtx,
+						property.getExpression());
+				accessor.setProperty(bean, prop, obj, false, conversionService);
+			} else if (!property.isConstructorArgument() && dbo.containsField(property.getFieldName())) {
+				Object obj = property.isLazy() ? getLazyValueInternal(property, dbo) : getValueInternal(prop, dbo, spelCtx,
+						property.getExpression());
+				accessor.setProperty(bean, prop, obj, useFieldAccessOnly, conversionService);
 			}
 		}
 
-		final List<String> ctorParamNames = new ArrayList<String>();
+		return bean;
+	}
+
+	/**
+	 * Returns a {@link LazyLoadingProxy} for the value of the given property if it's stored as embedded document, array
+	 * or {@link DBRef}. The proxy only keeps the raw value and converts it on first access. The {@link DBRef}s contained
+	 * in the value are fetched in batches at that time, within the {@link ReadScope} open then, if any. Writing an
+	 * entity whose proxy hasn't been accessed writes the raw value as is.
+	 * 
+	 * @param property must not be {@literal null}.
+	 * @param dbo must not be {@literal null}.
+	 * @return
+	 */
+	private Object getLazyValueInternal(final PropertyPlan property, DBObject dbo) {
+
+		final Object value = dbo.get(property.getFieldName());
+
+		if (!(value instanceof DBObject) && !(value instanceof DBRef)) {
+			return getValueInternal(property.getProperty(), dbo, null, (Expression) null);
+		}
+
+		return LazyLoadingInterceptor.createProxy(property.getProperty().getType(), new ValueResolver() {
+			public Object resolve() {
+
+				MongoPersistentProperty prop = property.getProperty();
+				ReadScope scope = openReadScope();
+
+				try {
+					List<DBRef> references = new ArrayList<DBRef>();
+					List<TypeInformation<?>> types = new ArrayList<TypeInformation<?>>();
+					List<DBObject> fields = new ArrayList<DBObject>();
+
+					collectReferences(prop.getTypeInformation(), value, getReferenceFields(prop), references, types,
+							fields);
+					fetchReferences(resolvers.get(), references, types, fields);
+
+					DBObject source = new BasicDBObject(property.getFieldName(), value);
+					return getValueInternal(prop, source, null, (Expression) null);
+				} finally {
+					scope.close();
+				}
+			}
+
+			public Object getSource() {
+				return value;
+			}
+		});
+	}
+
+	/**
+	 * Returns a {@link ParameterValueProvider} reading the constructor arguments for the given entity from the given
+	 * {@link DBObject}.
+	 * 
+	 * @param entity must not be {@literal null}.
+	 * @param plan must not be {@literal null}.
+	 * @param dbo must not be {@literal null}.
+	 * @param spelCtx must not be {@literal null} if the {@link EntityPlan} uses expressions.
+	 * @return
+	 */
+	private ParameterValueProvider getParameterValueProvider(MongoPersistentEntity<?> entity, final EntityPlan plan,
+			final DBObject dbo, final StandardEvaluationContext spelCtx) {
+
 		final MongoPersistentProperty idProperty = entity.getIdProperty();
 
-		ParameterValueProvider provider = new SpELAwareParameterValueProvider(spelExpressionParser, spelCtx) {
-			@Override
+		return new ParameterValueProvider() {
 			@SuppressWarnings("unchecked")
 			public <T> T getParameterValue(PreferredConstructor.Parameter<T> parameter) {
 
 				if (parameter.getKey() != null) {
-					return super.getParameterValue(parameter);
+					return plan.getParameterExpression(parameter.getKey()).getValue(spelCtx, parameter.getRawType());
 				}
 
 				String name = parameter.getName();
@@ -223,13 +350,14 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 				Class<T> rawType = parameter.getRawType();
 				String key = idProperty == null ? name : idProperty.getName().equals(name) ? idProperty.getFieldName() : name;
 				Object obj = dbo.get(key);
+				PropertyPlan property = plan.getProperty(key);
+				DBObject fields = property == null ? null : getReferenceFields(property.getProperty());
 
-				ctorParamNames.add(name);
 				if (obj instanceof DBRef) {
-					return read(type, ((DBRef) obj).fetch());
+					return readDBRef(type, (DBRef) obj, fields);
 				} else if (obj instanceof BasicDBList) {
 					BasicDBList objAsDbList = (BasicDBList) obj;
-					return conversionService.convert(readCollectionOrArray(type, objAsDbList), rawType);
+					return conversionService.convert(readCollectionOrArray(type, objAsDbList, fields), rawType);
 				} else if (obj instanceof DBObject) {
 					return read(type, ((DBObject) obj));
 				} else if (null != obj && obj.getClass().isAssignableFrom(rawType)) {
@@ -241,47 +369,6 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 				return null;
 			}
 		};
-
-		final BeanWrapper<MongoPersistentEntity<S>, S> wrapper = BeanWrapper.create(entity, provider, conversionService);
-
-		// Set properties not already set in the constructor
-		entity.doWithProperties(new PropertyHandler<MongoPersistentProperty>() {
-			public void doWithPersistentProperty(MongoPersistentProperty prop) {
-
-				boolean isConstructorProperty = ctorParamNames.contains(prop.getName());
-				boolean hasValueForProperty = dbo.containsField(prop.getFieldName());
-
-				if (!hasValueForProperty || isConstructorProperty) {
-					return;
-				}
-
-				Object obj = getValueInternal(prop, dbo, spelCtx, prop.getSpelExpression());
-				try {
-					wrapper.setProperty(prop, obj, useFieldAccessOnly);
-				} catch (IllegalAccessException e) {
-					throw new MappingException(e.getMessage(), e);
-				} catch (InvocationTargetException e) {
-					throw new MappingException(e.getMessage(), e);
-				}
-			}
-		});
-
-		// Handle associations
-		entity.doWithAssociations(new AssociationHandler<MongoPersistentProperty>() {
-			public void doWithAssociation(Association<MongoPersistentProperty> association) {
-				MongoPersistentProperty inverseProp = association.getInverse();
-				Object obj = getValueInternal(inverseProp, dbo, spelCtx, inverseProp.getSpelExpression());
-				try {
-					wrapper.setProperty(inverseProp, obj);
-				} catch (IllegalAccessException e) {
-					throw new MappingException(e.getMessage(), e);
-				} catch (InvocationTargetException e) {
-					throw new MappingException(e.getMessage(), e);
-				}
-			}
-		});
-
-		return wrapper.getBean();
 	}
 
 	/**
@@ -352,95 +439,188 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 			throw new MappingException("No mapping metadata found for entity of type " + obj.getClass().getName());
 		}
 
-		final BeanWrapper<MongoPersistentEntity<Object>, Object> wrapper = BeanWrapper.create(obj, conversionService);
+		EntityPlan plan = getEntityPlan(entity);
+		EntityAccessor accessor = plan.getAccessor();
 
 		// Write the ID
-		final MongoPersistentProperty idProperty = entity.getIdProperty();
+		PropertyPlan idProperty = plan.getIdProperty();
 		if (!dbo.containsField("_id") && null != idProperty) {
 			
 			try {
-				Object id = wrapper.getProperty(idProperty, Object.class, useFieldAccessOnly);
+				Object id = accessor.getProperty(obj, idProperty.getProperty(), useFieldAccessOnly);
 				dbo.put("_id", idMapper.convertId(id));
 			} catch (ConversionException ignored) {
-			} catch (IllegalAccessException e) {
-				throw new MappingException(e.getMessage(), e);
-			} catch (InvocationTargetException e) {
-				throw new MappingException(e.getMessage(), e);
 			}
 		}
 
-		// Write the properties
-		entity.doWithProperties(new PropertyHandler<MongoPersistentProperty>() {
-			public void doWithPersistentProperty(MongoPersistentProperty prop) {
-				if (prop.equals(idProperty)) {
-					return;
-				}
-				Object propertyObj;
-				try {
-					propertyObj = wrapper.getProperty(prop, prop.getType(), useFieldAccessOnly);
-				} catch (IllegalAccessException e) {
-					throw new MappingException(e.getMessage(), e);
-				} catch (InvocationTargetException e) {
-					throw new MappingException(e.getMessage(), e);
-				}
-				if (null != propertyObj) {
-					if (!conversions.isSimpleType(propertyObj.getClass())) {
-						writePropertyInternal(propertyObj, dbo, prop);
-					} else {
-						writeSimpleInternal(propertyObj, dbo, prop.getFieldName());
-					}
-				}
+		// Write the properties and associations
+		for (PropertyPlan property : plan.getProperties()) {
+
+			if (property.isId()) {
+				continue;
 			}
-		});
 
-		entity.doWithAssociations(new AssociationHandler<MongoPersistentProperty>() {
-			public void doWithAssociation(Association<MongoPersistentProperty> association) {
-				MongoPersistentProperty inverseProp = association.getInverse();
-				Class<?> type = inverseProp.getType();
-				Object propertyObj;
-				try {
-					propertyObj = wrapper.getProperty(inverseProp, type, useFieldAccessOnly);
-				} catch (IllegalAccessException e) {
-					throw new MappingException(e.getMessage(), e);
-				} catch (InvocationTargetException e) {
-					throw new MappingException(e.getMessage(), e);
-				}
-				if (null != propertyObj) {
-					writePropertyInternal(propertyObj, dbo, inverseProp);
-				}
+			Object propertyObj = accessor.getProperty(obj, property.getProperty(), useFieldAccessOnly);
+
+			if (null == propertyObj) {
+				continue;
 			}
-		});
+
+			if (isComplexWrite(propertyObj, property)) {
+				writePropertyInternal(propertyObj, dbo, property.getProperty());
+			} else {
+				dbo.put(property.getFieldName(), getSimpleWriteValue(propertyObj, property));
+			}
+		}
+	}
+
+	/**
+	 * Creates a {@link DBObject} for the given object that is not populated upfront but reads and converts the entity's
+	 * properties when it is inspected. Handing it to an {@link EntityDocumentEncoder} streams the entity straight into
+	 * the BSON output buffer without building the intermediate {@link BasicDBObject} tree {@link #write(Object, DBObject)}
+	 * would create. The type key and the {@code _id} are written eagerly, further fields put into the document take
+	 * precedence over the entity's properties. Objects handled by a custom converter, {@link Map}s and
+	 * {@link Collection}s are written into a {@link BasicDBObject} as usual.
+	 * 
+	 * @param obj must not be {@literal null}.
+	 * @return
+	 */
+	public DBObject createEntityDocument(Object obj) {
+
+		Assert.notNull(obj);
+
+		if (conversions.getCustomWriteTarget(obj.getClass(), DBObject.class) != null
+				|| Map.class.isAssignableFrom(obj.getClass()) || Collection.class.isAssignableFrom(obj.getClass())) {
+			BasicDBObject dbo = new BasicDBObject();
+			write(obj, dbo);
+			return dbo;
+		}
+
+		DBObject header = new BasicDBObject();
+		typeMapper.writeType(ClassTypeInformation.from(obj.getClass()), header);
+
+		return createEntityDocument(obj, mappingContext.getPersistentEntity(obj.getClass()), header);
+	}
+
+	/**
+	 * Creates an {@link EntityDocument} for the given object with the given header fields, adding the {@code _id} the
+	 * same way {@link #writeInternal(Object, DBObject, MongoPersistentEntity)} does.
+	 * 
+	 * @param obj
+	 * @param entity
+	 * @param header
+	 * @return
+	 */
+	private EntityDocument createEntityDocument(Object obj, MongoPersistentEntity<?> entity, DBObject header) {
+
+		if (null == entity) {
+			throw new MappingException("No mapping metadata found for entity of type " + obj.getClass().getName());
+		}
+
+		EntityPlan plan = getEntityPlan(entity);
+		PropertyPlan idProperty = plan.getIdProperty();
+
+		if (!header.containsField("_id") && null != idProperty) {
+			try {
+				Object id = plan.getAccessor().getProperty(obj, idProperty.getProperty(), useFieldAccessOnly);
+				header.put("_id", idMapper.convertId(id));
+			} catch (ConversionException ignored) {
+			}
+		}
+
+		return new EntityDocument(this, obj, plan, header);
+	}
+
+	/**
+	 * Returns the raw value of the given property of the given object as stored by an {@link EntityDocument}.
+	 * 
+	 * @param obj must not be {@literal null}.
+	 * @param plan must not be {@literal null}.
+	 * @param property must not be {@literal null}.
+	 * @return
+	 */
+	Object getPropertyValue(Object obj, EntityPlan plan, PropertyPlan property) {
+		return plan.getAccessor().getProperty(obj, property.getProperty(), useFieldAccessOnly);
+	}
+
+	/**
+	 * Returns the value to be stored for the given property value. Nested entities are returned as
+	 * {@link EntityDocument}s.
+	 * 
+	 * @param value must not be {@literal null}.
+	 * @param property must not be {@literal null}.
+	 * @return
+	 */
+	Object getWriteValue(Object value, PropertyPlan property) {
+		return isComplexWrite(value, property) ? createPropertyValue(value, property.getProperty(), true)
+				: getSimpleWriteValue(value, property);
+	}
+
+	private boolean isComplexWrite(Object value, PropertyPlan property) {
+		return !property.isSimple() && (property.isAssociation() || !conversions.isSimpleType(value.getClass()));
+	}
+
+	private Object getSimpleWriteValue(Object value, PropertyPlan property) {
+
+		if (!property.isSimple()) {
+			return getPotentiallyConvertedSimpleWrite(value);
+		}
+
+		Class<?> customTarget = property.getCustomWriteTarget();
+		return customTarget != null ? conversionService.convert(value, customTarget)
+				: value instanceof Enum ? ((Enum<?>) value).name() : value;
 	}
 
-	@SuppressWarnings({ "unchecked" })
 	protected void writePropertyInternal(Object obj, DBObject dbo, MongoPersistentProperty prop) {
 
 		if (obj == null) {
 			return;
 		}
 
-		String name = prop.getFieldName();
-		TypeInformation<?> valueType = ClassTypeInformation.from(obj.getClass());
+		dbo.put(prop.getFieldName(), createPropertyValue(obj, prop, false));
+	}
+
+	/**
+	 * Creates the value to be stored for the given non-simple property value.
+	 * 
+	 * @param obj must not be {@literal null}.
+	 * @param prop must not be {@literal null}.
+	 * @param entityDocument whether to return nested entities as {@link EntityDocument} instead of writing them into a
+	 *          {@link BasicDBObject}.
+	 * @return
+	 */
+	@SuppressWarnings({ "unchecked" })
+	private Object createPropertyValue(Object obj, MongoPersistentProperty prop, boolean entityDocument) {
+
+		if (obj instanceof LazyLoadingProxy) {
+
+			// write back what was read if the value hasn't been touched
+			Object source = LazyLoadingInterceptor.getUnresolvedSource(obj);
+
+			if (source != null) {
+				return source;
+			}
+
+			obj = ((LazyLoadingProxy) obj).getTarget();
+		}
+
+		Class<?> valueType = obj.getClass();
 		TypeInformation<?> type = prop.getTypeInformation();
 
-		if (valueType.isCollectionLike()) {
-			DBObject collectionInternal = createCollection(asCollection(obj), prop);
-			dbo.put(name, collectionInternal);
-			return;
+		if (valueType.isArray() || obj instanceof Collection || Iterable.class.equals(valueType)) {
+			return createCollection(asCollection(obj), prop);
 		}
 
-		if (valueType.isMap()) {
+		if (obj instanceof Map) {
 			BasicDBObject mapDbObj = new BasicDBObject();
 			writeMapInternal((Map<Object, Object>) obj, mapDbObj, type);
-			dbo.put(name, mapDbObj);
-			return;
+			return mapDbObj;
 		}
 
 		if (prop.isDbReference()) {
 			DBRef dbRefObj = createDBRef(obj, prop.getDBRef());
 			if (null != dbRefObj) {
-				dbo.put(name, dbRefObj);
-				return;
+				return dbRefObj;
 			}
 		}
 
@@ -448,8 +628,7 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 		Class<?> basicTargetType = conversions.getCustomWriteTarget(obj.getClass(), null);
 
 		if (basicTargetType != null) {
-			dbo.put(name, conversionService.convert(obj, basicTargetType));
-			return;
+			return conversionService.convert(obj, basicTargetType);
 		}
 
 		BasicDBObject propDbObj = new BasicDBObject();
@@ -458,8 +637,12 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 		MongoPersistentEntity<?> entity = isSubtype(prop.getType(), obj.getClass()) ? mappingContext
 				.getPersistentEntity(obj.getClass()) : mappingContext.getPersistentEntity(type);
 
+		if (entityDocument) {
+			return createEntityDocument(obj, entity, propDbObj);
+		}
+
 		writeInternal(obj, propDbObj, entity);
-		dbo.put(name, propDbObj);
+		return propDbObj;
 	}
 
 	private boolean isSubtype(Class<?> left, Class<?> right) {
@@ -668,18 +851,10 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 		}
 
 		MongoPersistentProperty idProperty = targetEntity.getIdProperty();
-		Object id = null;
-		BeanWrapper<MongoPersistentEntity<Object>, Object> wrapper = BeanWrapper.create(target, conversionService);
+		Object id = getEntityPlan(targetEntity).getAccessor().getProperty(target, idProperty, useFieldAccessOnly);
 
-		try {
-			id = wrapper.getProperty(idProperty, Object.class, useFieldAccessOnly);
-			if (null == id) {
-				throw new MappingException("Cannot create a reference to an object with a NULL id.");
-			}
-		} catch (IllegalAccessException e) {
-			throw new MappingException(e.getMessage(), e);
-		} catch (InvocationTargetException e) {
-			throw new MappingException(e.getMessage(), e);
+		if (null == id) {
+			throw new MappingException("Cannot create a reference to an object with a NULL id.");
 		}
 
 		String collection = dbref.collection();
@@ -693,14 +868,103 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 		return new DBRef(db, collection, idMapper.convertId(id));
 	}
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * Returns the {@link EntityPlan} for the given {@link MongoPersistentEntity}, creating it on first access.
+	 * 
+	 * @param entity must not be {@literal null}.
+	 * @return
+	 */
+	private EntityPlan getEntityPlan(MongoPersistentEntity<?> entity) {
+
+		EntityPlan plan = plans.get(entity);
+
+		if (plan == null) {
+			plan = new EntityPlan(entity, conversions, spelExpressionParser);
+			EntityPlan existing = plans.putIfAbsent(entity, plan);
+			plan = existing == null ? plan : existing;
+		}
+
+		return plan;
+	}
+
+	/**
+	 * Returns a {@link DBDecoderFactory} for decoders that only decode the fields of a document the given type maps, so
+	 * that reading documents carrying a lot of unmapped fields doesn't create objects for them. Falls back to the
+	 * driver's default decoding for types handled by custom converters, types not being persistent entities and
+	 * entities using SpEL expressions, as those might refer to arbitrary fields.
+	 * 
+	 * @param type must not be {@literal null}.
+	 * @return
+	 * @see EntityDocumentDecoder
+	 */
+	public DBDecoderFactory getDecoderFactory(Class<?> type) {
+
+		Assert.notNull(type);
+		DBDecoderFactory factory = decoderFactories.get(type);
+
+		if (factory == null) {
+			factory = createDecoderFactory(type);
+			DBDecoderFactory existing = decoderFactories.putIfAbsent(type, factory);
+			factory = existing == null ? factory : existing;
+		}
+
+		return factory;
+	}
+
+	private DBDecoderFactory createDecoderFactory(Class<?> type) {
+
+		MongoPersistentEntity<?> entity = mappingContext.getPersistentEntity(type);
+
+		if (entity == null || conversions.hasCustomReadTarget(DBObject.class, type)) {
+			return DefaultDBDecoder.FACTORY;
+		}
+
+		EntityPlan plan = getEntityPlan(entity);
+
+		if (plan.usesExpressions()) {
+			return DefaultDBDecoder.FACTORY;
+		}
+
+		DBObject typeHint = new BasicDBObject();
+		typeMapper.writeType(ClassTypeInformation.from(type), typeHint);
+
+		if (typeHint.keySet().size() > 1) {
+			return DefaultDBDecoder.FACTORY;
+		}
+
+		// Constructor arguments are looked up by property name
+		Set<String> fieldNames = new HashSet<String>();
+		fieldNames.add("_id");
+
+		for (PropertyPlan property : plan.getProperties()) {
+			fieldNames.add(property.getFieldName());
+			fieldNames.add(property.getProperty().getName());
+		}
+
+		if (typeHint.keySet().isEmpty()) {
+			return EntityDocumentDecoder.factory(fieldNames, null, null);
+		}
+
+		String typeKey = typeHint.keySet().iterator().next();
+		Object alias = typeHint.get(typeKey);
+		fieldNames.add(typeKey);
+
+		return alias instanceof String ? EntityDocumentDecoder.factory(fieldNames, typeKey, (String) alias)
+				: DefaultDBDecoder.FACTORY;
+	}
+
 	protected Object getValueInternal(MongoPersistentProperty prop, DBObject dbo, StandardEvaluationContext ctx,
 			String spelExpr) {
+		return getValueInternal(prop, dbo, ctx, null == spelExpr ? null : spelExpressionParser.parseExpression(spelExpr));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object getValueInternal(MongoPersistentProperty prop, DBObject dbo, StandardEvaluationContext ctx,
+			Expression expression) {
 
 		Object o;
-		if (null != spelExpr) {
-			Expression x = spelExpressionParser.parseExpression(spelExpr);
-			o = x.getValue(ctx);
+		if (null != expression) {
+			o = expression.getValue(ctx);
 		} else {
 
 			Object sourceValue = dbo.get(prop.getFieldName());
@@ -715,12 +979,16 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 				return conversionService.convert(sourceValue, propertyType);
 			}
 
+			DBObject fields = sourceValue instanceof DBRef || sourceValue instanceof BasicDBList ? getReferenceFields(prop)
+					: null;
+
 			if (sourceValue instanceof DBRef) {
-				sourceValue = ((DBRef) sourceValue).fetch();
+				if (!prop.isMap() && !prop.isCollectionLike()) {
+					return readDBRef(prop.getTypeInformation(), (DBRef) sourceValue, fields);
+				}
+				sourceValue = fetch((DBRef) sourceValue, fields);
 			}
 
-
-
 			if (sourceValue instanceof DBObject) {
 				if (prop.isMap()) {
 					return readMap(prop.getTypeInformation(), (DBObject) sourceValue);
@@ -730,7 +998,7 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 					return Array.newInstance(prop.getComponentType(), 0);
 				} else if (prop.isCollectionLike() && sourceValue instanceof BasicDBList) {
 					return readCollectionOrArray((TypeInformation<? extends Collection<?>>) prop.getTypeInformation(),
-							(BasicDBList) sourceValue);
+							(BasicDBList) sourceValue, fields);
 				}
 
 				TypeInformation<?> toType = typeMapper.readType((DBObject) sourceValue);
@@ -757,8 +1025,22 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 	 * @param sourceValue must not be {@literal null}.
 	 * @return the converted {@link Collections}, will never be {@literal null}.
 	 */
-	@SuppressWarnings("unchecked")
 	private Collection<?> readCollectionOrArray(TypeInformation<?> targetType, BasicDBList sourceValue) {
+		return readCollectionOrArray(targetType, sourceValue, null);
+	}
+
+	/**
+	 * Reads the given {@link BasicDBList} into a collection of the given {@link TypeInformation}, fetching the documents
+	 * of contained {@link DBRef}s with the given projection.
+	 * 
+	 * @param targetType must not be {@literal null}.
+	 * @param sourceValue must not be {@literal null}.
+	 * @param referenceFields the projection to fetch referenced documents with, can be {@literal null}.
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	private Collection<?> readCollectionOrArray(TypeInformation<?> targetType, BasicDBList sourceValue,
+			DBObject referenceFields) {
 
 		Assert.notNull(targetType);
 
@@ -768,7 +1050,7 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 		for (int i = 0; i < sourceValue.size(); i++) {
 			Object dbObjItem = sourceValue.get(i);
 			if (dbObjItem instanceof DBRef) {
-				items.add(read(targetType.getComponentType(), ((DBRef) dbObjItem).fetch()));
+				items.add(readDBRef(targetType.getComponentType(), (DBRef) dbObjItem, referenceFields));
 			} else if (dbObjItem instanceof DBObject) {
 				items.add(read(targetType.getComponentType(), (DBObject) dbObjItem));
 			} else {
@@ -779,6 +1061,299 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 		return items;
 	}
 
+	/**
+	 * Reads the document the given {@link DBRef} points to into the given type. Returns the instance read for the same
+	 * reference before if a {@link ReadScope} is open.
+	 * 
+	 * @param type must not be {@literal null}.
+	 * @param reference must not be {@literal null}.
+	 * @param fields the projection to fetch the document with, can be {@literal null}.
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	private <S> S readDBRef(TypeInformation<S> type, DBRef reference, DBObject fields) {
+
+		DBRefResolver resolver = resolvers.get();
+
+		if (resolver == null) {
+			return read(type, fetch(reference, fields));
+		}
+
+		Object instance = resolver.getInstance(reference, fields, type.getType());
+
+		if (instance != null) {
+			return (S) instance;
+		}
+
+		S result = read(type, resolver.getDocument(reference, fields));
+
+		if (result != null) {
+			resolver.putInstance(reference, fields, type.getType(), result);
+		}
+
+		return result;
+	}
+
+	private DBObject fetch(DBRef reference, DBObject fields) {
+
+		DBRefResolver resolver = resolvers.get();
+
+		if (resolver != null) {
+			return resolver.getDocument(reference, fields);
+		}
+
+		return fields == null ? reference.fetch() : reference.getDB().getCollection(reference.getRef())
+				.findOne(new BasicDBObject("_id", reference.getId()), fields);
+	}
+
+	/**
+	 * Returns the projection to fetch the documents referenced by the given property with. Contains the fields
+	 * configured in {@link org.springframework.data.mongodb.core.mapping.DBRef#fields()} as well as the type key so that
+	 * the referenced documents are still read into the type they were written from.
+	 * 
+	 * @param property must not be {@literal null}.
+	 * @return the projection or {@literal null} if the complete documents are to be fetched.
+	 */
+	private DBObject getReferenceFields(MongoPersistentProperty property) {
+
+		DBObject fields = referenceFields.get(property);
+
+		if (fields == null) {
+
+			String[] names = property.isDbReference() ? property.getDBRef().fields() : new String[0];
+			fields = new BasicDBObject();
+
+			if (names.length > 0) {
+
+				for (String name : names) {
+					fields.put(name, 1);
+				}
+
+				DBObject typeHint = new BasicDBObject();
+				typeMapper.writeType(property.getTypeInformation().getActualType(), typeHint);
+
+				for (String key : typeHint.keySet()) {
+					fields.put(key, 1);
+				}
+			}
+
+			DBObject existing = referenceFields.putIfAbsent(property, fields);
+			fields = existing == null ? fields : existing;
+		}
+
+		return fields.keySet().isEmpty() ? null : fields;
+	}
+
+	/**
+	 * Fetches the documents referenced by the given documents and, transitively, by the documents fetched in batches.
+	 * 
+	 * @param resolver must not be {@literal null}.
+	 * @param type must not be {@literal null}.
+	 * @param documents must not be {@literal null}.
+	 */
+	private void prefetchReferences(DBRefResolver resolver, TypeInformation<?> type,
+			Iterable<? extends DBObject> documents) {
+
+		List<DBRef> references = new ArrayList<DBRef>();
+		List<TypeInformation<?>> types = new ArrayList<TypeInformation<?>>();
+		List<DBObject> fields = new ArrayList<DBObject>();
+
+		if (!resolver.startPage(documents)) {
+			return;
+		}
+
+		for (DBObject document : documents) {
+			if (document != null) {
+				collectReferences(type, document, null, references, types, fields);
+			}
+		}
+
+		fetchReferences(resolver, references, types, fields);
+	}
+
+	/**
+	 * Fetches the given references in batches and, transitively, the references contained in the documents fetched.
+	 * 
+	 * @param resolver must not be {@literal null}.
+	 * @param references must not be {@literal null}.
+	 * @param types the types the references at the same index are read into, must not be {@literal null}.
+	 * @param fields the projections to fetch the references at the same index with, must not be {@literal null}.
+	 */
+	private void fetchReferences(DBRefResolver resolver, List<DBRef> references, List<TypeInformation<?>> types,
+			List<DBObject> fields) {
+
+		while (!references.isEmpty()) {
+
+			List<DBObject> fetched = resolver.fetch(references, fields);
+			List<DBRef> nextReferences = new ArrayList<DBRef>();
+			List<TypeInformation<?>> nextTypes = new ArrayList<TypeInformation<?>>();
+			List<DBObject> nextFields = new ArrayList<DBObject>();
+
+			for (int i = 0; i < fetched.size(); i++) {
+				DBObject document = fetched.get(i);
+				if (document != null && resolver.markScanned(document)) {
+					collectReferences(types.get(i), document, null, nextReferences, nextTypes, nextFields);
+				}
+			}
+
+			references = nextReferences;
+			types = nextTypes;
+			fields = nextFields;
+		}
+	}
+
+	/**
+	 * Collects the {@link DBRef}s contained in the given value when read into the given type. Skips lazy properties and
+	 * properties bound to SpEL expressions.
+	 * 
+	 * @param type the type the value is read into, can be {@literal null}.
+	 * @param value
+	 * @param referenceFields the projection to fetch {@link DBRef}s contained in the value itself with, can be
+	 *          {@literal null}.
+	 * @param references the list to add the {@link DBRef}s found to.
+	 * @param types the list to add the types the references are read into to.
+	 * @param fields the list to add the projections to fetch the references with to.
+	 */
+	private void collectReferences(TypeInformation<?> type, Object value, DBObject referenceFields,
+			List<DBRef> references, List<TypeInformation<?>> types, List<DBObject> fields) {
+
+		if (value instanceof DBRef) {
+			if (type != null && ((DBRef) value).getDB() != null) {
+				references.add((DBRef) value);
+				types.add(type);
+				fields.add(referenceFields);
+			}
+			return;
+		}
+
+		if (value instanceof BasicDBList) {
+			TypeInformation<?> componentType = type == null ? null : type.getComponentType();
+			for (Object element : (BasicDBList) value) {
+				collectReferences(componentType, element, referenceFields, references, types, fields);
+			}
+			return;
+		}
+
+		if (!(value instanceof DBObject)) {
+			return;
+		}
+
+		DBObject dbo = (DBObject) value;
+		TypeInformation<?> actualType = type == null ? typeMapper.readType(dbo) : typeMapper.readType(dbo, type);
+
+		if (actualType == null || DBObject.class.isAssignableFrom(actualType.getType())
+				|| conversions.hasCustomReadTarget(dbo.getClass(), actualType.getType())) {
+			return;
+		}
+
+		if (actualType.isMap()) {
+			for (String key : dbo.keySet()) {
+				collectReferences(actualType.getMapValueType(), dbo.get(key), referenceFields, references, types,
+						fields);
+			}
+			return;
+		}
+
+		if (actualType.isCollectionLike() || conversions.isSimpleType(actualType.getType())) {
+			return;
+		}
+
+		MongoPersistentEntity<?> entity = mappingContext.getPersistentEntity(actualType);
+
+		if (entity == null || !canReachReferences(entity)) {
+			return;
+		}
+
+		for (PropertyPlan property : getEntityPlan(entity).getProperties()) {
+
+			if (property.isSimple() || property.isLazy() || property.getExpression() != null) {
+				continue;
+			}
+
+			Object propertyValue = dbo.get(property.getFieldName());
+
+			if (propertyValue instanceof DBObject || propertyValue instanceof DBRef) {
+				collectReferences(property.getProperty().getTypeInformation(), propertyValue,
+						getReferenceFields(property.getProperty()), references, types, fields);
+			}
+		}
+	}
+
+	/**
+	 * Returns whether documents of the given entity can contain {@link DBRef}s fetched when reading it, i.e. whether it
+	 * has eager references or, transitively, properties of a type that has. Properties declared as {@link Object},
+	 * interface or abstract type are assumed to be able to hold references. The result is cached in the entity's
+	 * {@link EntityPlan}. References held by a property through a subtype of its declared type are still resolved when
+	 * read, just not prefetched in batches.
+	 * 
+	 * @param entity must not be {@literal null}.
+	 * @return
+	 */
+	boolean canReachReferences(MongoPersistentEntity<?> entity) {
+
+		EntityPlan plan = getEntityPlan(entity);
+		Boolean reachable = plan.getReferencesReachable();
+
+		if (reachable == null) {
+			reachable = canReachReferences(entity, new HashSet<MongoPersistentEntity<?>>());
+			plan.setReferencesReachable(reachable);
+		}
+
+		return reachable;
+	}
+
+	private boolean canReachReferences(MongoPersistentEntity<?> entity, Set<MongoPersistentEntity<?>> visited) {
+
+		EntityPlan plan = getEntityPlan(entity);
+
+		if (plan.getReferencesReachable() != null) {
+			return plan.getReferencesReachable();
+		}
+
+		if (!visited.add(entity)) {
+			return false;
+		}
+
+		for (PropertyPlan property : plan.getProperties()) {
+
+			if (property.isSimple() || property.isLazy() || property.getExpression() != null) {
+				continue;
+			}
+
+			if (property.isAssociation()) {
+				return true;
+			}
+
+			TypeInformation<?> type = property.getProperty().getTypeInformation();
+
+			while (type != null && (type.isCollectionLike() || type.isMap())) {
+				type = type.isMap() ? type.getMapValueType() : type.getComponentType();
+			}
+
+			if (type == null) {
+				return true;
+			}
+
+			Class<?> rawType = type.getType();
+
+			if (conversions.isSimpleType(rawType) || DBObject.class.isAssignableFrom(rawType)) {
+				continue;
+			}
+
+			if (Object.class.equals(rawType) || rawType.isInterface() || Modifier.isAbstract(rawType.getModifiers())) {
+				return true;
+			}
+
+			MongoPersistentEntity<?> nested = mappingContext.getPersistentEntity(type);
+
+			if (nested != null && canReachReferences(nested, visited)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	/**
 	 * Reads the given {@link DBObject} into a {@link Map}. will recursively resolve nested {@link Map}s as well.
 	 * 
@@ -932,4 +1507,69 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 
 		return dbObject;
 	}
+
+	/**
+	 * {@link ReadScope} binding a {@link DBRefResolver} to the current thread.
+	 */
+	private class DBRefReadScope implements ReadScope {
+
+		private final DBRefResolver resolver;
+		private final boolean owner;
+
+		public DBRefReadScope(DBRefResolver resolver, boolean owner) {
+			this.resolver = resolver;
+			this.owner = owner;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.data.mongodb.core.convert.ReadScope#prefetch(java.lang.Class, java.lang.Iterable)
+		 */
+		public void prefetch(Class<?> type, Iterable<? extends DBObject> documents) {
+
+			Assert.notNull(type);
+			Assert.notNull(documents);
+
+			prefetchReferences(resolver, ClassTypeInformation.from(type), documents);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.data.mongodb.core.convert.ReadScope#close()
+		 */
+		public void close() {
+			if (owner && resolvers.get() == resolver) {
+				resolvers.remove();
+			}
+		}
+	}
+
+	/**
+	 * {@link StandardEvaluationContext} exposing the top-level fields of a {@link DBObject} as variables. Variables are
+	 * looked up in the {@link DBObject} on access instead of being copied into the context upfront.
+	 */
+	private static class DocumentEvaluationContext extends StandardEvaluationContext {
+
+		private final DBObject dbo;
+
+		public DocumentEvaluationContext(DBObject dbo, ApplicationContext applicationContext) {
+
+			this.dbo = dbo instanceof BasicDBList ? null : dbo;
+
+			if (null != applicationContext) {
+				setBeanResolver(new BeanFactoryResolver(applicationContext));
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.expression.spel.support.StandardEvaluationContext#lookupVariable(java.lang.String)
+		 */
+		@Override
+		public Object lookupVariable(String name) {
+
+			Object value = super.lookupVariable(name);
+			return value != null || dbo == null ? value : dbo.get(name);
+		}
+	}
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+import com.mongodb.DBObject;
+
+/**
+ * Scope of a read operation spanning multiple documents. All documents read through the {@link MappingMongoConverter}
+ * on the thread that opened the scope share the documents fetched to resolve {@link com.mongodb.DBRef}s and the
+ * objects read from them until the scope is closed. Scopes have to be closed by the thread that opened them.
+ * 
+ * @see MappingMongoConverter#openReadScope()
+ */
+public interface ReadScope {
+
+	/**
+	 * Fetches the documents referenced by the given documents, when read into the given type, in batches of one query
+	 * per collection. Documents referenced by the fetched documents are fetched the same way.
+	 * 
+	 * @param type must not be {@literal null}.
+	 * @param documents must not be {@literal null}.
+	 */
+	void prefetch(Class<?> type, Iterable<? extends DBObject> documents);
+
+	/**
+	 * Closes the scope.
+	 */
+	void close();
+}
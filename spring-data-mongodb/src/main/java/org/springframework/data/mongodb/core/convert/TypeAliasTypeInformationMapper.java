@@ -0,0 +1,179 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.data.convert.TypeInformationMapper;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mapping.model.MappingException;
+import org.springframework.data.mongodb.core.mapping.TypeAlias;
+import org.springframework.data.util.ClassTypeInformation;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link TypeInformationMapper} writing the alias defined by {@link TypeAlias} for annotated types and resolving types
+ * from aliases and class names. The aliases of all entities known to the {@link MappingContext} are registered upfront,
+ * others on first use. Aliases, types and class names are kept in a bidirectional cache so that neither writing nor
+ * reading type information requires reflection once a type has been seen.
+ * <p/>
+ * Returns {@literal null} for types without an alias so that a subsequent mapper, usually the
+ * {@link org.springframework.data.convert.SimpleTypeInformationMapper}, writes their class name.
+ */
+public class TypeAliasTypeInformationMapper implements TypeInformationMapper {
+
+	private static final String NO_ALIAS = "";
+
+	private final MappingContext<? extends PersistentEntity<?, ?>, ?> mappingContext;
+	private final ClassLoader classLoader;
+
+	private final ConcurrentMap<Class<?>, String> typeToAlias = new ConcurrentHashMap<Class<?>, String>();
+	private final ConcurrentMap<String, TypeInformation<?>> aliasToType = new ConcurrentHashMap<String, TypeInformation<?>>();
+	private final ConcurrentMap<String, Boolean> unresolvableClassNames = new ConcurrentHashMap<String, Boolean>();
+
+	/**
+	 * Creates a new {@link TypeAliasTypeInformationMapper} without a {@link MappingContext}, registering aliases on first
+	 * use only.
+	 */
+	public TypeAliasTypeInformationMapper() {
+		this(null);
+	}
+
+	/**
+	 * Creates a new {@link TypeAliasTypeInformationMapper} registering the aliases of the entities known to the given
+	 * {@link MappingContext}.
+	 * 
+	 * @param mappingContext can be {@literal null}.
+	 */
+	public TypeAliasTypeInformationMapper(MappingContext<? extends PersistentEntity<?, ?>, ?> mappingContext) {
+
+		this.mappingContext = mappingContext;
+		this.classLoader = ClassUtils.getDefaultClassLoader();
+
+		registerEntities();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.convert.TypeInformationMapper#createAliasFor(org.springframework.data.util.TypeInformation)
+	 */
+	public Object createAliasFor(TypeInformation<?> type) {
+
+		Class<?> rawType = type.getType();
+		String alias = typeToAlias.get(rawType);
+
+		if (alias == null) {
+			alias = register(rawType);
+		}
+
+		return NO_ALIAS.equals(alias) ? null : alias;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.convert.TypeInformationMapper#resolveTypeFrom(java.lang.Object)
+	 */
+	public TypeInformation<?> resolveTypeFrom(Object alias) {
+
+		if (!(alias instanceof String) || !StringUtils.hasText((String) alias)) {
+			return null;
+		}
+
+		String key = (String) alias;
+		TypeInformation<?> type = aliasToType.get(key);
+
+		if (type != null) {
+			return type;
+		}
+
+		// Entities might have been added to the mapping context since
+		registerEntities();
+		type = aliasToType.get(key);
+
+		return type != null ? type : resolveClassName(key);
+	}
+
+	/**
+	 * Registers the aliases of all entities currently known to the {@link MappingContext}.
+	 */
+	private void registerEntities() {
+
+		if (mappingContext == null) {
+			return;
+		}
+
+		for (PersistentEntity<?, ?> entity : mappingContext.getPersistentEntities()) {
+			if (!typeToAlias.containsKey(entity.getType())) {
+				register(entity.getType());
+			}
+		}
+	}
+
+	/**
+	 * Registers the alias of the given type if it's annotated with {@link TypeAlias}.
+	 * 
+	 * @param type must not be {@literal null}.
+	 * @return the alias or {@link #NO_ALIAS} if the type is not annotated.
+	 */
+	private String register(Class<?> type) {
+
+		TypeAlias annotation = type.getAnnotation(TypeAlias.class);
+		String alias = annotation == null ? NO_ALIAS : annotation.value();
+
+		if (StringUtils.hasText(alias)) {
+
+			TypeInformation<?> existing = aliasToType.putIfAbsent(alias, ClassTypeInformation.from(type));
+
+			if (existing != null && !existing.getType().equals(type)) {
+				throw new MappingException(String.format("Alias '%s' of %s is already used for %s!", alias, type.getName(),
+						existing.getType().getName()));
+			}
+		}
+
+		typeToAlias.put(type, alias);
+		return alias;
+	}
+
+	/**
+	 * Resolves the given class name, caching the result.
+	 * 
+	 * @param className must not be {@literal null}.
+	 * @return the {@link TypeInformation} or {@literal null} if no class of that name can be loaded.
+	 */
+	private TypeInformation<?> resolveClassName(String className) {
+
+		if (unresolvableClassNames.containsKey(className)) {
+			return null;
+		}
+
+		try {
+			TypeInformation<?> type = ClassTypeInformation.from(ClassUtils.forName(className, classLoader));
+			TypeInformation<?> existing = aliasToType.putIfAbsent(className, type);
+			return existing == null ? type : existing;
+		} catch (ClassNotFoundException e) {
+			unresolvableClassNames.put(className, Boolean.TRUE);
+			return null;
+		} catch (LinkageError e) {
+			unresolvableClassNames.put(className, Boolean.TRUE);
+			return null;
+		}
+	}
+}
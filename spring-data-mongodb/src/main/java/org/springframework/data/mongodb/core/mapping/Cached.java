@@ -0,0 +1,47 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Enables caching of single entity lookups by id or query for a {@link Document}. Documents read by
+ * {@link org.springframework.data.mongodb.core.MongoTemplate#findById(Object, Class)} and
+ * {@link org.springframework.data.mongodb.core.MongoTemplate#findOne(org.springframework.data.mongodb.core.query.Query, Class)}
+ * are kept in a bounded cache per collection. All cached documents of a collection are evicted on writes issued
+ * through the template. Writes issued by other means are only picked up once the cached documents expire.
+ * 
+ * @see org.springframework.data.mongodb.core.EntityCache
+ */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE })
+public @interface Cached {
+
+	/**
+	 * The maximum number of documents cached for the collection.
+	 */
+	int maxEntries() default 1000;
+
+	/**
+	 * The time in milliseconds a document is cached.
+	 */
+	long timeToLive() default 60000;
+}
@@ -39,4 +39,27 @@ public @interface DBRef {
 
 	String db() default "";
 
+	/**
+	 * Whether the referenced document is to be fetched on first access instead of when the owning entity is read. The
+	 * property gets a proxy of its declared type assigned, thus this only applies to properties declared as interface,
+	 * e.g. a {@link java.util.List} of references or an interface implemented by the referenced type. Marking a property
+	 * of another type as lazy is rejected with a {@link org.springframework.data.mapping.model.MappingException} once
+	 * the entity is first read or written.
+	 * <p/>
+	 * Properties of class type are deliberately not supported. A proxy subclassing the referenced type would have to
+	 * bypass its constructors and would carry unpopulated fields of its own. Everything reading fields directly, like
+	 * the converter's default field access or an {@code equals(...)} comparing the fields of another instance, would
+	 * see those instead of the fetched document. To reference a single document lazily, declare the property as an
+	 * interface implemented by the referenced type.
+	 * 
+	 * @see org.springframework.data.mongodb.core.convert.LazyLoadingProxy
+	 */
+	boolean lazy() default false;
+
+	/**
+	 * The fields of the referenced document to fetch. The {@code _id} and the type information are always fetched.
+	 * Defaults to fetching the complete document.
+	 */
+	String[] fields() default {};
+
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.mapping;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a property holding an embedded collection, map or document to be converted on first access instead of when
+ * the owning entity is read. The property gets a proxy of its declared type assigned which keeps the raw value read
+ * from the database until one of its methods is invoked. Thus the property has to be declared as an interface, e.g.
+ * {@link java.util.List}, {@link java.util.Set} or {@link java.util.Map}, see {@link DBRef#lazy()} for why. Annotating
+ * a property of another type, a property populated through the constructor or a property bound to a SpEL expression
+ * is rejected with a {@link org.springframework.data.mapping.model.MappingException} once the entity is first read or
+ * written.
+ * 
+ * @see org.springframework.data.mongodb.core.convert.LazyLoadingProxy
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD })
+public @interface LazyLoad {
+
+}
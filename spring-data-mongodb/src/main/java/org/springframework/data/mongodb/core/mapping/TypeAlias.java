@@ -0,0 +1,41 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.mapping;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Defines the alias to store in the type key of documents written for the annotated type instead of its fully
+ * qualified class name. The alias has to be unique among all types mapped by a
+ * {@link org.springframework.data.mapping.context.MappingContext}. Subtypes don't inherit the alias, as their
+ * documents have to be distinguishable from the ones of the annotated type.
+ * 
+ * @see org.springframework.data.mongodb.core.convert.TypeAliasTypeInformationMapper
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE })
+public @interface TypeAlias {
+
+	/**
+	 * The alias to store for the annotated type.
+	 */
+	String value();
+}
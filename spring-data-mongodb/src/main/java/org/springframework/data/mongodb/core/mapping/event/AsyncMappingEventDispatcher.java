@@ -0,0 +1,337 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.mapping.event;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+import com.mongodb.DBObject;
+
+/**
+ * Publishes {@link AfterSaveEvent}s, {@link AfterLoadEvent}s and {@link AfterConvertEvent}s on background threads so
+ * that expensive listeners don't add to the latency of the operation emitting them. {@link BeforeConvertEvent}s and
+ * {@link BeforeSaveEvent}s are always published synchronously as listeners may alter the entity or document about to
+ * be written.
+ * <p/>
+ * Events are distributed across a fixed number of lanes, each served by a single thread. All events for the same
+ * document, identified by its {@code _id} or by the entity instance if it doesn't have one yet, are published on the
+ * same lane and thus in the order they were emitted in. The number of pending events is bounded by the capacity. Once
+ * it's reached, the emitting thread either blocks until an event has been published or the event is dropped,
+ * depending on the configured {@link OverflowPolicy}. Events emitted by a listener running on a lane, e.g. through a
+ * write in reaction to an event, never block as only the lanes themselves free up capacity. They are published
+ * synchronously on the emitting lane instead if the dispatcher is full. Exceptions thrown by listeners are logged.
+ * Events emitted after {@link #destroy()} are published synchronously.
+ * <p/>
+ * Note that listeners see the entity and document concurrently with the code that triggered the event and should thus
+ * not modify them.
+ *
+ * @see org.springframework.data.mongodb.core.MongoTemplate#setAsyncEventDispatcher(AsyncMappingEventDispatcher)
+ */
+public class AsyncMappingEventDispatcher implements DisposableBean {
+
+	public static final int DEFAULT_LANES = 4;
+	public static final int DEFAULT_CAPACITY = 10000;
+	public static final long DEFAULT_SHUTDOWN_TIMEOUT = 10000;
+
+	private static final Log LOGGER = LogFactory.getLog(AsyncMappingEventDispatcher.class);
+	private static final String ID = "_id";
+
+	/**
+	 * What to do with an event to be dispatched if the maximum number of pending events is reached.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Block the emitting thread until an event has been published.
+		 */
+		BLOCK,
+
+		/**
+		 * Drop the event without publishing it.
+		 */
+		DROP
+	}
+
+	private final ExecutorService[] lanes;
+	private final Semaphore permits;
+	private final int capacity;
+	private final OverflowPolicy overflowPolicy;
+	private final long shutdownTimeout;
+	private final ReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
+	private final ThreadLocal<Boolean> publishing = new ThreadLocal<Boolean>();
+
+	private final AtomicLong dispatchedCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+
+	private volatile boolean destroyed;
+
+	/**
+	 * Creates a new {@link AsyncMappingEventDispatcher} using {@value #DEFAULT_LANES} lanes, buffering up to
+	 * {@value #DEFAULT_CAPACITY} events and blocking if full.
+	 */
+	public AsyncMappingEventDispatcher() {
+		this(DEFAULT_LANES, DEFAULT_CAPACITY, OverflowPolicy.BLOCK);
+	}
+
+	/**
+	 * Creates a new {@link AsyncMappingEventDispatcher} waiting up to {@value #DEFAULT_SHUTDOWN_TIMEOUT} milliseconds
+	 * for pending events on {@link #destroy()}.
+	 *
+	 * @param lanes the number of threads publishing events, must be positive.
+	 * @param capacity the maximum number of pending events, must be positive.
+	 * @param overflowPolicy must not be {@literal null}.
+	 */
+	public AsyncMappingEventDispatcher(int lanes, int capacity, OverflowPolicy overflowPolicy) {
+		this(lanes, capacity, overflowPolicy, DEFAULT_SHUTDOWN_TIMEOUT);
+	}
+
+	/**
+	 * Creates a new {@link AsyncMappingEventDispatcher}.
+	 *
+	 * @param lanes the number of threads publishing events, must be positive.
+	 * @param capacity the maximum number of pending events, must be positive.
+	 * @param overflowPolicy must not be {@literal null}.
+	 * @param shutdownTimeout the time in milliseconds to wait for pending events on {@link #destroy()}, must not be
+	 *          negative.
+	 */
+	public AsyncMappingEventDispatcher(int lanes, int capacity, OverflowPolicy overflowPolicy, long shutdownTimeout) {
+
+		Assert.isTrue(lanes > 0, "Number of lanes must be greater than zero!");
+		Assert.isTrue(capacity > 0, "Capacity must be greater than zero!");
+		Assert.notNull(overflowPolicy);
+		Assert.isTrue(shutdownTimeout >= 0, "Shutdown timeout must not be negative!");
+
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("mongo-mapping-events-");
+		threadFactory.setDaemon(true);
+
+		this.lanes = new ExecutorService[lanes];
+
+		for (int i = 0; i < lanes; i++) {
+			this.lanes[i] = Executors.newSingleThreadExecutor(threadFactory);
+		}
+
+		this.permits = new Semaphore(capacity);
+		this.capacity = capacity;
+		this.overflowPolicy = overflowPolicy;
+		this.shutdownTimeout = shutdownTimeout;
+	}
+
+	/**
+	 * Returns whether the given event is published asynchronously by an {@link AsyncMappingEventDispatcher}.
+	 *
+	 * @param event must not be {@literal null}.
+	 * @return
+	 */
+	public static boolean isAsync(MongoMappingEvent<?> event) {
+		return event instanceof AfterSaveEvent || event instanceof AfterLoadEvent || event instanceof AfterConvertEvent;
+	}
+
+	/**
+	 * Publishes the given event through the given {@link ApplicationEventPublisher}, asynchronously if it's an after
+	 * event and the dispatcher has not been destroyed yet. If the dispatcher is full and the event is emitted by a
+	 * listener running on one of the lanes, it's published synchronously to not block the lane on capacity only the
+	 * lanes can free up.
+	 *
+	 * @param event must not be {@literal null}.
+	 * @param publisher must not be {@literal null}.
+	 */
+	public void dispatch(final MongoMappingEvent<?> event, final ApplicationEventPublisher publisher) {
+
+		Assert.notNull(event);
+		Assert.notNull(publisher);
+
+		if (!isAsync(event)) {
+			publisher.publishEvent(event);
+			return;
+		}
+
+		lifecycleLock.readLock().lock();
+
+		try {
+
+			if (destroyed) {
+				publisher.publishEvent(event);
+				return;
+			}
+
+			if (!permits.tryAcquire()) {
+
+				if (overflowPolicy == OverflowPolicy.BLOCK && isLaneThread()) {
+					publisher.publishEvent(event);
+					return;
+				}
+
+				if (!awaitPermit()) {
+					droppedCount.incrementAndGet();
+					if (LOGGER.isDebugEnabled()) {
+						LOGGER.debug("Dropping " + event.getClass().getSimpleName() + " as too many events are pending!");
+					}
+					return;
+				}
+			}
+
+			try {
+				getLane(event).execute(new Runnable() {
+					public void run() {
+						publish(event, publisher);
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				permits.release();
+				throw e;
+			}
+
+		} finally {
+			lifecycleLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Stops accepting events and waits for the pending ones to be published. Events emitted afterwards are published
+	 * synchronously.
+	 *
+	 * @see org.springframework.beans.factory.DisposableBean#destroy()
+	 */
+	public void destroy() {
+
+		lifecycleLock.writeLock().lock();
+
+		try {
+			if (destroyed) {
+				return;
+			}
+			destroyed = true;
+		} finally {
+			lifecycleLock.writeLock().unlock();
+		}
+
+		for (ExecutorService lane : lanes) {
+			lane.shutdown();
+		}
+
+		long deadline = System.currentTimeMillis() + shutdownTimeout;
+
+		try {
+			for (ExecutorService lane : lanes) {
+				if (!lane.awaitTermination(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+					LOGGER.warn("Timed out waiting for pending mapping events to be published!");
+					break;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @return the number of events currently waiting to be published.
+	 */
+	public int getPendingCount() {
+		return capacity - permits.availablePermits();
+	}
+
+	/**
+	 * @return the number of events published asynchronously so far.
+	 */
+	public long getDispatchedCount() {
+		return dispatchedCount.get();
+	}
+
+	/**
+	 * @return the number of events dropped because too many events were pending.
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	/**
+	 * @return the number of events a listener threw an exception for.
+	 */
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+
+	private boolean awaitPermit() {
+
+		if (overflowPolicy == OverflowPolicy.DROP) {
+			return false;
+		}
+
+		try {
+			permits.acquire();
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private void publish(MongoMappingEvent<?> event, ApplicationEventPublisher publisher) {
+
+		publishing.set(Boolean.TRUE);
+
+		try {
+			publisher.publishEvent(event);
+		} catch (RuntimeException e) {
+			failedCount.incrementAndGet();
+			LOGGER.error("Listener failed handling " + event.getClass().getSimpleName() + "!", e);
+		} finally {
+			publishing.remove();
+			dispatchedCount.incrementAndGet();
+			permits.release();
+		}
+	}
+
+	/**
+	 * Returns whether the current thread is one of the lanes publishing an event.
+	 *
+	 * @return
+	 */
+	private boolean isLaneThread() {
+		return Boolean.TRUE.equals(publishing.get());
+	}
+
+	/**
+	 * Returns the lane to publish the given event on. Events for the same document are always published on the same
+	 * lane to retain their order.
+	 *
+	 * @param event must not be {@literal null}.
+	 * @return
+	 */
+	private ExecutorService getLane(MongoMappingEvent<?> event) {
+
+		DBObject dbObject = event.getDBObject();
+		Object id = dbObject == null ? null : dbObject.get(ID);
+		int hash = id == null ? System.identityHashCode(event.getSource()) : ObjectUtils.nullSafeHashCode(id);
+
+		return lanes[(hash & Integer.MAX_VALUE) % lanes.length];
+	}
+}
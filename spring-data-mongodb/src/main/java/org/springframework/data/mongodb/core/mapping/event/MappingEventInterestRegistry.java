@@ -0,0 +1,271 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.mapping.event;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.util.ReflectionUtils;
+
+import com.mongodb.DBObject;
+
+/**
+ * Records which {@link MongoMappingEvent}s are listened to for which domain types, so that publishing events nobody
+ * listens to can be skipped. The interest of {@link AbstractMongoEventListener}s is derived from their domain type and
+ * the callback methods they override, other {@link ApplicationListener}s are considered interested in all domain types
+ * for the event types they accept.
+ * <p/>
+ * A registry bound to an {@link ApplicationContext} considers all events interesting until the context has been
+ * refreshed and rebuilds its state on every refresh. A registry not bound to a context considers no event interesting.
+ */
+public class MappingEventInterestRegistry implements ApplicationListener<ContextRefreshedEvent> {
+
+	private static final List<Class<?>> EVENT_TYPES = Arrays.<Class<?>> asList(BeforeConvertEvent.class,
+			BeforeSaveEvent.class, AfterSaveEvent.class, AfterLoadEvent.class, AfterConvertEvent.class);
+
+	private static final Map<Class<?>, Method> CALLBACKS = new HashMap<Class<?>, Method>();
+
+	static {
+		CALLBACKS.put(BeforeConvertEvent.class, callback("onBeforeConvert", Object.class));
+		CALLBACKS.put(BeforeSaveEvent.class, callback("onBeforeSave", Object.class, DBObject.class));
+		CALLBACKS.put(AfterSaveEvent.class, callback("onAfterSave", Object.class, DBObject.class));
+		CALLBACKS.put(AfterLoadEvent.class, callback("onAfterLoad", DBObject.class));
+		CALLBACKS.put(AfterConvertEvent.class, callback("onAfterConvert", DBObject.class, Object.class));
+	}
+
+	private final ApplicationContext context;
+	private volatile Interest interest;
+
+	/**
+	 * Creates a new {@link MappingEventInterestRegistry} not bound to an {@link ApplicationContext} and thus considering
+	 * no event interesting.
+	 */
+	public MappingEventInterestRegistry() {
+		this.context = null;
+		this.interest = new Interest(Collections.<Class<?>, List<Class<?>>> emptyMap());
+	}
+
+	/**
+	 * Creates a new {@link MappingEventInterestRegistry} for the listeners of the given {@link ApplicationContext}.
+	 * Considers all events interesting until the context is refreshed.
+	 *
+	 * @param context must not be {@literal null}.
+	 */
+	public MappingEventInterestRegistry(ApplicationContext context) {
+		this.context = context;
+		this.interest = null;
+	}
+
+	/**
+	 * Returns whether any listener is interested in events of the given type for the given domain type.
+	 *
+	 * @param eventType must not be {@literal null}.
+	 * @param domainType the type of the entity the event is published for, must not be {@literal null}.
+	 * @return
+	 */
+	public boolean hasInterest(Class<?> eventType, Class<?> domainType) {
+		Interest current = interest;
+		return current == null || current.hasInterest(eventType, domainType);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.ApplicationListener#onApplicationEvent(org.springframework.context.ApplicationEvent)
+	 */
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		if (context != null && context.equals(event.getApplicationContext())) {
+			refresh();
+		}
+	}
+
+	/**
+	 * Rebuilds the registry from the listeners of the {@link ApplicationContext} and its ancestors.
+	 */
+	public void refresh() {
+
+		if (context == null) {
+			return;
+		}
+
+		Set<Class<?>> listenerTypes = new LinkedHashSet<Class<?>>();
+
+		for (ApplicationContext current = context; current != null; current = current.getParent()) {
+
+			for (String name : current.getBeanNamesForType(ApplicationListener.class, true, false)) {
+
+				Class<?> type = current.getType(name);
+
+				if (type == null) {
+					this.interest = null;
+					return;
+				}
+
+				listenerTypes.add(type);
+			}
+
+			if (current instanceof AbstractApplicationContext) {
+				for (ApplicationListener<?> listener : ((AbstractApplicationContext) current).getApplicationListeners()) {
+					listenerTypes.add(listener.getClass());
+				}
+			}
+		}
+
+		this.interest = createInterest(listenerTypes);
+	}
+
+	/**
+	 * Creates the interest of the given listener types.
+	 *
+	 * @param listenerTypes must not be {@literal null}.
+	 * @return
+	 */
+	static Interest createInterest(Collection<Class<?>> listenerTypes) {
+
+		Map<Class<?>, List<Class<?>>> domainTypes = new HashMap<Class<?>, List<Class<?>>>();
+
+		for (Class<?> listenerType : listenerTypes) {
+			for (Class<?> eventType : EVENT_TYPES) {
+
+				Class<?> domainType = getDomainType(listenerType, eventType);
+
+				if (domainType == null) {
+					continue;
+				}
+
+				List<Class<?>> types = domainTypes.get(eventType);
+
+				if (types == null) {
+					types = new ArrayList<Class<?>>();
+					domainTypes.put(eventType, types);
+				}
+
+				types.add(domainType);
+			}
+		}
+
+		return new Interest(domainTypes);
+	}
+
+	/**
+	 * Returns the domain type the given listener type listens to events of the given type for.
+	 *
+	 * @param listenerType
+	 * @param eventType
+	 * @return the domain type or {@literal null} if the listener doesn't listen to the event type at all.
+	 */
+	private static Class<?> getDomainType(Class<?> listenerType, Class<?> eventType) {
+
+		if (AbstractMongoEventListener.class.isAssignableFrom(listenerType)) {
+
+			Class<?> domainType = GenericTypeResolver.resolveTypeArgument(listenerType, AbstractMongoEventListener.class);
+			domainType = domainType == null ? Object.class : domainType;
+
+			if (isOverridden(listenerType, "onApplicationEvent", MongoMappingEvent.class)) {
+				return Object.class;
+			}
+
+			Method callback = CALLBACKS.get(eventType);
+			return isOverridden(listenerType, callback.getName(), callback.getParameterTypes()) ? domainType : null;
+		}
+
+		if (!ApplicationListener.class.isAssignableFrom(listenerType)) {
+			return null;
+		}
+
+		if (SmartApplicationListener.class.isAssignableFrom(listenerType)) {
+			return Object.class;
+		}
+
+		Class<?> acceptedType = GenericTypeResolver.resolveTypeArgument(listenerType, ApplicationListener.class);
+		return acceptedType == null || acceptedType.isAssignableFrom(eventType) ? Object.class : null;
+	}
+
+	private static boolean isOverridden(Class<?> listenerType, String name, Class<?>... parameterTypes) {
+		Method method = ReflectionUtils.findMethod(listenerType, name, parameterTypes);
+		return method != null && !AbstractMongoEventListener.class.equals(method.getDeclaringClass());
+	}
+
+	private static Method callback(String name, Class<?>... parameterTypes) {
+		return ReflectionUtils.findMethod(AbstractMongoEventListener.class, name, parameterTypes);
+	}
+
+	/**
+	 * The domain types listened to per event type, caching the lookups.
+	 */
+	static class Interest {
+
+		private final Map<Class<?>, List<Class<?>>> domainTypes;
+		private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, Boolean>> cache = new ConcurrentHashMap<Class<?>, ConcurrentMap<Class<?>, Boolean>>();
+
+		public Interest(Map<Class<?>, List<Class<?>>> domainTypes) {
+			this.domainTypes = domainTypes;
+		}
+
+		public boolean hasInterest(Class<?> eventType, Class<?> domainType) {
+
+			ConcurrentMap<Class<?>, Boolean> eventCache = cache.get(eventType);
+
+			if (eventCache == null) {
+				eventCache = new ConcurrentHashMap<Class<?>, Boolean>();
+				ConcurrentMap<Class<?>, Boolean> existing = cache.putIfAbsent(eventType, eventCache);
+				eventCache = existing == null ? eventCache : existing;
+			}
+
+			Boolean result = eventCache.get(domainType);
+
+			if (result == null) {
+				result = computeInterest(eventType, domainType);
+				eventCache.put(domainType, result);
+			}
+
+			return result;
+		}
+
+		private boolean computeInterest(Class<?> eventType, Class<?> domainType) {
+
+			for (Map.Entry<Class<?>, List<Class<?>>> entry : domainTypes.entrySet()) {
+
+				if (!entry.getKey().isAssignableFrom(eventType)) {
+					continue;
+				}
+
+				for (Class<?> type : entry.getValue()) {
+					if (type.isAssignableFrom(domainType)) {
+						return true;
+					}
+				}
+			}
+
+			return !EVENT_TYPES.contains(eventType) && !domainTypes.isEmpty();
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.query;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.util.Assert;
+
+/**
+ * Settings for a cursor batch size that adapts itself to the observed average document size and getMore latency. The
+ * batch size is chosen so that a single batch transfers roughly {@link #getTargetBatchBytes()} bytes. It grows at most
+ * by a factor of two per batch and is halved whenever a getMore takes longer than {@link #getMaxGetMoreMillis()}. The
+ * last chosen batch size is retained and used as the initial one for subsequent queries using the same instance, so
+ * sharing an instance between queries of the same shape lets it learn the appropriate size.
+ */
+public class AdaptiveBatchSize {
+
+	public static final int DEFAULT_INITIAL_BATCH_SIZE = 100;
+	public static final int DEFAULT_MIN_BATCH_SIZE = 2;
+	public static final int DEFAULT_MAX_BATCH_SIZE = 10000;
+	public static final int DEFAULT_TARGET_BATCH_BYTES = 1024 * 1024;
+	public static final long DEFAULT_MAX_GET_MORE_MILLIS = 500;
+
+	private final int minBatchSize;
+	private final int maxBatchSize;
+	private final int targetBatchBytes;
+	private final long maxGetMoreMillis;
+	private final AtomicInteger currentBatchSize;
+
+	/**
+	 * Creates a new {@link AdaptiveBatchSize} using the default settings.
+	 */
+	public AdaptiveBatchSize() {
+		this(DEFAULT_INITIAL_BATCH_SIZE, DEFAULT_MIN_BATCH_SIZE, DEFAULT_MAX_BATCH_SIZE, DEFAULT_TARGET_BATCH_BYTES,
+				DEFAULT_MAX_GET_MORE_MILLIS);
+	}
+
+	/**
+	 * Creates a new {@link AdaptiveBatchSize}.
+	 *
+	 * @param initialBatchSize the batch size to start with, will be limited to the given bounds.
+	 * @param minBatchSize the minimum batch size, must be greater than one.
+	 * @param maxBatchSize the maximum batch size, must not be less than the minimum batch size.
+	 * @param targetBatchBytes the number of bytes a single batch should roughly transfer, must be positive.
+	 * @param maxGetMoreMillis the getMore latency in milliseconds above which the batch size will be reduced.
+	 */
+	public AdaptiveBatchSize(int initialBatchSize, int minBatchSize, int maxBatchSize, int targetBatchBytes,
+			long maxGetMoreMillis) {
+
+		Assert.isTrue(minBatchSize > 1, "Minimum batch size must be greater than one!");
+		Assert.isTrue(maxBatchSize >= minBatchSize, "Maximum batch size must not be less than the minimum one!");
+		Assert.isTrue(targetBatchBytes > 0, "Target batch bytes must be positive!");
+
+		this.minBatchSize = minBatchSize;
+		this.maxBatchSize = maxBatchSize;
+		this.targetBatchBytes = targetBatchBytes;
+		this.maxGetMoreMillis = maxGetMoreMillis;
+		this.currentBatchSize = new AtomicInteger(limit(initialBatchSize));
+	}
+
+	/**
+	 * Calculates the batch size to use for the next batch based on the given observations and records it as the current
+	 * batch size.
+	 *
+	 * @param averageDocumentSize the average size of the documents read so far in bytes, values less than one are
+	 *          ignored.
+	 * @param getMoreMillis the time the last getMore took in milliseconds.
+	 * @return the batch size to use for the next batch.
+	 */
+	public int adapt(int averageDocumentSize, long getMoreMillis) {
+
+		int current = currentBatchSize.get();
+		int next = averageDocumentSize > 0 ? targetBatchBytes / averageDocumentSize : current;
+
+		if (getMoreMillis > maxGetMoreMillis) {
+			next = Math.min(next, current / 2);
+		} else {
+			next = Math.min(next, current * 2);
+		}
+
+		next = limit(next);
+		currentBatchSize.set(next);
+
+		return next;
+	}
+
+	/**
+	 * Returns the batch size that was chosen most recently.
+	 *
+	 * @return
+	 */
+	public int getCurrentBatchSize() {
+		return currentBatchSize.get();
+	}
+
+	public int getMinBatchSize() {
+		return minBatchSize;
+	}
+
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	public int getTargetBatchBytes() {
+		return targetBatchBytes;
+	}
+
+	public long getMaxGetMoreMillis() {
+		return maxGetMoreMillis;
+	}
+
+	private int limit(int batchSize) {
+		return Math.max(minBatchSize, Math.min(maxBatchSize, batchSize));
+	}
+}
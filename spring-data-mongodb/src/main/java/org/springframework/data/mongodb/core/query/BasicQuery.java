@@ -57,7 +57,8 @@ public class BasicQuery extends Query {
 
 	@Override
 	public DBObject getQueryObject() {
-		return this.queryObject;
+		Keyset keyset = getKeyset();
+		return keyset == null ? this.queryObject : keyset.applyTo(this.queryObject, getSortObject());
 	}
 
 	@Override
@@ -73,11 +74,16 @@ public class BasicQuery extends Query {
 			result.putAll(sortObject);
 		}
 
-		DBObject overrides = super.getSortObject();
+		DBObject overrides = getSortObjectWithoutKeyset();
 		if (overrides != null) {
 			result.putAll(overrides);
 		}
 
+		Keyset keyset = getKeyset();
+		if (keyset != null) {
+			return keyset.getSortObject(result);
+		}
+
 		return result;
 	}
 
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.query;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.data.mongodb.InvalidMongoDbApiUsageException;
+import org.springframework.util.Assert;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * The position of the last document seen in a sorted result, used to select the following documents with a range
+ * predicate instead of skipping over the preceding ones. A {@link Keyset} consists of the values of the sort keys and
+ * the {@code _id} of the last document. The {@code _id} is used as tiebreaker and thus appended to the sort if it's not
+ * already part of it. Selecting the next page therefore costs the same regardless of how deep into the result it is,
+ * given there's an index on the sort keys and the {@code _id}. A {@link Keyset} is {@link Serializable} as long as
+ * the id and the values it holds are.
+ *
+ * @see Query#after(Keyset)
+ */
+public class Keyset implements Serializable {
+
+	private static final long serialVersionUID = 3506325415863437470L;
+	private static final String ID_KEY = "_id";
+
+	private final Object id;
+	private final Map<String, Object> values = new LinkedHashMap<String, Object>();
+
+	/**
+	 * Creates a new {@link Keyset} for the document with the given id.
+	 *
+	 * @param id the {@code _id} of the last document seen, must not be {@literal null}.
+	 */
+	public Keyset(Object id) {
+		Assert.notNull(id, "Id must not be null!");
+		this.id = id;
+	}
+
+	/**
+	 * Static factory method to create a {@link Keyset} for the document with the given id.
+	 *
+	 * @param id the {@code _id} of the last document seen, must not be {@literal null}.
+	 * @return
+	 */
+	public static Keyset after(Object id) {
+		return new Keyset(id);
+	}
+
+	/**
+	 * Registers the value the last document seen has for the given sort key.
+	 *
+	 * @param key must not be {@literal null} or empty.
+	 * @param value
+	 * @return
+	 */
+	public Keyset and(String key, Object value) {
+		Assert.hasText(key, "Key must not be null or empty!");
+		values.put(key, value);
+		return this;
+	}
+
+	public Object getId() {
+		return id;
+	}
+
+	public Map<String, Object> getValues() {
+		return Collections.unmodifiableMap(values);
+	}
+
+	/**
+	 * Returns the given sort object with the {@code _id} tiebreak appended in ascending order if it's not already
+	 * contained.
+	 *
+	 * @param sortObject can be {@literal null}.
+	 * @return
+	 */
+	public DBObject getSortObject(DBObject sortObject) {
+
+		DBObject result = new BasicDBObject();
+
+		if (sortObject != null) {
+			result.putAll(sortObject);
+		}
+
+		if (!result.containsField(ID_KEY)) {
+			result.put(ID_KEY, 1);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the range predicate selecting all documents following the current position in the given sort order. For a
+	 * sort on {@code a} ascending and {@code b} descending this will be
+	 * {@code $or : [ a > x , a = x & b < y , a = x & b = y & _id > z ]}.
+	 *
+	 * @param sortObject can be {@literal null}.
+	 * @return
+	 */
+	public DBObject getCriteriaObject(DBObject sortObject) {
+
+		DBObject sort = getSortObject(sortObject);
+		DBObject equalities = new BasicDBObject();
+		BasicDBList clauses = new BasicDBList();
+
+		for (String key : sort.keySet()) {
+
+			Object value = ID_KEY.equals(key) ? id : getValue(key);
+
+			DBObject clause = new BasicDBObject();
+			clause.putAll(equalities);
+			clause.put(key, new BasicDBObject(isAscending(sort.get(key)) ? "$gt" : "$lt", value));
+			clauses.add(clause);
+
+			if (ID_KEY.equals(key)) {
+				break;
+			}
+
+			equalities.put(key, value);
+		}
+
+		return clauses.size() == 1 ? (DBObject) clauses.get(0) : new BasicDBObject("$or", clauses);
+	}
+
+	/**
+	 * Combines the given query object with the range predicate for the given sort order. Falls back to an {@code $and}
+	 * if the query object already uses one of the keys of the predicate.
+	 *
+	 * @param queryObject must not be {@literal null}.
+	 * @param sortObject can be {@literal null}.
+	 * @return a new {@link DBObject}, the given query object is not modified.
+	 */
+	public DBObject applyTo(DBObject queryObject, DBObject sortObject) {
+
+		Assert.notNull(queryObject);
+		DBObject predicate = getCriteriaObject(sortObject);
+
+		for (String key : predicate.keySet()) {
+			if (queryObject.containsField(key)) {
+				BasicDBList conditions = new BasicDBList();
+				conditions.add(queryObject);
+				conditions.add(predicate);
+				return new BasicDBObject("$and", conditions);
+			}
+		}
+
+		DBObject result = new BasicDBObject();
+		result.putAll(queryObject);
+		result.putAll(predicate);
+		return result;
+	}
+
+	private Object getValue(String key) {
+
+		if (!values.containsKey(key)) {
+			throw new InvalidMongoDbApiUsageException("Keyset does not contain a value for sort key '" + key + "'!");
+		}
+
+		return values.get(key);
+	}
+
+	private static boolean isAscending(Object direction) {
+		return !(direction instanceof Number) || ((Number) direction).intValue() >= 0;
+	}
+}
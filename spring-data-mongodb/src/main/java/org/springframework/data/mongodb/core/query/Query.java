@@ -33,6 +33,11 @@ public class Query {
 	private int skip;
 	private int limit;
 	private String hint;
+	private int batchSize;
+	private boolean noCursorTimeout;
+	private boolean slaveOk;
+	private AdaptiveBatchSize adaptiveBatchSize;
+	private Keyset keyset;
 
 	/**
 	 * Static factory method to create a Query using the provided criteria
@@ -93,7 +98,66 @@ public class Query {
 		this.hint = name;
 		return this;
 	}
-	
+
+	/**
+	 * Configures the number of documents the server shall return per batch. A value of zero will use the server's
+	 * default.
+	 * 
+	 * @param batchSize
+	 * @return
+	 */
+	public Query batchSize(int batchSize) {
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	/**
+	 * Configures the batch size of the cursor to be adapted to the observed document sizes and getMore latencies while
+	 * iterating over the results. Overrides a fixed batch size set via {@link #batchSize(int)}.
+	 * 
+	 * @param adaptiveBatchSize must not be {@literal null}.
+	 * @return
+	 */
+	public Query adaptiveBatchSize(AdaptiveBatchSize adaptiveBatchSize) {
+		Assert.notNull(adaptiveBatchSize, "AdaptiveBatchSize must not be null!");
+		this.adaptiveBatchSize = adaptiveBatchSize;
+		return this;
+	}
+
+	/**
+	 * Prevents the server from timing out idle cursors opened for this query.
+	 * 
+	 * @return
+	 */
+	public Query noCursorTimeout() {
+		this.noCursorTimeout = true;
+		return this;
+	}
+
+	/**
+	 * Allows the query to be executed against a replica set secondary.
+	 * 
+	 * @return
+	 */
+	public Query slaveOk() {
+		this.slaveOk = true;
+		return this;
+	}
+
+	/**
+	 * Restricts the query to the documents following the given {@link Keyset} in the query's sort order. Use this
+	 * instead of {@link #skip(int)} to page through large results as the cost of selecting a page does not depend on its
+	 * position. The {@code _id} is appended to the sort as tiebreaker if it's not already part of it.
+	 * 
+	 * @param keyset must not be {@literal null}.
+	 * @return
+	 */
+	public Query after(Keyset keyset) {
+		Assert.notNull(keyset, "Keyset must not be null!");
+		this.keyset = keyset;
+		return this;
+	}
+
 	public Sort sort() {
 		if (this.sort == null) {
 			this.sort = new Sort();
@@ -109,7 +173,7 @@ public class Query {
 			DBObject cl = c.getCriteriaObject();
 			dbo.putAll(cl);
 		}
-		return dbo;
+		return keyset == null ? dbo : keyset.applyTo(dbo, getSortObject());
 	}
 
 	public DBObject getFieldsObject() {
@@ -120,6 +184,16 @@ public class Query {
 	}
 
 	public DBObject getSortObject() {
+		DBObject sortObject = getSortObjectWithoutKeyset();
+		return keyset == null ? sortObject : keyset.getSortObject(sortObject);
+	}
+
+	/**
+	 * Returns the sort object as configured via {@link #sort()}, i.e. without a potential {@link Keyset} tiebreak.
+	 * 
+	 * @return
+	 */
+	DBObject getSortObjectWithoutKeyset() {
 		if (this.sort == null) {
 			return null;
 		}
@@ -137,6 +211,26 @@ public class Query {
 	public String getHint() {
 		return hint;
 	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public AdaptiveBatchSize getAdaptiveBatchSize() {
+		return adaptiveBatchSize;
+	}
+
+	public boolean isNoCursorTimeout() {
+		return noCursorTimeout;
+	}
+
+	public boolean isSlaveOk() {
+		return slaveOk;
+	}
+
+	public Keyset getKeyset() {
+		return keyset;
+	}
 	
 	protected List<Criteria> getCriteria() {
 		return new ArrayList<Criteria>(this.criteria.values());
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.reactive;
+
+/**
+ * Provider of a potentially unbounded number of elements, publishing them according to the demand signalled by its
+ * {@link Subscriber}s. Mirrors the {@code org.reactivestreams.Publisher} contract so that implementations can easily be
+ * adapted to Reactive Streams libraries.
+ * 
+ * @param <T> the type of the elements published.
+ */
+public interface Publisher<T> {
+
+	/**
+	 * Requests the {@link Publisher} to start publishing elements to the given {@link Subscriber}. No elements are
+	 * published before the {@link Subscriber} requests them through the {@link Subscription} handed to
+	 * {@link Subscriber#onSubscribe(Subscription)}.
+	 * 
+	 * @param subscriber must not be {@literal null}.
+	 */
+	void subscribe(Subscriber<? super T> subscriber);
+}
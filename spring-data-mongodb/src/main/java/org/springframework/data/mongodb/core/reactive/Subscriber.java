@@ -0,0 +1,52 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.reactive;
+
+/**
+ * Receiver of the elements published by a {@link Publisher}. Signals are never sent concurrently. Mirrors the
+ * {@code org.reactivestreams.Subscriber} contract.
+ * 
+ * @param <T> the type of the elements received.
+ */
+public interface Subscriber<T> {
+
+	/**
+	 * Invoked once after {@link Publisher#subscribe(Subscriber)}. No elements are received until demand is signalled
+	 * through {@link Subscription#request(long)}.
+	 * 
+	 * @param subscription
+	 */
+	void onSubscribe(Subscription subscription);
+
+	/**
+	 * Invoked for every element published, at most as many times as elements have been requested.
+	 * 
+	 * @param element
+	 */
+	void onNext(T element);
+
+	/**
+	 * Terminal signal invoked if publishing failed. No further signals are sent.
+	 * 
+	 * @param error
+	 */
+	void onError(Throwable error);
+
+	/**
+	 * Terminal signal invoked once all elements have been published. No further signals are sent.
+	 */
+	void onComplete();
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.reactive;
+
+/**
+ * The one-to-one relation of a {@link Subscriber} to a {@link Publisher}, used to signal demand and to cancel.
+ * Mirrors the {@code org.reactivestreams.Subscription} contract.
+ */
+public interface Subscription {
+
+	/**
+	 * Signals demand for the given number of additional elements.
+	 * 
+	 * @param n must be positive, {@link Long#MAX_VALUE} signals unbounded demand.
+	 */
+	void request(long n);
+
+	/**
+	 * Requests the {@link Publisher} to stop publishing and to release all resources held.
+	 */
+	void cancel();
+}
@@ -0,0 +1,5 @@
+/**
+ * Minimal Reactive Streams style contracts for publishing query results according to subscriber demand.
+ */
+package org.springframework.data.mongodb.core.reactive;
+
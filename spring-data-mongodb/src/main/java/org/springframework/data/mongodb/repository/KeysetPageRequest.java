@@ -0,0 +1,79 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.repository;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Keyset;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Pageable} that selects the page following the given {@link Keyset} instead of skipping the documents of the
+ * preceding pages. Can be handed to repository methods taking a {@link Pageable} as well as
+ * {@link org.springframework.data.repository.PagingAndSortingRepository#findAll(Pageable)}. The page number is only
+ * used to populate the resulting {@link org.springframework.data.domain.Page}, the documents selected are solely
+ * determined by the {@link Keyset}. A {@link KeysetPageRequest} without a {@link Keyset} selects the first page.
+ */
+public class KeysetPageRequest extends PageRequest {
+
+	private static final long serialVersionUID = -5016393457498736519L;
+
+	private final Keyset keyset;
+
+	/**
+	 * Creates a new {@link KeysetPageRequest} for the first page.
+	 *
+	 * @param size the size of the page to be returned.
+	 * @param sort can be {@literal null}.
+	 */
+	public KeysetPageRequest(int size, Sort sort) {
+		this(0, size, sort, null);
+	}
+
+	/**
+	 * Creates a new {@link KeysetPageRequest}.
+	 *
+	 * @param page zero-based page index.
+	 * @param size the size of the page to be returned.
+	 * @param sort can be {@literal null}.
+	 * @param keyset the position of the last document of the previous page, {@literal null} for the first page.
+	 */
+	public KeysetPageRequest(int page, int size, Sort sort, Keyset keyset) {
+		super(page, size, sort);
+		this.keyset = keyset;
+	}
+
+	/**
+	 * Returns a {@link KeysetPageRequest} for the page following the one described by the current request.
+	 *
+	 * @param keyset the position of the last document of the current page, must not be {@literal null}.
+	 * @return
+	 */
+	public KeysetPageRequest next(Keyset keyset) {
+		Assert.notNull(keyset, "Keyset must not be null!");
+		return new KeysetPageRequest(getPageNumber() + 1, getPageSize(), getSort(), keyset);
+	}
+
+	/**
+	 * Returns the {@link Keyset} of the last document of the previous page.
+	 *
+	 * @return the {@link Keyset} or {@literal null} if this request selects the first page.
+	 */
+	public Keyset getKeyset() {
+		return keyset;
+	}
+}
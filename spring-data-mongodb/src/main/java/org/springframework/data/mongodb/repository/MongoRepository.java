@@ -18,6 +18,7 @@ package org.springframework.data.mongodb.repository;
 import java.io.Serializable;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.repository.PagingAndSortingRepository;
@@ -50,4 +51,13 @@ public interface MongoRepository<T, ID extends Serializable> extends PagingAndSo
 	  * @see org.springframework.data.repository.PagingAndSortingRepository#findAll(org.springframework.data.domain.Sort)
 	  */
 	List<T> findAll(Sort sort);
+
+	/**
+	 * Returns the {@link Slice} of entities selected by the given {@link Pageable}. As opposed to
+	 * {@link #findAll(Pageable)} this does not issue a count query to determine the total number of entities.
+	 * 
+	 * @param pageable must not be {@literal null}.
+	 * @return
+	 */
+	Slice<T> findSlice(Pageable pageable);
 }
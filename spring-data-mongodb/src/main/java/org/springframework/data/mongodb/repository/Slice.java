@@ -0,0 +1,103 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * A chunk of a result selected by a {@link Pageable}. Unlike a {@link Page} a {@link Slice} only knows whether there's
+ * a following chunk but not the total number of elements. Thus it can be built without counting all documents matching
+ * the query, which is usually more expensive than reading the page itself. Can be used as return type of repository
+ * query methods taking a {@link Pageable}.
+ *
+ * @see MongoRepository#findSlice(Pageable)
+ */
+public interface Slice<T> extends Iterable<T> {
+
+	/**
+	 * Returns the number of the current slice. Is always non-negative.
+	 *
+	 * @return the number of the current slice.
+	 */
+	int getNumber();
+
+	/**
+	 * Returns the size of the slice as requested.
+	 *
+	 * @return the size of the slice.
+	 */
+	int getSize();
+
+	/**
+	 * Returns the number of elements currently on this slice.
+	 *
+	 * @return the number of elements currently on this slice.
+	 */
+	int getNumberOfElements();
+
+	/**
+	 * Returns whether the current slice has content at all.
+	 *
+	 * @return
+	 */
+	boolean hasContent();
+
+	/**
+	 * Returns the slice content as {@link List}.
+	 *
+	 * @return
+	 */
+	List<T> getContent();
+
+	/**
+	 * Returns whether there's a previous slice.
+	 *
+	 * @return
+	 */
+	boolean hasPreviousPage();
+
+	/**
+	 * Returns whether there's a following slice.
+	 *
+	 * @return
+	 */
+	boolean hasNextPage();
+
+	/**
+	 * Returns whether the current slice is the first one.
+	 *
+	 * @return
+	 */
+	boolean isFirstPage();
+
+	/**
+	 * Returns whether the current slice is the last one.
+	 *
+	 * @return
+	 */
+	boolean isLastPage();
+
+	/**
+	 * Returns the sorting parameters for the slice.
+	 *
+	 * @return
+	 */
+	Sort getSort();
+}
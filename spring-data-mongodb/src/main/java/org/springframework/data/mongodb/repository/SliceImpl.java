@@ -0,0 +1,162 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.Assert;
+
+/**
+ * Basic {@link Slice} implementation.
+ */
+public class SliceImpl<T> implements Slice<T> {
+
+	private final List<T> content = new ArrayList<T>();
+	private final Pageable pageable;
+	private final boolean hasNext;
+
+	/**
+	 * Creates a new {@link SliceImpl} from the given content. Usually the content is read with a limit of one more than
+	 * the page size requested, so that the presence of an additional element indicates a following slice. Use
+	 * {@link #SliceImpl(List, Pageable)} to have the content trimmed and inspected accordingly.
+	 *
+	 * @param content must not be {@literal null}.
+	 * @param pageable can be {@literal null}.
+	 * @param hasNext whether there's a slice following the current one.
+	 */
+	public SliceImpl(List<T> content, Pageable pageable, boolean hasNext) {
+
+		Assert.notNull(content);
+
+		this.content.addAll(content);
+		this.pageable = pageable;
+		this.hasNext = hasNext;
+	}
+
+	/**
+	 * Creates a new {@link SliceImpl} from content read with a limit of the page size plus one. The additional element,
+	 * if present, is dropped and marks the slice as having a successor.
+	 *
+	 * @param content must not be {@literal null}.
+	 * @param pageable must not be {@literal null}.
+	 */
+	public SliceImpl(List<T> content, Pageable pageable) {
+		this(content.size() > pageable.getPageSize() ? content.subList(0, pageable.getPageSize()) : content, pageable,
+				content.size() > pageable.getPageSize());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.repository.Slice#getNumber()
+	 */
+	public int getNumber() {
+		return pageable == null ? 0 : pageable.getPageNumber();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.repository.Slice#getSize()
+	 */
+	public int getSize() {
+		return pageable == null ? content.size() : pageable.getPageSize();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.repository.Slice#getNumberOfElements()
+	 */
+	public int getNumberOfElements() {
+		return content.size();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.repository.Slice#hasContent()
+	 */
+	public boolean hasContent() {
+		return !content.isEmpty();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.repository.Slice#getContent()
+	 */
+	public List<T> getContent() {
+		return Collections.unmodifiableList(content);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.repository.Slice#hasPreviousPage()
+	 */
+	public boolean hasPreviousPage() {
+		return getNumber() > 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.repository.Slice#hasNextPage()
+	 */
+	public boolean hasNextPage() {
+		return hasNext;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.repository.Slice#isFirstPage()
+	 */
+	public boolean isFirstPage() {
+		return !hasPreviousPage();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.repository.Slice#isLastPage()
+	 */
+	public boolean isLastPage() {
+		return !hasNextPage();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.repository.Slice#getSort()
+	 */
+	public Sort getSort() {
+		return pageable == null ? null : pageable.getSort();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Iterable#iterator()
+	 */
+	public Iterator<T> iterator() {
+		return getContent().iterator();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("Slice %d containing %d elements, has next: %s", getNumber(), content.size(), hasNext);
+	}
+}
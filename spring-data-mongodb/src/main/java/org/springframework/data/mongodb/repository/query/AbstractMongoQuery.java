@@ -21,7 +21,6 @@ import java.util.List;
 
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.mongodb.core.CollectionCallback;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.geo.Distance;
 import org.springframework.data.mongodb.core.geo.GeoResult;
@@ -29,15 +28,13 @@ import org.springframework.data.mongodb.core.geo.GeoResults;
 import org.springframework.data.mongodb.core.geo.Point;
 import org.springframework.data.mongodb.core.query.NearQuery;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.Slice;
+import org.springframework.data.mongodb.repository.SliceImpl;
 import org.springframework.data.repository.query.ParameterAccessor;
 import org.springframework.data.repository.query.RepositoryQuery;
 import org.springframework.data.util.TypeInformation;
 import org.springframework.util.Assert;
 
-import com.mongodb.DBCollection;
-import com.mongodb.DBCursor;
-import com.mongodb.DBObject;
-
 /**
  * Base class for {@link RepositoryQuery} implementations for Mongo.
  * 
@@ -83,8 +80,10 @@ public abstract class AbstractMongoQuery implements RepositoryQuery {
 
 		if (method.isGeoNearQuery()) {
 			return new GeoNearExecution(accessor).execute(query);
+		} else if (method.isSliceQuery()) {
+			return new SlicedExecution(accessor.getPageable()).execute(query);
 		} else if (method.isCollectionQuery()) {
-			return new CollectionExecution().execute(query);
+			return new CollectionExecution(accessor.getPageable()).execute(query);
 		} else if (method.isPageQuery()) {
 			return new PagedExecution(accessor.getPageable()).execute(query);
 		} else {
@@ -110,6 +109,11 @@ public abstract class AbstractMongoQuery implements RepositoryQuery {
 			MongoEntityInformation<?, ?> metadata = method.getEntityInformation();
 
 			String collectionName = metadata.getCollectionName();
+
+			if (method.isProjecting()) {
+				return mongoOperations.find(query, method.getQueryDomainClass(), metadata.getJavaType(), collectionName);
+			}
+
 			return mongoOperations.find(query, metadata.getJavaType(), collectionName);
 		}
 	}
@@ -121,6 +125,17 @@ public abstract class AbstractMongoQuery implements RepositoryQuery {
 	 */
 	class CollectionExecution extends Execution {
 
+		private final Pageable pageable;
+
+		/**
+		 * Creates a new {@link CollectionExecution} applying the given {@link Pageable} if not {@literal null}.
+		 * 
+		 * @param pageable can be {@literal null}.
+		 */
+		public CollectionExecution(Pageable pageable) {
+			this.pageable = pageable;
+		}
+
 		/*
 		   * (non-Javadoc)
 		   *
@@ -129,7 +144,41 @@ public abstract class AbstractMongoQuery implements RepositoryQuery {
 		@Override
 		public Object execute(Query query) {
 
-			return readCollection(query);
+			return readCollection(applyPagination(query, pageable));
+		}
+	}
+
+	/**
+	 * {@link Execution} for {@link Slice} returning queries. Reads one document more than requested to find out whether
+	 * there's a following {@link Slice} instead of counting all matching documents.
+	 */
+	class SlicedExecution extends Execution {
+
+		private final Pageable pageable;
+
+		/**
+		 * Creates a new {@link SlicedExecution}.
+		 * 
+		 * @param pageable must not be {@literal null}.
+		 */
+		public SlicedExecution(Pageable pageable) {
+
+			Assert.notNull(pageable);
+			this.pageable = pageable;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.data.mongodb.repository.AbstractMongoQuery.Execution#execute(org.springframework.data.mongodb.core.query.Query)
+		 */
+		@Override
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		Object execute(Query query) {
+
+			Query slicedQuery = applyPagination(query, pageable);
+			slicedQuery.limit(pageable.getPageSize() + 1);
+
+			return new SliceImpl(readCollection(slicedQuery), pageable);
 		}
 	}
 
@@ -162,24 +211,12 @@ public abstract class AbstractMongoQuery implements RepositoryQuery {
 		Object execute(Query query) {
 
 			MongoEntityInformation<?, ?> metadata = method.getEntityInformation();
-			int count = getCollectionCursor(metadata.getCollectionName(), query.getQueryObject()).count();
+			long count = mongoOperations.count(query, method.getQueryDomainClass(), metadata.getCollectionName());
 
-			List<?> result = mongoOperations.find(applyPagination(query, pageable), metadata.getJavaType(),
-					metadata.getCollectionName());
+			List<?> result = readCollection(applyPagination(query, pageable));
 
 			return new PageImpl(result, pageable, count);
 		}
-
-		private DBCursor getCollectionCursor(String collectionName, final DBObject query) {
-
-			return mongoOperations.execute(collectionName, new CollectionCallback<DBCursor>() {
-
-				public DBCursor doInCollection(DBCollection collection) {
-
-					return collection.find(query);
-				}
-			});
-		}
 	}
 
 	/**
@@ -197,6 +234,12 @@ public abstract class AbstractMongoQuery implements RepositoryQuery {
 		Object execute(Query query) {
 
 			MongoEntityInformation<?, ?> entityInformation = method.getEntityInformation();
+
+			if (method.isProjecting()) {
+				return mongoOperations.findOne(query, method.getQueryDomainClass(), entityInformation.getJavaType(),
+						entityInformation.getCollectionName());
+			}
+
 			return mongoOperations.findOne(query, entityInformation.getJavaType());
 		}
 	}
@@ -24,6 +24,7 @@ import org.springframework.data.mongodb.core.geo.GeoPage;
 import org.springframework.data.mongodb.core.geo.GeoResult;
 import org.springframework.data.mongodb.core.geo.GeoResults;
 import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Slice;
 import org.springframework.data.repository.core.RepositoryMetadata;
 import org.springframework.data.repository.query.Parameters;
 import org.springframework.data.repository.query.QueryMethod;
@@ -144,6 +145,38 @@ public class MongoQueryMethod extends QueryMethod {
 		return false;
 	}
 
+	/**
+	 * Returns whether the query method returns a projection of the repository's domain type, i.e. a DTO class or an
+	 * interface the domain type is not assignable to. The query is executed against the domain type and the results are
+	 * read into the type exposed by {@link #getEntityInformation()}, selecting only the fields backing its properties.
+	 * 
+	 * @return
+	 */
+	public boolean isProjecting() {
+		return !entityInformation.getJavaType().isAssignableFrom(getDomainClass());
+	}
+
+	/**
+	 * Returns the domain type the query is executed against. This is the repository's domain type for projecting query
+	 * methods and the type of the {@link #getEntityInformation()} otherwise.
+	 * 
+	 * @return
+	 * @see #isProjecting()
+	 */
+	public Class<?> getQueryDomainClass() {
+		return isProjecting() ? getDomainClass() : entityInformation.getJavaType();
+	}
+
+	/**
+	 * Returns whether the query method returns a {@link Slice}, i.e. is to be executed without counting the total number
+	 * of matching documents.
+	 * 
+	 * @return
+	 */
+	public boolean isSliceQuery() {
+		return Slice.class.isAssignableFrom(method.getReturnType());
+	}
+
 	/**
 	 * Returns the {@link Query} annotation that is applied to the method or {@code null} if none available.
 	 * 
@@ -16,10 +16,14 @@
 package org.springframework.data.mongodb.repository.query;
 
 import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.domain.Sort.Order;
+import org.springframework.data.mongodb.core.query.Keyset;
+import org.springframework.data.mongodb.core.query.Order;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.KeysetPageRequest;
 
 /**
  * Collection of utility methods to apply sorting and pagination to a {@link DBCursor}.
@@ -34,7 +38,8 @@ public abstract class QueryUtils {
 
 	/**
 	 * Applies the given {@link Pageable} to the given {@link Query}. Will do nothing if {@link Pageable} is
-	 * {@literal null}.
+	 * {@literal null}. A {@link KeysetPageRequest} is applied as range predicate following its {@link Keyset} instead of
+	 * skipping the documents of the preceding pages.
 	 * 
 	 * @param query
 	 * @param pageable
@@ -47,9 +52,27 @@ public abstract class QueryUtils {
 		}
 
 		query.limit(pageable.getPageSize());
-		query.skip(pageable.getOffset());
 
-		return applySorting(query, pageable.getSort());
+		if (pageable instanceof KeysetPageRequest) {
+			Keyset keyset = ((KeysetPageRequest) pageable).getKeyset();
+			if (keyset != null) {
+				query.after(keyset);
+			}
+		} else {
+			query.skip(pageable.getOffset());
+		}
+
+		applySorting(query, pageable.getSort());
+
+		if (pageable instanceof KeysetPageRequest && query.getKeyset() == null) {
+			// Use the same tiebreak for the first page as the Keyset will for the following ones
+			DBObject sortObject = query.getSortObject();
+			if (sortObject == null || !sortObject.containsField("_id")) {
+				query.sort().on("_id", Order.ASCENDING);
+			}
+		}
+
+		return query;
 	}
 
 	/**
@@ -67,15 +90,14 @@ public abstract class QueryUtils {
 
 		org.springframework.data.mongodb.core.query.Sort bSort = query.sort();
 
-		for (Order order : sort) {
+		for (Sort.Order order : sort) {
 			bSort.on(order.getProperty(), toOrder(order));
 		}
 
 		return query;
 	}
 
-	public static org.springframework.data.mongodb.core.query.Order toOrder(Order order) {
-		return order.isAscending() ? org.springframework.data.mongodb.core.query.Order.ASCENDING
-				: org.springframework.data.mongodb.core.query.Order.DESCENDING;
+	public static Order toOrder(Sort.Order order) {
+		return order.isAscending() ? Order.ASCENDING : Order.DESCENDING;
 	}
 }
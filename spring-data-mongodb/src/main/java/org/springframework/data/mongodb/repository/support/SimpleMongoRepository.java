@@ -26,10 +26,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.Slice;
+import org.springframework.data.mongodb.repository.SliceImpl;
 import org.springframework.data.mongodb.repository.query.MongoEntityInformation;
 import org.springframework.data.mongodb.repository.query.QueryUtils;
 import org.springframework.data.repository.PagingAndSortingRepository;
@@ -42,6 +45,8 @@ import org.springframework.util.Assert;
  */
 public class SimpleMongoRepository<T, ID extends Serializable> implements PagingAndSortingRepository<T, ID> {
 
+	private static final int DELETE_CHUNK_SIZE = 1000;
+
 	private final MongoOperations mongoOperations;
 	private final MongoEntityInformation<T, ID> entityInformation;
 
@@ -71,21 +76,46 @@ public class SimpleMongoRepository<T, ID extends Serializable> implements Paging
 		return entity;
 	}
 
-	/*
-	 * (non-Javadoc)
+	/**
+	 * Inserts the new entities with a single batch insert and saves the existing ones through {@link BulkOperations},
+	 * which sends them in batches acknowledged by a single round trip each. A failing save raises the same exception as
+	 * {@link #save(Object)} would, e.g. a {@link org.springframework.dao.DuplicateKeyException}. Saves of the entities
+	 * buffered for write-behind are written before and dirty tracking snapshots are refreshed as for
+	 * {@link #save(Object)}.
 	 * 
-	 * @see
-	 * org.springframework.data.repository.Repository#save(java.lang.Iterable)
+	 * @see org.springframework.data.repository.Repository#save(java.lang.Iterable)
 	 */
 	public List<T> save(Iterable<? extends T> entities) {
 
+		Assert.notNull(entities, "The given entities must not be null!");
+
 		List<T> result = new ArrayList<T>();
+		List<T> newEntities = new ArrayList<T>();
+		BulkOperations existingEntities = null;
 
 		for (T entity : entities) {
-			save(entity);
+
+			if (entityInformation.isNew(entity)) {
+				newEntities.add(entity);
+			} else {
+				if (existingEntities == null) {
+					existingEntities = mongoOperations.bulkOps(entityInformation.getJavaType(),
+							entityInformation.getCollectionName());
+				}
+				existingEntities.save(entity);
+			}
+
 			result.add(entity);
 		}
 
+		if (!newEntities.isEmpty()) {
+			mongoOperations.insert(newEntities, entityInformation.getCollectionName());
+		}
+
+		if (existingEntities != null) {
+			existingEntities.execute();
+		}
+
 		return result;
 	}
 
@@ -130,7 +160,7 @@ public class SimpleMongoRepository<T, ID extends Serializable> implements Paging
 	 */
 	public long count() {
 
-		return mongoOperations.getCollection(entityInformation.getCollectionName()).count();
+		return mongoOperations.count(null, entityInformation.getJavaType(), entityInformation.getCollectionName());
 	}
 
 	/*
@@ -153,16 +183,33 @@ public class SimpleMongoRepository<T, ID extends Serializable> implements Paging
 		delete(entityInformation.getId(entity));
 	}
 
-	/*
-	 * (non-Javadoc)
+	/**
+	 * Removes the entities by their ids with a single {@code $in} query per chunk of ids. Errors are raised as for
+	 * {@link #delete(Object)}.
 	 * 
-	 * @see
-	 * org.springframework.data.repository.Repository#delete(java.lang.Iterable)
+	 * @see org.springframework.data.repository.Repository#delete(java.lang.Iterable)
 	 */
 	public void delete(Iterable<? extends T> entities) {
 
+		Assert.notNull(entities, "The given entities must not be null!");
+
+		List<ID> ids = new ArrayList<ID>();
+
 		for (T entity : entities) {
-			delete(entity);
+			Assert.notNull(entity, "The given entity must not be null!");
+			ID id = entityInformation.getId(entity);
+			Assert.notNull(id, "The given id must not be null!");
+			ids.add(id);
+		}
+
+		if (ids.isEmpty()) {
+			return;
+		}
+
+		for (int start = 0; start < ids.size(); start += DELETE_CHUNK_SIZE) {
+			List<ID> chunk = ids.subList(start, Math.min(start + DELETE_CHUNK_SIZE, ids.size()));
+			mongoOperations.remove(new Query(where(entityInformation.getIdAttribute()).in(new ArrayList<ID>(chunk))),
+					entityInformation.getJavaType());
 		}
 	}
 
@@ -201,6 +248,23 @@ public class SimpleMongoRepository<T, ID extends Serializable> implements Paging
 		return new PageImpl<T>(list, pageable, count);
 	}
 
+	/**
+	 * Returns the {@link Slice} of entities selected by the given {@link Pageable} without counting all entities. Reads
+	 * one entity more than requested to find out whether there's a following {@link Slice}.
+	 * 
+	 * @param pageable must not be {@literal null}.
+	 * @return
+	 */
+	public Slice<T> findSlice(Pageable pageable) {
+
+		Assert.notNull(pageable);
+
+		Query query = QueryUtils.applyPagination(new Query(), pageable);
+		query.limit(pageable.getPageSize() + 1);
+
+		return new SliceImpl<T>(findAll(query), pageable);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
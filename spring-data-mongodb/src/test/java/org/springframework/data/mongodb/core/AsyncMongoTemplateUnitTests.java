@@ -0,0 +1,133 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.mongodb.MongoException;
+
+/**
+ * Unit tests for {@link AsyncMongoTemplate}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncMongoTemplateUnitTests {
+
+	@Mock
+	MongoOperations operations;
+
+	AsyncMongoTemplate template;
+
+	@Before
+	public void setUp() {
+		template = new AsyncMongoTemplate(operations, 1, 1);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		template.destroy();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNullOperations() {
+		new AsyncMongoTemplate(null);
+	}
+
+	@Test
+	public void returnsResultOfDelegate() throws Exception {
+
+		Query query = new Query();
+		List<Person> people = Arrays.asList(new Person("Dave"));
+		when(operations.find(query, Person.class)).thenReturn(people);
+
+		assertThat(template.find(query, Person.class).get(), is(people));
+	}
+
+	@Test
+	public void returnsSavedObject() throws Exception {
+
+		Person person = new Person("Dave");
+
+		assertThat(template.save(person).get(), is(person));
+		verify(operations).save(person);
+	}
+
+	@Test
+	public void translatesExceptions() throws Exception {
+
+		Query query = new Query();
+		when(operations.count(query, "collection")).thenThrow(new MongoException("Error!"));
+
+		try {
+			template.count(query, "collection").get();
+			fail("Expected ExecutionException!");
+		} catch (ExecutionException e) {
+			assertThat(e.getCause(), is(instanceOf(DataAccessException.class)));
+		}
+	}
+
+	@Test
+	public void blocksSubmissionWhileQueueIsFull() throws Exception {
+
+		final CountDownLatch latch = new CountDownLatch(1);
+		final Query query = new Query();
+
+		when(operations.count(query, "collection")).thenAnswer(new Answer<Long>() {
+			public Long answer(InvocationOnMock invocation) throws Throwable {
+				latch.await();
+				return 1L;
+			}
+		});
+
+		Future<Long> first = template.count(query, "collection");
+		Future<Long> second = template.count(query, "collection");
+
+		Thread submitter = new Thread(new Runnable() {
+			public void run() {
+				template.count(query, "collection");
+			}
+		});
+		submitter.start();
+		submitter.join(100);
+
+		assertThat(submitter.isAlive(), is(true));
+
+		latch.countDown();
+		submitter.join(1000);
+
+		assertThat(submitter.isAlive(), is(false));
+		assertThat(first.get(), is(1L));
+		assertThat(second.get(), is(1L));
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bson.BSON;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link BsonSizeEstimator}.
+ */
+public class BsonSizeEstimatorUnitTests {
+
+	@Test
+	public void estimatesEmptyDocument() {
+		assertEstimateMatchesEncoding(new BasicDBObject());
+	}
+
+	@Test
+	public void estimatesSimpleTypesExactly() {
+
+		DBObject document = new BasicDBObject("_id", new ObjectId()).append("name", "Dave").append("age", 42)
+				.append("balance", 4711L).append("rate", 0.5d).append("active", true).append("birthday", new Date())
+				.append("nothing", null);
+
+		assertEstimateMatchesEncoding(document);
+	}
+
+	@Test
+	public void estimatesMultiByteCharactersExactly() {
+		assertEstimateMatchesEncoding(new BasicDBObject("name", "M\u00fcller \u20ac"));
+	}
+
+	@Test
+	public void estimatesNestedDocumentsAndListsExactly() {
+
+		BasicDBList list = new BasicDBList();
+		list.add("first");
+		list.add(new BasicDBObject("street", "Broadway"));
+
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("key", "value");
+
+		DBObject document = new BasicDBObject("address", new BasicDBObject("city", "New York")).append("list", list)
+				.append("collection", Arrays.asList(1, 2, 3)).append("map", map).append("bytes", new byte[] { 1, 2, 3 });
+
+		assertEstimateMatchesEncoding(document);
+	}
+
+	private static void assertEstimateMatchesEncoding(DBObject document) {
+		assertThat(BsonSizeEstimator.estimate(document), is((long) BSON.encode(document).length));
+	}
+}
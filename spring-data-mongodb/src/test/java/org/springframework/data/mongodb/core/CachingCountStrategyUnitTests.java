@@ -0,0 +1,92 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link CachingCountStrategy}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CachingCountStrategyUnitTests {
+
+	@Mock
+	DBCollection collection;
+	@Mock
+	CountStrategy delegate;
+
+	DBObject query = new BasicDBObject("lastname", "Matthews");
+
+	@Before
+	public void setUp() {
+		when(collection.getFullName()).thenReturn("db.person");
+		when(delegate.count(collection, query)).thenReturn(42L);
+	}
+
+	@Test
+	public void cachesCountPerQuery() {
+
+		CountStrategy strategy = new CachingCountStrategy(delegate, 60000, 10);
+
+		assertThat(strategy.count(collection, query), is(42L));
+		assertThat(strategy.count(collection, new BasicDBObject("lastname", "Matthews")), is(42L));
+		verify(delegate, times(1)).count(collection, query);
+
+		strategy.count(collection, new BasicDBObject("lastname", "Beauford"));
+		verify(delegate, times(2)).count(eq(collection), (DBObject) anyObject());
+	}
+
+	@Test
+	public void recountsOnceExpired() throws Exception {
+
+		CountStrategy strategy = new CachingCountStrategy(delegate, 1, 10);
+
+		strategy.count(collection, query);
+		Thread.sleep(10);
+		strategy.count(collection, query);
+
+		verify(delegate, times(2)).count(collection, query);
+	}
+
+	@Test
+	public void doesNotCacheBeyondMaximumNumberOfEntries() {
+
+		CountStrategy strategy = new CachingCountStrategy(delegate, 60000, 1);
+
+		strategy.count(collection, new BasicDBObject("lastname", "Beauford"));
+		strategy.count(collection, query);
+		strategy.count(collection, query);
+
+		verify(delegate, times(2)).count(collection, query);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNonPositiveTimeToLive() {
+		new CachingCountStrategy(0);
+	}
+}
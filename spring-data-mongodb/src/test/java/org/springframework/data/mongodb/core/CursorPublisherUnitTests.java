@@ -0,0 +1,172 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.reactive.Subscriber;
+import org.springframework.data.mongodb.core.reactive.Subscription;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+
+/**
+ * Unit tests for {@link CursorPublisher}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CursorPublisherUnitTests {
+
+	static final Executor SYNC = new Executor() {
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	@Mock
+	DBCursor cursor;
+
+	CursorPublisher<String> publisher;
+	RecordingSubscriber subscriber;
+
+	@Before
+	public void setUp() {
+
+		CursorPublisher.CursorSource source = new CursorPublisher.CursorSource() {
+			public DBCursor open() {
+				return cursor;
+			}
+		};
+
+		MongoTemplate.DbObjectCallback<String> callback = new MongoTemplate.DbObjectCallback<String>() {
+			public String doWith(DBObject object) {
+				return (String) object.get("name");
+			}
+		};
+
+		publisher = new CursorPublisher<String>(source, callback, SYNC, SYNC, new MongoExceptionTranslator(), 0);
+		subscriber = new RecordingSubscriber();
+
+		when(cursor.hasNext()).thenReturn(true, true, true, false);
+		when(cursor.next()).thenReturn(new BasicDBObject("name", "Dave"), new BasicDBObject("name", "Oliver"),
+				new BasicDBObject("name", "Carter"));
+	}
+
+	@Test
+	public void doesNotReadBeforeDemandIsSignalled() {
+
+		publisher.subscribe(subscriber);
+
+		verifyZeroInteractions(cursor);
+		assertThat(subscriber.elements.isEmpty(), is(true));
+	}
+
+	@Test
+	public void readsOnlyRequestedDocuments() {
+
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(2);
+
+		assertThat(subscriber.elements, is(Arrays.asList("Dave", "Oliver")));
+		assertThat(subscriber.completed, is(false));
+		verify(cursor).batchSize(2);
+		verify(cursor, times(2)).next();
+	}
+
+	@Test
+	public void completesOnceCursorIsExhausted() {
+
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(Long.MAX_VALUE);
+
+		assertThat(subscriber.elements.size(), is(3));
+		assertThat(subscriber.completed, is(true));
+		verify(cursor).close();
+	}
+
+	@Test
+	public void closesCursorOnCancel() {
+
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(1);
+		subscriber.subscription.cancel();
+		subscriber.subscription.request(1);
+
+		assertThat(subscriber.elements.size(), is(1));
+		assertThat(subscriber.completed, is(false));
+		verify(cursor).close();
+	}
+
+	@Test
+	public void signalsErrorForNonPositiveRequest() {
+
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(0);
+
+		assertThat(subscriber.error, is(instanceOf(IllegalArgumentException.class)));
+	}
+
+	@Test
+	public void translatesExceptions() {
+
+		reset(cursor);
+		when(cursor.hasNext()).thenThrow(new MongoException("Error!"));
+
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(1);
+
+		assertThat(subscriber.error, is(instanceOf(DataAccessException.class)));
+		verify(cursor).close();
+	}
+
+	static class RecordingSubscriber implements Subscriber<String> {
+
+		Subscription subscription;
+		List<String> elements = new ArrayList<String>();
+		Throwable error;
+		boolean completed = false;
+
+		public void onSubscribe(Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		public void onNext(String element) {
+			elements.add(element);
+		}
+
+		public void onError(Throwable error) {
+			this.error = error;
+		}
+
+		public void onComplete() {
+			this.completed = true;
+		}
+	}
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.data.mongodb.core.query.Criteria.*;
+
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations.OperationType;
+import org.springframework.data.mongodb.core.WriteBehindBuffer.OverflowPolicy;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.CommandResult;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.Mongo;
+import com.mongodb.WriteConcern;
+
+/**
+ * Unit tests for {@link DefaultBulkOperations}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DefaultBulkOperationsUnitTests {
+
+	MongoTemplate template;
+
+	@Mock
+	Mongo mongo;
+
+	@Mock
+	DB db;
+
+	@Mock
+	DBCollection collection;
+
+	@Mock
+	CommandResult previousError;
+
+	@Before
+	public void setUp() {
+
+		template = spy(new MongoTemplate(mongo, "database"));
+		stub(template.getDb()).toReturn(db);
+
+		when(db.getCollection("person")).thenReturn(collection);
+		when(collection.getDB()).thenReturn(db);
+		when(collection.getWriteConcern()).thenReturn(WriteConcern.NORMAL);
+		when(db.getPreviousError()).thenReturn(previousError);
+	}
+
+	@Test
+	public void acknowledgesBatchOnceAfterSendingAllOperationsOnSingleConnection() {
+
+		template.setWriteConcern(WriteConcern.SAFE);
+
+		List<BulkOperationResult> results = template.bulkOps(Person.class).insert(new Person("Dave"))
+				.insert(new Person("Oliver")).updateOne(new Query(where("firstName").is("Dave")), new Update().set("age", 42))
+				.remove(new Query(where("firstName").is("Carter"))).execute();
+
+		InOrder inOrder = inOrder(db, collection);
+		inOrder.verify(db).requestStart();
+		inOrder.verify(collection, times(2)).insert(any(DBObject[].class), eq(WriteConcern.NORMAL));
+		inOrder.verify(collection).update(new BasicDBObject("firstName", "Dave"), new BasicDBObject("$set",
+				new BasicDBObject("age", 42)), false, false, WriteConcern.NORMAL);
+		inOrder.verify(collection).remove(new BasicDBObject("firstName", "Carter"), WriteConcern.NORMAL);
+		inOrder.verify(db).getPreviousError();
+		inOrder.verify(db).requestDone();
+
+		verify(db, times(1)).getPreviousError();
+		verify(db, never()).getLastError(any(WriteConcern.class));
+
+		assertThat(results.size(), is(4));
+		assertThat(results.get(0).getType(), is(OperationType.INSERT));
+		assertThat(results.get(0).getId(), is(notNullValue()));
+		assertThat(results.get(0).isAcknowledged(), is(true));
+		assertThat(results.get(3).getType(), is(OperationType.REMOVE));
+		assertThat(results.get(3).getIndex(), is(3));
+		assertThat(results.get(3).isAcknowledged(), is(true));
+	}
+
+	@Test
+	public void sendsConsecutiveInsertsAsSingleMessageIfNotAcknowledged() {
+
+		List<BulkOperationResult> results = template.bulkOps(Person.class).insert(new Person("Dave"))
+				.insert(new Person("Oliver")).remove(new Query(where("firstName").is("Carter"))).execute();
+
+		verify(collection, times(1)).insert(any(DBObject[].class), eq(WriteConcern.NORMAL));
+		verify(db, never()).getPreviousError();
+		verify(db, never()).getLastError(any(WriteConcern.class));
+
+		assertThat(results.get(0).getId(), is(notNullValue()));
+		assertThat(results.get(0).isAcknowledged(), is(false));
+	}
+
+	@Test
+	public void usesWriteConcernOfCollectionIfNoneConfigured() {
+
+		when(collection.getWriteConcern()).thenReturn(WriteConcern.SAFE);
+
+		List<BulkOperationResult> results = template.bulkOps(Person.class).remove(new Query()).execute();
+
+		verify(db, times(1)).getPreviousError();
+		assertThat(results.get(0).isAcknowledged(), is(true));
+	}
+
+	@Test
+	public void mapsQueriesWhenQueued() {
+
+		ObjectId id = new ObjectId();
+		template.bulkOps(Person.class).remove(new Query(where("id").is(id.toString()))).execute();
+
+		verify(collection).remove(new BasicDBObject("_id", id), WriteConcern.NORMAL);
+	}
+
+	@Test
+	public void splitsOperationsIntoBatches() {
+
+		template.setWriteConcern(WriteConcern.SAFE);
+
+		Query query = new Query(where("firstName").is("Dave"));
+		List<BulkOperationResult> results = template.bulkOps(Person.class).batchSize(2).remove(query).remove(query)
+				.remove(query).execute();
+
+		verify(db, times(2)).requestStart();
+		verify(db, times(2)).getPreviousError();
+
+		assertThat(results.get(0).getBatch(), is(0));
+		assertThat(results.get(1).getBatch(), is(0));
+		assertThat(results.get(2).getBatch(), is(1));
+	}
+
+	@Test
+	public void awaitsWriteConcernAskingForMoreThanAcknowledgementOncePerBatch() {
+
+		template.setWriteConcern(WriteConcern.FSYNC_SAFE);
+		template.bulkOps(Person.class).remove(new Query()).remove(new Query()).execute();
+
+		InOrder inOrder = inOrder(db);
+		inOrder.verify(db).getPreviousError();
+		inOrder.verify(db).getLastError(WriteConcern.FSYNC_SAFE);
+		verify(db, times(1)).getLastError(any(WriteConcern.class));
+	}
+
+	@Test
+	public void raisesTranslatedExceptionForFailingOperationAndStops() {
+
+		template.setWriteConcern(WriteConcern.SAFE);
+
+		when(previousError.get("err")).thenReturn("E11000 duplicate key error");
+		when(previousError.get("code")).thenReturn(11000);
+		when(previousError.get("nPrev")).thenReturn(2);
+
+		Person first = new Person("Dave");
+		Person second = new Person("Dave");
+		Person third = new Person("Carter");
+
+		try {
+			template.bulkOps(Person.class).batchSize(3).insert(first).insert(second).insert(third).remove(new Query())
+					.execute();
+			fail("Expected DuplicateKeyException!");
+		} catch (DuplicateKeyException e) {
+			verify(collection, times(3)).insert(any(DBObject[].class), eq(WriteConcern.NORMAL));
+			verify(collection, never()).remove(any(DBObject.class), any(WriteConcern.class));
+			assertThat(second.getId(), is(nullValue()));
+			assertThat(third.getId(), is(notNullValue()));
+		}
+	}
+
+	@Test
+	public void reportsErrorOfFailingOperationIfLogged() {
+
+		template.setWriteConcern(WriteConcern.NORMAL);
+		template.setWriteResultChecking(WriteResultChecking.LOG);
+
+		when(previousError.get("err")).thenReturn("E11000 duplicate key error");
+		when(previousError.get("nPrev")).thenReturn(2);
+
+		List<BulkOperationResult> results = template.bulkOps(Person.class).insert(new Person("Dave"))
+				.insert(new Person("Oliver")).insert(new Person("Carter")).execute();
+
+		assertThat(results.get(0).isAcknowledged(), is(false));
+		assertThat(results.get(0).getId(), is(notNullValue()));
+		assertThat(results.get(1).getError(), is("E11000 duplicate key error"));
+		assertThat(results.get(1).getId(), is(nullValue()));
+		assertThat(results.get(2).isAcknowledged(), is(true));
+		assertThat(results.get(2).getError(), is(nullValue()));
+		assertThat(results.get(2).getId(), is(notNullValue()));
+	}
+
+	@Test
+	public void stopsExecutionOnErrorIfConfigured() {
+
+		template.setWriteConcern(WriteConcern.NORMAL);
+		template.setWriteResultChecking(WriteResultChecking.EXCEPTION);
+
+		when(previousError.get("err")).thenReturn("E11000 duplicate key error");
+		when(previousError.get("nPrev")).thenReturn(1);
+
+		Query query = new Query(where("firstName").is("Dave"));
+
+		try {
+			template.bulkOps(Person.class).batchSize(1).remove(query).remove(query).execute();
+			fail("Expected DataIntegrityViolationException!");
+		} catch (DataIntegrityViolationException e) {
+			verify(db, times(1)).getPreviousError();
+			verify(collection, times(1)).remove(any(DBObject.class), any(WriteConcern.class));
+		}
+	}
+
+	@Test
+	public void ignoresErrorsReportedForOperationsBeforeBatch() {
+
+		template.setWriteConcern(WriteConcern.SAFE);
+
+		when(previousError.get("err")).thenReturn("E11000 duplicate key error");
+		when(previousError.get("nPrev")).thenReturn(3);
+
+		List<BulkOperationResult> results = template.bulkOps(Person.class).remove(new Query()).remove(new Query())
+				.execute();
+
+		assertThat(results.get(0).isAcknowledged(), is(true));
+		assertThat(results.get(0).getError(), is(nullValue()));
+		assertThat(results.get(1).getError(), is(nullValue()));
+	}
+
+	@Test
+	public void writesSavesBufferedForCollectionBeforeExecuting() {
+
+		WriteBehindBuffer buffer = new WriteBehindBuffer(10, 100, 60 * 60 * 1000, OverflowPolicy.REJECT);
+		template.setWriteBehindBuffer(buffer);
+
+		try {
+			template.save(new Person("Dave"));
+			template.bulkOps(Person.class).remove(new Query()).execute();
+
+			InOrder inOrder = inOrder(collection);
+			inOrder.verify(collection).update(any(DBObject.class), any(DBObject.class), eq(true), eq(false),
+					eq(WriteConcern.NORMAL));
+			inOrder.verify(collection).remove(any(DBObject.class), eq(WriteConcern.NORMAL));
+			assertThat(buffer.getQueueDepth(), is(0));
+		} finally {
+			buffer.destroy();
+		}
+	}
+
+	@Test
+	public void registersSnapshotsOfSavedEntitiesForDirtyTracking() {
+
+		template.setDirtyTracking(true);
+
+		Person person = new Person(new ObjectId(), "Dave");
+
+		template.bulkOps(Person.class).save(person).execute();
+		template.save(person);
+
+		verify(collection, times(1)).update(any(DBObject.class), any(DBObject.class), anyBoolean(), anyBoolean(),
+				any(WriteConcern.class));
+		verify(collection, never()).save(any(DBObject.class));
+	}
+
+	@Test
+	public void clearsQueueOnExecute() {
+
+		template.setWriteConcern(WriteConcern.SAFE);
+		BulkOperations operations = template.bulkOps(Person.class).remove(new Query());
+
+		assertThat(operations.execute().size(), is(1));
+		assertThat(operations.execute().isEmpty(), is(true));
+		verify(db, times(1)).getPreviousError();
+	}
+
+	@Test
+	public void doesNotModifyGivenUpdate() {
+
+		Update update = new Update().set("age", 42);
+		template.bulkOps(Person.class).updateMulti(new Query(), update);
+
+		assertThat(update.getUpdateObject(), is((DBObject) new BasicDBObject("$set", new BasicDBObject("age", 42))));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsInvalidBatchSize() {
+		template.bulkOps(Person.class).batchSize(0);
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.mongodb.core.mapping.Cached;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link EntityCache}.
+ */
+public class EntityCacheUnitTests {
+
+	MongoMappingContext context;
+	EntityCache cache;
+
+	@Before
+	public void setUp() {
+		context = new MongoMappingContext();
+		cache = new EntityCache();
+	}
+
+	@Test
+	public void returnsNoRegionForEntityNotAnnotated() {
+		assertThat(cache.getRegion("person", context.getPersistentEntity(Person.class)), is(nullValue()));
+	}
+
+	@Test
+	public void countsHitsAndMisses() {
+
+		EntityCache.CacheRegion region = cache.getRegion("sample", context.getPersistentEntity(Sample.class));
+		DBObject document = new BasicDBObject("_id", 1);
+
+		assertThat(region.get("key"), is(nullValue()));
+		region.put("key", document, region.getGeneration());
+		assertThat(region.get("key"), is(document));
+
+		assertThat(cache.getHitCount(), is(1L));
+		assertThat(cache.getMissCount(), is(1L));
+		assertThat(cache.getHitCount("sample"), is(1L));
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsedDocument() {
+
+		EntityCache.CacheRegion region = cache.getRegion("sample", context.getPersistentEntity(Sample.class));
+
+		region.put("first", new BasicDBObject(), region.getGeneration());
+		region.put("second", new BasicDBObject(), region.getGeneration());
+		region.get("first");
+		region.put("third", new BasicDBObject(), region.getGeneration());
+
+		assertThat(region.get("first"), is(notNullValue()));
+		assertThat(region.get("second"), is(nullValue()));
+		assertThat(region.get("third"), is(notNullValue()));
+	}
+
+	@Test
+	public void expiresDocuments() throws Exception {
+
+		EntityCache.CacheRegion region = cache.getRegion("short", context.getPersistentEntity(ShortLived.class));
+		region.put("key", new BasicDBObject(), region.getGeneration());
+
+		Thread.sleep(10);
+
+		assertThat(region.get("key"), is(nullValue()));
+	}
+
+	@Test
+	public void doesNotCacheDocumentsReadBeforeEviction() {
+
+		EntityCache.CacheRegion region = cache.getRegion("sample", context.getPersistentEntity(Sample.class));
+		long generation = region.getGeneration();
+
+		cache.evict("sample");
+		region.put("key", new BasicDBObject(), generation);
+
+		assertThat(region.get("key"), is(nullValue()));
+	}
+
+	@Test
+	public void doesNotShareCachedDocuments() {
+
+		EntityCache.CacheRegion region = cache.getRegion("sample", context.getPersistentEntity(Sample.class));
+		DBObject address = new BasicDBObject("city", "New York");
+		DBObject document = new BasicDBObject("_id", 1).append("address", address);
+
+		region.put("key", document, region.getGeneration());
+		address.put("city", "Boston");
+
+		DBObject first = region.get("key");
+		((DBObject) first.get("address")).put("city", "London");
+
+		DBObject second = region.get("key");
+		assertThat(second, is(not(sameInstance(first))));
+		assertThat(((DBObject) second.get("address")).get("city"), is((Object) "New York"));
+	}
+
+		@Cached(maxEntries = 2)
+	static class Sample {
+		String id;
+	}
+
+	@Cached(timeToLive = 1)
+	static class ShortLived {
+		String id;
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link EntitySnapshots}.
+ */
+public class EntitySnapshotsUnitTests {
+
+	EntitySnapshots snapshots = new EntitySnapshots();
+
+	@Test
+	public void tracksEntitiesByIdentity() {
+
+		Person first = new Person("Dave");
+		DBObject document = new BasicDBObject("_id", first.getId());
+
+		snapshots.put(first, "person", document);
+
+		assertThat(snapshots.get(first, "person"), is(sameInstance(document)));
+		assertThat(snapshots.get(new Person(first.getId(), "Dave"), "person"), is(nullValue()));
+	}
+
+	@Test
+	public void doesNotReturnSnapshotForOtherCollection() {
+
+		Person person = new Person("Dave");
+		snapshots.put(person, "person", new BasicDBObject());
+
+		assertThat(snapshots.get(person, "other"), is(nullValue()));
+	}
+
+	@Test
+	public void removesSnapshots() {
+
+		Person person = new Person("Dave");
+		snapshots.put(person, "person", new BasicDBObject());
+		snapshots.remove(person);
+
+		assertThat(snapshots.get(person, "person"), is(nullValue()));
+		assertThat(snapshots.size(), is(0));
+	}
+
+	@Test
+	public void setsChangedAndAddedFieldsOnly() {
+
+		DBObject snapshot = new BasicDBObject("_id", 1).append("firstname", "Dave").append("lastname", "Matthews");
+		DBObject document = new BasicDBObject("_id", 1).append("firstname", "David").append("lastname", "Matthews")
+				.append("age", 42);
+
+		Update update = EntitySnapshots.getUpdate(snapshot, document);
+
+		assertThat(update.getUpdateObject(), is((DBObject) new BasicDBObject("$set", new BasicDBObject("firstname",
+				"David").append("age", 42))));
+	}
+
+	@Test
+	public void unsetsRemovedFields() {
+
+		DBObject snapshot = new BasicDBObject("_id", 1).append("firstname", "Dave").append("lastname", "Matthews");
+		DBObject document = new BasicDBObject("_id", 1).append("firstname", "Dave");
+
+		Update update = EntitySnapshots.getUpdate(snapshot, document);
+
+		assertThat(update.getUpdateObject(), is((DBObject) new BasicDBObject("$unset", new BasicDBObject("lastname", 1))));
+	}
+
+	@Test
+	public void comparesNestedDocumentsByValue() {
+
+		DBObject snapshot = new BasicDBObject("address", new BasicDBObject("city", "New York"));
+		DBObject document = new BasicDBObject("address", new BasicDBObject("city", "New York"));
+
+		assertThat(EntitySnapshots.getUpdate(snapshot, document), is(nullValue()));
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.CommandResult;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link EstimatedCountStrategy}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class EstimatedCountStrategyUnitTests {
+
+	@Mock
+	DBCollection collection;
+	@Mock
+	CountStrategy delegate;
+
+	@Test
+	public void usesCollectionStatisticsForEmptyQuery() {
+
+		CommandResult stats = mock(CommandResult.class);
+		when(stats.get("count")).thenReturn(4711);
+		when(collection.getStats()).thenReturn(stats);
+
+		assertThat(new EstimatedCountStrategy(delegate).count(collection, new BasicDBObject()), is(4711L));
+		verifyZeroInteractions(delegate);
+	}
+
+	@Test
+	public void delegatesQueriesWithPredicates() {
+
+		DBObject query = new BasicDBObject("lastname", "Matthews");
+		when(delegate.count(collection, query)).thenReturn(2L);
+
+		assertThat(new EstimatedCountStrategy(delegate).count(collection, query), is(2L));
+		verify(collection, never()).getStats();
+	}
+}
@@ -32,6 +32,7 @@ import org.springframework.data.mongodb.core.convert.AbstractMongoConverter;
 import org.springframework.data.mongodb.core.convert.MongoConverter;
 import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
 import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Query;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.DBObject;
@@ -290,6 +291,26 @@ public abstract class MongoOperationsUnitTests {
 		}.assertDataAccessException();
 	}
 
+	@Test
+	public void convertsExceptionForStream() throws Exception {
+		new Execution() {
+			@Override
+			public void doWith(MongoOperations operations) {
+				operations.stream(new Query(), Object.class, "collection");
+			}
+		}.assertDataAccessException();
+	}
+
+	@Test
+	public void convertsExceptionForStreamAll() throws Exception {
+		new Execution() {
+			@Override
+			public void doWith(MongoOperations operations) {
+				operations.streamAll(Object.class, "collection");
+			}
+		}.assertDataAccessException();
+	}
+
 	private abstract class Execution {
 
 		public void assertDataAccessException() {
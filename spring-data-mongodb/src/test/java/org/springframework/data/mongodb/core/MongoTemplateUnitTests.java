@@ -15,21 +15,37 @@
  */
 package org.springframework.data.mongodb.core;
 
-import static org.junit.Assert.assertTrue;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 
+import java.util.Arrays;
+import java.util.List;
+
+import com.mongodb.BasicDBObject;
 import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
 import com.mongodb.Mongo;
 import com.mongodb.MongoException;
+import com.mongodb.WriteConcern;
+import com.mongodb.WriteResult;
+import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.mongodb.core.WriteBehindBuffer.OverflowPolicy;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.mapping.Cached;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.test.util.ReflectionTestUtils;
 
 /**
@@ -48,6 +64,15 @@ public class MongoTemplateUnitTests extends MongoOperationsUnitTests {
 	@Mock
 	DB db;
 
+	@Mock
+	DBCollection collection;
+
+	@Mock
+	DBCursor cursor;
+
+	@Mock
+	WriteResult writeResult;
+
 	@Before
 	public void setUp() {
 		this.template = new MongoTemplate(mongo, "database");
@@ -83,6 +108,234 @@ public class MongoTemplateUnitTests extends MongoOperationsUnitTests {
 		template.mapReduce("foo", "classpath:doesNotExist.js", "function() {}", Person.class);
 	}
 	
+	@Test
+	public void streamClosesCursorOnceExhausted() {
+
+		MongoTemplate template = mockOutGetDb();
+		when(db.getCollection("collection")).thenReturn(collection);
+		when(collection.find(any(DBObject.class))).thenReturn(cursor);
+		when(cursor.hasNext()).thenReturn(true, false);
+		when(cursor.next()).thenReturn(new BasicDBObject("firstName", "Oliver"));
+
+		CloseableIterator<Person> iterator = template.stream(new Query(), Person.class, "collection");
+
+		assertThat(iterator.hasNext(), is(true));
+		assertThat(iterator.next().getFirstName(), is("Oliver"));
+		verify(cursor, never()).close();
+
+		assertThat(iterator.hasNext(), is(false));
+		verify(cursor).close();
+	}
+
+	@Test
+	public void streamClosesCursorAndTranslatesExceptionOnError() {
+
+		MongoTemplate template = mockOutGetDb();
+		when(db.getCollection("collection")).thenReturn(collection);
+		when(collection.find(any(DBObject.class))).thenReturn(cursor);
+		when(cursor.hasNext()).thenThrow(new MongoException("Error!"));
+
+		CloseableIterator<Person> iterator = template.streamAll(Person.class, "collection");
+
+		try {
+			iterator.hasNext();
+			fail("Expected DataAccessException!");
+		} catch (DataAccessException e) {
+			verify(cursor).close();
+		}
+
+		assertThat(iterator.hasNext(), is(false));
+	}
+
+	@Test
+	public void cachesDocumentsOfCachedEntities() {
+
+		MongoTemplate template = mockOutGetDb();
+		when(db.getCollection("collection")).thenReturn(collection);
+		when(collection.findOne(any(DBObject.class))).thenReturn(new BasicDBObject("_id", 4711).append("name", "Dave"));
+
+		CachedEntity first = template.findById(4711, CachedEntity.class, "collection");
+		CachedEntity second = template.findById(4711, CachedEntity.class, "collection");
+
+		assertThat(second.name, is("Dave"));
+		assertThat(second, is(not(sameInstance(first))));
+		verify(collection, times(1)).findOne(any(DBObject.class));
+		assertThat(template.getEntityCache().getHitCount("collection"), is(1L));
+		assertThat(template.getEntityCache().getMissCount("collection"), is(1L));
+	}
+
+	@Test
+	public void evictsCachedDocumentsOnRemove() {
+
+		MongoTemplate template = mockOutGetDb();
+		when(db.getCollection("collection")).thenReturn(collection);
+		when(collection.findOne(any(DBObject.class))).thenReturn(new BasicDBObject("_id", 4711).append("name", "Dave"));
+
+		template.findById(4711, CachedEntity.class, "collection");
+		template.remove(new Query(), "collection");
+		template.findById(4711, CachedEntity.class, "collection");
+
+		verify(collection, times(2)).findOne(any(DBObject.class));
+	}
+
+	@Test
+	public void doesNotCacheDocumentsOfEntitiesNotAnnotated() {
+
+		MongoTemplate template = mockOutGetDb();
+		when(db.getCollection("collection")).thenReturn(collection);
+		when(collection.findOne(any(DBObject.class))).thenReturn(new BasicDBObject("firstName", "Dave"));
+
+		template.findById(new ObjectId(), Person.class, "collection");
+		template.findById(new ObjectId(), Person.class, "collection");
+
+		verify(collection, times(2)).findOne(any(DBObject.class));
+		assertThat(template.getEntityCache().getMissCount(), is(0L));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void insertsBatchInChunksOfMaximumNumberOfDocuments() {
+
+		MongoTemplate template = mockOutGetDb();
+		template.setInsertBatchLimits(2, Long.MAX_VALUE);
+		when(db.getCollection("collection")).thenReturn(collection);
+
+		List<Person> persons = Arrays.asList(new Person("Dave"), new Person("Oliver"), new Person("Carter"));
+		template.insert(persons, "collection");
+
+		verify(collection, times(2)).insert(anyList());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void insertsBatchInChunksOfMaximumEstimatedSize() {
+
+		MongoTemplate template = mockOutGetDb();
+		template.setInsertBatchLimits(1000, 300);
+		when(db.getCollection("collection")).thenReturn(collection);
+
+		String name = String.format("%0200d", 0);
+		List<Person> persons = Arrays.asList(new Person(name), new Person(name), new Person(name));
+		template.insert(persons, "collection");
+
+		verify(collection, times(3)).insert(anyList());
+	}
+
+	@Test
+	public void savesOnlyChangedFieldsOfTrackedEntities() {
+
+		ObjectId id = new ObjectId();
+		MongoTemplate template = mockOutGetDb();
+		template.setDirtyTracking(true);
+		when(db.getCollection("collection")).thenReturn(collection);
+		when(collection.findOne(any(DBObject.class))).thenReturn(
+				new BasicDBObject("_id", id).append("_class", Person.class.getName()).append("firstName", "Dave")
+						.append("age", 0));
+
+		when(collection.getDB()).thenReturn(db);
+		when(collection.update(any(DBObject.class), any(DBObject.class), anyBoolean(), anyBoolean())).thenReturn(
+				writeResult);
+		when(writeResult.getN()).thenReturn(1);
+
+		Person person = template.findById(id, Person.class, "collection");
+		person.setFirstName("David");
+		template.save(person, "collection");
+
+		verify(collection).update(new BasicDBObject("_id", id), new BasicDBObject("$set", new BasicDBObject("firstName",
+				"David")), false, false);
+		verify(collection, never()).save(any(DBObject.class));
+	}
+
+	@Test
+	public void savesTrackedEntityInFullIfDocumentWasRemoved() {
+
+		ObjectId id = new ObjectId();
+		MongoTemplate template = mockOutGetDb();
+		template.setDirtyTracking(true);
+		when(db.getCollection("collection")).thenReturn(collection);
+		when(collection.findOne(any(DBObject.class))).thenReturn(
+				new BasicDBObject("_id", id).append("_class", Person.class.getName()).append("firstName", "Dave")
+						.append("age", 0));
+		when(collection.getDB()).thenReturn(db);
+		when(collection.update(any(DBObject.class), any(DBObject.class), anyBoolean(), anyBoolean())).thenReturn(
+				writeResult);
+		when(writeResult.getN()).thenReturn(0);
+
+		Person person = template.findById(id, Person.class, "collection");
+		person.setFirstName("David");
+		template.save(person, "collection");
+
+		InOrder inOrder = inOrder(db, collection);
+		inOrder.verify(db).requestStart();
+		inOrder.verify(collection).update(any(DBObject.class), any(DBObject.class), eq(false), eq(false));
+		inOrder.verify(db).requestDone();
+		inOrder.verify(collection).save(any(DBObject.class));
+	}
+
+	@Test
+	public void doesNotWriteUnchangedTrackedEntities() {
+
+		ObjectId id = new ObjectId();
+		MongoTemplate template = mockOutGetDb();
+		template.setDirtyTracking(true);
+		when(db.getCollection("collection")).thenReturn(collection);
+		when(collection.findOne(any(DBObject.class))).thenReturn(
+				new BasicDBObject("_id", id).append("_class", Person.class.getName()).append("firstName", "Dave")
+						.append("age", 0));
+
+		template.save(template.findById(id, Person.class, "collection"), "collection");
+
+		verifyNoMoreInteractionsOnWrites();
+	}
+
+	@Test
+	public void savesUntrackedEntitiesInFull() {
+
+		MongoTemplate template = mockOutGetDb();
+		template.setDirtyTracking(true);
+		when(db.getCollection("collection")).thenReturn(collection);
+
+		template.save(new Person("Dave"), "collection");
+
+		verify(collection).save(any(DBObject.class));
+	}
+
+	@Test
+	public void writesBufferedSavesOfCollectionBeforeRemove() {
+
+		MongoTemplate template = mockOutGetDb();
+		when(db.getCollection("collection")).thenReturn(collection);
+		when(collection.getDB()).thenReturn(db);
+		when(collection.getWriteConcern()).thenReturn(WriteConcern.NORMAL);
+
+		WriteBehindBuffer buffer = new WriteBehindBuffer(10, 100, 60 * 60 * 1000, OverflowPolicy.REJECT);
+		template.setWriteBehindBuffer(buffer);
+
+		try {
+			template.save(new Person("Dave"), "collection");
+			template.remove(new Query(), "collection");
+
+			InOrder inOrder = inOrder(collection);
+			inOrder.verify(collection).update(any(DBObject.class), any(DBObject.class), eq(true), eq(false),
+					eq(WriteConcern.NORMAL));
+			inOrder.verify(collection).remove(any(DBObject.class));
+			assertThat(buffer.getQueueDepth(), is(0));
+		} finally {
+			buffer.destroy();
+		}
+	}
+
+	private void verifyNoMoreInteractionsOnWrites() {
+		verify(collection, never()).save(any(DBObject.class));
+		verify(collection, never()).update(any(DBObject.class), any(DBObject.class), anyBoolean(), anyBoolean());
+	}
+
+	@Cached
+	static class CachedEntity {
+		Integer id;
+		String name;
+	}
+
 	/**
 	 * Mocks out the {@link MongoTemplate#getDb()} method to return the {@link DB} mock instead of executing the actual
 	 * behaviour.
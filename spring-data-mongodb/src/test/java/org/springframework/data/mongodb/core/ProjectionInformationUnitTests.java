@@ -0,0 +1,103 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.convert.support.ConversionServiceFactory;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link ProjectionInformation} and {@link ProjectingInvocationHandler}.
+ */
+public class ProjectionInformationUnitTests {
+
+	MongoMappingContext context;
+	MongoPersistentEntity<?> entity;
+
+	@Before
+	public void setUp() {
+		context = new MongoMappingContext();
+		entity = context.getPersistentEntity(Person.class);
+	}
+
+	@Test
+	public void doesNotProjectSameOrSuperType() {
+
+		ProjectionInformation information = new ProjectionInformation(Object.class, entity, context);
+
+		assertThat(information.isProjecting(), is(false));
+		assertThat(information.getFieldsObject(), is(nullValue()));
+	}
+
+	@Test
+	public void selectsFieldsOfDtoProperties() {
+
+		ProjectionInformation information = new ProjectionInformation(PersonDto.class, entity, context);
+
+		assertThat(information.isProjecting(), is(true));
+		assertThat(information.isInterfaceProjection(), is(false));
+		assertThat(information.getFieldsObject(), is((DBObject) new BasicDBObject("_id", 1).append("firstName", 1)));
+	}
+
+	@Test
+	public void selectsFieldsOfInterfaceProperties() {
+
+		ProjectionInformation information = new ProjectionInformation(PersonView.class, entity, context);
+
+		assertThat(information.isInterfaceProjection(), is(true));
+		assertThat(information.getFieldsObject(), is((DBObject) new BasicDBObject("age", 1)));
+	}
+
+	@Test
+	public void doesNotNarrowIfNoPropertyIsShared() {
+		assertThat(new ProjectionInformation(Unrelated.class, entity, context).getFieldsObject(), is(nullValue()));
+	}
+
+	@Test
+	public void proxyAnswersAccessorsFromTarget() {
+
+		Person person = new Person("Dave");
+		person.setAge(42);
+
+		PersonView view = ProjectingInvocationHandler.createProxy(PersonView.class, person, context,
+				ConversionServiceFactory.createDefaultConversionService());
+
+		assertThat(view.getAge(), is(42));
+		assertThat(view.toString(), is(person.toString()));
+	}
+
+	static class PersonDto {
+		Object id;
+		String firstName;
+		String unknown;
+	}
+
+	interface PersonView {
+		int getAge();
+	}
+
+	static class Unrelated {
+		String foo;
+	}
+}
@@ -18,6 +18,10 @@ package org.springframework.data.mongodb.core;
 import static org.springframework.data.mongodb.core.query.Query.*;
 import static org.springframework.data.mongodb.core.query.Criteria.*;
 import static org.mockito.Mockito.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -25,9 +29,13 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.data.mongodb.MongoDbFactory;
 import org.springframework.data.mongodb.core.MongoTemplate.QueryCursorPreparer;
+import org.springframework.data.mongodb.core.query.AdaptiveBatchSize;
 import org.springframework.data.mongodb.core.query.Query;
 
+import com.mongodb.BasicDBObject;
+import com.mongodb.Bytes;
 import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
 
 /**
  * Unit tests for {@link QueryCursorPreparer}.
@@ -55,4 +63,69 @@ public class QueryCursorPreparerUnitTests {
 		
 		verify(cursor).hint("hint");
 	}
+
+	@Test
+	public void appliesBatchSizeCorrectly() {
+
+		Query query = query(where("foo").is("bar")).batchSize(500);
+
+		CursorPreparer preparer = new MongoTemplate(factory).new QueryCursorPreparer(query);
+		preparer.prepare(cursor);
+
+		verify(cursor).batchSize(500);
+	}
+
+	@Test
+	public void appliesCurrentAdaptiveBatchSizeInsteadOfFixedOne() {
+
+		AdaptiveBatchSize batchSize = new AdaptiveBatchSize(50, 2, 1000, 1024, 100);
+		Query query = query(where("foo").is("bar")).batchSize(500).adaptiveBatchSize(batchSize);
+
+		CursorPreparer preparer = new MongoTemplate(factory).new QueryCursorPreparer(query);
+		preparer.prepare(cursor);
+
+		verify(cursor).batchSize(50);
+		verify(cursor, never()).batchSize(500);
+	}
+
+	@Test
+	public void appliesNoCursorTimeoutCorrectly() {
+
+		Query query = query(where("foo").is("bar")).noCursorTimeout();
+
+		CursorPreparer preparer = new MongoTemplate(factory).new QueryCursorPreparer(query);
+		preparer.prepare(cursor);
+
+		verify(cursor).addOption(Bytes.QUERYOPTION_NOTIMEOUT);
+	}
+
+	@Test
+	public void appliesSlaveOkCorrectly() {
+
+		Query query = query(where("foo").is("bar")).slaveOk();
+
+		CursorPreparer preparer = new MongoTemplate(factory).new QueryCursorPreparer(query);
+		preparer.prepare(cursor);
+
+		verify(cursor).addOption(Bytes.QUERYOPTION_SLAVEOK);
+	}
+
+	@Test
+	public void adaptsBatchSizeWhileIterating() {
+
+		AdaptiveBatchSize batchSize = new AdaptiveBatchSize(10, 2, 1000, 1024, 100);
+		Query query = query(where("foo").is("bar")).adaptiveBatchSize(batchSize);
+
+		when(cursor.hasNext()).thenReturn(true, false);
+		when(cursor.next()).thenReturn(new BasicDBObject("foo", "bar"));
+
+		Iterator<DBObject> iterator = new MongoTemplate(factory).new QueryCursorPreparer(query).iterator(cursor);
+
+		while (iterator.hasNext()) {
+			iterator.next();
+		}
+
+		assertThat(batchSize.getCurrentBatchSize(), is(20));
+		verify(cursor).batchSize(20);
+	}
 }
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.data.mongodb.core.WriteBehindBuffer.OverflowPolicy;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link WriteBehindBuffer}.
+ */
+public class WriteBehindBufferUnitTests {
+
+	static final long NEVER = 60 * 60 * 1000;
+
+	RecordingWriter writer;
+	WriteBehindBuffer buffer;
+
+	@Before
+	public void setUp() {
+		writer = new RecordingWriter();
+	}
+
+	@After
+	public void tearDown() {
+		if (buffer != null) {
+			buffer.destroy();
+		}
+	}
+
+	@Test
+	public void coalescesSavesOfSameId() {
+
+		buffer = start(new WriteBehindBuffer(10, 100, NEVER, OverflowPolicy.REJECT));
+
+		buffer.add("collection", document(1, "first"));
+		buffer.add("collection", document(1, "second"));
+		buffer.add("collection", document(2, "first"));
+
+		assertThat(buffer.getQueueDepth(), is(2));
+		assertThat(buffer.getQueueDepth("collection"), is(2));
+		assertThat(buffer.getCoalescedCount(), is(1L));
+
+		buffer.flush();
+
+		assertThat(writer.documents.size(), is(2));
+		assertThat(writer.documents.get(0).get("value"), is((Object) "second"));
+		assertThat(buffer.getQueueDepth(), is(0));
+		assertThat(buffer.getFlushedDocumentCount(), is(2L));
+		assertThat(buffer.getFlushCount(), is(1L));
+	}
+
+	@Test
+	public void writesFlushedDocumentsInBatches() {
+
+		buffer = start(new WriteBehindBuffer(100, 2, NEVER, OverflowPolicy.REJECT, 1));
+
+		buffer.add("collection", document(1, "value"));
+		buffer.add("collection", document(2, "value"));
+		buffer.add("collection", document(3, "value"));
+		buffer.destroy();
+
+		assertThat(writer.documents.size(), is(3));
+		assertThat(writer.batches, is(2));
+	}
+
+	@Test
+	public void rejectsNewDocumentsIfFullButStillCoalesces() {
+
+		buffer = start(new WriteBehindBuffer(1, 100, NEVER, OverflowPolicy.REJECT));
+
+		buffer.add("collection", document(1, "first"));
+		buffer.add("collection", document(1, "second"));
+
+		try {
+			buffer.add("collection", document(2, "first"));
+			fail("Expected TransientDataAccessResourceException!");
+		} catch (TransientDataAccessResourceException e) {
+			assertThat(buffer.getRejectedCount(), is(1L));
+		}
+	}
+
+	@Test
+	public void releasesCapacityOnFlush() {
+
+		buffer = start(new WriteBehindBuffer(1, 100, NEVER, OverflowPolicy.REJECT));
+
+		buffer.add("collection", document(1, "value"));
+		buffer.flush();
+		buffer.add("collection", document(2, "value"));
+
+		assertThat(buffer.getQueueDepth(), is(1));
+	}
+
+	@Test
+	public void flushesRemainingDocumentsOnDestroyAndRefusesFurtherOnes() {
+
+		buffer = start(new WriteBehindBuffer(10, 100, NEVER, OverflowPolicy.BLOCK));
+
+		buffer.add("collection", document(1, "value"));
+		buffer.destroy();
+
+		assertThat(writer.documents.size(), is(1));
+		assertThat(buffer.add("collection", document(2, "value")), is(false));
+	}
+
+	@Test
+	public void keepsDocumentsOfFailedFlushBufferedForRetry() {
+
+		writer.fail = true;
+		buffer = start(new WriteBehindBuffer(1, 100, NEVER, OverflowPolicy.REJECT));
+
+		buffer.add("collection", document(1, "value"));
+		buffer.flush();
+
+		assertThat(buffer.getFailedFlushCount(), is(1L));
+		assertThat(buffer.getQueueDepth(), is(1));
+
+		try {
+			buffer.add("collection", document(2, "value"));
+			fail("Expected TransientDataAccessResourceException!");
+		} catch (TransientDataAccessResourceException e) {
+		}
+
+		writer.fail = false;
+		buffer.flush();
+
+		assertThat(writer.documents.size(), is(1));
+		assertThat(buffer.getQueueDepth(), is(0));
+		assertThat(buffer.getFlushedDocumentCount(), is(1L));
+	}
+
+	@Test
+	public void prefersNewerVersionOverDocumentOfFailedFlush() {
+
+		buffer = start(new WriteBehindBuffer(10, 100, NEVER, OverflowPolicy.REJECT));
+		writer.fail = true;
+		writer.onWrite = new Runnable() {
+			public void run() {
+				buffer.add("collection", document(1, "second"));
+			}
+		};
+
+		buffer.add("collection", document(1, "first"));
+		buffer.flush();
+
+		writer.fail = false;
+		writer.onWrite = null;
+		buffer.flush();
+
+		assertThat(writer.documents.size(), is(1));
+		assertThat(writer.documents.get(0).get("value"), is((Object) "second"));
+		assertThat(buffer.getQueueDepth(), is(0));
+	}
+
+	@Test
+	public void handsDocumentsOfFailedFinalFlushToFailureHandler() {
+
+		final List<DBObject> failed = new ArrayList<DBObject>();
+
+		writer.fail = true;
+		buffer = new WriteBehindBuffer(10, 100, NEVER, OverflowPolicy.REJECT);
+		buffer.setFailureHandler(new WriteBehindBuffer.FailureHandler() {
+			public void handle(String collectionName, List<DBObject> documents, RuntimeException cause) {
+				failed.addAll(documents);
+			}
+		});
+		start(buffer);
+
+		buffer.add("collection", document(1, "value"));
+		buffer.destroy();
+
+		assertThat(failed.size(), is(1));
+		assertThat(buffer.getQueueDepth(), is(0));
+	}
+
+	@Test
+	public void flushesSingleCollectionAndPropagatesFailure() {
+
+		buffer = start(new WriteBehindBuffer(10, 100, NEVER, OverflowPolicy.REJECT));
+
+		buffer.add("collection", document(1, "value"));
+		buffer.add("other", document(1, "value"));
+		buffer.flush("collection");
+
+		assertThat(writer.documents.size(), is(1));
+		assertThat(buffer.getQueueDepth("other"), is(1));
+
+		writer.fail = true;
+		buffer.add("collection", document(2, "value"));
+
+		try {
+			buffer.flush("collection");
+			fail("Expected IllegalStateException!");
+		} catch (IllegalStateException e) {
+			assertThat(buffer.getQueueDepth("collection"), is(1));
+		}
+	}
+
+	@Test
+	public void releasesSaveBlockedOnFullBufferOnDestroy() throws Exception {
+
+		writer.fail = true;
+		buffer = start(new WriteBehindBuffer(1, 100, 50, OverflowPolicy.BLOCK));
+		buffer.add("collection", document(1, "value"));
+
+		final AtomicReference<Boolean> buffered = new AtomicReference<Boolean>();
+		Thread saving = new Thread(new Runnable() {
+			public void run() {
+				buffered.set(buffer.add("collection", document(2, "value")));
+			}
+		});
+
+		saving.start();
+		Thread.sleep(100);
+		buffer.destroy();
+		saving.join(1000);
+
+		assertThat(saving.isAlive(), is(false));
+		assertThat(buffered.get(), is(false));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void rejectsSecondWriter() {
+
+		buffer = start(new WriteBehindBuffer());
+		buffer.start(new RecordingWriter());
+	}
+
+	private WriteBehindBuffer start(WriteBehindBuffer buffer) {
+		buffer.start(writer);
+		return buffer;
+	}
+
+	private static DBObject document(Object id, String value) {
+		return new BasicDBObject("_id", id).append("value", value);
+	}
+
+	static class RecordingWriter implements WriteBehindBuffer.Writer {
+
+		List<DBObject> documents = new ArrayList<DBObject>();
+		int batches;
+		boolean fail;
+		Runnable onWrite;
+
+		public void write(String collectionName, List<DBObject> documents) {
+
+			if (onWrite != null) {
+				onWrite.run();
+			}
+
+			if (fail) {
+				throw new IllegalStateException("Failure!");
+			}
+
+			this.batches++;
+			this.documents.addAll(documents);
+		}
+	}
+}
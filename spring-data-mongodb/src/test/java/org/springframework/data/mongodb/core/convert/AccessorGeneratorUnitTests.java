@@ -0,0 +1,108 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link AccessorGenerator}.
+ */
+public class AccessorGeneratorUnitTests {
+
+	AccessorGenerator generator;
+
+	@Before
+	public void setUp() {
+		generator = new AccessorGenerator(PublicSample.class);
+	}
+
+	@Test
+	public void generatesFieldAccessors() throws Exception {
+
+		PublicSample sample = new PublicSample(0);
+
+		AccessorGenerator.Setter setter = generator.generateSetter(PublicSample.class.getField("name"));
+		setter.set(sample, "Dave");
+
+		AccessorGenerator.Getter getter = generator.generateGetter(PublicSample.class.getField("name"));
+
+		assertThat(sample.name, is("Dave"));
+		assertThat(getter.get(sample), is((Object) "Dave"));
+	}
+
+	@Test
+	public void generatesMethodAccessorsForPrimitives() throws Exception {
+
+		PublicSample sample = new PublicSample(0);
+
+		AccessorGenerator.Setter setter = generator.generateSetter(PublicSample.class.getMethod("setAge", int.class));
+		setter.set(sample, 42);
+
+		AccessorGenerator.Getter getter = generator.generateGetter(PublicSample.class.getMethod("getAge"));
+
+		assertThat(sample.setterCalled, is(true));
+		assertThat(getter.get(sample), is((Object) 42));
+	}
+
+	@Test
+	public void generatesInstantiator() throws Exception {
+
+		AccessorGenerator.Instantiator instantiator = generator.generateInstantiator(PublicSample.class
+				.getConstructor(int.class));
+
+		Object result = instantiator.newInstance(new Object[] { 42 });
+
+		assertThat(result, is(instanceOf(PublicSample.class)));
+		assertThat(((PublicSample) result).getAge(), is(42));
+	}
+
+	@Test
+	public void doesNotGenerateAccessorsForInaccessibleMembers() throws Exception {
+
+		assertThat(generator.generateGetter(PublicSample.class.getDeclaredField("age")), is(nullValue()));
+		assertThat(generator.generateSetter(PublicSample.class.getField("id")), is(nullValue()));
+		assertThat(generator.generateInstantiator(PackageSample.class.getDeclaredConstructor()), is(nullValue()));
+	}
+
+	public static class PublicSample {
+
+		public final String id = "4711";
+		public String name;
+		private int age;
+		boolean setterCalled;
+
+		public PublicSample(int age) {
+			this.age = age;
+		}
+
+		public int getAge() {
+			return age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+			this.setterCalled = true;
+		}
+	}
+
+	static class PackageSample {
+
+	}
+}
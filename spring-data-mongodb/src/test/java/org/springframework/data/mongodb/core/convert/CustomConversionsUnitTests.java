@@ -47,6 +47,22 @@ public class CustomConversionsUnitTests {
 		assertThat(conversions.hasCustomReadTarget(String.class, Long.class), is(true));
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void returnsSameResultsForRepeatedLookups() {
+
+		CustomConversions conversions = new CustomConversions(Arrays.asList(UuidToStringConverter.INSTANCE,
+				StringToUUIDConverter.INSTANCE));
+
+		for (int i = 0; i < 2; i++) {
+			assertThat(conversions.getCustomWriteTarget(UUID.class, null), is(typeCompatibleWith(String.class)));
+			assertThat(conversions.getCustomWriteTarget(UUID.class, String.class), is(typeCompatibleWith(String.class)));
+			assertThat(conversions.getCustomWriteTarget(UUID.class, Long.class), is(nullValue()));
+			assertThat(conversions.hasCustomReadTarget(String.class, UUID.class), is(true));
+			assertThat(conversions.hasCustomReadTarget(String.class, Locale.class), is(false));
+		}
+	}
+
 	@Test
 	public void considersTypesWeRegisteredConvertersForAsSimple() {
 
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.DBRef;
+
+/**
+ * Unit tests for {@link DBRefResolver} and the batched {@link DBRef} resolution of {@link MappingMongoConverter}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DBRefResolverUnitTests {
+
+	@Mock
+	DB db;
+	@Mock
+	DBCollection collection;
+	@Mock
+	DBCursor cursor;
+	@Mock
+	MongoDbFactory factory;
+
+	@Before
+	public void setUp() {
+
+		when(db.getName()).thenReturn("database");
+		when(db.getCollection("item")).thenReturn(collection);
+		when(collection.find(any(DBObject.class))).thenReturn(cursor);
+		when(cursor.hasNext()).thenReturn(true, true, false);
+		when(cursor.next()).thenReturn(new BasicDBObject("_id", 1).append("name", "foo"),
+				new BasicDBObject("_id", 2).append("name", "bar"));
+	}
+
+	@Test
+	public void fetchesReferencesOfCollectionWithSingleQuery() {
+
+		DBRefResolver resolver = new DBRefResolver();
+		List<DBObject> documents = resolver.fetch(Arrays.asList(reference(1), reference(2), reference(1)),
+				Collections.<DBObject> nCopies(3, null));
+
+		ArgumentCaptor<DBObject> query = ArgumentCaptor.forClass(DBObject.class);
+		verify(collection, times(1)).find(query.capture());
+
+		DBObject in = (DBObject) query.getValue().get("_id");
+		assertThat(in.get("$in"), is((Object) Arrays.asList(1, 2)));
+
+		assertThat(documents.size(), is(3));
+		assertThat(documents.get(0).get("name"), is((Object) "foo"));
+		assertThat(documents.get(1).get("name"), is((Object) "bar"));
+		assertThat(documents.get(2), is(nullValue()));
+		assertThat(resolver.getQueryCount(), is(1));
+	}
+
+	@Test
+	public void doesNotFetchKnownReferencesAgain() {
+
+		DBRefResolver resolver = new DBRefResolver();
+		resolver.fetch(Arrays.asList(reference(1), reference(2)), Collections.<DBObject> nCopies(2, null));
+
+		List<DBObject> documents = resolver.fetch(Arrays.asList(reference(1)), Collections.<DBObject> nCopies(1, null));
+
+		assertThat(documents.get(0), is(nullValue()));
+		assertThat(resolver.getDocument(reference(2), null).get("name"), is((Object) "bar"));
+		verify(collection, times(1)).find(any(DBObject.class));
+	}
+
+	@Test
+	public void fetchesProjectedDocumentsSeparately() {
+
+		DBObject fields = new BasicDBObject("name", 1);
+		when(collection.find(any(DBObject.class), eq(fields))).thenReturn(cursor);
+
+		DBRefResolver resolver = new DBRefResolver();
+		resolver.fetch(Arrays.asList(reference(1), reference(1)), Arrays.asList(fields, null));
+
+		verify(collection, times(1)).find(any(DBObject.class), eq(fields));
+		verify(collection, times(1)).find(any(DBObject.class));
+	}
+
+	@Test
+	public void usesCompleteDocumentForProjectedReference() {
+
+		DBRefResolver resolver = new DBRefResolver();
+		resolver.fetch(Arrays.asList(reference(1)), Collections.<DBObject> nCopies(1, null));
+
+		DBObject fields = new BasicDBObject("name", 1);
+		List<DBObject> documents = resolver.fetch(Arrays.asList(reference(1)), Arrays.asList(fields));
+
+		assertThat(documents.get(0), is(nullValue()));
+		assertThat(resolver.getDocument(reference(1), fields).get("name"), is((Object) "foo"));
+		verify(collection, never()).find(any(DBObject.class), any(DBObject.class));
+		assertThat(resolver.getQueryCount(), is(1));
+	}
+
+	@Test
+	public void keepsInstancesPerReferenceAndType() {
+
+		DBRefResolver resolver = new DBRefResolver();
+		Item item = new Item();
+
+		resolver.putInstance(reference(1), null, Item.class, item);
+
+		assertThat(resolver.getInstance(reference(1), null, Item.class), is((Object) item));
+		assertThat(resolver.getInstance(reference(1), null, Object.class), is(nullValue()));
+		assertThat(resolver.getInstance(reference(2), null, Item.class), is(nullValue()));
+		assertThat(resolver.getInstance(reference(1), new BasicDBObject("name", 1), Item.class), is(nullValue()));
+	}
+
+	@Test
+	public void onlyKeepsDocumentsOfCurrentPage() {
+
+		DBRefResolver resolver = new DBRefResolver();
+		DBObject first = new BasicDBObject("_id", 1);
+		DBObject second = new BasicDBObject("_id", 2);
+
+		assertThat(resolver.startPage(Arrays.asList(first)), is(true));
+		assertThat(resolver.startPage(Collections.singleton(first)), is(false));
+		assertThat(resolver.startPage(Arrays.asList(second)), is(true));
+		assertThat(resolver.startPage(Collections.singleton(first)), is(true));
+	}
+
+	@Test
+	public void converterDeterminesWhetherEntitiesCanReachReferences() {
+
+		MappingMongoConverter converter = createConverter();
+		MongoMappingContext context = (MongoMappingContext) converter.getMappingContext();
+
+		assertThat(converter.canReachReferences(context.getPersistentEntity(Item.class)), is(false));
+		assertThat(converter.canReachReferences(context.getPersistentEntity(Node.class)), is(false));
+		assertThat(converter.canReachReferences(context.getPersistentEntity(LazyCatalog.class)), is(false));
+		assertThat(converter.canReachReferences(context.getPersistentEntity(Order.class)), is(true));
+		assertThat(converter.canReachReferences(context.getPersistentEntity(Customer.class)), is(true));
+		assertThat(converter.canReachReferences(context.getPersistentEntity(Wrapper.class)), is(true));
+	}
+
+	@Test
+	public void converterResolvesReferencesInBatchesToSameInstances() {
+
+		MappingMongoConverter converter = createConverter();
+
+		BasicDBList items = new BasicDBList();
+		items.add(reference(1));
+		items.add(reference(2));
+		items.add(reference(1));
+
+		Order order = converter.read(Order.class, new BasicDBObject("items", items).append("first", reference(1)));
+
+		verify(collection, times(1)).find(any(DBObject.class));
+
+		assertThat(order.items.size(), is(3));
+		assertThat(order.items.get(0).name, is("foo"));
+		assertThat(order.items.get(1).name, is("bar"));
+		assertThat(order.items.get(2), is(sameInstance(order.items.get(0))));
+		assertThat(order.first, is(sameInstance(order.items.get(0))));
+	}
+
+	@Test
+	public void converterFetchesConfiguredFieldsOfReferencedDocuments() {
+
+		when(collection.find(any(DBObject.class), any(DBObject.class))).thenReturn(cursor);
+
+		MappingMongoConverter converter = createConverter();
+		Catalog catalog = converter.read(Catalog.class, new BasicDBObject("featured", reference(1)));
+
+		ArgumentCaptor<DBObject> fields = ArgumentCaptor.forClass(DBObject.class);
+		verify(collection, times(1)).find(any(DBObject.class), fields.capture());
+		verify(collection, never()).find(any(DBObject.class));
+
+		assertThat(fields.getValue().keySet().toArray(), is(new Object[] { "name", "_class" }));
+		assertThat(catalog.featured.name, is("foo"));
+	}
+
+	@Test
+	public void converterFetchesLazyReferencesOnFirstAccess() {
+
+		BasicDBList items = new BasicDBList();
+		items.add(reference(1));
+		items.add(reference(2));
+
+		MappingMongoConverter converter = createConverter();
+		Catalog catalog = converter.read(Catalog.class, new BasicDBObject("items", items));
+
+		verify(collection, never()).find(any(DBObject.class));
+		assertThat(catalog.items, is(instanceOf(LazyLoadingProxy.class)));
+		assertThat(((LazyLoadingProxy) catalog.items).isResolved(), is(false));
+
+		assertThat(catalog.items.size(), is(2));
+		assertThat(catalog.items.get(1).name, is("bar"));
+		verify(collection, times(1)).find(any(DBObject.class));
+	}
+
+	@Test
+	public void writesLazyReferencesNotAccessedWithoutFetchingThem() {
+
+		BasicDBList items = new BasicDBList();
+		items.add(reference(1));
+
+		MappingMongoConverter converter = createConverter();
+		LazyCatalog catalog = converter.read(LazyCatalog.class, new BasicDBObject("items", items));
+
+		DBObject written = new BasicDBObject();
+		converter.write(catalog, written);
+
+		assertThat(written.get("items"), is(sameInstance((Object) items)));
+		verify(collection, never()).find(any(DBObject.class));
+	}
+
+	private MappingMongoConverter createConverter() {
+
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.afterPropertiesSet();
+
+		MappingMongoConverter converter = new MappingMongoConverter(factory, mappingContext);
+		converter.afterPropertiesSet();
+
+		return converter;
+	}
+
+	private DBRef reference(Object id) {
+		return new DBRef(db, "item", id);
+	}
+
+	static class Order {
+
+		@org.springframework.data.mongodb.core.mapping.DBRef
+		List<Item> items;
+		@org.springframework.data.mongodb.core.mapping.DBRef
+		Item first;
+	}
+
+	static class Catalog {
+
+		@org.springframework.data.mongodb.core.mapping.DBRef(lazy = true)
+		List<Item> items;
+		@org.springframework.data.mongodb.core.mapping.DBRef(fields = "name")
+		Item featured;
+	}
+
+	static class LazyCatalog {
+
+		@org.springframework.data.mongodb.core.mapping.DBRef(lazy = true)
+		List<Item> items;
+	}
+
+	static class Customer {
+
+		Map<String, List<Order>> orders;
+	}
+
+	static class Wrapper {
+
+		Object value;
+	}
+
+	static class Node {
+
+		Node next;
+		List<Item> items;
+	}
+
+	static class Item {
+
+		@Id
+		Integer id;
+		String name;
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.ConversionServiceFactory;
+import org.springframework.data.mapping.PreferredConstructor;
+import org.springframework.data.mapping.model.MappingException;
+import org.springframework.data.mapping.model.ParameterValueProvider;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+
+/**
+ * Unit tests for {@link EntityAccessor}.
+ */
+public class EntityAccessorUnitTests {
+
+	MongoMappingContext context;
+	ConversionService conversionService;
+
+	@Before
+	public void setUp() {
+		context = new MongoMappingContext();
+		conversionService = ConversionServiceFactory.createDefaultConversionService();
+	}
+
+	@Test
+	public void instantiatesTypeWithDefaultConstructorWithoutProvider() {
+
+		EntityAccessor accessor = new EntityAccessor(context.getPersistentEntity(Sample.class));
+
+		assertThat(accessor.hasConstructorParameters(), is(false));
+		assertThat(accessor.newInstance(null), is(instanceOf(Sample.class)));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void passesProvidedValuesToPreferredConstructor() {
+
+		EntityAccessor accessor = new EntityAccessor(context.getPersistentEntity(Immutable.class));
+		ParameterValueProvider provider = mock(ParameterValueProvider.class);
+		when(provider.getParameterValue((PreferredConstructor.Parameter<Object>) anyObject())).thenReturn("Dave");
+
+		Object result = accessor.newInstance(provider);
+
+		assertThat(accessor.hasConstructorParameters(), is(true));
+		assertThat(((Immutable) result).name, is("Dave"));
+	}
+
+	@Test
+	public void usesSetterUnlessFieldAccessOnly() {
+
+		MongoPersistentEntity<?> entity = context.getPersistentEntity(Sample.class);
+		EntityAccessor accessor = new EntityAccessor(entity);
+		Sample sample = new Sample();
+
+		accessor.setProperty(sample, entity.getPersistentProperty("name"), "Dave", false, conversionService);
+		assertThat(sample.name, is("Dave"));
+		assertThat(sample.setterCalled, is(true));
+
+		sample.setterCalled = false;
+		accessor.setProperty(sample, entity.getPersistentProperty("name"), "Oliver", true, conversionService);
+		assertThat(sample.name, is("Oliver"));
+		assertThat(sample.setterCalled, is(false));
+
+		assertThat(accessor.getProperty(sample, entity.getPersistentProperty("name"), true), is((Object) "Oliver"));
+	}
+
+	@Test
+	public void convertsValueToPropertyType() {
+
+		MongoPersistentEntity<?> entity = context.getPersistentEntity(Sample.class);
+		EntityAccessor accessor = new EntityAccessor(entity);
+		Sample sample = new Sample();
+
+		accessor.setProperty(sample, entity.getPersistentProperty("age"), "42", true, conversionService);
+		assertThat(sample.age, is(42));
+	}
+
+	@Test
+	public void accessesPublicMembersOfPublicTypes() {
+
+		MongoPersistentEntity<?> entity = context.getPersistentEntity(PublicSample.class);
+		EntityAccessor accessor = new EntityAccessor(entity);
+
+		PublicSample sample = (PublicSample) accessor.newInstance(null);
+
+		accessor.setProperty(sample, entity.getPersistentProperty("age"), "42", false, conversionService);
+		accessor.setProperty(sample, entity.getPersistentProperty("name"), "Dave", true, conversionService);
+
+		assertThat(sample.getAge(), is(42));
+		assertThat(accessor.getProperty(sample, entity.getPersistentProperty("age"), false), is((Object) 42));
+		assertThat(accessor.getProperty(sample, entity.getPersistentProperty("name"), true), is((Object) "Dave"));
+	}
+
+	@Test
+	public void fallsBackToReflectionForNullPrimitive() {
+
+		MongoPersistentEntity<?> entity = context.getPersistentEntity(PublicSample.class);
+		EntityAccessor accessor = new EntityAccessor(entity);
+		PublicSample sample = new PublicSample();
+
+		try {
+			accessor.setProperty(sample, entity.getPersistentProperty("age"), null, false, conversionService);
+			fail("Expected MappingException!");
+		} catch (MappingException e) {
+			assertThat(sample.getAge(), is(0));
+		}
+	}
+
+	static class Sample {
+
+		String name;
+		int age;
+		boolean setterCalled;
+
+		public void setName(String name) {
+			this.name = name;
+			this.setterCalled = true;
+		}
+
+		public String getName() {
+			return name;
+		}
+	}
+
+	public static class PublicSample {
+
+		public String name;
+		private int age;
+
+		public int getAge() {
+			return age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+	}
+
+	static class Immutable {
+
+		final String name;
+
+		public Immutable(String name) {
+			this.name = name;
+		}
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.bson.BSON;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBDecoder;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBDecoder;
+
+/**
+ * Unit tests for {@link EntityDocumentDecoder}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class EntityDocumentDecoderUnitTests {
+
+	MappingMongoConverter converter;
+	@Mock
+	MongoDbFactory factory;
+
+	@Before
+	public void setUp() {
+
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.afterPropertiesSet();
+
+		converter = new MappingMongoConverter(factory, mappingContext);
+		converter.afterPropertiesSet();
+	}
+
+	@Test
+	public void skipsUnmappedFields() {
+
+		EntityDocumentDecoder decoder = new EntityDocumentDecoder(fieldNames("_id", "_class", "name"), "_class", "Foo");
+
+		DBObject source = new BasicDBObject("_id", 1).append("_class", "Foo").append("name", "Dave")
+				.append("payload", new BasicDBObject("values", Arrays.asList(1, 2))).append("other", "foo");
+
+		DBObject result = decoder.decode(BSON.encode(source), null);
+
+		assertThat(result.keySet().toArray(), is(new Object[] { "_id", "_class", "name" }));
+		assertThat(result.get("name"), is((Object) "Dave"));
+	}
+
+	@Test
+	public void skipsValuesOfAllTypes() {
+
+		EntityDocumentDecoder decoder = new EntityDocumentDecoder(fieldNames("name"), null, null);
+
+		DBObject source = new BasicDBObject("double", 1.5).append("string", "foo").append("binary",
+				new Binary(new byte[] { 1, 2, 3 })).append("date", new Date()).append("null", null).append("regex",
+				Pattern.compile("^foo")).append("long", 4711L).append("int", 42).append("boolean", true).append("id",
+				new ObjectId()).append("array", Arrays.asList("a", "b")).append("name", "Dave");
+
+		DBObject result = decoder.decode(BSON.encode(source), null);
+
+		assertThat(result.keySet().toArray(), is(new Object[] { "name" }));
+		assertThat(result.get("name"), is((Object) "Dave"));
+	}
+
+	@Test
+	public void returnsDocumentAsIsIfAllFieldsAreRetained() {
+
+		EntityDocumentDecoder decoder = new EntityDocumentDecoder(fieldNames("_id", "name"), null, null);
+		byte[] document = BSON.encode(new BasicDBObject("_id", 1).append("name", "Dave"));
+
+		assertThat(decoder.trim(document), is(sameInstance(document)));
+	}
+
+	@Test
+	public void trimsInterleavedFieldsIntoDocumentOfExactSize() {
+
+		EntityDocumentDecoder decoder = new EntityDocumentDecoder(fieldNames("a", "c", "d"), null, null);
+
+		DBObject source = new BasicDBObject("skipped", 0).append("a", 1).append("b", 2).append("c", "foo")
+				.append("d", 4.5).append("e", "bar");
+		byte[] trimmed = decoder.trim(BSON.encode(source));
+
+		assertThat(trimmed, is(BSON.encode(new BasicDBObject("a", 1).append("c", "foo").append("d", 4.5))));
+	}
+
+	@Test
+	public void decodesDocumentWithForeignTypeHintInFull() {
+
+		EntityDocumentDecoder decoder = new EntityDocumentDecoder(fieldNames("_class", "name"), "_class", "Foo");
+
+		DBObject source = new BasicDBObject("_class", "Bar").append("name", "Dave").append("other", "foo");
+
+		DBObject result = decoder.decode(BSON.encode(source), null);
+
+		assertThat(result.keySet().toArray(), is(new Object[] { "_class", "name", "other" }));
+	}
+
+	@Test
+	public void decodesFromInputStream() throws Exception {
+
+		EntityDocumentDecoder decoder = new EntityDocumentDecoder(fieldNames("name"), null, null);
+
+		DBObject source = new BasicDBObject("other", "foo").append("name", "Dave");
+		DBObject result = decoder.decode(new ByteArrayInputStream(BSON.encode(source)), null);
+
+		assertThat(result.keySet().toArray(), is(new Object[] { "name" }));
+	}
+
+	@Test
+	public void readsEntityFromTrimmedDocument() {
+
+		Person person = new Person();
+		person.id = new ObjectId().toString();
+		person.firstname = "Dave";
+
+		DBObject source = new BasicDBObject();
+		converter.write(person, source);
+		source.put("unmapped", new BasicDBObject("foo", "bar"));
+
+		DBDecoder decoder = converter.getDecoderFactory(Person.class).create();
+		DBObject result = decoder.decode(BSON.encode(source), null);
+
+		assertThat(result.containsField("unmapped"), is(false));
+		assertThat(result.containsField("_class"), is(true));
+
+		Person read = converter.read(Person.class, result);
+		assertThat(read.id, is(person.id));
+		assertThat(read.firstname, is("Dave"));
+	}
+
+	@Test
+	public void usesDefaultDecodingForEntitiesUsingExpressions() {
+		assertThat(converter.getDecoderFactory(WithExpression.class), is(sameInstance(DefaultDBDecoder.FACTORY)));
+	}
+
+	@Test
+	public void cachesDecoderFactories() {
+		assertThat(converter.getDecoderFactory(Person.class), is(sameInstance(converter.getDecoderFactory(Person.class))));
+	}
+
+	private static Set<String> fieldNames(String... names) {
+		return new HashSet<String>(Arrays.asList(names));
+	}
+
+	static class Person {
+
+		@Id
+		String id;
+		@Field("fn")
+		String firstname;
+	}
+
+	static class WithExpression {
+
+		@Value("#root.foo")
+		String foo;
+	}
+}
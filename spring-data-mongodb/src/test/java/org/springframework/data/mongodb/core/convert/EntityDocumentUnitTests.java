@@ -0,0 +1,204 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.bson.BSONObject;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBEncoder;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBEncoder;
+
+/**
+ * Unit tests for {@link EntityDocument} and {@link EntityDocumentEncoder}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class EntityDocumentUnitTests {
+
+	MappingMongoConverter converter;
+	@Mock
+	MongoDbFactory factory;
+
+	@Before
+	public void setUp() {
+
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.afterPropertiesSet();
+
+		converter = new MappingMongoConverter(factory, mappingContext);
+		converter.afterPropertiesSet();
+	}
+
+	@Test
+	public void containsSameFieldsAsWrittenDocument() {
+
+		Order order = createOrder();
+
+		DBObject written = new BasicDBObject();
+		converter.write(order, written);
+
+		DBObject document = converter.createEntityDocument(order);
+
+		assertThat(document.keySet(), is(written.keySet()));
+		assertThat(document.toString(), is(written.toString()));
+	}
+
+	@Test
+	public void encodesSameBytesAsWrittenDocument() {
+
+		Order order = createOrder();
+
+		DBObject written = new BasicDBObject();
+		converter.write(order, written);
+
+		assertThat(encode(converter.createEntityDocument(order), EntityDocumentEncoder.FACTORY.create()),
+				is(encode(written, DefaultDBEncoder.FACTORY.create())));
+	}
+
+	@Test
+	public void skipsPropertiesWithoutValue() {
+
+		Order order = new Order();
+		order.customer = "Dave";
+
+		DBObject document = converter.createEntityDocument(order);
+
+		assertThat(document.containsField("c"), is(true));
+		assertThat(document.containsField("status"), is(false));
+		assertThat(document.keySet(), not(hasItem("item")));
+		assertThat(document.get("status"), is(nullValue()));
+	}
+
+	@Test
+	public void fieldsPutTakePrecedenceOverProperties() {
+
+		Order order = new Order();
+		order.customer = "Dave";
+
+		DBObject document = converter.createEntityDocument(order);
+		document.put("_id", new ObjectId());
+		document.put("c", "Oliver");
+
+		assertThat(document.get("_id"), is(ObjectId.class));
+		assertThat(document.get("c"), is((Object) "Oliver"));
+		assertThat(encode(document, EntityDocumentEncoder.FACTORY.create()),
+				is(encode(new BasicDBObject(document.toMap()), DefaultDBEncoder.FACTORY.create())));
+	}
+
+	@Test
+	public void convertsPropertiesOnlyOnceIfInspectedBeforeEncoding() {
+
+		MappingMongoConverter converter = spy(this.converter);
+		Order order = new Order();
+		order.customer = "Dave";
+		order.status = Status.OPEN;
+
+		DBObject document = converter.createEntityDocument(order);
+
+		for (String key : document.keySet()) {
+			document.get(key);
+		}
+		encode(document, EntityDocumentEncoder.FACTORY.create());
+
+		verify(converter, times(2)).getWriteValue(anyObject(), any(EntityPlan.PropertyPlan.class));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void rejectsRemovingProperties() {
+
+		Order order = new Order();
+		order.customer = "Dave";
+
+		converter.createEntityDocument(order).removeField("c");
+	}
+
+	@Test
+	public void writesMapsIntoBasicDBObject() {
+
+		DBObject document = converter.createEntityDocument(Collections.singletonMap("foo", "bar"));
+
+		assertThat(document, is(BasicDBObject.class));
+		assertThat(document.get("foo"), is((Object) "bar"));
+	}
+
+	private static Order createOrder() {
+
+		Order order = new Order();
+		order.id = new ObjectId().toString();
+		order.customer = "Dave";
+		order.status = Status.OPEN;
+		order.item = new SpecialLineItem();
+		order.item.sku = "4711";
+		order.item.quantity = 2;
+		order.items = Arrays.asList(new LineItem(), new SpecialLineItem());
+
+		return order;
+	}
+
+	private static byte[] encode(BSONObject object, DBEncoder encoder) {
+
+		BasicOutputBuffer buffer = new BasicOutputBuffer();
+		encoder.writeObject(buffer, object);
+		return buffer.toByteArray();
+	}
+
+	static class Order {
+
+		@Id
+		String id;
+		@Field("c")
+		String customer;
+		Status status;
+		LineItem item;
+		List<LineItem> items;
+	}
+
+	static class LineItem {
+
+		String sku;
+		int quantity;
+	}
+
+	static class SpecialLineItem extends LineItem {
+
+		boolean gift = true;
+	}
+
+	enum Status {
+		OPEN;
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.convert.EntityPlan.PropertyPlan;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+/**
+ * Unit tests for {@link EntityPlan}.
+ */
+public class EntityPlanUnitTests {
+
+	MongoMappingContext context;
+	SpelExpressionParser parser = new SpelExpressionParser();
+
+	@Before
+	public void setUp() {
+		context = new MongoMappingContext();
+	}
+
+	@Test
+	public void detectsIdProperty() {
+
+		EntityPlan plan = new EntityPlan(context.getPersistentEntity(Sample.class), new CustomConversions(), parser);
+
+		assertThat(plan.getIdProperty(), is(notNullValue()));
+		assertThat(plan.getIdProperty().getFieldName(), is("_id"));
+		assertThat(getProperties(plan).get("id"), is(plan.getIdProperty()));
+	}
+
+	@Test
+	public void marksConstructorArgumentsNotBoundToExpressions() {
+
+		Map<String, PropertyPlan> properties = getProperties(new EntityPlan(context.getPersistentEntity(Sample.class),
+				new CustomConversions(), parser));
+
+		assertThat(properties.get("name").isConstructorArgument(), is(true));
+		assertThat(properties.get("nickname").isConstructorArgument(), is(false));
+		assertThat(properties.get("tags").isConstructorArgument(), is(false));
+	}
+
+	@Test
+	public void onlyConsidersFinalSimpleTypesSimple() {
+
+		Map<String, PropertyPlan> properties = getProperties(new EntityPlan(context.getPersistentEntity(Sample.class),
+				new CustomConversions(), parser));
+
+		assertThat(properties.get("name").isSimple(), is(true));
+		assertThat(properties.get("age").isSimple(), is(true));
+		assertThat(properties.get("value").isSimple(), is(false));
+		assertThat(properties.get("tags").isSimple(), is(false));
+	}
+
+	@Test
+	public void resolvesCustomWriteTargetOfSimpleProperties() {
+
+		CustomConversions conversions = new CustomConversions(Arrays.asList(IntegerToStringConverter.INSTANCE));
+		Map<String, PropertyPlan> properties = getProperties(new EntityPlan(context.getPersistentEntity(Sample.class),
+				conversions, parser));
+
+		assertThat(properties.get("age").getCustomWriteTarget(), is((Object) String.class));
+		assertThat(properties.get("name").getCustomWriteTarget(), is(nullValue()));
+	}
+
+	@Test
+	public void parsesExpressionsOnce() {
+
+		EntityPlan plan = new EntityPlan(context.getPersistentEntity(Sample.class), new CustomConversions(), parser);
+
+		assertThat(plan.usesExpressions(), is(true));
+		assertThat(plan.getParameterExpression("#root.nick"), is(notNullValue()));
+		assertThat(getProperties(plan).get("name").getExpression(), is(nullValue()));
+	}
+
+	@Test
+	public void detectsEntitiesWithoutExpressions() {
+
+		EntityPlan plan = new EntityPlan(context.getPersistentEntity(Plain.class), new CustomConversions(), parser);
+		assertThat(plan.usesExpressions(), is(false));
+	}
+
+	private static Map<String, PropertyPlan> getProperties(EntityPlan plan) {
+
+		Map<String, PropertyPlan> result = new HashMap<String, PropertyPlan>();
+
+		for (PropertyPlan property : plan.getProperties()) {
+			result.put(property.getProperty().getName(), property);
+		}
+
+		return result;
+	}
+
+	static class Sample {
+
+		@Id
+		String id;
+		String name;
+		String nickname;
+		int age;
+		Object value;
+		List<String> tags;
+
+		public Sample(String name, @Value("#root.nick") String nickname) {
+			this.name = name;
+			this.nickname = nickname;
+		}
+	}
+
+	static class Plain {
+		String name;
+	}
+
+	enum IntegerToStringConverter implements Converter<Integer, String> {
+
+		INSTANCE;
+
+		public String convert(Integer source) {
+			return source.toString();
+		}
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.springframework.data.mongodb.core.convert.LazyLoadingInterceptor.ValueResolver;
+
+/**
+ * Unit tests for {@link LazyLoadingInterceptor}.
+ */
+public class LazyLoadingInterceptorUnitTests {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsClassTypes() {
+		LazyLoadingInterceptor.createProxy(ArrayList.class, new CountingResolver());
+	}
+
+	@Test
+	public void resolvesOnFirstInvocation() {
+
+		CountingResolver resolver = new CountingResolver();
+		List<?> proxy = (List<?>) LazyLoadingInterceptor.createProxy(List.class, resolver);
+
+		assertThat(((LazyLoadingProxy) proxy).isResolved(), is(false));
+		assertThat(resolver.invocations.get(), is(0));
+
+		assertThat(proxy.size(), is(2));
+		assertThat(proxy.get(0), is((Object) "foo"));
+		assertThat(((LazyLoadingProxy) proxy).isResolved(), is(true));
+		assertThat(resolver.invocations.get(), is(1));
+	}
+
+	@Test
+	public void exposesSourceUntilResolved() {
+
+		CountingResolver resolver = new CountingResolver();
+		List<?> proxy = (List<?>) LazyLoadingInterceptor.createProxy(List.class, resolver);
+
+		assertThat(LazyLoadingInterceptor.getUnresolvedSource(proxy), is((Object) "source"));
+
+		proxy.size();
+
+		assertThat(LazyLoadingInterceptor.getUnresolvedSource(proxy), is(nullValue()));
+		assertThat(LazyLoadingInterceptor.getUnresolvedSource(new ArrayList<Object>()), is(nullValue()));
+	}
+
+	@Test
+	public void delegatesObjectMethodsToTarget() {
+
+		List<?> proxy = (List<?>) LazyLoadingInterceptor.createProxy(List.class, new CountingResolver());
+
+		assertThat(proxy.equals(Arrays.asList("foo", "bar")), is(true));
+		assertThat(proxy.hashCode(), is(Arrays.asList("foo", "bar").hashCode()));
+		assertThat(proxy.toString(), is("[foo, bar]"));
+	}
+
+	@Test
+	public void resolvesExactlyOnceForConcurrentAccess() throws Exception {
+
+		final CountingResolver resolver = new CountingResolver();
+		final List<?> proxy = (List<?>) LazyLoadingInterceptor.createProxy(List.class, resolver);
+		final CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<Thread>();
+
+		for (int i = 0; i < 8; i++) {
+			Thread thread = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						proxy.size();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			};
+			thread.start();
+			threads.add(thread);
+		}
+
+		start.countDown();
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertThat(resolver.invocations.get(), is(1));
+	}
+
+	static class CountingResolver implements ValueResolver {
+
+		final AtomicInteger invocations = new AtomicInteger();
+
+		public Object resolve() {
+			invocations.incrementAndGet();
+			return Arrays.asList("foo", "bar");
+		}
+
+		public Object getSource() {
+			return "source";
+		}
+	}
+}
@@ -40,13 +40,16 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.PersistenceConstructor;
+import org.springframework.data.mapping.model.MappingException;
 import org.springframework.data.mongodb.MongoDbFactory;
 import org.springframework.data.mongodb.core.convert.CustomConversions;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
 import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.LazyLoad;
 import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
 import org.springframework.data.mongodb.core.mapping.PersonPojoStringId;
 
@@ -940,6 +943,102 @@ public class MappingMongoConverterUnitTests {
 		List<Map<String, Locale>> listOfMaps;
 	}
 
+	@Test
+	public void evaluatesExpressionsAgainstDocumentFields() {
+
+		DBObject dbObject = new BasicDBObject("name", "dave").append("nick", "davy");
+		ClassWithExpressions result = converter.read(ClassWithExpressions.class, dbObject);
+
+		assertThat(result.name, is("DAVE"));
+		assertThat(result.nickname, is("davy"));
+	}
+
+	static class ClassWithExpressions {
+
+		@Value("#name.toUpperCase()")
+		String name;
+		String nickname;
+
+		public ClassWithExpressions(@Value("#nick") String nickname) {
+			this.nickname = nickname;
+		}
+	}
+
+	@Test
+	public void convertsLazyLoadPropertiesOnFirstAccess() {
+
+		BasicDBList addresses = new BasicDBList();
+		addresses.add(new BasicDBObject("name", "New York"));
+		addresses.add(new BasicDBObject("name", "London"));
+
+		DBObject dbObject = new BasicDBObject("addresses", addresses).append("tags", new BasicDBObject("foo", "bar"));
+		ClassWithLazyProperties result = converter.read(ClassWithLazyProperties.class, dbObject);
+
+		assertThat(result.addresses, is(LazyLoadingProxy.class));
+		assertThat(((LazyLoadingProxy) result.addresses).isResolved(), is(false));
+
+		assertThat(result.addresses.size(), is(2));
+		assertThat(result.addresses.get(1).name, is("London"));
+		assertThat(((LazyLoadingProxy) result.addresses).isResolved(), is(true));
+		assertThat(result.tags.get("foo"), is("bar"));
+
+		DBObject written = new BasicDBObject();
+		converter.write(result, written);
+
+		assertThat(written.get("addresses"), is(BasicDBList.class));
+		assertThat(((BasicDBList) written.get("addresses")).size(), is(2));
+	}
+
+	@Test
+	public void writesRawValueOfLazyLoadPropertyNotAccessed() {
+
+		BasicDBList addresses = new BasicDBList();
+		addresses.add(new BasicDBObject("name", "New York"));
+
+		ClassWithLazyProperties result = converter.read(ClassWithLazyProperties.class, new BasicDBObject("addresses",
+				addresses));
+
+		DBObject written = new BasicDBObject();
+		converter.write(result, written);
+
+		assertThat(written.get("addresses"), is(sameInstance((Object) addresses)));
+		assertThat(((LazyLoadingProxy) result.addresses).isResolved(), is(false));
+	}
+
+	@Test(expected = MappingException.class)
+	public void rejectsLazyLoadOnPropertyOfClassType() {
+		converter.read(ClassWithLazyArrayList.class, new BasicDBObject("addresses", new BasicDBList()));
+	}
+
+	@Test(expected = MappingException.class)
+	public void rejectsLazyReferenceOnPropertyOfClassType() {
+		converter.write(new ClassWithLazyReferenceToClass(), new BasicDBObject());
+	}
+
+	static class ClassWithLazyArrayList {
+
+		@LazyLoad
+		ArrayList<City> addresses;
+	}
+
+	static class ClassWithLazyReferenceToClass {
+
+		@org.springframework.data.mongodb.core.mapping.DBRef(lazy = true)
+		City city;
+	}
+
+	static class ClassWithLazyProperties {
+
+		@LazyLoad
+		List<City> addresses;
+		@LazyLoad
+		Map<String, String> tags;
+	}
+
+	static class City {
+		String name;
+	}
+
 	class LocaleWrapper {
 		Locale locale;
 	}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.convert;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+import org.springframework.data.mapping.model.MappingException;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.TypeAlias;
+import org.springframework.data.util.ClassTypeInformation;
+import org.springframework.data.util.TypeInformation;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link TypeAliasTypeInformationMapper}.
+ */
+public class TypeAliasTypeInformationMapperUnitTests {
+
+	@Test
+	public void writesAliasForAnnotatedType() {
+
+		TypeAliasTypeInformationMapper mapper = new TypeAliasTypeInformationMapper();
+		assertThat(mapper.createAliasFor(ClassTypeInformation.from(Aliased.class)), is((Object) "aliased"));
+	}
+
+	@Test
+	public void writesNoAliasForTypeWithoutAnnotation() {
+
+		TypeAliasTypeInformationMapper mapper = new TypeAliasTypeInformationMapper();
+		assertThat(mapper.createAliasFor(ClassTypeInformation.from(NotAliased.class)), is(nullValue()));
+	}
+
+	@Test
+	public void resolvesAliasesOfEntitiesKnownToMappingContext() {
+
+		MongoMappingContext context = new MongoMappingContext();
+		context.setInitialEntitySet(new HashSet<Class<?>>(Arrays.asList(Aliased.class)));
+		context.afterPropertiesSet();
+
+		TypeAliasTypeInformationMapper mapper = new TypeAliasTypeInformationMapper(context);
+		TypeInformation<?> type = mapper.resolveTypeFrom("aliased");
+
+		assertThat(type, is(notNullValue()));
+		assertThat(type.getType(), is(typeCompatibleWith(Aliased.class)));
+	}
+
+	@Test
+	public void resolvesAliasesOfEntitiesAddedToMappingContextLater() {
+
+		MongoMappingContext context = new MongoMappingContext();
+		TypeAliasTypeInformationMapper mapper = new TypeAliasTypeInformationMapper(context);
+
+		assertThat(mapper.resolveTypeFrom("aliased"), is(nullValue()));
+
+		context.getPersistentEntity(Aliased.class);
+		assertThat(mapper.resolveTypeFrom("aliased").getType(), is(typeCompatibleWith(Aliased.class)));
+	}
+
+	@Test
+	public void resolvesClassNames() {
+
+		TypeAliasTypeInformationMapper mapper = new TypeAliasTypeInformationMapper();
+
+		assertThat(mapper.resolveTypeFrom(NotAliased.class.getName()).getType(), is(typeCompatibleWith(NotAliased.class)));
+		assertThat(mapper.resolveTypeFrom("com.acme.Unknown"), is(nullValue()));
+		assertThat(mapper.resolveTypeFrom(4711), is(nullValue()));
+	}
+
+	@Test(expected = MappingException.class)
+	public void rejectsDuplicateAliases() {
+
+		TypeAliasTypeInformationMapper mapper = new TypeAliasTypeInformationMapper();
+
+		mapper.createAliasFor(ClassTypeInformation.from(Aliased.class));
+		mapper.createAliasFor(ClassTypeInformation.from(Duplicate.class));
+	}
+
+	@Test
+	public void defaultMongoTypeMapperWritesAliasAndReadsItBack() {
+
+		MongoMappingContext context = new MongoMappingContext();
+		DefaultMongoTypeMapper typeMapper = new DefaultMongoTypeMapper(DefaultMongoTypeMapper.DEFAULT_TYPE_KEY, context);
+
+		DBObject dbObject = new BasicDBObject();
+		typeMapper.writeType(Aliased.class, dbObject);
+		assertThat(dbObject.get(DefaultMongoTypeMapper.DEFAULT_TYPE_KEY), is((Object) "aliased"));
+
+		typeMapper.writeType(NotAliased.class, dbObject);
+		assertThat(dbObject.get(DefaultMongoTypeMapper.DEFAULT_TYPE_KEY), is((Object) NotAliased.class.getName()));
+
+		dbObject.put(DefaultMongoTypeMapper.DEFAULT_TYPE_KEY, "aliased");
+		assertThat(typeMapper.readType(dbObject).getType(), is(typeCompatibleWith(Aliased.class)));
+	}
+
+	@TypeAlias("aliased")
+	static class Aliased {
+
+	}
+
+	@TypeAlias("aliased")
+	static class Duplicate {
+
+	}
+
+	static class NotAliased {
+
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.mapping.event;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.mapping.event.AsyncMappingEventDispatcher.OverflowPolicy;
+import org.springframework.data.mongodb.repository.Person;
+
+import com.mongodb.BasicDBObject;
+
+/**
+ * Unit tests for {@link AsyncMappingEventDispatcher}.
+ */
+public class AsyncMappingEventDispatcherUnitTests {
+
+	AsyncMappingEventDispatcher dispatcher;
+
+	@After
+	public void tearDown() {
+		if (dispatcher != null) {
+			dispatcher.destroy();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsZeroLanes() {
+		new AsyncMappingEventDispatcher(0, 10, OverflowPolicy.BLOCK);
+	}
+
+	@Test
+	public void publishesBeforeEventsSynchronously() {
+
+		dispatcher = new AsyncMappingEventDispatcher();
+		RecordingPublisher publisher = new RecordingPublisher();
+
+		dispatcher.dispatch(new BeforeSaveEvent<Person>(new Person("Dave", "Matthews"), new BasicDBObject()), publisher);
+
+		assertThat(publisher.events.size(), is(1));
+		assertThat(publisher.threads.get(0), is(Thread.currentThread()));
+	}
+
+	@Test
+	public void publishesAfterEventsInOrderPerDocument() throws Exception {
+
+		dispatcher = new AsyncMappingEventDispatcher(4, 1000, OverflowPolicy.BLOCK);
+		RecordingPublisher publisher = new RecordingPublisher();
+		Person person = new Person("Dave", "Matthews");
+
+		List<ApplicationEvent> expected = new ArrayList<ApplicationEvent>();
+
+		for (int i = 0; i < 100; i++) {
+			AfterSaveEvent<Person> event = new AfterSaveEvent<Person>(person, new BasicDBObject("_id", 4711).append("i", i));
+			expected.add(event);
+			dispatcher.dispatch(event, publisher);
+		}
+
+		dispatcher.destroy();
+
+		assertThat(publisher.events, is(expected));
+		assertThat(publisher.threads.contains(Thread.currentThread()), is(false));
+		assertThat(dispatcher.getDispatchedCount(), is(100L));
+	}
+
+	@Test
+	public void dropsEventsIfFull() throws Exception {
+
+		dispatcher = new AsyncMappingEventDispatcher(1, 1, OverflowPolicy.DROP);
+		BlockingPublisher publisher = new BlockingPublisher();
+
+		dispatcher.dispatch(new AfterLoadEvent<Person>(new BasicDBObject(), Person.class), publisher);
+		assertThat(publisher.started.await(1, TimeUnit.SECONDS), is(true));
+
+		dispatcher.dispatch(new AfterLoadEvent<Person>(new BasicDBObject(), Person.class), publisher);
+
+		assertThat(dispatcher.getDroppedCount(), is(1L));
+		assertThat(dispatcher.getPendingCount(), is(1));
+
+		publisher.release.countDown();
+	}
+
+	@Test
+	public void publishesEventsEmittedByListenerOnFullLaneSynchronously() throws Exception {
+
+		dispatcher = new AsyncMappingEventDispatcher(1, 1, OverflowPolicy.BLOCK);
+
+		final RecordingPublisher nested = new RecordingPublisher();
+		final CountDownLatch done = new CountDownLatch(1);
+		final AfterSaveEvent<Person> nestedEvent = new AfterSaveEvent<Person>(new Person("Oliver", "Gierke"),
+				new BasicDBObject("_id", 2));
+
+		dispatcher.dispatch(new AfterSaveEvent<Person>(new Person("Dave", "Matthews"), new BasicDBObject("_id", 1)),
+				new ApplicationEventPublisher() {
+					public void publishEvent(ApplicationEvent event) {
+						dispatcher.dispatch(nestedEvent, nested);
+						done.countDown();
+					}
+				});
+
+		assertThat(done.await(1, TimeUnit.SECONDS), is(true));
+		assertThat(nested.events.size(), is(1));
+		assertThat(nested.threads.get(0).getName().startsWith("mongo-mapping-events-"), is(true));
+	}
+
+	@Test
+	public void survivesFailingListener() {
+
+		dispatcher = new AsyncMappingEventDispatcher(1, 10, OverflowPolicy.BLOCK);
+
+		dispatcher.dispatch(new AfterConvertEvent<Person>(new BasicDBObject(), new Person("Dave", "Matthews")),
+				new ApplicationEventPublisher() {
+					public void publishEvent(ApplicationEvent event) {
+						throw new IllegalStateException();
+					}
+				});
+
+		dispatcher.destroy();
+
+		assertThat(dispatcher.getFailedCount(), is(1L));
+		assertThat(dispatcher.getPendingCount(), is(0));
+	}
+
+	@Test
+	public void publishesSynchronouslyAfterDestroy() {
+
+		dispatcher = new AsyncMappingEventDispatcher();
+		dispatcher.destroy();
+
+		RecordingPublisher publisher = new RecordingPublisher();
+		dispatcher.dispatch(new AfterSaveEvent<Person>(new Person("Dave", "Matthews"), new BasicDBObject()), publisher);
+
+		assertThat(publisher.events.size(), is(1));
+		assertThat(publisher.threads.get(0), is(Thread.currentThread()));
+	}
+
+	static class RecordingPublisher implements ApplicationEventPublisher {
+
+		final List<ApplicationEvent> events = Collections.synchronizedList(new ArrayList<ApplicationEvent>());
+		final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+
+		public void publishEvent(ApplicationEvent event) {
+			events.add(event);
+			threads.add(Thread.currentThread());
+		}
+	}
+
+	static class BlockingPublisher implements ApplicationEventPublisher {
+
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		public void publishEvent(ApplicationEvent event) {
+
+			started.countDown();
+
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.mapping.event;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.data.mongodb.core.mapping.PersonPojoStringId;
+import org.springframework.data.mongodb.repository.Contact;
+import org.springframework.data.mongodb.repository.Person;
+
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link MappingEventInterestRegistry}.
+ */
+public class MappingEventInterestRegistryUnitTests {
+
+	@Test
+	public void registryWithoutContextConsidersNoEventInteresting() {
+
+		MappingEventInterestRegistry registry = new MappingEventInterestRegistry();
+
+		assertThat(registry.hasInterest(BeforeConvertEvent.class, Person.class), is(false));
+		assertThat(registry.hasInterest(AfterLoadEvent.class, Object.class), is(false));
+	}
+
+	@Test
+	public void considersAllEventsInterestingBeforeContextRefresh() {
+
+		MappingEventInterestRegistry registry = new MappingEventInterestRegistry(new GenericApplicationContext());
+		assertThat(registry.hasInterest(AfterSaveEvent.class, Person.class), is(true));
+	}
+
+	@Test
+	public void derivesInterestFromRefreshedContext() {
+
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.getBeanFactory().registerSingleton("listener", new AfterSavePersonListener());
+
+		MappingEventInterestRegistry registry = new MappingEventInterestRegistry(context);
+		context.addApplicationListener(registry);
+		context.refresh();
+
+		assertThat(registry.hasInterest(AfterSaveEvent.class, Person.class), is(true));
+		assertThat(registry.hasInterest(AfterSaveEvent.class, Contact.class), is(false));
+		assertThat(registry.hasInterest(BeforeConvertEvent.class, Person.class), is(false));
+	}
+
+	@Test
+	public void ignoresRefreshOfOtherContext() {
+
+		GenericApplicationContext context = new GenericApplicationContext();
+		MappingEventInterestRegistry registry = new MappingEventInterestRegistry(context);
+
+		GenericApplicationContext other = new GenericApplicationContext();
+		other.addApplicationListener(registry);
+		other.refresh();
+
+		assertThat(registry.hasInterest(AfterSaveEvent.class, Person.class), is(true));
+	}
+
+	@Test
+	public void onlyConsidersOverriddenCallbacksForDomainType() {
+
+		MappingEventInterestRegistry.Interest interest = createInterest(AfterSavePersonListener.class);
+
+		assertThat(interest.hasInterest(AfterSaveEvent.class, Person.class), is(true));
+		assertThat(interest.hasInterest(AfterSaveEvent.class, Contact.class), is(false));
+		assertThat(interest.hasInterest(BeforeSaveEvent.class, Person.class), is(false));
+		assertThat(interest.hasInterest(AfterLoadEvent.class, Person.class), is(false));
+	}
+
+	@Test
+	public void considersLoggingListenerInterestedInEverything() {
+
+		MappingEventInterestRegistry.Interest interest = createInterest(LoggingEventListener.class);
+
+		assertThat(interest.hasInterest(BeforeConvertEvent.class, Contact.class), is(true));
+		assertThat(interest.hasInterest(AfterConvertEvent.class, Person.class), is(true));
+	}
+
+	@Test
+	public void considersPlainApplicationListenerForAcceptedEventTypeOnly() {
+
+		MappingEventInterestRegistry.Interest interest = createInterest(PersonBeforeSaveListener.class);
+
+		assertThat(interest.hasInterest(BeforeSaveEvent.class, PersonPojoStringId.class), is(true));
+		assertThat(interest.hasInterest(AfterSaveEvent.class, PersonPojoStringId.class), is(false));
+	}
+
+	@Test
+	public void ignoresUnrelatedListeners() {
+
+		MappingEventInterestRegistry.Interest interest = createInterest(MappingEventInterestRegistry.class);
+
+		assertThat(interest.hasInterest(BeforeConvertEvent.class, Object.class), is(false));
+		assertThat(interest.hasInterest(MongoMappingEvent.class, Object.class), is(false));
+	}
+
+	private static MappingEventInterestRegistry.Interest createInterest(Class<?>... listenerTypes) {
+		return MappingEventInterestRegistry.createInterest(Arrays.asList(listenerTypes));
+	}
+
+	static class AfterSavePersonListener extends AbstractMongoEventListener<Person> {
+
+		@Override
+		public void onAfterSave(Person source, DBObject dbo) {
+		}
+	}
+}
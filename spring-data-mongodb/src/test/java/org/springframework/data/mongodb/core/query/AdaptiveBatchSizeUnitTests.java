@@ -0,0 +1,68 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.query;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link AdaptiveBatchSize}.
+ */
+public class AdaptiveBatchSizeUnitTests {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsMaximumLessThanMinimum() {
+		new AdaptiveBatchSize(10, 10, 5, 1024, 100);
+	}
+
+	@Test
+	public void limitsInitialBatchSizeToBounds() {
+		assertThat(new AdaptiveBatchSize(5000, 2, 1000, 1024, 100).getCurrentBatchSize(), is(1000));
+	}
+
+	@Test
+	public void growsAtMostByFactorOfTwo() {
+
+		AdaptiveBatchSize batchSize = new AdaptiveBatchSize(10, 2, 1000, 1024 * 1024, 100);
+
+		assertThat(batchSize.adapt(100, 10), is(20));
+		assertThat(batchSize.adapt(100, 10), is(40));
+		assertThat(batchSize.getCurrentBatchSize(), is(40));
+	}
+
+	@Test
+	public void shrinksToTargetBytesForLargeDocuments() {
+
+		AdaptiveBatchSize batchSize = new AdaptiveBatchSize(100, 2, 1000, 10000, 100);
+		assertThat(batchSize.adapt(1000, 10), is(10));
+	}
+
+	@Test
+	public void halvesBatchSizeIfGetMoreIsTooSlow() {
+
+		AdaptiveBatchSize batchSize = new AdaptiveBatchSize(100, 2, 1000, 1024 * 1024, 100);
+		assertThat(batchSize.adapt(100, 250), is(50));
+	}
+
+	@Test
+	public void neverDropsBelowMinimum() {
+
+		AdaptiveBatchSize batchSize = new AdaptiveBatchSize(4, 3, 1000, 1024, 100);
+		assertThat(batchSize.adapt(100000, 250), is(3));
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.query;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.springframework.data.mongodb.core.query.Criteria.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+import org.springframework.data.mongodb.InvalidMongoDbApiUsageException;
+import org.springframework.data.mongodb.repository.KeysetPageRequest;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link Keyset}.
+ */
+public class KeysetUnitTests {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNullId() {
+		new Keyset(null);
+	}
+
+	@Test
+	public void usesIdRangeOnlyIfUnsorted() {
+
+		DBObject criteria = Keyset.after(4711).getCriteriaObject(null);
+
+		assertThat(criteria, is((DBObject) new BasicDBObject("_id", new BasicDBObject("$gt", 4711))));
+	}
+
+	@Test
+	public void appendsIdTiebreakToSort() {
+
+		DBObject sort = Keyset.after(4711).getSortObject(new BasicDBObject("lastname", -1));
+
+		assertThat(sort.keySet().toArray(), is(new Object[] { "lastname", "_id" }));
+		assertThat(sort.get("_id"), is((Object) 1));
+	}
+
+	@Test
+	public void keepsExistingIdSortDirection() {
+
+		DBObject sort = Keyset.after(4711).getSortObject(new BasicDBObject("_id", -1));
+		assertThat(sort.get("_id"), is((Object) (-1)));
+
+		DBObject criteria = Keyset.after(4711).getCriteriaObject(sort);
+		assertThat(criteria, is((DBObject) new BasicDBObject("_id", new BasicDBObject("$lt", 4711))));
+	}
+
+	@Test
+	public void createsCompoundTiebreakPredicate() {
+
+		DBObject sort = new BasicDBObject("lastname", 1).append("age", -1);
+		DBObject criteria = Keyset.after(4711).and("lastname", "Matthews").and("age", 30).getCriteriaObject(sort);
+
+		BasicDBList clauses = (BasicDBList) criteria.get("$or");
+		assertThat(clauses.size(), is(3));
+
+		assertThat((DBObject) clauses.get(0), is((DBObject) new BasicDBObject("lastname", new BasicDBObject("$gt",
+				"Matthews"))));
+		assertThat((DBObject) clauses.get(1), is((DBObject) new BasicDBObject("lastname", "Matthews").append("age",
+				new BasicDBObject("$lt", 30))));
+		assertThat((DBObject) clauses.get(2), is((DBObject) new BasicDBObject("lastname", "Matthews").append("age", 30)
+				.append("_id", new BasicDBObject("$gt", 4711))));
+	}
+
+	@Test(expected = InvalidMongoDbApiUsageException.class)
+	public void rejectsMissingSortKeyValue() {
+		Keyset.after(4711).getCriteriaObject(new BasicDBObject("lastname", 1));
+	}
+
+	@Test
+	public void fallsBackToAndIfQueryAlreadyContainsOr() {
+
+		DBObject query = new BasicDBObject("$or", new BasicDBList());
+		DBObject result = Keyset.after(4711).and("lastname", "Matthews").applyTo(query, new BasicDBObject("lastname", 1));
+
+		assertThat(result.keySet().size(), is(1));
+		assertThat(result.get("$and"), is(notNullValue()));
+	}
+
+	@Test
+	public void queryAppliesKeysetAndTiebreak() {
+
+		Query query = new Query(where("firstname").is("Dave")).after(Keyset.after(4711));
+
+		assertThat(query.getSortObject(), is((DBObject) new BasicDBObject("_id", 1)));
+		assertThat(query.getQueryObject(), is((DBObject) new BasicDBObject("firstname", "Dave").append("_id",
+				new BasicDBObject("$gt", 4711))));
+	}
+
+	@Test
+	public void basicQueryAppliesKeysetWithoutModifyingQueryObject() {
+
+		DBObject queryObject = new BasicDBObject("firstname", "Dave");
+		BasicQuery query = new BasicQuery(queryObject);
+		query.setSortObject(new BasicDBObject("_id", -1));
+		query.after(Keyset.after(4711));
+
+		assertThat(query.getSortObject(), is((DBObject) new BasicDBObject("_id", -1)));
+		assertThat(query.getQueryObject().get("_id"), is((Object) new BasicDBObject("$lt", 4711)));
+		assertThat(queryObject.containsField("_id"), is(false));
+	}
+
+	@Test
+	public void keysetPageRequestKeepsKeysetWhenSerialized() throws Exception {
+
+		KeysetPageRequest request = new KeysetPageRequest(1, 10, null, Keyset.after(4711).and("lastname", "Matthews"));
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(request);
+		out.close();
+
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		Keyset keyset = ((KeysetPageRequest) in.readObject()).getKeyset();
+
+		assertThat(keyset, is(notNullValue()));
+		assertThat(keyset.getId(), is((Object) 4711));
+		assertThat(keyset.getValues().get("lastname"), is((Object) "Matthews"));
+	}
+}
@@ -35,6 +35,7 @@ import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
 import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
 import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
 
+import com.mongodb.BasicDBList;
 import com.mongodb.BasicDBObject;
 import com.mongodb.DBObject;
 
@@ -127,6 +128,23 @@ public class QueryMapperUnitTests {
 		assertThat(object, is(String.class));
 	}
 	
+	@Test
+	public void convertsIdsInRangeOperatorsOfKeysetPredicate() {
+
+		ObjectId id = new ObjectId();
+		Query query = query(where("name").is("Dave")).after(Keyset.after(id.toString()).and("age", 30));
+		query.sort().on("age", Order.ASCENDING);
+
+		DBObject result = mapper.getMappedObject(query.getQueryObject(), context.getPersistentEntity(Sample.class));
+
+		assertThat(result.get("name"), is((Object) "Dave"));
+		BasicDBList clauses = (BasicDBList) result.get("$or");
+		assertThat(clauses.size(), is(2));
+
+		DBObject idClause = (DBObject) ((DBObject) clauses.get(1)).get("_id");
+		assertThat(idClause.get("$gt"), is((Object) id));
+	}
+
 	class Sample {
 		
 		@Id
@@ -39,6 +39,7 @@ import org.springframework.data.mongodb.core.geo.GeoResults;
 import org.springframework.data.mongodb.core.geo.Metrics;
 import org.springframework.data.mongodb.core.geo.Point;
 import org.springframework.data.mongodb.core.geo.Polygon;
+import org.springframework.data.mongodb.core.query.Keyset;
 import org.springframework.data.mongodb.repository.Person.Sex;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
@@ -111,6 +112,31 @@ public abstract class AbstractPersonRepositoryIntegrationTests {
 		assertThat(result, not(hasItem(dave)));
 	}
 
+	@Test
+	public void deletesMultiplePersonsAtOnce() {
+
+		repository.delete(Arrays.asList(dave, carter));
+
+		List<Person> result = repository.findAll();
+
+		assertThat(result.size(), is(all.size() - 2));
+		assertThat(result, not(hasItem(dave)));
+		assertThat(result, not(hasItem(carter)));
+	}
+
+	@Test
+	public void savesNewAndExistingPersonsAtOnce() {
+
+		dave.setFirstname("David");
+		Person jeff = new Person("Jeff", "Coffin", 44);
+
+		List<Person> result = repository.save(Arrays.asList(dave, jeff));
+
+		assertThat(result, hasItems(dave, jeff));
+		assertThat(repository.count(), is(all.size() + 1L));
+		assertThat(repository.findOne(dave.getId()).getFirstname(), is("David"));
+	}
+
 	@Test
 	public void findsPersonsByLastname() throws Exception {
 
@@ -145,6 +171,59 @@ public abstract class AbstractPersonRepositoryIntegrationTests {
 		assertThat(result, hasItems(dave, stefan));
 	}
 
+	@Test
+	public void readsProjectionOfPersons() throws Exception {
+
+		List<PersonSummary> result = repository.findSummariesByLastname("Matthews");
+		assertThat(result.size(), is(2));
+
+		for (PersonSummary summary : result) {
+			assertThat(summary.getLastname(), is("Matthews"));
+			assertThat(summary.getFirstname(), is(anyOf(equalTo("Dave"), equalTo("Oliver August"))));
+		}
+	}
+
+	@Test
+	public void findsSlicedPersons() throws Exception {
+
+		Slice<Person> slice = repository.findSlice(new PageRequest(1, 2, Direction.ASC, "lastname", "firstname"));
+		assertThat(slice.isFirstPage(), is(false));
+		assertThat(slice.hasNextPage(), is(true));
+		assertThat(slice.getContent(), hasItems(dave, stefan));
+		assertThat(slice.getNumberOfElements(), is(2));
+
+		slice = repository.findSlice(new PageRequest(3, 2, Direction.ASC, "lastname", "firstname"));
+		assertThat(slice.isLastPage(), is(true));
+		assertThat(slice.getContent(), hasItems(boyd));
+		assertThat(slice.getNumberOfElements(), is(1));
+	}
+
+	@Test
+	public void findsKeysetPagedPersons() throws Exception {
+
+		KeysetPageRequest firstPage = new KeysetPageRequest(2, new Sort(Direction.ASC, "lastname", "firstname"));
+		Page<Person> result = repository.findAll(firstPage);
+		assertThat(result.isFirstPage(), is(true));
+		assertThat(result.getContent(), is(Arrays.asList(carter, alicia)));
+
+		Keyset keyset = Keyset.after(alicia.getId()).and("lastname", "Keys").and("firstname", "Alicia");
+		result = repository.findAll(firstPage.next(keyset));
+		assertThat(result.isFirstPage(), is(false));
+		assertThat(result.getContent(), is(Arrays.asList(stefan, dave)));
+	}
+
+	@Test
+	public void executesKeysetPagedFinderCorrectly() throws Exception {
+
+		KeysetPageRequest firstPage = new KeysetPageRequest(1, new Sort(Direction.ASC, "lastname", "firstname"));
+		Page<Person> page = repository.findByLastnameLike("*a*", firstPage);
+		assertThat(page.getContent(), is(Arrays.asList(carter)));
+
+		Keyset keyset = Keyset.after(carter.getId()).and("lastname", "Beauford").and("firstname", "Carter");
+		page = repository.findByLastnameLike("*a*", firstPage.next(keyset));
+		assertThat(page.getContent(), is(Arrays.asList(stefan)));
+	}
+
 	@Test
 	public void executesPagedFinderCorrectly() throws Exception {
 
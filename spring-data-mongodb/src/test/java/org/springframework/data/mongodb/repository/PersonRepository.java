@@ -148,4 +148,12 @@ public interface PersonRepository extends MongoRepository<Person, String>, Query
 	List<Person> findByNamedQuery(String firstname);
 	
 	GeoResults<Person> findByLocationNear(Point point, Distance maxDistance);
+
+	/**
+	 * Returns a {@link PersonSummary} projection of all {@link Person}s with the given lastname.
+	 * 
+	 * @param lastname
+	 * @return
+	 */
+	List<PersonSummary> findSummariesByLastname(String lastname);
 }
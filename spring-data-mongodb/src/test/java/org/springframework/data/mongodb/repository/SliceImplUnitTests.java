@@ -0,0 +1,69 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.repository;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Unit tests for {@link SliceImpl}.
+ */
+public class SliceImplUnitTests {
+
+	@Test
+	public void dropsAdditionalElementAndDetectsNextSlice() {
+
+		Slice<String> slice = new SliceImpl<String>(Arrays.asList("a", "b", "c"), new PageRequest(0, 2));
+
+		assertThat(slice.getContent(), is(Arrays.asList("a", "b")));
+		assertThat(slice.getNumberOfElements(), is(2));
+		assertThat(slice.hasNextPage(), is(true));
+		assertThat(slice.isFirstPage(), is(true));
+		assertThat(slice.isLastPage(), is(false));
+	}
+
+	@Test
+	public void detectsLastSlice() {
+
+		Slice<String> slice = new SliceImpl<String>(Arrays.asList("a"), new PageRequest(1, 2));
+
+		assertThat(slice.getNumber(), is(1));
+		assertThat(slice.getSize(), is(2));
+		assertThat(slice.hasNextPage(), is(false));
+		assertThat(slice.hasPreviousPage(), is(true));
+		assertThat(slice.isLastPage(), is(true));
+	}
+
+	@Test
+	public void emptySliceHasNoContent() {
+
+		Slice<String> slice = new SliceImpl<String>(Collections.<String> emptyList(), new PageRequest(0, 2));
+
+		assertThat(slice.hasContent(), is(false));
+		assertThat(slice.iterator().hasNext(), is(false));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void exposesUnmodifiableContent() {
+		new SliceImpl<String>(Arrays.asList("a"), null, false).getContent().add("b");
+	}
+}
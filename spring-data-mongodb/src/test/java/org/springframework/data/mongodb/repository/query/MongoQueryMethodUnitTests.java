@@ -120,6 +120,26 @@ public class MongoQueryMethodUnitTests {
 		return new MongoQueryMethod(method, new DefaultRepositoryMetadata(PersonRepository.class), creator);
 	}
 
+	@Test
+	public void detectsProjectingQueryMethod() throws Exception {
+
+		MongoQueryMethod queryMethod = new MongoQueryMethod(SampleRepository.class.getMethod("method"),
+				new DefaultRepositoryMetadata(SampleRepository.class), creator);
+
+		assertThat(queryMethod.isProjecting(), is(true));
+		assertThat(queryMethod.getQueryDomainClass(), is(typeCompatibleWith(Contact.class)));
+	}
+
+	@Test
+	public void doesNotConsiderSubtypeResultsProjections() throws Exception {
+
+		MongoQueryMethod queryMethod = new MongoQueryMethod(SampleRepository2.class.getMethod("method"),
+				new DefaultRepositoryMetadata(SampleRepository2.class), creator);
+
+		assertThat(queryMethod.isProjecting(), is(false));
+		assertThat(queryMethod.getQueryDomainClass(), is(typeCompatibleWith(Person.class)));
+	}
+
 	interface PersonRepository extends Repository<User, Long> {
 
 		// Misses Pageable
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.repository.support;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.Person;
+import org.springframework.data.mongodb.repository.query.MongoEntityInformation;
+
+/**
+ * Unit tests for {@link SimpleMongoRepository}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SimpleMongoRepositoryUnitTests {
+
+	@Mock
+	MongoOperations operations;
+
+	@Mock
+	BulkOperations bulkOperations;
+
+	@Mock
+	MongoEntityInformation<Person, String> information;
+
+	SimpleMongoRepository<Person, String> repository;
+
+	@Before
+	public void setUp() {
+
+		when(information.getJavaType()).thenReturn(Person.class);
+		when(information.getCollectionName()).thenReturn("person");
+		when(information.getIdAttribute()).thenReturn("id");
+		when(information.getId(any(Person.class))).thenAnswer(new Answer<String>() {
+			public String answer(InvocationOnMock invocation) throws Throwable {
+				return ((Person) invocation.getArguments()[0]).getId();
+			}
+		});
+		when(operations.bulkOps(Person.class, "person")).thenReturn(bulkOperations);
+
+		repository = new SimpleMongoRepository<Person, String>(information, operations);
+	}
+
+	@Test
+	public void insertsNewEntitiesInBatchAndSavesExistingOnesInBulk() {
+
+		Person dave = new Person("Dave", "Matthews");
+		Person oliver = new Person("Oliver", "Matthews");
+		Person carter = new Person("Carter", "Beauford");
+
+		when(information.isNew(dave)).thenReturn(true);
+		when(information.isNew(carter)).thenReturn(true);
+
+		List<Person> result = repository.save(Arrays.asList(dave, oliver, carter));
+
+		assertThat(result, is(Arrays.asList(dave, oliver, carter)));
+		verify(operations).insert(Arrays.asList(dave, carter), "person");
+		verify(bulkOperations).save(oliver);
+		verify(bulkOperations).execute();
+		verify(operations, never()).save(anyObject(), any(String.class));
+	}
+
+	@Test
+	public void doesNotUseBulkOperationsForNewEntitiesOnly() {
+
+		Person dave = new Person("Dave", "Matthews");
+		when(information.isNew(dave)).thenReturn(true);
+
+		repository.save(Arrays.asList(dave));
+
+		verify(operations).insert(Arrays.asList(dave), "person");
+		verify(operations, never()).bulkOps(Person.class, "person");
+	}
+
+	@Test
+	public void removesEntitiesInChunks() {
+
+		List<Person> persons = new ArrayList<Person>();
+		for (int i = 0; i < 2500; i++) {
+			persons.add(new Person("Dave", "Matthews"));
+		}
+
+		repository.delete(persons);
+
+		verify(operations, times(3)).remove(any(Query.class), eq(Person.class));
+		verify(operations, never()).bulkOps(Person.class, "person");
+	}
+
+	@Test(expected = DuplicateKeyException.class)
+	public void propagatesExceptionOfBulkSave() {
+
+		Person dave = new Person("Dave", "Matthews");
+		when(bulkOperations.execute()).thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+		repository.save(Arrays.asList(dave));
+	}
+
+	@Test
+	public void doesNotRemoveAnythingForEmptyEntities() {
+
+		repository.delete(new ArrayList<Person>());
+
+		verify(operations, never()).remove(any(Query.class), any(Class.class));
+	}
+}